@@ -15,6 +15,9 @@ import java.util.function.Supplier;
 public abstract class AbstractCommentedConfig extends AbstractConfig implements CommentedConfig {
 	protected final Map<String, String> commentMap;
 
+	/** The view returned by {@link #entrySet()}, created once. */
+	private Set<? extends CommentedConfig.Entry> commentedEntrySet;
+
 	@Deprecated
 	public AbstractCommentedConfig(boolean concurrent) {
 		super(concurrent);
@@ -170,7 +173,12 @@ public abstract class AbstractCommentedConfig extends AbstractConfig implements
 
 	@Override
 	public Set<? extends CommentedConfig.Entry> entrySet() {
-		return new TransformingSet<>(map.entrySet(), CommentedEntryWrapper::new, o -> null, o -> o);
+		Set<? extends CommentedConfig.Entry> view = commentedEntrySet;
+		if (view == null) {
+			view = new TransformingSet<>(map.entrySet(), CommentedEntryWrapper::new, o -> null, o -> o);
+			commentedEntrySet = view;
+		}
+		return view;
 	}
 
 	/**
@@ -22,6 +22,9 @@ public abstract class AbstractConfig implements Config, Cloneable {
 
 	protected final Map<String, Object> map;
 
+	/** The view returned by {@link #entrySet()}, created once. */
+	private Set<? extends Entry> entrySet;
+
 	/**
 	 * Creates a new AbstractConfig backed by a new {@link Map}.
 	 */
@@ -217,9 +220,14 @@ public abstract class AbstractConfig implements Config, Cloneable {
 
 	@Override
 	public Set<? extends Entry> entrySet() {
-		return new TransformingSet<>(map.entrySet(), EntryWrapper::new, o -> null, o -> o);
-		/* the writeTransformation is not important because we can't write to the set anyway,
-		   since it's a generic Set<? extends Entry> */
+		Set<? extends Entry> view = entrySet;
+		if (view == null) {
+			view = new TransformingSet<>(map.entrySet(), EntryWrapper::new, o -> null, o -> o);
+			/* the writeTransformation is not important because we can't write to the set anyway,
+			   since it's a generic Set<? extends Entry> */
+			entrySet = view;
+		}
+		return view;
 	}
 
 	/**
@@ -3,6 +3,7 @@ package com.electronwill.nightconfig.core;
 import com.electronwill.nightconfig.core.utils.CommentedConfigWrapper;
 import com.electronwill.nightconfig.core.utils.TransformingMap;
 import com.electronwill.nightconfig.core.utils.TransformingSet;
+import com.electronwill.nightconfig.core.utils.ViewCache;
 
 import java.util.List;
 import java.util.Map;
@@ -16,6 +17,21 @@ import java.util.Set;
  * @author TheElectronWill
  */
 class CheckedCommentedConfig extends CommentedConfigWrapper<CommentedConfig> {
+	private final ConfigFormat<?> format;
+	/**
+	 * The type of the last supported value, to check the values of the same type faster. This
+	 * assumes that {@link ConfigFormat#supportsType(Class)} only depends on the class, which is
+	 * the case of the formats of NightConfig: a format whose answer changes over time, or depends
+	 * on something else than the class, could let an unsupported value of this type through.
+	 */
+	private Class<?> lastSupportedType;
+
+	// the views are cached to avoid creating wrappers for each read
+	private final ViewCache<Map<String, Object>, Map<String, Object>> valueMapCache =
+			new ViewCache<>(map -> new TransformingMap<>(map, v -> v, this::checkedValue, o -> o));
+	private final ViewCache<Set<CommentedConfig.Entry>, Set<CommentedConfig.Entry>> entrySetCache =
+			new ViewCache<>(set -> new TransformingSet<>(set, v -> v, this::checkedValue, o -> o));
+
 	/**
 	 * Creates a new CheckedConfig around a commented configuration.
 	 * <p>
@@ -25,6 +41,7 @@ class CheckedCommentedConfig extends CommentedConfigWrapper<CommentedConfig> {
 	 */
 	CheckedCommentedConfig(CommentedConfig config) {
 		super(config);
+		this.format = config.configFormat();
 		config.valueMap().forEach((k, v) -> checkValue(v));
 		//The config might already contain some elements and we must be sure that they are all supported
 
@@ -47,13 +64,13 @@ class CheckedCommentedConfig extends CommentedConfigWrapper<CommentedConfig> {
 
 	@Override
 	public Map<String, Object> valueMap() {
-		return new TransformingMap<>(super.valueMap(), v -> v, this::checkedValue, o -> o);
+		return valueMapCache.get(super.valueMap());
 	}
 
 	@Override
 	@SuppressWarnings("unchecked")
 	public Set<? extends CommentedConfig.Entry> entrySet() {
-		return new TransformingSet<>((Set<CommentedConfig.Entry>)super.entrySet(), v -> v, this::checkedValue, o -> o);
+		return entrySetCache.get((Set<CommentedConfig.Entry>)super.entrySet());
 	}
 
 	@Override
@@ -66,11 +83,16 @@ class CheckedCommentedConfig extends CommentedConfigWrapper<CommentedConfig> {
 	 * isn't supported.
 	 */
 	private void checkValue(Object value) {
-		ConfigFormat<?> format = configFormat();
-		if (value != null && !format.supportsType(value.getClass())) {
-			throw new IllegalArgumentException(
-					"Unsupported value type: " + value.getClass().getTypeName());
-		} else if (value == null && !format.supportsType(null)) {
+		if (value != null) {
+			Class<?> type = value.getClass();
+			if (type != lastSupportedType) {
+				if (!format.supportsType(type)) {
+					throw new IllegalArgumentException(
+							"Unsupported value type: " + type.getTypeName());
+				}
+				lastSupportedType = type;
+			}
+		} else if (!format.supportsType(null)) {
 			throw new IllegalArgumentException(
 					"Null values aren't supported by this configuration.");
 		}
@@ -3,6 +3,7 @@ package com.electronwill.nightconfig.core;
 import com.electronwill.nightconfig.core.utils.ConfigWrapper;
 import com.electronwill.nightconfig.core.utils.TransformingMap;
 import com.electronwill.nightconfig.core.utils.TransformingSet;
+import com.electronwill.nightconfig.core.utils.ViewCache;
 
 import java.util.List;
 import java.util.Map;
@@ -16,6 +17,21 @@ import java.util.Set;
  * @author TheElectronWill
  */
 class CheckedConfig extends ConfigWrapper<Config> {
+	private final ConfigFormat<?> format;
+	/**
+	 * The type of the last supported value, to check the values of the same type faster. This
+	 * assumes that {@link ConfigFormat#supportsType(Class)} only depends on the class, which is
+	 * the case of the formats of NightConfig: a format whose answer changes over time, or depends
+	 * on something else than the class, could let an unsupported value of this type through.
+	 */
+	private Class<?> lastSupportedType;
+
+	// the views are cached to avoid creating wrappers for each read
+	private final ViewCache<Map<String, Object>, Map<String, Object>> valueMapCache =
+			new ViewCache<>(map -> new TransformingMap<>(map, v -> v, this::checkedValue, o -> o));
+	private final ViewCache<Set<Config.Entry>, Set<Config.Entry>> entrySetCache =
+			new ViewCache<>(set -> new TransformingSet<>(set, v -> v, this::checkedValue, o -> o));
+
 	/**
 	 * Creates a new CheckedConfig around a given configuration.
 	 * <p>
@@ -25,6 +41,7 @@ class CheckedConfig extends ConfigWrapper<Config> {
 	 */
 	CheckedConfig(Config config) {
 		super(config);
+		this.format = config.configFormat();
 		config.valueMap().forEach((k, v) -> checkValue(v));
 		//The config might already contain some elements and we must be sure that they are all supported
 	}
@@ -46,13 +63,13 @@ class CheckedConfig extends ConfigWrapper<Config> {
 
 	@Override
 	public Map<String, Object> valueMap() {
-		return new TransformingMap<>(super.valueMap(), v -> v, this::checkedValue, o -> o);
+		return valueMapCache.get(super.valueMap());
 	}
 
 	@Override
 	@SuppressWarnings("unchecked")
 	public Set<? extends Config.Entry> entrySet() {
-		return new TransformingSet<>((Set<Config.Entry>)super.entrySet(), v -> v, this::checkedValue, o -> o);
+		return entrySetCache.get((Set<Config.Entry>)super.entrySet());
 	}
 
 	@Override
@@ -65,11 +82,16 @@ class CheckedConfig extends ConfigWrapper<Config> {
 	 * isn't supported.
 	 */
 	private void checkValue(Object value) {
-		ConfigFormat<?> format = configFormat();
-		if (value != null && !format.supportsType(value.getClass())) {
-			throw new IllegalArgumentException(
-					"Unsupported value type: " + value.getClass().getTypeName());
-		} else if (value == null && !format.supportsType(null)) {
+		if (value != null) {
+			Class<?> type = value.getClass();
+			if (type != lastSupportedType) {
+				if (!format.supportsType(type)) {
+					throw new IllegalArgumentException(
+							"Unsupported value type: " + type.getTypeName());
+				}
+				lastSupportedType = type;
+			}
+		} else if (!format.supportsType(null)) {
 			throw new IllegalArgumentException(
 					"Null values aren't supported by this configuration.");
 		}
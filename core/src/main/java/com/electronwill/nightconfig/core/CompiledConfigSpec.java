@@ -0,0 +1,619 @@
+package com.electronwill.nightconfig.core;
+
+import com.electronwill.nightconfig.core.ConfigSpec.ClassValidator;
+import com.electronwill.nightconfig.core.ConfigSpec.CorrectionAction;
+import com.electronwill.nightconfig.core.ConfigSpec.CorrectionListener;
+import com.electronwill.nightconfig.core.ConfigSpec.RangeValidator;
+import com.electronwill.nightconfig.core.ConfigSpec.ValueSpec;
+import com.electronwill.nightconfig.core.concurrent.ConcurrentCommentedConfig;
+import com.electronwill.nightconfig.core.concurrent.ConcurrentConfig;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static com.electronwill.nightconfig.core.ConfigSpec.CorrectionAction.*;
+
+/**
+ * A compiled {@link ConfigSpec}, created by {@link ConfigSpec#compile()}. It checks and corrects
+ * the configurations like the ConfigSpec, but faster:
+ * <ul>
+ * <li>Each level of the spec is stored in arrays and in a hash table, instead of a config.
+ * <li>Each level of the config is checked in one pass, the spec entries are only iterated when
+ * some of them are missing from the config.
+ * <li>The class checks and the range checks on numbers don't use the generic validators.
+ * <li>The large independent sub-levels can be checked and corrected in parallel, on a
+ * {@link ForkJoinPool}.
+ * </ul>
+ * The corrections are the same as the ones made by the ConfigSpec, but the
+ * {@link CorrectionListener} may be notified in a different order.
+ *
+ * @author TheElectronWill
+ */
+public final class CompiledConfigSpec {
+	/** The minimum number of values in a sub-level to check it in a separate task. */
+	static final int PARALLEL_THRESHOLD = 256;
+
+	private final Level root;
+
+	/** The slots of the configs created by {@link #createConfig()}, created when needed. */
+	private volatile SpecBoundConfig.Layout layout;
+
+	CompiledConfigSpec(UnmodifiableConfig storage) {
+		this.root = new Level(storage);
+	}
+
+	/**
+	 * Checks that a configuration is conform to the specification.
+	 *
+	 * @param config the config to check
+	 * @return {@code true} if it's correct, {@code false} if it's incorrect
+	 * @see ConfigSpec#isCorrect(Config)
+	 */
+	public boolean isCorrect(UnmodifiableConfig config) {
+		return isCorrect(config, null);
+	}
+
+	/**
+	 * Checks that a configuration is conform to the specification. The large sub-levels are
+	 * checked in parallel on the given pool, unless the config is a {@link ConcurrentConfig}.
+	 *
+	 * @param config the config to check
+	 * @param pool   the pool to use, or null to check the config in the current thread
+	 * @return {@code true} if it's correct, {@code false} if it's incorrect
+	 */
+	public boolean isCorrect(UnmodifiableConfig config, ForkJoinPool pool) {
+		if (config instanceof ConcurrentConfig) {
+			return ((ConcurrentConfig)config).bulkRead(c -> {
+				return root.isCorrect(valuesOf(c), null);
+			});
+		} else if (pool == null || root.weight < PARALLEL_THRESHOLD) {
+			return root.isCorrect(valuesOf(config), null);
+		} else {
+			return pool.invoke(new CheckTask(root, valuesOf(config)));
+		}
+	}
+
+	/**
+	 * Corrects a configuration.
+	 *
+	 * @param config the config to correct
+	 * @return the number of added, removed or replaced values.
+	 * @see ConfigSpec#correct(Config)
+	 */
+	public int correct(Config config) {
+		return correct(config, (action, path, incorrectValue, correctedValue) -> {}, null);
+	}
+
+	/**
+	 * Corrects a configuration.
+	 *
+	 * @param config   the config to correct
+	 * @param listener the listener that will be notified of every change made during the
+	 *                 correction of the config.
+	 * @return the number of added, removed or replaced values.
+	 * @see ConfigSpec#correct(Config, CorrectionListener)
+	 */
+	public int correct(Config config, CorrectionListener listener) {
+		return correct(config, listener, null);
+	}
+
+	/**
+	 * Corrects a configuration. The large sub-levels are corrected in parallel on the given pool,
+	 * unless the config is a {@link ConcurrentConfig}. When the pool is used, the listener may be
+	 * called from several threads at the same time.
+	 *
+	 * @param config   the config to correct
+	 * @param listener the listener that will be notified of every change made during the
+	 *                 correction of the config.
+	 * @param pool     the pool to use, or null to correct the config in the current thread
+	 * @return the number of added, removed or replaced values.
+	 */
+	public int correct(Config config, CorrectionListener listener, ForkJoinPool pool) {
+		if (config instanceof ConcurrentConfig) {
+			return ((ConcurrentConfig)config).bulkUpdate(c -> {
+				return root.correct(valuesOf(c), new ArrayList<>(), listener, config::createSubConfig, null);
+			});
+		} else if (pool == null || root.weight < PARALLEL_THRESHOLD) {
+			return root.correct(valuesOf(config), new ArrayList<>(), listener, config::createSubConfig, null);
+		} else {
+			return pool.invoke(new CorrectTask(root, valuesOf(config), new ArrayList<>(), listener,
+											   config::createSubConfig));
+		}
+	}
+
+	/**
+	 * Corrects some entries of a configuration, and only them. For each path, the values that are
+	 * on the way are corrected, and the entry at the end of the path is corrected entirely, with
+	 * its sub-levels. This is much faster than correcting the whole configuration after a few
+	 * modifications.
+	 * <p>
+	 * An empty path corrects the whole configuration.
+	 *
+	 * @param config   the config to correct
+	 * @param paths    the paths of the entries that may be incorrect
+	 * @param listener the listener that will be notified of every change made during the
+	 *                 correction of the config.
+	 * @return the number of added, removed or replaced values.
+	 */
+	public int correct(Config config, Collection<? extends List<String>> paths,
+					   CorrectionListener listener) {
+		if (config instanceof ConcurrentConfig) {
+			return ((ConcurrentConfig)config).bulkUpdate(c -> {
+				return correct(c, paths, listener, config::createSubConfig);
+			});
+		} else {
+			return correct(config, paths, listener, config::createSubConfig);
+		}
+	}
+
+	/**
+	 * Attaches this spec to a concurrent config: the returned config corrects the entries that are
+	 * modified through it, and only them, right after each modification. The existing values are
+	 * corrected when this method is called.
+	 *
+	 * @param config   the config to correct
+	 * @param listener the listener that will be notified of every correction
+	 * @return a config that corrects its modified entries
+	 * @see SpecCorrectedConfig
+	 */
+	public ConcurrentCommentedConfig attach(ConcurrentCommentedConfig config,
+											CorrectionListener listener) {
+		return new SpecCorrectedConfig<>(config, this, listener);
+	}
+
+	/**
+	 * Creates a new empty config that stores the values defined by this spec in slots instead of
+	 * maps, see {@link SpecBoundConfig}. Its format is {@link InMemoryCommentedFormat}.
+	 * Use {@link #correct(Config)} to fill it with the default values.
+	 *
+	 * @return a new config bound to this spec
+	 */
+	public SpecBoundConfig createConfig() {
+		return createConfig(InMemoryCommentedFormat.defaultInstance());
+	}
+
+	/**
+	 * Creates a new empty config that stores the values defined by this spec in slots instead of
+	 * maps, see {@link SpecBoundConfig}. Use {@link #correct(Config)} to fill it with the default
+	 * values.
+	 *
+	 * @param format the format of the config
+	 * @return a new config bound to this spec
+	 */
+	public SpecBoundConfig createConfig(ConfigFormat<?> format) {
+		SpecBoundConfig.Layout layout = this.layout;
+		if (layout == null) {
+			// the layout only depends on the spec: if two threads create it, both are valid
+			layout = new SpecBoundConfig.Layout(root);
+			this.layout = layout;
+		}
+		return new SpecBoundConfig(layout, format);
+	}
+
+	/**
+	 * Corrects some entries of a config that is not concurrent, or that is locked.
+	 */
+	int correct(Config config, Collection<? extends List<String>> paths,
+				CorrectionListener listener, Supplier<Config> subConfigSupplier) {
+		Map<String, Object> configMap = valuesOf(config);
+		int count = 0;
+		for (List<String> path : paths) {
+			if (path.isEmpty()) {
+				return count + root.correct(configMap, new ArrayList<>(), listener, subConfigSupplier, null);
+			}
+			count += root.correctPath(configMap, path, 0, new ArrayList<>(), listener, subConfigSupplier);
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the map of the values of a config level. The spec levels are checked and corrected
+	 * in one pass over this map, like {@link ConfigSpec} does. {@code valueMap()} is deprecated
+	 * because it doesn't work like a regular map for the {@link ConcurrentConfig}s, which are only
+	 * read and corrected here through the views given by their bulk operations.
+	 */
+	@SuppressWarnings("deprecation")
+	static Map<String, Object> valuesOf(UnmodifiableConfig config) {
+		return config.valueMap();
+	}
+
+	/**
+	 * A level of the spec.
+	 */
+	static final class Level {
+		final String[] keys;
+		final Object[] nodes;// Level or Check
+		final Map<String, Object> index;
+
+		/** The number of values in this level and its sub-levels. */
+		final int weight;
+
+		Level(UnmodifiableConfig specLevel) {
+			Map<String, Object> specMap = valuesOf(specLevel);
+			int size = specMap.size();
+			this.keys = new String[size];
+			this.nodes = new Object[size];
+			this.index = new HashMap<>((int)(size / 0.75f) + 1);
+			int i = 0, w = 0;
+			for (Map.Entry<String, Object> entry : specMap.entrySet()) {
+				Object specValue = entry.getValue();
+				Object node;
+				if (specValue instanceof UnmodifiableConfig) {
+					Level sublevel = new Level((UnmodifiableConfig)specValue);
+					w += sublevel.weight;
+					node = sublevel;
+				} else {
+					w++;
+					node = Check.of((ValueSpec)specValue);
+				}
+				keys[i] = entry.getKey();
+				nodes[i] = node;
+				index.put(entry.getKey(), node);
+				i++;
+			}
+			this.weight = w;
+		}
+
+		/**
+		 * Checks a level of the config in one pass.
+		 *
+		 * @param tasks where to put the tasks of the sub-levels, or null to check them here
+		 */
+		boolean isCorrect(Map<String, Object> configMap, List<CheckTask> tasks) {
+			int matched = 0;
+			for (Map.Entry<String, Object> configEntry : configMap.entrySet()) {
+				final Object node = index.get(configEntry.getKey());
+				final Object configValue = configEntry.getValue();
+				if (node == null || configValue == null) {
+					return false;// Unspecified or missing value
+				}
+				matched++;
+				if (node instanceof Level) {
+					if (!(configValue instanceof UnmodifiableConfig)) {
+						return false;// Missing sublevel in config
+					}
+					Level sublevel = (Level)node;
+					Map<String, Object> subMap = valuesOf((UnmodifiableConfig)configValue);
+					if (tasks != null && sublevel.weight >= PARALLEL_THRESHOLD) {
+						CheckTask task = new CheckTask(sublevel, subMap);
+						task.fork();
+						tasks.add(task);
+					} else if (!sublevel.isCorrect(subMap, tasks)) {
+						return false;// Incorrect sublevel
+					}
+				} else if (!((Check)node).test(configValue)) {
+					return false;// Incorrect value
+				}
+			}
+			return matched == keys.length;// Otherwise, some values are missing
+		}
+
+		/**
+		 * Corrects a level of the config in one pass, then adds the missing values if needed.
+		 *
+		 * @param tasks where to put the tasks of the sub-levels, or null to correct them here
+		 */
+		int correct(Map<String, Object> configMap, List<String> parentPath,
+					CorrectionListener listener, Supplier<Config> subConfigSupplier,
+					List<CorrectTask> tasks) {
+			int count = 0, matched = 0;
+			// First step: removes the unspecified values and corrects the existing ones
+			for (Iterator<Map.Entry<String, Object>> it = configMap.entrySet().iterator(); it.hasNext();) {
+				final Map.Entry<String, Object> configEntry = it.next();
+				final String key = configEntry.getKey();
+				final Object node = index.get(key);
+				Object configValue = configEntry.getValue();
+				if (node == null) {
+					it.remove();
+					notify(parentPath, key, configValue, null, listener, REMOVE);
+					count++;
+					continue;
+				}
+				matched++;
+				if (node instanceof Level) {
+					if (!(configValue instanceof Config)) {
+						Config newValue = subConfigSupplier.get();
+						configEntry.setValue(newValue);
+						CorrectionAction action = (configValue == null) ? ADD : REPLACE;
+						notify(parentPath, key, configValue, newValue, listener, action);
+						count++;
+						configValue = newValue;
+					}
+					count += correctSublevel((Level)node, (Config)configValue, key, parentPath,
+											 listener, subConfigSupplier, tasks);
+				} else {
+					Check check = (Check)node;
+					if (!check.test(configValue)) {
+						Object newValue = check.defaultValueSupplier.get();
+						configEntry.setValue(newValue);
+						CorrectionAction action = (configValue == null) ? ADD : REPLACE;
+						notify(parentPath, key, configValue, newValue, listener, action);
+						count++;
+					}
+				}
+			}
+			// Second step, only if needed: adds the missing values
+			if (matched < keys.length) {
+				for (int i = 0; i < keys.length; i++) {
+					final String key = keys[i];
+					if (configMap.containsKey(key)) {
+						continue;
+					}
+					final Object node = nodes[i];
+					if (node instanceof Level) {
+						Config newValue = subConfigSupplier.get();
+						configMap.put(key, newValue);
+						notify(parentPath, key, null, newValue, listener, ADD);
+						count++;
+						count += correctSublevel((Level)node, newValue, key, parentPath, listener,
+												 subConfigSupplier, tasks);
+					} else {
+						Check check = (Check)node;
+						if (!check.test(null)) {
+							Object newValue = check.defaultValueSupplier.get();
+							configMap.put(key, newValue);
+							notify(parentPath, key, null, newValue, listener, ADD);
+							count++;
+						}
+					}
+				}
+			}
+			return count;
+		}
+
+		/**
+		 * Corrects the entry at {@code path}, starting from {@code path.get(depth)}.
+		 */
+		int correctPath(Map<String, Object> configMap, List<String> path, int depth,
+						List<String> parentPath, CorrectionListener listener,
+						Supplier<Config> subConfigSupplier) {
+			final String key = path.get(depth);
+			final Object node = index.get(key);
+			final Object configValue = configMap.get(key);
+			if (node == null) {
+				if (configMap.containsKey(key)) {
+					configMap.remove(key);
+					notify(parentPath, key, configValue, null, listener, REMOVE);
+					return 1;
+				}
+				return 0;
+			}
+			if (node instanceof Level) {
+				Level sublevel = (Level)node;
+				int count = 0;
+				Config subConfig;
+				if (configValue instanceof Config) {
+					subConfig = (Config)configValue;
+				} else {
+					subConfig = subConfigSupplier.get();
+					configMap.put(key, subConfig);
+					CorrectionAction action = (configValue == null) ? ADD : REPLACE;
+					notify(parentPath, key, configValue, subConfig, listener, action);
+					count++;
+				}
+				parentPath.add(key);
+				if (depth == path.size() - 1 || count > 0) {
+					// the whole sub-level has changed
+					count += sublevel.correct(valuesOf(subConfig), parentPath, listener, subConfigSupplier, null);
+				} else {
+					count += sublevel.correctPath(valuesOf(subConfig), path, depth + 1, parentPath,
+												  listener, subConfigSupplier);
+				}
+				parentPath.remove(parentPath.size() - 1);
+				return count;
+			}
+			// The spec defines a value here: the rest of the path, if any, doesn't exist in the spec
+			Check check = (Check)node;
+			if (!check.test(configValue)) {
+				Object newValue = check.defaultValueSupplier.get();
+				configMap.put(key, newValue);
+				CorrectionAction action = (configValue == null) ? ADD : REPLACE;
+				notify(parentPath, key, configValue, newValue, listener, action);
+				return 1;
+			}
+			return 0;
+		}
+
+		private int correctSublevel(Level sublevel, Config config, String key,
+									List<String> parentPath, CorrectionListener listener,
+									Supplier<Config> subConfigSupplier, List<CorrectTask> tasks) {
+			parentPath.add(key);
+			try {
+				if (tasks != null && sublevel.weight >= PARALLEL_THRESHOLD) {
+					// the task has its own path, because this one is modified by this thread
+					CorrectTask task = new CorrectTask(sublevel, valuesOf(config),
+													   new ArrayList<>(parentPath), listener,
+													   subConfigSupplier);
+					task.fork();
+					tasks.add(task);
+					return 0;// the task's count is added on join
+				}
+				return sublevel.correct(valuesOf(config), parentPath, listener, subConfigSupplier, tasks);
+			} finally {
+				parentPath.remove(parentPath.size() - 1);
+			}
+		}
+
+		private static void notify(List<String> parentPath, String key, Object value,
+								   Object newValue, CorrectionListener listener,
+								   CorrectionAction action) {
+			parentPath.add(key);
+			listener.onCorrect(action, Collections.unmodifiableList(parentPath), value, newValue);
+			parentPath.remove(parentPath.size() - 1);
+		}
+	}
+
+	/**
+	 * Checks a level and its large sub-levels in parallel.
+	 */
+	private static final class CheckTask extends RecursiveTask<Boolean> {
+		private static final long serialVersionUID = 1L;
+
+		private final Level level;
+		private final Map<String, Object> configMap;
+
+		CheckTask(Level level, Map<String, Object> configMap) {
+			this.level = level;
+			this.configMap = configMap;
+		}
+
+		@Override
+		protected Boolean compute() {
+			List<CheckTask> tasks = new ArrayList<>();
+			boolean correct = level.isCorrect(configMap, tasks);
+			if (!correct) {
+				for (CheckTask task : tasks) {
+					task.cancel(false);
+				}
+				return false;
+			}
+			for (CheckTask task : tasks) {
+				if (!task.join()) {
+					correct = false;
+				}
+			}
+			return correct;
+		}
+	}
+
+	/**
+	 * Corrects a level and its large sub-levels in parallel.
+	 */
+	private static final class CorrectTask extends RecursiveTask<Integer> {
+		private static final long serialVersionUID = 1L;
+
+		private final Level level;
+		private final Map<String, Object> configMap;
+		private final List<String> path;
+		private final CorrectionListener listener;
+		private final Supplier<Config> subConfigSupplier;
+
+		CorrectTask(Level level, Map<String, Object> configMap, List<String> path,
+					CorrectionListener listener, Supplier<Config> subConfigSupplier) {
+			this.level = level;
+			this.configMap = configMap;
+			this.path = path;
+			this.listener = listener;
+			this.subConfigSupplier = subConfigSupplier;
+		}
+
+		@Override
+		protected Integer compute() {
+			List<CorrectTask> tasks = new ArrayList<>();
+			int count = level.correct(configMap, path, listener, subConfigSupplier, tasks);
+			for (ForkJoinTask<Integer> task : tasks) {
+				count += task.join();
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * The compiled form of a {@link ValueSpec}.
+	 */
+	static abstract class Check {
+		final Supplier<?> defaultValueSupplier;
+
+		Check(Supplier<?> defaultValueSupplier) {
+			this.defaultValueSupplier = defaultValueSupplier;
+		}
+
+		abstract boolean test(Object value);
+
+		static Check of(ValueSpec spec) {
+			Predicate<Object> validator = spec.validator;
+			if (validator instanceof ClassValidator) {
+				return new ClassCheck(spec.defaultValueSupplier, ((ClassValidator)validator).acceptableClass);
+			} else if (validator instanceof RangeValidator && ((RangeValidator<?>)validator).min instanceof Number) {
+				return new NumberRangeCheck(spec.defaultValueSupplier, (RangeValidator<?>)validator);
+			} else {
+				return new PredicateCheck(spec.defaultValueSupplier, validator);
+			}
+		}
+	}
+
+	private static final class PredicateCheck extends Check {
+		private final Predicate<Object> validator;
+
+		PredicateCheck(Supplier<?> defaultValueSupplier, Predicate<Object> validator) {
+			super(defaultValueSupplier);
+			this.validator = validator;
+		}
+
+		@Override
+		boolean test(Object value) {
+			return validator.test(value);
+		}
+	}
+
+	private static final class ClassCheck extends Check {
+		private final Class<?> acceptableClass;
+
+		ClassCheck(Supplier<?> defaultValueSupplier, Class<?> acceptableClass) {
+			super(defaultValueSupplier);
+			this.acceptableClass = acceptableClass;
+		}
+
+		@Override
+		boolean test(Object value) {
+			return acceptableClass.isInstance(value);
+		}
+	}
+
+	/**
+	 * Checks the usual numbers on primitive values. The other cases, and the conversions that
+	 * the {@link RangeValidator} forbids, are delegated to the RangeValidator.
+	 */
+	private static final class NumberRangeCheck extends Check {
+		private final RangeValidator<?> validator;
+		private final Class<?> rangeClass;
+		private final long longMin, longMax;
+		private final double doubleMin, doubleMax;
+
+		NumberRangeCheck(Supplier<?> defaultValueSupplier, RangeValidator<?> validator) {
+			super(defaultValueSupplier);
+			this.validator = validator;
+			Number min = (Number)validator.min, max = (Number)validator.max;
+			this.rangeClass = min.getClass();
+			this.longMin = min.longValue();
+			this.longMax = max.longValue();
+			this.doubleMin = min.doubleValue();
+			this.doubleMax = max.doubleValue();
+		}
+
+		@Override
+		boolean test(Object value) {
+			if (value == null) {
+				return false;
+			}
+			Class<?> valueClass = value.getClass();
+			if (valueClass == Integer.class || valueClass == Long.class) {
+				if (valueClass == rangeClass || rangeClass == Integer.class || rangeClass == Short.class) {
+					long l = ((Number)value).longValue();
+					return l >= longMin && l <= longMax;
+				} else if (rangeClass == Double.class || rangeClass == Float.class) {
+					double d = ((Number)value).doubleValue();
+					return d >= doubleMin && d <= doubleMax;
+				}
+			} else if (valueClass == Double.class || valueClass == Float.class) {
+				double d = ((Number)value).doubleValue();
+				if (valueClass == rangeClass) {
+					// like compareTo: NaN is the biggest value and -0.0 is less than 0.0
+					return Double.compare(d, doubleMin) >= 0 && Double.compare(d, doubleMax) <= 0;
+				}
+				return d >= doubleMin && d <= doubleMax;
+			}
+			return validator.test(value);
+		}
+	}
+}
\ No newline at end of file
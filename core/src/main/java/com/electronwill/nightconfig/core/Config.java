@@ -5,6 +5,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import com.electronwill.nightconfig.core.concurrent.ConcurrentConfig;
+import com.electronwill.nightconfig.core.utils.CompactHashMap;
+import com.electronwill.nightconfig.core.utils.ConcurrentOrderedMap;
 
 import static com.electronwill.nightconfig.core.utils.StringUtils.split;
 
@@ -461,6 +463,37 @@ public interface Config extends UnmodifiableConfig {
 		System.setProperty("nightconfig.preserveInsertionOrder", orderPreserved ? "true" : "false");
 	}
 
+	/**
+	 * Checks if the newly created configs are backed by {@link CompactHashMap}s, which use much
+	 * less memory than HashMaps for small tables and keep the insertion order of their content.
+	 * By default this is not the case. This can be controlled with the
+	 * `nightconfig.compactMaps` system property or by calling
+	 * {@link #setCompactMapUsed(boolean)}.
+	 * <p>
+	 * This setting does not apply to configurations created from a Map, from another Config,
+	 * or with a specific map supplier, nor to the concurrent maps.
+	 *
+	 * @return true if the new configs are backed by compact maps
+	 */
+	static boolean isCompactMapUsed() {
+		String prop = System.getProperty("nightconfig.compactMaps");
+		return (prop != null) && (prop.equals("true") || prop.equals("1"));
+	}
+
+	/**
+	 * Modifies the kind of map that backs the new configurations.
+	 * <p>
+	 * This setting does not apply to configurations created from a Map, from another Config,
+	 * or with a specific map supplier, nor to the concurrent maps.
+	 *
+	 * @param compactMapUsed true to back the new configs by {@link CompactHashMap}s, false to
+	 *                       use the standard maps.
+	 * @see #isCompactMapUsed()
+	 */
+	static void setCompactMapUsed(boolean compactMapUsed) {
+		System.setProperty("nightconfig.compactMaps", compactMapUsed ? "true" : "false");
+	}
+
 	/**
 	 * Returns a map supplier that fulfills the given requirements.
 	 *
@@ -474,9 +507,11 @@ public interface Config extends UnmodifiableConfig {
 	@Deprecated
 	static <T> Supplier<Map<String, T>> getDefaultMapCreator(boolean concurrent,
 			boolean insertionOrderPreserved) {
+		if (!concurrent && isCompactMapUsed()) {
+			return CompactHashMap::new;// preserves the insertion order too
+		}
 		if (insertionOrderPreserved) {
-			return concurrent ? () -> Collections.synchronizedMap(new LinkedHashMap<>())
-					: LinkedHashMap::new;
+			return concurrent ? ConcurrentOrderedMap::new : LinkedHashMap::new;
 		}
 		return concurrent ? ConcurrentHashMap::new : HashMap::new;
 	}
@@ -0,0 +1,323 @@
+package com.electronwill.nightconfig.core;
+
+import static com.electronwill.nightconfig.core.NullObject.NULL_OBJECT;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import com.electronwill.nightconfig.core.concurrent.ConcurrentCommentedConfig;
+import com.electronwill.nightconfig.core.concurrent.ConcurrentConfig;
+import com.electronwill.nightconfig.core.concurrent.VersionedConfig;
+
+/**
+ * The differences between two configurations, which can be applied to another configuration as
+ * a patch.
+ * <p>
+ * A diff is computed with {@link #of(UnmodifiableConfig, UnmodifiableConfig)}, in a single
+ * traversal of the two configs. The sub-configs that are present on both sides are compared
+ * entry by entry, and the identical sub-configs are skipped without looking at their content. The
+ * {@link VersionedConfig}s are compared through their {@link VersionedConfig#snapshot()}: two
+ * snapshots of the same config share the levels that have not been modified, therefore the diff
+ * only visits the modified levels.
+ * <p>
+ * The diff is applied with {@link #applyTo(Config)}, atomically if the config is a
+ * {@link ConcurrentConfig}.
+ *
+ * @author TheElectronWill
+ */
+public final class ConfigDiff {
+	private final List<Change> valueChanges;
+	private final List<Change> commentChanges;
+
+	private ConfigDiff(List<Change> valueChanges, List<Change> commentChanges) {
+		this.valueChanges = Collections.unmodifiableList(valueChanges);
+		this.commentChanges = Collections.unmodifiableList(commentChanges);
+	}
+
+	/**
+	 * Computes the differences between two configurations. A {@link ConcurrentConfig} is read
+	 * atomically: its snapshot is used if it's a {@link VersionedConfig}, otherwise it is copied
+	 * with {@link FrozenConfig#of(UnmodifiableConfig)}.
+	 * <p>
+	 * The sub-configs that are added, removed, or replaced by a value of another type are
+	 * reported as a single change, whose value is a {@link FrozenConfig}. The lists are compared
+	 * element by element, including the comments of the configs that they contain, and are
+	 * reported as a single change if they differ. The other values of the changes are the values
+	 * of the configs, and are not copied.
+	 *
+	 * @param before the old configuration
+	 * @param after  the new configuration
+	 * @return the differences between {@code before} and {@code after}
+	 */
+	public static ConfigDiff of(UnmodifiableConfig before, UnmodifiableConfig after) {
+		List<Change> valueChanges = new ArrayList<>();
+		List<Change> commentChanges = new ArrayList<>();
+		diff(readable(before), readable(after), new ArrayList<>(), valueChanges, commentChanges);
+		return new ConfigDiff(valueChanges, commentChanges);
+	}
+
+	private static UnmodifiableConfig readable(UnmodifiableConfig config) {
+		if (config instanceof VersionedConfig) {
+			return ((VersionedConfig)config).snapshot();
+		} else if (config instanceof ConcurrentConfig) {
+			return FrozenConfig.of(config);
+		}
+		return config;
+	}
+
+	private static void diff(UnmodifiableConfig before, UnmodifiableConfig after, List<String> path,
+							 List<Change> valueChanges, List<Change> commentChanges) {
+		for (UnmodifiableConfig.Entry entry : before.entrySet()) {
+			List<String> key = Collections.singletonList(entry.getKey());
+			Object oldValue = entry.getRawValue();
+			Object newValue = after.getRaw(key);// null if missing
+			path.add(entry.getKey());
+			if (oldValue == newValue) {
+				// identical values, for instance a level shared by two snapshots: nothing to do
+			} else if (oldValue instanceof UnmodifiableConfig && newValue instanceof UnmodifiableConfig) {
+				diff((UnmodifiableConfig)oldValue, (UnmodifiableConfig)newValue, path, valueChanges, commentChanges);
+			} else if (!equalsWithComments(oldValue, newValue)) {
+				// a list is reported as a whole, even if only a comment of one of its configs has changed
+				valueChanges.add(new Change(path, frozen(oldValue), frozen(newValue)));
+			}
+			String oldComment = getComment(entry);
+			String newComment = getComment(after, key);
+			if (!Objects.equals(oldComment, newComment)) {
+				commentChanges.add(new Change(path, oldComment, newComment));
+			}
+			path.remove(path.size() - 1);
+		}
+		for (UnmodifiableConfig.Entry entry : after.entrySet()) {
+			List<String> key = Collections.singletonList(entry.getKey());
+			if (before.getRaw(key) == null) {
+				path.add(entry.getKey());
+				valueChanges.add(new Change(path, null, frozen(entry.getRawValue())));
+				String comment = getComment(entry);
+				if (comment != null) {
+					commentChanges.add(new Change(path, null, comment));
+				}
+				path.remove(path.size() - 1);
+			}
+		}
+	}
+
+	/** Compares two values, including the comments of the configs that are in lists. */
+	private static boolean equalsWithComments(Object a, Object b) {
+		if (a instanceof List && b instanceof List) {
+			List<?> listA = (List<?>)a, listB = (List<?>)b;
+			if (listA.size() != listB.size()) {
+				return false;
+			}
+			for (int i = 0; i < listA.size(); i++) {
+				if (!equalsWithComments(listA.get(i), listB.get(i))) {
+					return false;
+				}
+			}
+			return true;
+		} else if (a instanceof UnmodifiableConfig && b instanceof UnmodifiableConfig) {
+			UnmodifiableConfig configA = (UnmodifiableConfig)a, configB = (UnmodifiableConfig)b;
+			if (configA.size() != configB.size()) {
+				return false;
+			}
+			for (UnmodifiableConfig.Entry entry : configA.entrySet()) {
+				List<String> key = Collections.singletonList(entry.getKey());
+				Object valueB = configB.getRaw(key);
+				if (valueB == null || !equalsWithComments(entry.getRawValue(), valueB)
+						|| !Objects.equals(getComment(entry), getComment(configB, key))) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return Objects.equals(a, b);
+	}
+
+	private static Object frozen(Object value) {
+		return (value instanceof UnmodifiableConfig) ? FrozenConfig.of((UnmodifiableConfig)value) : value;
+	}
+
+	private static String getComment(UnmodifiableConfig.Entry entry) {
+		if (entry instanceof UnmodifiableCommentedConfig.Entry) {
+			return ((UnmodifiableCommentedConfig.Entry)entry).getComment();
+		}
+		return null;
+	}
+
+	private static String getComment(UnmodifiableConfig config, List<String> key) {
+		if (config instanceof UnmodifiableCommentedConfig) {
+			return ((UnmodifiableCommentedConfig)config).getComment(key);
+		}
+		return null;
+	}
+
+	/**
+	 * @return the changes of the values, at most one per path
+	 */
+	public List<Change> getValueChanges() {
+		return valueChanges;
+	}
+
+	/**
+	 * Returns the changes of the comments. The comments of the sub-configs that are added are
+	 * not included: they are part of the added sub-config.
+	 *
+	 * @return the changes of the comments, at most one per path
+	 */
+	public List<Change> getCommentChanges() {
+		return commentChanges;
+	}
+
+	/**
+	 * @return true if the two configs are equal, including their comments
+	 */
+	public boolean isEmpty() {
+		return valueChanges.isEmpty() && commentChanges.isEmpty();
+	}
+
+	/**
+	 * Applies the changes to a configuration, as a single atomic operation if the configuration
+	 * is a {@link ConcurrentConfig}. The comments are applied only if the configuration is a
+	 * {@link CommentedConfig} or a {@link ConcurrentCommentedConfig}.
+	 * <p>
+	 * The added sub-configs are copied into new sub-configs, created with
+	 * {@link Config#createSubConfig()}. Applying the diff to a copy of {@code before} gives a copy
+	 * of {@code after}.
+	 *
+	 * @param config the config to modify
+	 */
+	public void applyTo(Config config) {
+		if (config instanceof ConcurrentCommentedConfig) {
+			((ConcurrentCommentedConfig)config).bulkCommentedUpdate(this::applyChanges);
+		} else if (config instanceof ConcurrentConfig) {
+			((ConcurrentConfig)config).bulkUpdate(this::applyChanges);
+		} else {
+			applyChanges(config);
+		}
+	}
+
+	private void applyChanges(Config config) {
+		for (Change change : valueChanges) {
+			Object value = change.getNewValue();
+			if (value == null) {
+				config.remove(change.getPath());
+			} else {
+				config.set(change.getPath(), copy(value, config));
+			}
+		}
+		if (config instanceof CommentedConfig) {
+			CommentedConfig commented = (CommentedConfig)config;
+			for (Change change : commentChanges) {
+				String comment = change.getNewValue();
+				if (comment == null) {
+					commented.removeComment(change.getPath());
+				} else {
+					commented.setComment(change.getPath(), comment);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Copies the configs and the lists, so that the config to modify owns its values. Each
+	 * sub-config is created by the level that will contain it.
+	 */
+	private static Object copy(Object value, Config parent) {
+		if (value == NULL_OBJECT) {
+			return null;
+		} else if (value instanceof UnmodifiableConfig) {
+			UnmodifiableConfig source = (UnmodifiableConfig)value;
+			Config config = parent.createSubConfig();
+			for (UnmodifiableConfig.Entry entry : source.entrySet()) {
+				List<String> key = Collections.singletonList(entry.getKey());
+				config.set(key, copy(entry.getRawValue(), config));
+				String comment = getComment(entry);
+				if (comment != null && config instanceof CommentedConfig) {
+					((CommentedConfig)config).setComment(key, comment);
+				}
+			}
+			return config;
+		} else if (value instanceof List) {
+			List<?> source = (List<?>)value;
+			List<Object> list = new ArrayList<>(source.size());
+			for (Object element : source) {
+				list.add(copy(element, parent));
+			}
+			return list;
+		}
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		return "ConfigDiff{values=" + valueChanges + ", comments=" + commentChanges + "}";
+	}
+
+	/**
+	 * A difference between the two configs, at a given path.
+	 * <p>
+	 * For the values, the old and new values are the raw values, as returned by
+	 * {@link UnmodifiableConfig#getRaw(List)}: a null value is represented by
+	 * {@link NullObject#NULL_OBJECT}, and a missing value by {@code null}. For the comments, a
+	 * missing comment is represented by {@code null}.
+	 */
+	public static final class Change {
+		/** The type of a change. */
+		public enum Type {
+			/** The path only exists in the new config. */
+			ADDED,
+			/** The path only exists in the old config. */
+			REMOVED,
+			/** The path exists in both configs, with different values. */
+			CHANGED
+		}
+
+		private final List<String> path;
+		private final Object oldValue, newValue;
+
+		Change(List<String> path, Object oldValue, Object newValue) {
+			this.path = Collections.unmodifiableList(new ArrayList<>(path));
+			this.oldValue = oldValue;
+			this.newValue = newValue;
+		}
+
+		/**
+		 * @return the type of this change
+		 */
+		public Type getType() {
+			if (oldValue == null) {
+				return Type.ADDED;
+			}
+			return (newValue == null) ? Type.REMOVED : Type.CHANGED;
+		}
+
+		/**
+		 * @return the path of the modified value or comment
+		 */
+		public List<String> getPath() {
+			return path;
+		}
+
+		/**
+		 * @return the value or comment in the old config, or {@code null} if there is none
+		 */
+		@SuppressWarnings("unchecked")
+		public <T> T getOldValue() {
+			return (T)oldValue;
+		}
+
+		/**
+		 * @return the value or comment in the new config, or {@code null} if there is none
+		 */
+		@SuppressWarnings("unchecked")
+		public <T> T getNewValue() {
+			return (T)newValue;
+		}
+
+		@Override
+		public String toString() {
+			return getType() + " " + String.join(".", path) + ": " + oldValue + " -> " + newValue;
+		}
+	}
+}
\ No newline at end of file
@@ -91,8 +91,7 @@ public class ConfigSpec {
 	 * @param defaultValue the default entry value
 	 */
 	public void define(List<String> path, Object defaultValue) {
-		define(path, defaultValue,
-			   o -> o != null && defaultValue.getClass().isAssignableFrom(o.getClass()));
+		define(path, defaultValue, new ClassValidator(defaultValue.getClass()));
 	}
 
 	/**
@@ -197,8 +196,7 @@ public class ConfigSpec {
 	 */
 	public <V> void defineOfClass(List<String> path, Supplier<V> defaultValueSupplier,
 								  Class<? super V> acceptableValueClass) {
-		define(path, defaultValueSupplier,
-			   o -> o != null && acceptableValueClass.isAssignableFrom(o.getClass()));
+		define(path, defaultValueSupplier, new ClassValidator(acceptableValueClass));
 	}
 
 	/**
@@ -308,47 +306,13 @@ public class ConfigSpec {
 	 * @param max                  the maximum, inclusive
 	 * @param <V> the value's type
 	 */
-	@SuppressWarnings("unchecked")
 	public <V extends Comparable<? super V>> void defineInRange(List<String> path,
 																Supplier<V> defaultValueSupplier,
 																V min, V max) {
 		if (min.compareTo(max) > 0) {
 			throw new IllegalArgumentException("The minimum must be less than the maximum.");
 		}
-		define(path, defaultValueSupplier, o -> {
-			if (!(o instanceof Comparable)) { return false; }
-			Comparable<V> c = (Comparable<V>)o;
-			try {
-				return c.compareTo(min) >= 0 && c.compareTo(max) <= 0;
-			} catch (ClassCastException ex) {
-				// We cannot check whether c is really Comparable<V> or
-				// Comparable<Other incompatible type>, so we catch the exception.
-
-				// If a primitive conversion makes sense, do it.
-				if (c instanceof Number && min instanceof Number) {
-					Class<?> valueCls = c.getClass();
-					Class<?> rangeCls = min.getClass();
-					if (valueCls == Long.class || valueCls == Integer.class) {
-						if (rangeCls == Integer.class || rangeCls == Short.class || rangeCls == Character.class) {
-							long l = ((Number) c).longValue();
-							return l >= ((Number) min).longValue() && l <= ((Number) max).longValue();
-						} else if (rangeCls == Float.class || rangeCls == Double.class) {
-							double d = ((Number) c).doubleValue();
-							return d >= ((Number) min).doubleValue() && d <= ((Number) max).doubleValue();
-							// Note: it is possible that this integer cannot be accurately represented as a
-							// double, but I'm not sure how to handle this here. The Java languages accepts
-							// comparisons of primitive double with primitive long (casts long to double).
-						}
-					}
-					if (valueCls == Double.class || valueCls == Float.class) {
-						double d = ((Number) c).doubleValue();
-						return d >= ((Number) min).doubleValue() && d <= ((Number) max).doubleValue();
-					}
-				}
-				// Else, fail the range check.
-				return false;
-			}
-		});
+		define(path, defaultValueSupplier, new RangeValidator<>(min, max));
 	}
 
 	/**
@@ -715,6 +679,17 @@ public class ConfigSpec {
 		return count;
 	}
 
+	/**
+	 * Compiles this specification to a form that is faster to check, for when many configurations
+	 * are checked or corrected with the same spec. The compiled spec is a snapshot: the entries
+	 * that are defined or undefined after the compilation don't affect it.
+	 *
+	 * @return the compiled spec
+	 */
+	public CompiledConfigSpec compile() {
+		return new CompiledConfigSpec(storage);
+	}
+
 	/**
 	 * Notifies the {@link CorrectionListener} of some correction.
 	 */
@@ -771,12 +746,78 @@ public class ConfigSpec {
 		REMOVE
 	}
 
+	/**
+	 * Checks that a value is in a range. Used by the compiled specs to check the numbers without
+	 * calling {@code compareTo}.
+	 */
+	static final class RangeValidator<V extends Comparable<? super V>> implements Predicate<Object> {
+		final V min, max;
+
+		RangeValidator(V min, V max) {
+			this.min = min;
+			this.max = max;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean test(Object o) {
+			if (!(o instanceof Comparable)) { return false; }
+			Comparable<V> c = (Comparable<V>)o;
+			try {
+				return c.compareTo(min) >= 0 && c.compareTo(max) <= 0;
+			} catch (ClassCastException ex) {
+				// We cannot check whether c is really Comparable<V> or
+				// Comparable<Other incompatible type>, so we catch the exception.
+
+				// If a primitive conversion makes sense, do it.
+				if (c instanceof Number && min instanceof Number) {
+					Class<?> valueCls = c.getClass();
+					Class<?> rangeCls = min.getClass();
+					if (valueCls == Long.class || valueCls == Integer.class) {
+						if (rangeCls == Integer.class || rangeCls == Short.class || rangeCls == Character.class) {
+							long l = ((Number) c).longValue();
+							return l >= ((Number) min).longValue() && l <= ((Number) max).longValue();
+						} else if (rangeCls == Float.class || rangeCls == Double.class) {
+							double d = ((Number) c).doubleValue();
+							return d >= ((Number) min).doubleValue() && d <= ((Number) max).doubleValue();
+							// Note: it is possible that this integer cannot be accurately represented as a
+							// double, but I'm not sure how to handle this here. The Java languages accepts
+							// comparisons of primitive double with primitive long (casts long to double).
+						}
+					}
+					if (valueCls == Double.class || valueCls == Float.class) {
+						double d = ((Number) c).doubleValue();
+						return d >= ((Number) min).doubleValue() && d <= ((Number) max).doubleValue();
+					}
+				}
+				// Else, fail the range check.
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Checks that a value is an instance of a class. Used by the compiled specs.
+	 */
+	static final class ClassValidator implements Predicate<Object> {
+		final Class<?> acceptableClass;
+
+		ClassValidator(Class<?> acceptableClass) {
+			this.acceptableClass = acceptableClass;
+		}
+
+		@Override
+		public boolean test(Object o) {
+			return o != null && acceptableClass.isAssignableFrom(o.getClass());
+		}
+	}
+
 	/**
 	 * Container for the supplier of the default value and the validator.
 	 */
-	private static final class ValueSpec {
-		private final Supplier<?> defaultValueSupplier;
-		private final Predicate<Object> validator;
+	static final class ValueSpec {
+		final Supplier<?> defaultValueSupplier;
+		final Predicate<Object> validator;
 
 		private ValueSpec(Object defaultValue, Predicate<Object> validator) {
 			this(new DumbSupplier<>(
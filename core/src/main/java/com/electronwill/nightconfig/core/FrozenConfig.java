@@ -0,0 +1,377 @@
+package com.electronwill.nightconfig.core;
+
+import com.electronwill.nightconfig.core.concurrent.ConcurrentConfig;
+import com.electronwill.nightconfig.core.utils.NumberArrayList;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable config that uses as little memory as possible. Each level is stored in two
+ * arrays: the keys, sorted, and the values. The comments are stored in a third array, which only
+ * exists if there is at least one comment at this level. There are no map entries, no hash
+ * tables, and the keys that appear in several levels are shared.
+ * <p>
+ * A FrozenConfig is created from an existing config with {@link #of(UnmodifiableConfig)} or
+ * {@link UnmodifiableConfig#freeze()}. Its sub-configs are FrozenConfigs too, and its lists are
+ * unmodifiable copies. The entries are iterated in the order of their keys.
+ *
+ * @author TheElectronWill
+ */
+public final class FrozenConfig implements UnmodifiableCommentedConfig {
+	private static final String[] NO_KEYS = {};
+	private static final Object[] NO_VALUES = {};
+
+	private final String[] keys;
+	private final Object[] values;
+	private final String[] comments;// null if there is no comment
+	private final ConfigFormat<?> configFormat;
+	private int hash;// cached hash code, 0 if not computed yet
+
+	private FrozenConfig(String[] keys, Object[] values, String[] comments, ConfigFormat<?> configFormat) {
+		this.keys = keys;
+		this.values = values;
+		this.comments = comments;
+		this.configFormat = configFormat;
+	}
+
+	/**
+	 * Creates a FrozenConfig that contains a deep copy of the given config, and of its comments
+	 * if it's an {@link UnmodifiableCommentedConfig}. If the config is a
+	 * {@link ConcurrentConfig}, the copy is made atomically.
+	 *
+	 * @param config the config to copy
+	 * @return a FrozenConfig with the same content as the given config
+	 */
+	public static FrozenConfig of(UnmodifiableConfig config) {
+		if (config instanceof FrozenConfig) {
+			return (FrozenConfig)config;
+		}
+		Map<String, String> keyPool = new HashMap<>();
+		if (config instanceof ConcurrentConfig) {
+			// block lambda: a Function, not a Consumer
+			return ((ConcurrentConfig)config).bulkRead(view -> {
+				return freeze(view, config.configFormat(), keyPool);
+			});
+		}
+		return freeze(config, config.configFormat(), keyPool);
+	}
+
+	private static FrozenConfig freeze(UnmodifiableConfig config, ConfigFormat<?> format,
+									   Map<String, String> keyPool) {
+		if (config instanceof FrozenConfig) {
+			return (FrozenConfig)config;
+		}
+		int size = config.size();
+		if (size == 0) {
+			return new FrozenConfig(NO_KEYS, NO_VALUES, null, format);
+		}
+		List<UnmodifiableConfig.Entry> entries = new ArrayList<>(size);
+		entries.addAll(config.entrySet());
+		entries.sort((a, b) -> a.getKey().compareTo(b.getKey()));
+
+		size = entries.size();
+		String[] keys = new String[size];
+		Object[] values = new Object[size];
+		String[] comments = null;
+		for (int i = 0; i < size; i++) {
+			UnmodifiableConfig.Entry entry = entries.get(i);
+			String key = entry.getKey();
+			String pooled = keyPool.putIfAbsent(key, key);
+			keys[i] = (pooled == null) ? key : pooled;
+			values[i] = freezeValue(entry.getRawValue(), keyPool);
+			if (entry instanceof UnmodifiableCommentedConfig.Entry) {
+				String comment = ((UnmodifiableCommentedConfig.Entry)entry).getComment();
+				if (comment != null) {
+					if (comments == null) {
+						comments = new String[size];
+					}
+					comments[i] = comment;
+				}
+			}
+		}
+		return new FrozenConfig(keys, values, comments, format);
+	}
+
+	private static Object freezeValue(Object value, Map<String, String> keyPool) {
+		if (value instanceof UnmodifiableConfig) {
+			UnmodifiableConfig config = (UnmodifiableConfig)value;
+			return freeze(config, config.configFormat(), keyPool);
+		} else if (value instanceof NumberArrayList) {
+			NumberArrayList<?> list = (NumberArrayList<?>)value;
+			if (list.isEmpty()) {
+				return Collections.emptyList();
+			}
+			// The elements are homogeneous numbers, so the copy is a NumberArrayList too. It is
+			// frozen instead of wrapped, to keep the primitive accessors.
+			NumberArrayList.Builder builder = new NumberArrayList.Builder();
+			for (Object element : list) {
+				builder.add(element);
+			}
+			return ((NumberArrayList<?>)builder.build()).freeze();
+		} else if (value instanceof List) {
+			List<?> list = (List<?>)value;
+			if (list.isEmpty()) {
+				return Collections.emptyList();
+			}
+			Object[] array = new Object[list.size()];
+			int i = 0;
+			for (Object element : list) {
+				array[i++] = freezeValue(element, keyPool);
+			}
+			return Collections.unmodifiableList(Arrays.asList(array));
+		}
+		return value;
+	}
+
+	/**
+	 * @return the index of the key in this level, or a negative number if there is no such key
+	 */
+	private int indexOf(String key) {
+		return Arrays.binarySearch(keys, key);
+	}
+
+	/**
+	 * @return the level that contains the last element of the path, or null if it doesn't exist
+	 */
+	private FrozenConfig parentOf(List<String> path) {
+		FrozenConfig level = this;
+		final int lastIndex = path.size() - 1;
+		for (int i = 0; i < lastIndex; i++) {
+			int index = level.indexOf(path.get(i));
+			if (index < 0 || !(level.values[index] instanceof FrozenConfig)) {
+				return null;
+			}
+			level = (FrozenConfig)level.values[index];
+		}
+		return level;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T getRaw(List<String> path) {
+		FrozenConfig parent = parentOf(path);
+		if (parent == null) {
+			return null;
+		}
+		int index = parent.indexOf(path.get(path.size() - 1));
+		return (index < 0) ? null : (T)parent.values[index];
+	}
+
+	@Override
+	public boolean contains(List<String> path) {
+		FrozenConfig parent = parentOf(path);
+		return parent != null && parent.indexOf(path.get(path.size() - 1)) >= 0;
+	}
+
+	@Override
+	public String getComment(List<String> path) {
+		FrozenConfig parent = parentOf(path);
+		if (parent == null || parent.comments == null) {
+			return null;
+		}
+		int index = parent.indexOf(path.get(path.size() - 1));
+		return (index < 0) ? null : parent.comments[index];
+	}
+
+	@Override
+	public boolean containsComment(List<String> path) {
+		return getComment(path) != null;
+	}
+
+	@Override
+	public int size() {
+		return keys.length;
+	}
+
+	@Override
+	@Deprecated
+	public Map<String, Object> valueMap() {
+		return new AbstractMap<String, Object>() {
+			@Override
+			public Object get(Object key) {
+				int index = (key instanceof String) ? indexOf((String)key) : -1;
+				return (index < 0) ? null : values[index];
+			}
+
+			@Override
+			public boolean containsKey(Object key) {
+				return (key instanceof String) && indexOf((String)key) >= 0;
+			}
+
+			@Override
+			public int size() {
+				return keys.length;
+			}
+
+			@Override
+			public Set<Map.Entry<String, Object>> entrySet() {
+				return new EntrySet<Map.Entry<String, Object>>() {
+					@Override
+					Map.Entry<String, Object> entry(int index) {
+						return new SimpleImmutableEntry<>(keys[index], values[index]);
+					}
+				};
+			}
+		};
+	}
+
+	@Override
+	@Deprecated
+	public Map<String, String> commentMap() {
+		if (comments == null) {
+			return Collections.emptyMap();
+		}
+		Map<String, String> map = new HashMap<>();
+		for (int i = 0; i < keys.length; i++) {
+			if (comments[i] != null) {
+				map.put(keys[i], comments[i]);
+			}
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	@Override
+	public Set<? extends UnmodifiableCommentedConfig.Entry> entrySet() {
+		return new EntrySet<UnmodifiableCommentedConfig.Entry>() {
+			@Override
+			UnmodifiableCommentedConfig.Entry entry(int index) {
+				return new FrozenEntry(index);
+			}
+		};
+	}
+
+	@Override
+	public ConfigFormat<?> configFormat() {
+		return configFormat;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if (obj instanceof FrozenConfig) {
+			return equals((FrozenConfig)obj);
+		}
+		if (!(obj instanceof UnmodifiableConfig)) {
+			return false;
+		}
+		UnmodifiableConfig other = (UnmodifiableConfig)obj;
+		if (other.size() != keys.length) {
+			return false;
+		}
+		for (int i = 0; i < keys.length; i++) {
+			Object otherValue = other.getRaw(Collections.singletonList(keys[i]));
+			if (!Objects.equals(values[i], otherValue)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean equals(FrozenConfig other) {
+		// The hash codes are cached, therefore most of the different configs are rejected
+		// without looking at their content. The sub-configs that are shared by the two
+		// configs, for instance by two snapshots of the same ConcurrentConfig, are equal by identity.
+		if (other.keys.length != keys.length || other.hashCode() != hashCode()) {
+			return false;
+		}
+		// the keys are sorted in both configs
+		for (int i = 0; i < keys.length; i++) {
+			if (!keys[i].equals(other.keys[i]) || !Objects.equals(values[i], other.values[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the hash code like a {@link Map}, to be consistent with the other configs.
+	 * The hash code is computed only once, because the config is immutable.
+	 */
+	@Override
+	public int hashCode() {
+		int h = hash;
+		if (h == 0) {
+			for (int i = 0; i < keys.length; i++) {
+				h += keys[i].hashCode() ^ Objects.hashCode(values[i]);
+			}
+			hash = h;
+		}
+		return h;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + ':' + valueMap();
+	}
+
+	private abstract class EntrySet<E> extends AbstractSet<E> {
+		abstract E entry(int index);
+
+		@Override
+		public Iterator<E> iterator() {
+			return new Iterator<E>() {
+				private int index = 0;
+
+				@Override
+				public boolean hasNext() {
+					return index < keys.length;
+				}
+
+				@Override
+				public E next() {
+					if (index >= keys.length) {
+						throw new NoSuchElementException();
+					}
+					return entry(index++);
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return keys.length;
+		}
+	}
+
+	private final class FrozenEntry implements UnmodifiableCommentedConfig.Entry {
+		private final int index;
+
+		FrozenEntry(int index) {
+			this.index = index;
+		}
+
+		@Override
+		public String getKey() {
+			return keys[index];
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T getRawValue() {
+			return (T)values[index];
+		}
+
+		@Override
+		public String getComment() {
+			return (comments == null) ? null : comments[index];
+		}
+
+		@Override
+		public String toString() {
+			return "FrozenEntry(" + getKey() + "=" + getValue() + ")";
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,1177 @@
+package com.electronwill.nightconfig.core;
+
+import com.electronwill.nightconfig.core.CompiledConfigSpec.Check;
+import com.electronwill.nightconfig.core.CompiledConfigSpec.Level;
+import com.electronwill.nightconfig.core.utils.TransformingSet;
+
+import java.util.*;
+
+import static com.electronwill.nightconfig.core.NullObject.NULL_OBJECT;
+import static com.electronwill.nightconfig.core.utils.StringUtils.split;
+
+/**
+ * A config whose structure is fixed by a {@link CompiledConfigSpec}, created by
+ * {@link CompiledConfigSpec#createConfig()}. Each path that is defined by the spec has its own
+ * slot in flat arrays, shared by the config and its sub-configs, instead of an entry in a map per
+ * level. If the default value of an entry is an Integer, a Long, a Double or a Boolean, the
+ * values of this type are stored in the slot without boxing. The keys that aren't defined by the
+ * spec are stored in an "overflow" map of their level.
+ * <p>
+ * The path-based methods need one hash lookup per level. To avoid even that, resolve a path once
+ * with {@link #slot(List)} and use the slot-based methods like {@link #getInt(int)}, which are
+ * plain array accesses.
+ * <p>
+ * The sub-configs of the levels defined by the spec are views of the slots. When a config is set
+ * at such a level, its content is moved to the slots: the config becomes the view if it has been
+ * created by {@link #createSubConfig()}, otherwise it is copied. This way, the parsers can fill a
+ * sub-config after having inserted it. A view that is removed or replaced keeps its content.
+ * <p>
+ * This config is not thread-safe, like the ones created by {@link Config#inMemory()}. The
+ * slot-based reads never lock nor allocate (except to box the values of {@link #getRaw(int)}),
+ * so any number of threads can read a config that is no longer modified, once it has been safely
+ * published to them. A config that is modified while it is read must be protected by the
+ * caller, or replaced by a {@link com.electronwill.nightconfig.core.concurrent.ConcurrentConfig}.
+ *
+ * @author TheElectronWill
+ */
+@SuppressWarnings("unchecked")
+public final class SpecBoundConfig implements CommentedConfig {
+	private final ConfigFormat<?> configFormat;
+
+	/** The storage of the values and the layout of this level, null if this config isn't bound. */
+	private Slots slots;
+	private LevelLayout level;
+
+	/** The values and comments that don't have a slot, created when needed. */
+	private Map<String, Object> overflow;
+	private Map<String, String> overflowComments;
+
+	SpecBoundConfig(Layout layout, ConfigFormat<?> configFormat) {
+		this.configFormat = configFormat;
+		this.slots = new Slots(layout);
+		this.level = layout.root;
+	}
+
+	/**
+	 * Creates a config that isn't bound to the slots: all its values are in the overflow map,
+	 * until it is set at a level of a bound config.
+	 */
+	private SpecBoundConfig(ConfigFormat<?> configFormat) {
+		this.configFormat = configFormat;
+	}
+
+	// --- Slot-based access ---
+
+	/**
+	 * Resolves a path, relative to this config, to the index of its slot. The index can then be
+	 * used with all the configs that share the same slots, that is, with this config and its
+	 * sub-configs.
+	 *
+	 * @param path the path, each key separated by a dot
+	 * @return the index of the slot, or -1 if the path isn't defined by the spec
+	 */
+	public int slot(String path) {
+		return slot(split(path, '.'));
+	}
+
+	/**
+	 * Resolves a path, relative to this config, to the index of its slot. The index can then be
+	 * used with all the configs that share the same slots, that is, with this config and its
+	 * sub-configs.
+	 *
+	 * @param path the path, each element of the list is a different key
+	 * @return the index of the slot, or -1 if the path isn't defined by the spec
+	 */
+	public int slot(List<String> path) {
+		Slots slots = boundSlots();
+		LevelLayout current = level;
+		int slot = -1;
+		for (String key : path) {
+			if (current == null) {
+				return -1;
+			}
+			Integer index = current.index.get(key);
+			if (index == null) {
+				return -1;
+			}
+			slot = index;
+			current = slots.layout.sublevels[slot];
+		}
+		return slot;
+	}
+
+	/**
+	 * Checks if the slot contains a value.
+	 *
+	 * @param slot the index of the slot, see {@link #slot(List)}
+	 * @return {@code true} if the slot contains a value, {@code false} otherwise
+	 */
+	public boolean contains(int slot) {
+		return boundSlots().states[slot] != Slots.ABSENT;
+	}
+
+	/**
+	 * Gets the value of a slot, without converting {@link NullObject#NULL_OBJECT} to null.
+	 * <p>
+	 * The value of a primitive slot is boxed at each call. To read it without boxing, use the
+	 * typed methods like {@link #getInt(int)}.
+	 *
+	 * @param slot the index of the slot, see {@link #slot(List)}
+	 * @param <T>  the value's type
+	 * @return the value, or null if the slot is empty
+	 */
+	public <T> T getRaw(int slot) {
+		return (T)boundSlots().get(slot);
+	}
+
+	/**
+	 * Gets the value of a slot.
+	 *
+	 * @param slot the index of the slot, see {@link #slot(List)}
+	 * @param <T>  the value's type
+	 * @return the value, or null if the slot is empty
+	 */
+	public <T> T get(int slot) {
+		Object raw = getRaw(slot);
+		return (raw == NULL_OBJECT) ? null : (T)raw;
+	}
+
+	/**
+	 * Like {@link #get(int)} but returns a primitive int, without boxing if possible. The value
+	 * must be an integer that fits in an int: unlike {@link Number#intValue()}, this method never
+	 * truncates the value.
+	 *
+	 * @throws ArithmeticException if the value is a long that doesn't fit in an int
+	 * @throws ClassCastException  if the value isn't an integer
+	 */
+	public int getInt(int slot) {
+		Slots slots = boundSlots();
+		if (slots.states[slot] == Slots.PRIMITIVE) {
+			byte kind = slots.layout.kinds[slot];
+			if (kind == Layout.INT) {
+				return (int)slots.primitives[slot];
+			} else if (kind == Layout.LONG) {
+				return toIntExact(slots.primitives[slot]);
+			}
+		}
+		return toIntExact(integerValue(slots.get(slot), "int"));
+	}
+
+	/**
+	 * Like {@link #get(int)} but returns a primitive long, without boxing if possible. The value
+	 * must be an integer: unlike {@link Number#longValue()}, this method never truncates the
+	 * value.
+	 *
+	 * @throws ClassCastException if the value isn't an integer
+	 */
+	public long getLong(int slot) {
+		Slots slots = boundSlots();
+		if (slots.states[slot] == Slots.PRIMITIVE) {
+			byte kind = slots.layout.kinds[slot];
+			if (kind == Layout.LONG || kind == Layout.INT) {
+				return slots.primitives[slot];
+			}
+		}
+		return integerValue(slots.get(slot), "long");
+	}
+
+	/**
+	 * Like {@link #get(int)} but returns a primitive double, without boxing if possible. The value
+	 * must be a {@link Number}.
+	 */
+	public double getDouble(int slot) {
+		Slots slots = boundSlots();
+		if (slots.states[slot] == Slots.PRIMITIVE && slots.layout.kinds[slot] == Layout.DOUBLE) {
+			return Double.longBitsToDouble(slots.primitives[slot]);
+		}
+		return ((Number)slots.get(slot)).doubleValue();
+	}
+
+	/**
+	 * Like {@link #get(int)} but returns a primitive boolean, without boxing if possible. The
+	 * value must be a {@link Boolean}.
+	 */
+	public boolean getBoolean(int slot) {
+		Slots slots = boundSlots();
+		if (slots.states[slot] == Slots.PRIMITIVE && slots.layout.kinds[slot] == Layout.BOOLEAN) {
+			return slots.primitives[slot] != 0;
+		}
+		return (Boolean)slots.get(slot);
+	}
+
+	/**
+	 * Sets the value of a slot.
+	 *
+	 * @param slot  the index of the slot, see {@link #slot(List)}
+	 * @param value the value to set
+	 * @param <T>   the type of the old value
+	 * @return the old value if any, or null
+	 */
+	public <T> T set(int slot, Object value) {
+		boundSlots();
+		return (T)store(slot, (value == null) ? NULL_OBJECT : value);
+	}
+
+	/**
+	 * Sets the value of a slot to a primitive int, without boxing if possible.
+	 */
+	public void setInt(int slot, int value) {
+		Slots slots = boundSlots();
+		if (slots.layout.kinds[slot] == Layout.INT) {
+			slots.setPrimitive(slot, value);
+		} else {
+			store(slot, value);
+		}
+	}
+
+	/**
+	 * Sets the value of a slot to a primitive long, without boxing if possible.
+	 */
+	public void setLong(int slot, long value) {
+		Slots slots = boundSlots();
+		if (slots.layout.kinds[slot] == Layout.LONG) {
+			slots.setPrimitive(slot, value);
+		} else {
+			store(slot, value);
+		}
+	}
+
+	/**
+	 * Sets the value of a slot to a primitive double, without boxing if possible.
+	 */
+	public void setDouble(int slot, double value) {
+		Slots slots = boundSlots();
+		if (slots.layout.kinds[slot] == Layout.DOUBLE) {
+			slots.setPrimitive(slot, Double.doubleToRawLongBits(value));
+		} else {
+			store(slot, value);
+		}
+	}
+
+	/**
+	 * Sets the value of a slot to a primitive boolean, without boxing if possible.
+	 */
+	public void setBoolean(int slot, boolean value) {
+		Slots slots = boundSlots();
+		if (slots.layout.kinds[slot] == Layout.BOOLEAN) {
+			slots.setPrimitive(slot, value ? 1 : 0);
+		} else {
+			store(slot, value);
+		}
+	}
+
+	private static int toIntExact(long value) {
+		int i = (int)value;
+		if (i != value) {
+			throw new ArithmeticException("Value " + value + " doesn't fit in an int");
+		}
+		return i;
+	}
+
+	/**
+	 * Returns the value of an integer, that is, a Long, an Integer, a Short or a Byte.
+	 *
+	 * @param type the primitive type that is requested, for the error message
+	 */
+	private static long integerValue(Object value, String type) {
+		if (value instanceof Long || value instanceof Integer
+			|| value instanceof Short || value instanceof Byte) {
+			return ((Number)value).longValue();
+		}
+		String actual = (value == null) ? "null" : value.getClass().getName();
+		throw new ClassCastException("Cannot get a value of type " + actual + " as a " + type);
+	}
+
+	private Slots boundSlots() {
+		if (slots == null) {
+			throw new IllegalStateException("This config isn't bound to the slots of a spec");
+		}
+		return slots;
+	}
+
+	// --- Path-based access ---
+
+	@Override
+	public <T> T getRaw(List<String> path) {
+		UnmodifiableConfig parent = getParent(path);
+		String lastKey = path.get(path.size() - 1);
+		if (parent instanceof SpecBoundConfig) {
+			return (T)((SpecBoundConfig)parent).getLocal(lastKey);
+		}
+		return (parent == null) ? null : parent.getRaw(Collections.singletonList(lastKey));
+	}
+
+	@Override
+	public boolean contains(List<String> path) {
+		UnmodifiableConfig parent = getParent(path);
+		String lastKey = path.get(path.size() - 1);
+		if (parent instanceof SpecBoundConfig) {
+			return ((SpecBoundConfig)parent).containsLocal(lastKey);
+		}
+		return parent != null && parent.contains(Collections.singletonList(lastKey));
+	}
+
+	@Override
+	public <T> T set(List<String> path, Object value) {
+		Config parent = getOrCreateParent(path);
+		String lastKey = path.get(path.size() - 1);
+		if (parent instanceof SpecBoundConfig) {
+			Object nonNull = (value == null) ? NULL_OBJECT : value;
+			return (T)((SpecBoundConfig)parent).setLocal(lastKey, nonNull);
+		}
+		return parent.set(Collections.singletonList(lastKey), value);
+	}
+
+	@Override
+	public boolean add(List<String> path, Object value) {
+		Config parent = getOrCreateParent(path);
+		String lastKey = path.get(path.size() - 1);
+		if (parent instanceof SpecBoundConfig) {
+			SpecBoundConfig boundParent = (SpecBoundConfig)parent;
+			if (boundParent.containsLocal(lastKey)) {
+				return false;
+			}
+			boundParent.setLocal(lastKey, (value == null) ? NULL_OBJECT : value);
+			return true;
+		}
+		return parent.add(Collections.singletonList(lastKey), value);
+	}
+
+	@Override
+	public <T> T remove(List<String> path) {
+		UnmodifiableConfig parent = getParent(path);
+		String lastKey = path.get(path.size() - 1);
+		if (parent instanceof SpecBoundConfig) {
+			return (T)((SpecBoundConfig)parent).removeLocal(lastKey);
+		} else if (parent instanceof Config) {
+			return ((Config)parent).remove(Collections.singletonList(lastKey));
+		}
+		return null;
+	}
+
+	@Override
+	public String getComment(List<String> path) {
+		UnmodifiableConfig parent = getParent(path);
+		String lastKey = path.get(path.size() - 1);
+		if (parent instanceof SpecBoundConfig) {
+			return ((SpecBoundConfig)parent).getCommentLocal(lastKey);
+		} else if (parent instanceof UnmodifiableCommentedConfig) {
+			return ((UnmodifiableCommentedConfig)parent).getComment(Collections.singletonList(lastKey));
+		}
+		return null;
+	}
+
+	@Override
+	public boolean containsComment(List<String> path) {
+		return getComment(path) != null;
+	}
+
+	@Override
+	public String setComment(List<String> path, String comment) {
+		Config parent = getOrCreateParent(path);
+		String lastKey = path.get(path.size() - 1);
+		if (parent instanceof SpecBoundConfig) {
+			return ((SpecBoundConfig)parent).setCommentLocal(lastKey, comment);
+		} else if (parent instanceof CommentedConfig) {
+			return ((CommentedConfig)parent).setComment(Collections.singletonList(lastKey), comment);
+		}
+		throw new IncompatibleIntermediaryLevelException("Cannot set a comment to path "
+										   + path
+										   + " because the parent entry is of incompatible type "
+										   + parent.getClass());
+	}
+
+	@Override
+	public String removeComment(List<String> path) {
+		UnmodifiableConfig parent = getParent(path);
+		String lastKey = path.get(path.size() - 1);
+		if (parent instanceof SpecBoundConfig) {
+			return ((SpecBoundConfig)parent).setCommentLocal(lastKey, null);
+		} else if (parent instanceof CommentedConfig) {
+			return ((CommentedConfig)parent).removeComment(Collections.singletonList(lastKey));
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the config that contains the last key of the path, or null if there is none.
+	 */
+	private UnmodifiableConfig getParent(List<String> path) {
+		UnmodifiableConfig current = this;
+		for (int i = 0, lastIndex = path.size() - 1; i < lastIndex; i++) {
+			String key = path.get(i);
+			Object value;
+			if (current instanceof SpecBoundConfig) {
+				value = ((SpecBoundConfig)current).getLocal(key);
+			} else {
+				value = current.getRaw(Collections.singletonList(key));
+			}
+			if (!(value instanceof UnmodifiableConfig)) {// missing or incompatible intermediary level
+				return null;
+			}
+			current = (UnmodifiableConfig)value;
+		}
+		return current;
+	}
+
+	/**
+	 * Returns the config that contains the last key of the path. Any missing level is created.
+	 */
+	private Config getOrCreateParent(List<String> path) {
+		Config current = this;
+		for (int i = 0, lastIndex = path.size() - 1; i < lastIndex; i++) {
+			List<String> singleKey = Collections.singletonList(path.get(i));
+			Object value = current.getRaw(singleKey);
+			if (value == null) {// missing intermediary level
+				Config subConfig = current.createSubConfig();
+				current.set(singleKey, subConfig);
+				current = subConfig;// binds it if it's a level defined by the spec
+			} else if (!(value instanceof Config)) {// incompatible intermediary level
+				throw new IncompatibleIntermediaryLevelException(
+						"Cannot add an element to an intermediary value of type: "
+						+ value.getClass());
+			} else {// existing intermediary level
+				current = (Config)value;
+			}
+		}
+		return current;
+	}
+
+	// --- Operations on a key of this level ---
+
+	/**
+	 * @return the slot of the key in this level, or -1 if the key isn't defined by the spec
+	 */
+	private int slotOf(String key) {
+		if (level == null) {
+			return -1;
+		}
+		Integer slot = level.index.get(key);
+		return (slot == null) ? -1 : slot;
+	}
+
+	private Object getLocal(String key) {
+		int slot = slotOf(key);
+		if (slot >= 0) {
+			return slots.get(slot);
+		}
+		return (overflow == null) ? null : overflow.get(key);
+	}
+
+	private boolean containsLocal(String key) {
+		int slot = slotOf(key);
+		if (slot >= 0) {
+			return slots.states[slot] != Slots.ABSENT;
+		}
+		return overflow != null && overflow.containsKey(key);
+	}
+
+	private Object setLocal(String key, Object value) {
+		int slot = slotOf(key);
+		if (slot >= 0) {
+			return store(slot, value);
+		}
+		if (overflow == null) {
+			overflow = newMap();
+		}
+		return overflow.put(key, value);
+	}
+
+	private Object removeLocal(String key) {
+		int slot = slotOf(key);
+		if (slot >= 0) {
+			return clearSlot(slot);
+		}
+		return (overflow == null) ? null : overflow.remove(key);
+	}
+
+	private String getCommentLocal(String key) {
+		int slot = slotOf(key);
+		if (slot >= 0) {
+			return slots.comments[slot];
+		}
+		return (overflowComments == null) ? null : overflowComments.get(key);
+	}
+
+	/**
+	 * Sets the comment of a key, or removes it if the comment is null.
+	 */
+	private String setCommentLocal(String key, String comment) {
+		int slot = slotOf(key);
+		if (slot >= 0) {
+			String previous = slots.comments[slot];
+			slots.comments[slot] = comment;
+			return previous;
+		}
+		if (comment == null) {
+			return (overflowComments == null) ? null : overflowComments.remove(key);
+		}
+		if (overflowComments == null) {
+			overflowComments = newMap();
+		}
+		return overflowComments.put(key, comment);
+	}
+
+	/**
+	 * Stores a value in a slot. A config that is stored at a level defined by the spec is bound
+	 * to the slots of the level, or copied to them.
+	 *
+	 * @return the previous value
+	 */
+	private Object store(int slot, Object value) {
+		final Slots slots = this.slots;
+		final Object previous = slots.get(slot);
+		final byte kind = slots.layout.kinds[slot];
+		if (kind == Layout.SUBLEVEL) {
+			if (value == previous) {
+				return previous;
+			}
+			if (previous instanceof SpecBoundConfig) {
+				((SpecBoundConfig)previous).unbind();
+			}
+			if (value instanceof UnmodifiableConfig) {
+				value = bindOrCopy((UnmodifiableConfig)value, slots.layout.sublevels[slot]);
+			}
+			slots.setBoxed(slot, value);
+		} else if (value != null && value.getClass() == Layout.primitiveClass(kind)) {
+			slots.setPrimitive(slot, Layout.primitiveBits(kind, value));
+		} else {
+			slots.setBoxed(slot, value);
+		}
+		return previous;
+	}
+
+	private Object clearSlot(int slot) {
+		Object previous = slots.get(slot);
+		if (previous instanceof SpecBoundConfig && slots.layout.kinds[slot] == Layout.SUBLEVEL) {
+			((SpecBoundConfig)previous).unbind();
+		}
+		slots.setAbsent(slot);
+		return previous;
+	}
+
+	private SpecBoundConfig bindOrCopy(UnmodifiableConfig config, LevelLayout sublevel) {
+		if (config instanceof SpecBoundConfig && ((SpecBoundConfig)config).slots == null) {
+			SpecBoundConfig unbound = (SpecBoundConfig)config;
+			unbound.bind(slots, sublevel);
+			return unbound;
+		}
+		SpecBoundConfig view = new SpecBoundConfig(configFormat);
+		view.bind(slots, sublevel);
+		if (config instanceof UnmodifiableCommentedConfig) {
+			for (UnmodifiableCommentedConfig.Entry entry : ((UnmodifiableCommentedConfig)config).entrySet()) {
+				Object value = entry.getRawValue();
+				view.setLocal(entry.getKey(), (value == null) ? NULL_OBJECT : value);
+				String comment = entry.getComment();
+				if (comment != null) {
+					view.setCommentLocal(entry.getKey(), comment);
+				}
+			}
+		} else {
+			for (UnmodifiableConfig.Entry entry : config.entrySet()) {
+				Object value = entry.getRawValue();
+				view.setLocal(entry.getKey(), (value == null) ? NULL_OBJECT : value);
+			}
+		}
+		return view;
+	}
+
+	/**
+	 * Binds this unbound config to the slots of a level, and moves its content to the slots.
+	 */
+	private void bind(Slots slots, LevelLayout level) {
+		Map<String, Object> values = overflow;
+		Map<String, String> comments = overflowComments;
+		this.slots = slots;
+		this.level = level;
+		this.overflow = null;
+		this.overflowComments = null;
+		if (values != null) {
+			for (Map.Entry<String, Object> entry : values.entrySet()) {
+				setLocal(entry.getKey(), entry.getValue());
+			}
+		}
+		if (comments != null) {
+			for (Map.Entry<String, String> entry : comments.entrySet()) {
+				setCommentLocal(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Creates an overflow map, like the maps of {@link Config#inMemory()}.
+	 */
+	@SuppressWarnings("deprecation")// the creator of the non-concurrent maps isn't going away
+	private static <T> Map<String, T> newMap() {
+		return Config.<T>getDefaultMapCreator(false).get();
+	}
+
+	/**
+	 * Unbinds this config from the slots, and moves its content to the overflow maps. This is
+	 * done when the config is removed or replaced, so that it keeps its content.
+	 */
+	private void unbind() {
+		final Slots slots = this.slots;
+		final LevelLayout level = this.level;
+		Map<String, Object> values = newMap();
+		Map<String, String> comments = newMap();
+		for (int i = 0; i < level.keys.length; i++) {
+			final int slot = level.slots[i];
+			if (slots.states[slot] != Slots.ABSENT) {
+				Object value = slots.get(slot);
+				if (value instanceof SpecBoundConfig && slots.layout.kinds[slot] == Layout.SUBLEVEL) {
+					((SpecBoundConfig)value).unbind();
+				}
+				values.put(level.keys[i], value);
+				slots.setAbsent(slot);
+			}
+			if (slots.comments[slot] != null) {
+				comments.put(level.keys[i], slots.comments[slot]);
+				slots.comments[slot] = null;
+			}
+		}
+		if (overflow != null) {
+			values.putAll(overflow);
+		}
+		if (overflowComments != null) {
+			comments.putAll(overflowComments);
+		}
+		this.slots = null;
+		this.level = null;
+		this.overflow = values;
+		this.overflowComments = comments;
+	}
+
+	// --- Other Config methods ---
+
+	@Override
+	public int size() {
+		int size = (overflow == null) ? 0 : overflow.size();
+		if (level != null) {
+			for (int slot : level.slots) {
+				if (slots.states[slot] != Slots.ABSENT) {
+					size++;
+				}
+			}
+		}
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		clearValues();
+		if (level != null) {
+			for (int slot : level.slots) {
+				slots.comments[slot] = null;
+			}
+		}
+		overflowComments = null;
+	}
+
+	private void clearValues() {
+		if (level != null) {
+			for (int slot : level.slots) {
+				if (slots.states[slot] != Slots.ABSENT) {
+					clearSlot(slot);
+				}
+			}
+		}
+		overflow = null;
+	}
+
+	@Override
+	public void clearComments() {
+		if (level != null) {
+			for (int slot : level.slots) {
+				slots.comments[slot] = null;
+			}
+		}
+		overflowComments = null;
+		// Recursively clears the comments of the subconfigs:
+		for (Object value : valueMap().values()) {
+			if (value instanceof CommentedConfig) {
+				((CommentedConfig)value).clearComments();
+			}
+		}
+	}
+
+	@Override
+	@Deprecated
+	public Map<String, Object> valueMap() {
+		return new ValueMap();
+	}
+
+	@Override
+	@Deprecated
+	public Map<String, String> commentMap() {
+		return new CommentMap();
+	}
+
+	@Override
+	public Set<? extends CommentedConfig.Entry> entrySet() {
+		return new TransformingSet<>(valueMap().entrySet(), EntryView::new, o -> null, o -> o);
+	}
+
+	@Override
+	public ConfigFormat<?> configFormat() {
+		return configFormat;
+	}
+
+	/**
+	 * Creates a new config with the same format. It is bound to the slots of a level when it is
+	 * set at this level, see {@link SpecBoundConfig}.
+	 */
+	@Override
+	public SpecBoundConfig createSubConfig() {
+		return new SpecBoundConfig(configFormat);
+	}
+
+	@Override
+	public int hashCode() {
+		return valueMap().hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if (!(obj instanceof UnmodifiableConfig)) {
+			return false;
+		}
+		UnmodifiableConfig conf = (UnmodifiableConfig)obj;
+		if (conf.size() != size()) {
+			return false;
+		}
+		for (UnmodifiableConfig.Entry entry : entrySet()) {
+			List<String> key = Collections.singletonList(entry.getKey());
+			Object otherRaw = conf.getRaw(key);
+			if (otherRaw == null && !conf.contains(key)) {
+				return false;// a missing key isn't equal to a null value
+			}
+			Object otherValue = (otherRaw == NULL_OBJECT) ? null : otherRaw;
+			if (!Objects.equals(entry.getValue(), otherValue)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + ':' + valueMap();
+	}
+
+	// --- Views ---
+
+	/**
+	 * Iterates over the keys of this level that have a slot, then over the overflow map.
+	 */
+	private abstract class LevelIterator<V> implements Iterator<Map.Entry<String, V>> {
+		private final LevelLayout iteratedLevel = level;
+		private final Iterator<Map.Entry<String, V>> overflowIterator;
+		private int nextIndex = -1, lastSlot = -1;
+
+		LevelIterator(Map<String, V> overflowMap) {
+			this.overflowIterator = (overflowMap == null) ? Collections.emptyIterator()
+					: overflowMap.entrySet().iterator();
+			findNext();
+		}
+
+		abstract boolean isPresent(int slot);
+
+		abstract Map.Entry<String, V> slotEntry(String key, int slot);
+
+		abstract void removeSlot(int slot);
+
+		private void findNext() {
+			int keyCount = (iteratedLevel == null) ? 0 : iteratedLevel.keys.length;
+			do {
+				nextIndex++;
+			} while (nextIndex < keyCount && !isPresent(iteratedLevel.slots[nextIndex]));
+		}
+
+		@Override
+		public boolean hasNext() {
+			return (iteratedLevel != null && nextIndex < iteratedLevel.keys.length)
+				   || overflowIterator.hasNext();
+		}
+
+		@Override
+		public Map.Entry<String, V> next() {
+			if (iteratedLevel != null && nextIndex < iteratedLevel.keys.length) {
+				lastSlot = iteratedLevel.slots[nextIndex];
+				Map.Entry<String, V> entry = slotEntry(iteratedLevel.keys[nextIndex], lastSlot);
+				findNext();
+				return entry;
+			}
+			lastSlot = -1;
+			return overflowIterator.next();
+		}
+
+		@Override
+		public void remove() {
+			if (lastSlot >= 0) {
+				removeSlot(lastSlot);
+				lastSlot = -1;
+			} else {
+				overflowIterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * The values of this level, as a map. It is a view: writing to it modifies the config.
+	 */
+	private final class ValueMap extends AbstractMap<String, Object> {
+		@Override
+		public int size() {
+			return SpecBoundConfig.this.size();
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return (key instanceof String) && containsLocal((String)key);
+		}
+
+		@Override
+		public Object get(Object key) {
+			return (key instanceof String) ? getLocal((String)key) : null;
+		}
+
+		@Override
+		public Object put(String key, Object value) {
+			return setLocal(key, value);
+		}
+
+		@Override
+		public Object remove(Object key) {
+			return (key instanceof String) ? removeLocal((String)key) : null;
+		}
+
+		@Override
+		public void clear() {
+			clearValues();
+		}
+
+		@Override
+		public Set<Map.Entry<String, Object>> entrySet() {
+			return new AbstractSet<Map.Entry<String, Object>>() {
+				@Override
+				public Iterator<Map.Entry<String, Object>> iterator() {
+					return new LevelIterator<Object>(overflow) {
+						@Override
+						boolean isPresent(int slot) {
+							return slots.states[slot] != Slots.ABSENT;
+						}
+
+						@Override
+						Map.Entry<String, Object> slotEntry(String key, int slot) {
+							return new SimpleEntry<String, Object>(key, slots.get(slot)) {
+								@Override
+								public Object setValue(Object value) {
+									super.setValue(value);
+									return store(slot, value);
+								}
+							};
+						}
+
+						@Override
+						void removeSlot(int slot) {
+							clearSlot(slot);
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return SpecBoundConfig.this.size();
+				}
+			};
+		}
+	}
+
+	/**
+	 * The comments of this level, as a map. It is a view: writing to it modifies the config.
+	 */
+	private final class CommentMap extends AbstractMap<String, String> {
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public String get(Object key) {
+			return (key instanceof String) ? getCommentLocal((String)key) : null;
+		}
+
+		@Override
+		public String put(String key, String value) {
+			return setCommentLocal(key, Objects.requireNonNull(value, "null comment"));
+		}
+
+		@Override
+		public String remove(Object key) {
+			return (key instanceof String) ? setCommentLocal((String)key, null) : null;
+		}
+
+		@Override
+		public Set<Map.Entry<String, String>> entrySet() {
+			return new AbstractSet<Map.Entry<String, String>>() {
+				@Override
+				public Iterator<Map.Entry<String, String>> iterator() {
+					return new LevelIterator<String>(overflowComments) {
+						@Override
+						boolean isPresent(int slot) {
+							return slots.comments[slot] != null;
+						}
+
+						@Override
+						Map.Entry<String, String> slotEntry(String key, int slot) {
+							return new SimpleEntry<String, String>(key, slots.comments[slot]) {
+								@Override
+								public String setValue(String value) {
+									super.setValue(value);
+									String previous = slots.comments[slot];
+									slots.comments[slot] = Objects.requireNonNull(value, "null comment");
+									return previous;
+								}
+							};
+						}
+
+						@Override
+						void removeSlot(int slot) {
+							slots.comments[slot] = null;
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					int size = 0;
+					for (Iterator<Map.Entry<String, String>> it = iterator(); it.hasNext(); it.next()) {
+						size++;
+					}
+					return size;
+				}
+			};
+		}
+	}
+
+	/**
+	 * An entry of {@link #entrySet()}.
+	 */
+	private final class EntryView implements CommentedConfig.Entry {
+		private final Map.Entry<String, Object> mapEntry;
+
+		EntryView(Map.Entry<String, Object> mapEntry) {
+			this.mapEntry = mapEntry;
+		}
+
+		@Override
+		public String getKey() {
+			return mapEntry.getKey();
+		}
+
+		@Override
+		public <T> T getRawValue() {
+			return (T)mapEntry.getValue();
+		}
+
+		@Override
+		public <T> T setValue(Object value) {
+			return (T)mapEntry.setValue(value);
+		}
+
+		@Override
+		public String getComment() {
+			return getCommentLocal(getKey());
+		}
+
+		@Override
+		public String setComment(String comment) {
+			return setCommentLocal(getKey(), comment);
+		}
+
+		@Override
+		public String removeComment() {
+			return setCommentLocal(getKey(), null);
+		}
+
+		@Override
+		public String toString() {
+			return "SpecBoundConfig.Entry(" + getKey() + "=" + getValue() + ")";
+		}
+	}
+
+	// --- Storage and layout ---
+
+	/**
+	 * The values and comments of a config and of its sub-configs, one slot per path of the spec.
+	 */
+	private static final class Slots {
+		// states of the slots
+		static final byte ABSENT = 0, BOXED = 1, PRIMITIVE = 2;
+
+		final Layout layout;
+		final Object[] values;
+		final long[] primitives;
+		final byte[] states;
+		final String[] comments;
+
+		Slots(Layout layout) {
+			int size = layout.kinds.length;
+			this.layout = layout;
+			this.values = new Object[size];
+			this.primitives = new long[size];
+			this.states = new byte[size];
+			this.comments = new String[size];
+		}
+
+		Object get(int slot) {
+			switch (states[slot]) {
+				case ABSENT:
+					return null;
+				case BOXED:
+					return values[slot];
+				default:
+					return Layout.box(layout.kinds[slot], primitives[slot]);
+			}
+		}
+
+		void setBoxed(int slot, Object value) {
+			values[slot] = value;
+			states[slot] = BOXED;
+		}
+
+		void setPrimitive(int slot, long bits) {
+			values[slot] = null;
+			primitives[slot] = bits;
+			states[slot] = PRIMITIVE;
+		}
+
+		void setAbsent(int slot) {
+			values[slot] = null;
+			states[slot] = ABSENT;
+		}
+	}
+
+	/**
+	 * The layout of a spec: the slot of each path and the type of its values. The layout is
+	 * created once per {@link CompiledConfigSpec}.
+	 */
+	static final class Layout {
+		// kinds of the slots
+		static final byte OBJECT = 0, INT = 1, LONG = 2, DOUBLE = 3, BOOLEAN = 4, SUBLEVEL = 5;
+
+		final LevelLayout root;
+		final byte[] kinds;
+		final LevelLayout[] sublevels;// the layout of each SUBLEVEL slot, null for the others
+
+		Layout(Level specRoot) {
+			int size = countSlots(specRoot);
+			this.kinds = new byte[size];
+			this.sublevels = new LevelLayout[size];
+			this.root = assignSlots(specRoot, new int[1]);
+		}
+
+		private static int countSlots(Level specLevel) {
+			int count = specLevel.nodes.length;
+			for (Object node : specLevel.nodes) {
+				if (node instanceof Level) {
+					count += countSlots((Level)node);
+				}
+			}
+			return count;
+		}
+
+		private LevelLayout assignSlots(Level specLevel, int[] nextSlot) {
+			int[] levelSlots = new int[specLevel.keys.length];
+			for (int i = 0; i < levelSlots.length; i++) {
+				int slot = nextSlot[0]++;
+				levelSlots[i] = slot;
+				Object node = specLevel.nodes[i];
+				if (node instanceof Level) {
+					kinds[slot] = SUBLEVEL;
+					sublevels[slot] = assignSlots((Level)node, nextSlot);
+				} else {
+					kinds[slot] = kindOf(((Check)node).defaultValueSupplier.get());
+				}
+			}
+			return new LevelLayout(specLevel.keys, levelSlots);
+		}
+
+		private static byte kindOf(Object defaultValue) {
+			if (defaultValue instanceof Integer) {
+				return INT;
+			} else if (defaultValue instanceof Long) {
+				return LONG;
+			} else if (defaultValue instanceof Double) {
+				return DOUBLE;
+			} else if (defaultValue instanceof Boolean) {
+				return BOOLEAN;
+			}
+			return OBJECT;
+		}
+
+		/**
+		 * @return the class of the values that are stored without boxing, or null
+		 */
+		static Class<?> primitiveClass(byte kind) {
+			switch (kind) {
+				case INT:
+					return Integer.class;
+				case LONG:
+					return Long.class;
+				case DOUBLE:
+					return Double.class;
+				case BOOLEAN:
+					return Boolean.class;
+				default:
+					return null;
+			}
+		}
+
+		static long primitiveBits(byte kind, Object value) {
+			switch (kind) {
+				case DOUBLE:
+					return Double.doubleToRawLongBits((Double)value);
+				case BOOLEAN:
+					return ((Boolean)value) ? 1 : 0;
+				default:
+					return ((Number)value).longValue();
+			}
+		}
+
+		static Object box(byte kind, long bits) {
+			switch (kind) {
+				case INT:
+					return (int)bits;
+				case LONG:
+					return bits;
+				case DOUBLE:
+					return Double.longBitsToDouble(bits);
+				default:
+					return bits != 0;
+			}
+		}
+	}
+
+	/**
+	 * The slots of a level of the spec.
+	 */
+	private static final class LevelLayout {
+		final String[] keys;
+		final int[] slots;
+		final Map<String, Integer> index;
+
+		LevelLayout(String[] keys, int[] slots) {
+			this.keys = keys;
+			this.slots = slots;
+			this.index = new HashMap<>((int)(keys.length / 0.75f) + 1);
+			for (int i = 0; i < keys.length; i++) {
+				index.put(keys[i], slots[i]);
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,383 @@
+package com.electronwill.nightconfig.core;
+
+import com.electronwill.nightconfig.core.ConfigSpec.CorrectionListener;
+import com.electronwill.nightconfig.core.concurrent.ConcurrentCommentedConfig;
+import com.electronwill.nightconfig.core.concurrent.ConfigBatch;
+import com.electronwill.nightconfig.core.utils.CommentedConfigWrapper;
+import com.electronwill.nightconfig.core.utils.ConcurrentCommentedConfigWrapper;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A concurrent config that is corrected by a {@link CompiledConfigSpec} after each modification.
+ * Only the modified entries are corrected, so that the cost of a modification doesn't depend on
+ * the size of the config. Each modification and its correction are atomic.
+ * <p>
+ * The entries that are modified with {@code set}, {@code add}, {@code remove}, {@code putAll},
+ * {@code removeAll}, {@code apply}, through {@link #valueMap()} and in a {@code bulkUpdate} are
+ * tracked. A {@code clear} corrects the whole config. The modifications made
+ * through {@link #entrySet()}, or directly on a sub-config, are not detected: call
+ * {@link #correctAll()} after them.
+ *
+ * @author TheElectronWill
+ */
+public class SpecCorrectedConfig<C extends ConcurrentCommentedConfig> extends ConcurrentCommentedConfigWrapper<C> {
+	protected final CompiledConfigSpec spec;
+	protected final CorrectionListener listener;
+
+	/**
+	 * Creates a new SpecCorrectedConfig around a given configuration.
+	 * <p>
+	 * The values that are in the config when this method is called are also corrected.
+	 *
+	 * @param config   the configuration to wrap
+	 * @param spec     the specification to apply
+	 * @param listener the listener to notify of each correction
+	 */
+	protected SpecCorrectedConfig(C config, CompiledConfigSpec spec, CorrectionListener listener) {
+		super(config);
+		this.spec = spec;
+		this.listener = listener;
+		correctAll();
+	}
+
+	/**
+	 * Corrects the whole configuration.
+	 *
+	 * @return the number of added, removed or replaced values.
+	 */
+	public int correctAll() {
+		return spec.correct(config, listener);
+	}
+
+	private void correctPath(Config view, List<String> path) {
+		spec.correct(view, Collections.singletonList(path), listener, config::createSubConfig);
+	}
+
+	@Override
+	public <T> T set(List<String> path, Object value) {
+		return config.bulkUpdate(view -> {
+			T previous = view.set(path, value);
+			correctPath(view, path);
+			return previous;
+		});
+	}
+
+	@Override
+	public boolean add(List<String> path, Object value) {
+		return config.bulkUpdate(view -> {
+			boolean added = view.add(path, value);
+			if (added) {
+				correctPath(view, path);
+			}
+			return added;
+		});
+	}
+
+	@Override
+	public <T> T remove(List<String> path) {
+		return config.bulkUpdate(view -> {
+			T previous = view.remove(path);
+			correctPath(view, path);
+			return previous;
+		});
+	}
+
+	@Override
+	public void putAll(UnmodifiableConfig other) {
+		config.bulkUpdate(view -> {
+			view.putAll(other);
+			correctKeys(view, other);
+		});
+	}
+
+	@Override
+	public void removeAll(UnmodifiableConfig other) {
+		config.bulkUpdate(view -> {
+			view.removeAll(other);
+			correctKeys(view, other);
+		});
+	}
+
+	private void correctKeys(Config view, UnmodifiableConfig other) {
+		List<List<String>> paths = new ArrayList<>();
+		for (UnmodifiableConfig.Entry entry : other.entrySet()) {
+			paths.add(Collections.singletonList(entry.getKey()));
+		}
+		spec.correct(view, paths, listener, config::createSubConfig);
+	}
+
+	@Override
+	public void clear() {
+		config.bulkUpdate(view -> {
+			view.clear();
+			spec.correct(view, Collections.singletonList(Collections.emptyList()), listener,
+						 config::createSubConfig);
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Each modification of the map is made in a bulk update of the config, with the correction
+	 * of the modified entry.
+	 */
+	@Override
+	public Map<String, Object> valueMap() {
+		return new CorrectedValueMap();
+	}
+
+	@Override
+	public void bulkUpdate(Consumer<? super Config> action) {
+		bulkCommentedUpdate(action::accept);
+	}
+
+	@Override
+	public <R> R bulkUpdate(Function<? super Config, R> action) {
+		return bulkCommentedUpdate(action::apply);
+	}
+
+	@Override
+	public void bulkCommentedUpdate(Consumer<? super CommentedConfig> action) {
+		bulkCommentedUpdate(view -> {
+			action.accept(view);
+			return null;
+		});
+	}
+
+	@Override
+	public <R> R bulkCommentedUpdate(Function<? super CommentedConfig, R> action) {
+		return config.bulkCommentedUpdate(view -> {
+			TrackingView tracking = new TrackingView(view);
+			R result = action.apply(tracking);
+			if (!tracking.modifiedPaths.isEmpty()) {
+				spec.correct(view, tracking.modifiedPaths, listener, config::createSubConfig);
+			}
+			return result;
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The changed entries are corrected before the end of the atomic operation. The returned
+	 * changes don't include the corrections, which are given to the correction listener.
+	 */
+	@Override
+	public List<ConfigBatch.Change> apply(ConfigBatch batch) {
+		return config.bulkCommentedUpdate(view -> {
+			List<ConfigBatch.Change> changes = batch.applyTo(view);
+			if (!changes.isEmpty()) {
+				List<List<String>> paths = new ArrayList<>(changes.size());
+				for (ConfigBatch.Change change : changes) {
+					paths.add(change.getPath());
+				}
+				spec.correct(view, paths, listener, config::createSubConfig);
+			}
+			return changes;
+		});
+	}
+
+	@Override
+	public String toString() {
+		return "spec-corrected of " + config;
+	}
+
+	/**
+	 * A value map that modifies the config, and corrects it, in a single atomic operation.
+	 */
+	private final class CorrectedValueMap extends AbstractMap<String, Object> {
+		@Override
+		public Object get(Object key) {
+			return (key instanceof String) ? config.getRaw(Collections.singletonList((String)key)) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return (key instanceof String) && config.contains(Collections.singletonList((String)key));
+		}
+
+		@Override
+		public int size() {
+			return config.size();
+		}
+
+		@Override
+		public Object put(String key, Object value) {
+			List<String> path = Collections.singletonList(key);
+			return config.bulkUpdate(view -> {
+				Object previous = view.getRaw(path);
+				view.set(path, value);
+				correctPath(view, path);
+				return previous;
+			});
+		}
+
+		@Override
+		public Object remove(Object key) {
+			if (!(key instanceof String)) {
+				return null;
+			}
+			List<String> path = Collections.singletonList((String)key);
+			return config.bulkUpdate(view -> {
+				Object previous = view.getRaw(path);
+				view.remove(path);
+				correctPath(view, path);
+				return previous;
+			});
+		}
+
+		@Override
+		public void clear() {
+			SpecCorrectedConfig.this.clear();
+		}
+
+		@Override
+		public Set<Map.Entry<String, Object>> entrySet() {
+			return new AbstractSet<Map.Entry<String, Object>>() {
+				@Override
+				public Iterator<Map.Entry<String, Object>> iterator() {
+					// iterates on a copy, the modifications go through the map
+					List<Map.Entry<String, Object>> entries = config.bulkRead(view -> {
+						List<Map.Entry<String, Object>> list = new ArrayList<>(view.size());
+						for (UnmodifiableConfig.Entry entry : view.entrySet()) {
+							list.add(new CorrectedEntry(entry.getKey(), entry.getRawValue()));
+						}
+						return list;
+					});
+					Iterator<Map.Entry<String, Object>> it = entries.iterator();
+					return new Iterator<Map.Entry<String, Object>>() {
+						private Map.Entry<String, Object> last;
+
+						@Override
+						public boolean hasNext() {
+							return it.hasNext();
+						}
+
+						@Override
+						public Map.Entry<String, Object> next() {
+							return last = it.next();
+						}
+
+						@Override
+						public void remove() {
+							if (last == null) {
+								throw new IllegalStateException();
+							}
+							CorrectedValueMap.this.remove(last.getKey());
+							last = null;
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return config.size();
+				}
+			};
+		}
+
+		private final class CorrectedEntry implements Map.Entry<String, Object> {
+			private final String key;
+			private Object value;
+
+			CorrectedEntry(String key, Object value) {
+				this.key = key;
+				this.value = value;
+			}
+
+			@Override
+			public String getKey() {
+				return key;
+			}
+
+			@Override
+			public Object getValue() {
+				return value;
+			}
+
+			@Override
+			public Object setValue(Object value) {
+				this.value = value;
+				return put(key, value);
+			}
+
+			@Override
+			public boolean equals(Object obj) {
+				if (!(obj instanceof Map.Entry)) {
+					return false;
+				}
+				Map.Entry<?, ?> other = (Map.Entry<?, ?>)obj;
+				return key.equals(other.getKey()) && Objects.equals(value, other.getValue());
+			}
+
+			@Override
+			public int hashCode() {
+				return key.hashCode() ^ Objects.hashCode(value);
+			}
+
+			@Override
+			public String toString() {
+				return key + "=" + value;
+			}
+		}
+	}
+
+	/**
+	 * Records the paths that are modified during a bulk update. An empty path means that the
+	 * whole config may have been modified.
+	 */
+	private static final class TrackingView extends CommentedConfigWrapper<CommentedConfig> {
+		final List<List<String>> modifiedPaths = new ArrayList<>();
+
+		TrackingView(CommentedConfig config) {
+			super(config);
+		}
+
+		@Override
+		public <T> T set(List<String> path, Object value) {
+			modifiedPaths.add(new ArrayList<>(path));
+			return super.set(path, value);
+		}
+
+		@Override
+		public boolean add(List<String> path, Object value) {
+			modifiedPaths.add(new ArrayList<>(path));
+			return super.add(path, value);
+		}
+
+		@Override
+		public <T> T remove(List<String> path) {
+			modifiedPaths.add(new ArrayList<>(path));
+			return super.remove(path);
+		}
+
+		@Override
+		public void clear() {
+			modifiedPaths.add(Collections.emptyList());
+			super.clear();
+		}
+
+		@Override
+		public Map<String, Object> valueMap() {
+			modifiedPaths.add(Collections.emptyList());
+			return super.valueMap();
+		}
+
+		@Override
+		public Set<? extends CommentedConfig.Entry> entrySet() {
+			modifiedPaths.add(Collections.emptyList());
+			return super.entrySet();
+		}
+	}
+}
\ No newline at end of file
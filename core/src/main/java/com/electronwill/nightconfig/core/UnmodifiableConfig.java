@@ -909,6 +909,17 @@ public interface UnmodifiableConfig {
 	 */
 	ConfigFormat<?> configFormat();
 
+	/**
+	 * Creates an immutable copy of this config, which uses much less memory than the usual
+	 * configs. The comments are copied too, if this config has some.
+	 *
+	 * @return a FrozenConfig with the same content as this config
+	 * @see FrozenConfig
+	 */
+	default FrozenConfig freeze() {
+		return FrozenConfig.of(this);
+	}
+
 	//--- Scala convenience methods ---
 
 	/**
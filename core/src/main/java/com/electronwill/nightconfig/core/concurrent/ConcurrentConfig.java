@@ -1,5 +1,6 @@
 package com.electronwill.nightconfig.core.concurrent;
 
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -137,6 +138,40 @@ public interface ConcurrentConfig extends Config {
         });
     }
 
+    /**
+     * Applies a batch of modifications as a single atomic operation.
+     * <p>
+     * The batch is built beforehand, without holding any lock. Its modifications are grouped by
+     * sub-config, so that each sub-config is navigated to only once, and the implementations can
+     * lock each sub-config only once instead of once per modification. This is much faster than
+     * calling {@code set} and {@code remove} for each value, especially with many modifications.
+     * <p>
+     * The batch is applied entirely or not at all: if it modifies the entries of a value that is
+     * not a config, an {@link com.electronwill.nightconfig.core.IncompatibleIntermediaryLevelException}
+     * is thrown before any modification.
+     * <p>
+     * Here is an example:
+     *
+     * <pre>
+     * {@code
+     * ConfigBatch batch = new ConfigBatch()
+     *     .set("server.host", "localhost")
+     *     .set("server.port", 8080)
+     *     .remove("server.legacy");
+     * List<ConfigBatch.Change> changes = config.apply(batch);
+     * }
+     * </pre>
+     *
+     * @param batch the modifications to apply
+     * @return the changes made to the config, which don't include the modifications that didn't
+     * change anything (for instance, setting a value to its current value)
+     */
+    default List<ConfigBatch.Change> apply(ConfigBatch batch) {
+        return bulkUpdate(view -> {
+            return batch.applyTo(view);
+        });
+    }
+
     /**
      * Creates a new configuration that is meant to be inserted into this config.
      * <p>
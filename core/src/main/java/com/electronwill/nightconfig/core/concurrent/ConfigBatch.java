@@ -0,0 +1,319 @@
+package com.electronwill.nightconfig.core.concurrent;
+
+import static com.electronwill.nightconfig.core.NullObject.NULL_OBJECT;
+import static com.electronwill.nightconfig.core.utils.StringUtils.split;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.core.IncompatibleIntermediaryLevelException;
+
+/**
+ * A set of modifications to apply to a configuration at once, with {@link ConcurrentConfig#apply(ConfigBatch)}.
+ * <p>
+ * The batch is built without touching the config, and therefore without any lock. The modifications
+ * are grouped by sub-config, so that each sub-config is navigated to, and locked, only once when the
+ * batch is applied, instead of once per modification.
+ * <p>
+ * The result is the same as applying the modifications one by one, in the order in which they have
+ * been added to the batch. If the same path is modified multiple times, only the last modification
+ * is kept, and setting or removing a sub-config discards the modifications of its entries that have
+ * been added before. For instance, setting "a.b" then removing "a" removes "a", whereas removing "a"
+ * then setting "a.b" creates a new "a" that contains "b". A value cannot be set inside a sub-config
+ * that the batch sets: this throws an {@link IllegalArgumentException} when the value is added.
+ * <p>
+ * A {@code ConfigBatch} is not thread-safe, but it can be applied from any thread once it is built.
+ * It can be applied multiple times.
+ *
+ * @author TheElectronWill
+ */
+public final class ConfigBatch {
+	/** Marks a removal in {@link Node#values}. */
+	private static final Object REMOVAL = new Object();
+
+	final Node root = new Node();
+	private int size;
+
+	/**
+	 * Adds a modification that sets a config value.
+	 *
+	 * @param path  the value's path, each part separated by a dot. Example "a.b.c"
+	 * @param value the value to set
+	 * @return this batch
+	 */
+	public ConfigBatch set(String path, Object value) {
+		return set(split(path, '.'), value);
+	}
+
+	/**
+	 * Adds a modification that sets a config value.
+	 *
+	 * @param path  the value's path, each element of the list is a different part of the path.
+	 * @param value the value to set
+	 * @return this batch
+	 */
+	public ConfigBatch set(List<String> path, Object value) {
+		return put(path, value);
+	}
+
+	/**
+	 * Adds a modification that removes a config value.
+	 *
+	 * @param path the value's path, each part separated by a dot. Example "a.b.c"
+	 * @return this batch
+	 */
+	public ConfigBatch remove(String path) {
+		return remove(split(path, '.'));
+	}
+
+	/**
+	 * Adds a modification that removes a config value.
+	 *
+	 * @param path the value's path, each element of the list is a different part of the path.
+	 * @return this batch
+	 */
+	public ConfigBatch remove(List<String> path) {
+		return put(path, REMOVAL);
+	}
+
+	private ConfigBatch put(List<String> path, Object value) {
+		if (path.isEmpty()) {
+			throw new IllegalArgumentException("empty entry path");
+		}
+		boolean isSet = (value != REMOVAL);
+		Node node = root;
+		int lastIndex = path.size() - 1;
+		for (int i = 0; i < lastIndex; i++) {
+			String key = path.get(i);
+			if (isSet && node.values.containsKey(key) && node.values.get(key) != REMOVAL) {
+				throw new IllegalArgumentException("Cannot set " + String.join(".", path)
+						+ " because the batch already sets " + String.join(".", path.subList(0, i + 1)));
+			}
+			node.hasSets |= isSet;
+			node = node.children.computeIfAbsent(key, k -> new Node());
+		}
+		String key = path.get(lastIndex);
+		Node replacedLevel = node.children.remove(key);
+		if (replacedLevel != null) {
+			// the previous modifications of the level are overwritten by this one
+			size -= replacedLevel.count();
+		}
+		node.hasSets |= isSet;
+		if (!node.values.containsKey(key)) {
+			size++;
+		}
+		node.values.put(key, value);
+		return this;
+	}
+
+	/**
+	 * @return the number of modifications in this batch
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return true if this batch contains no modification
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Performs an action for each value that this batch sets.
+	 *
+	 * @param action the action to perform, with the path and the value
+	 */
+	public void forEachSet(BiConsumer<? super List<String>, Object> action) {
+		forEachSet(root, new ArrayList<>(), action);
+	}
+
+	private static void forEachSet(Node node, List<String> path, BiConsumer<? super List<String>, Object> action) {
+		for (Map.Entry<String, Object> entry : node.values.entrySet()) {
+			if (entry.getValue() != REMOVAL) {
+				path.add(entry.getKey());
+				action.accept(Collections.unmodifiableList(new ArrayList<>(path)), entry.getValue());
+				path.remove(path.size() - 1);
+			}
+		}
+		for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+			if (entry.getValue().hasSets) {
+				path.add(entry.getKey());
+				forEachSet(entry.getValue(), path, action);
+				path.remove(path.size() - 1);
+			}
+		}
+	}
+
+	/**
+	 * Applies this batch to a configuration, without any synchronization. To apply the batch to a
+	 * {@link ConcurrentConfig}, use {@link ConcurrentConfig#apply(ConfigBatch)} instead.
+	 * <p>
+	 * The intermediary levels are checked before any modification: if the batch modifies the
+	 * entries of a value that is not a config, an {@link IncompatibleIntermediaryLevelException}
+	 * is thrown and the config is left unchanged.
+	 *
+	 * @param config the config to modify
+	 * @return the changes made to the config, in the order of their application
+	 */
+	public List<Change> applyTo(Config config) {
+		checkLevels(config, root, new ArrayList<>());
+		List<Change> changes = new ArrayList<>();
+		applyTo(config, root, new ArrayList<>(), changes);
+		return changes;
+	}
+
+	/** Checks that the sub-configs modified by the batch are configs, or will be created. */
+	private static void checkLevels(Config config, Node node, List<String> path) {
+		for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+			String key = entry.getKey();
+			if (node.values.get(key) == REMOVAL) {
+				continue; // the level is removed, then created again if needed
+			}
+			Object level = config.getRaw(Collections.singletonList(key));
+			if (level instanceof Config) {
+				path.add(key);
+				checkLevels((Config)level, entry.getValue(), path);
+				path.remove(path.size() - 1);
+			} else if (level != null && entry.getValue().hasSets) {
+				throw incompatibleLevel(path, key, level);
+			}
+		}
+	}
+
+	private static void applyTo(Config config, Node node, List<String> path, List<Change> changes) {
+		for (Map.Entry<String, Object> entry : node.values.entrySet()) {
+			List<String> key = Collections.singletonList(entry.getKey());
+			Object value = entry.getValue();
+			if (value == REMOVAL) {
+				Object previous = config.remove(key);
+				addRemoval(changes, path, entry.getKey(), previous);
+			} else {
+				Object previous = config.set(key, value);
+				addReplacement(changes, path, entry.getKey(), previous, value);
+			}
+		}
+		for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+			List<String> key = Collections.singletonList(entry.getKey());
+			Node child = entry.getValue();
+			Object level = config.getRaw(key);
+			Config sub;
+			if (level instanceof Config) {
+				sub = (Config)level;
+			} else if (!child.hasSets) {
+				continue; // only removals: nothing to remove in a missing or incompatible level
+			} else if (level == null) {
+				sub = config.createSubConfig();
+				config.set(key, sub);
+			} else {
+				throw incompatibleLevel(path, entry.getKey(), level);
+			}
+			path.add(entry.getKey());
+			applyTo(sub, child, path, changes);
+			path.remove(path.size() - 1);
+		}
+	}
+
+	/** Records the removal of a value, if there was a value to remove. */
+	static void addRemoval(List<Change> changes, List<String> parentPath, String key, Object previous) {
+		if (previous != null) {
+			changes.add(new Change(childPath(parentPath, key), previous, null));
+		}
+	}
+
+	/** Records the replacement of a value, if the new value is different. */
+	static void addReplacement(List<Change> changes, List<String> parentPath, String key,
+							   Object previous, Object value) {
+		Object nnValue = (value == null) ? NULL_OBJECT : value;
+		if (!Objects.equals(previous, nnValue)) {
+			changes.add(new Change(childPath(parentPath, key), previous, nnValue));
+		}
+	}
+
+	static IncompatibleIntermediaryLevelException incompatibleLevel(List<String> parentPath, String key,
+																	Object level) {
+		return new IncompatibleIntermediaryLevelException(
+				"Cannot apply the batch to the entries of " + childPath(parentPath, key)
+						+ " because of an incompatible intermediary value of type: " + level.getClass());
+	}
+
+	private static List<String> childPath(List<String> parentPath, String key) {
+		List<String> path = new ArrayList<>(parentPath.size() + 1);
+		path.addAll(parentPath);
+		path.add(key);
+		return Collections.unmodifiableList(path);
+	}
+
+	/** The modifications of one config level. */
+	static final class Node {
+		/** Key -> value to set, or {@link #REMOVAL}. */
+		final Map<String, Object> values = new LinkedHashMap<>();
+		final Map<String, Node> children = new LinkedHashMap<>();
+		/** true if this level, or one of its sub-levels, sets a value */
+		boolean hasSets;
+
+		/** @return the number of modifications of this level and its sub-levels */
+		int count() {
+			int count = values.size();
+			for (Node child : children.values()) {
+				count += child.count();
+			}
+			return count;
+		}
+
+		static boolean isRemoval(Object value) {
+			return value == REMOVAL;
+		}
+	}
+
+	/**
+	 * A change made to a config by a batch.
+	 * <p>
+	 * The values are the raw values, as returned by {@link Config#getRaw(List)}: a null value is
+	 * represented by {@link com.electronwill.nightconfig.core.NullObject#NULL_OBJECT}, and a missing
+	 * value by {@code null}.
+	 */
+	public static final class Change {
+		private final List<String> path;
+		private final Object oldValue, newValue;
+
+		Change(List<String> path, Object oldValue, Object newValue) {
+			this.path = path;
+			this.oldValue = oldValue;
+			this.newValue = newValue;
+		}
+
+		/**
+		 * @return the path of the modified value
+		 */
+		public List<String> getPath() {
+			return path;
+		}
+
+		/**
+		 * @return the value before the change, or {@code null} if there was no value
+		 */
+		public Object getOldValue() {
+			return oldValue;
+		}
+
+		/**
+		 * @return the value after the change, or {@code null} if the value has been removed
+		 */
+		public Object getNewValue() {
+			return newValue;
+		}
+
+		@Override
+		public String toString() {
+			return "Change{" + String.join(".", path) + ": " + oldValue + " -> " + newValue + "}";
+		}
+	}
+}
\ No newline at end of file
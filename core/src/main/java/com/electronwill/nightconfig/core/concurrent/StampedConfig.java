@@ -4,7 +4,9 @@ import static com.electronwill.nightconfig.core.NullObject.NULL_OBJECT;
 
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -15,6 +17,7 @@ import com.electronwill.nightconfig.core.AbstractConfig;
 import com.electronwill.nightconfig.core.CommentedConfig;
 import com.electronwill.nightconfig.core.Config;
 import com.electronwill.nightconfig.core.ConfigFormat;
+import com.electronwill.nightconfig.core.FrozenConfig;
 import com.electronwill.nightconfig.core.InMemoryCommentedFormat;
 import com.electronwill.nightconfig.core.IncompatibleIntermediaryLevelException;
 import com.electronwill.nightconfig.core.UnmodifiableCommentedConfig;
@@ -26,8 +29,13 @@ import com.electronwill.nightconfig.core.utils.TransformingSet;
  * <p>
  * Unlike {@link SynchronizedConfig}, {@code StampedConfig} allows multiple concurrent reads.
  * It should also perform better under contention.
+ * <p>
+ * The {@link #version()} is shared by the config and the sub-configs created by
+ * {@link #createSubConfig()}. Each level keeps its last {@link #snapshot()}, which is reused by
+ * the next snapshots as long as the level and its sub-levels are not modified: only the modified
+ * levels are copied again.
  */
-public final class StampedConfig implements ConcurrentCommentedConfig {
+public final class StampedConfig implements ConcurrentCommentedConfig, VersionedConfig {
 
     private final ConfigFormat<?> configFormat;
     private final Supplier<Map<String, Object>> mapSupplier;
@@ -36,6 +44,21 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
 
     private final StampedLock lock = new StampedLock();
 
+    /**
+     * version of the whole config, shared with the sub-configs. It only changes when the level is
+     * adopted by another config, with the write lock held.
+     */
+    private volatile AtomicLong version;
+
+    /** number of modifications of this level, guarded by the lock */
+    private long modCount;
+
+    /** last snapshot of this level */
+    private volatile Snapshot lastSnapshot;
+
+    /** last copy of this level made by newAccumulatorCopy */
+    private volatile SharedCopy lastSharedCopy;
+
     /** current state for reasonable deadlock prevention */
     private final ThreadLocal<ThreadConfigState> state = ThreadLocal
             .withInitial(() -> ThreadConfigState.NORMAL);
@@ -47,20 +70,23 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
         this(InMemoryCommentedFormat.defaultInstance(), Config.getDefaultMapCreator(false));
     }
 
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     public StampedConfig(ConfigFormat<?> configFormat, Supplier<Map<String, Object>> mapSupplier) {
-        this.configFormat = configFormat;
-        this.mapSupplier = mapSupplier;
-        this.values = mapSupplier.get();
-        this.comments = (Map) mapSupplier.get();
+        this(configFormat, mapSupplier, new AtomicLong());
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private StampedConfig(ConfigFormat<?> configFormat, Supplier<Map<String, Object>> mapSupplier,
+            AtomicLong version) {
+        this(configFormat, mapSupplier, mapSupplier.get(), (Map) mapSupplier.get(), version);
     }
 
     StampedConfig(ConfigFormat<?> configFormat, Supplier<Map<String, Object>> mapSupplier,
-            Map<String, Object> values, Map<String, String> comments) {
+            Map<String, Object> values, Map<String, String> comments, AtomicLong version) {
         this.configFormat = configFormat;
         this.mapSupplier = mapSupplier;
         this.values = values;
         this.comments = comments;
+        this.version = version;
     }
 
     // ----- specific -----
@@ -78,13 +104,16 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
             try {
                 this.values = newContent.values;
                 this.comments = newContent.comments;
+                adoptSubLevels();
                 newContent.values = null;
                 newContent.comments = null;
+                newContent.lastSnapshot = null;
+                newContent.lastSharedCopy = null;
             } finally {
                 newContent.lock.unlockWrite(otherVS);
             }
         } finally {
-            lock.unlockWrite(stamp);
+            unlockWrite(stamp);
         }
     }
 
@@ -101,9 +130,45 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
             newContent.prepareReplacement();
             this.values = newContent.values();
             this.comments = newContent.comments();
+            adoptSubLevels();
             newContent.invalidate();
         } finally {
-            lock.unlockWrite(stamp);
+            unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Makes the sub-levels of the new content of this level share its version, so that their
+     * modifications are counted by {@link #version()}. The write lock of this level must be held.
+     */
+    private void adoptSubLevels() {
+        Set<StampedConfig> adopted = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object value : values.values()) {
+            adopt(value, adopted);
+        }
+    }
+
+    private void adopt(Object v, Set<StampedConfig> adopted) {
+        if (v instanceof StampedConfig) {
+            StampedConfig level = (StampedConfig) v;
+            if (adopted.add(level)) {
+                long stamp = level.lock.writeLock();
+                try {
+                    level.version = version;
+                    // the last snapshot and copy are checked against the old version
+                    level.lastSnapshot = null;
+                    level.lastSharedCopy = null;
+                    for (Object value : level.values.values()) {
+                        adopt(value, adopted);
+                    }
+                } finally {
+                    level.lock.unlockWrite(stamp);
+                }
+            }
+        } else if (v instanceof List) {
+            for (Object elem : (List<?>) v) {
+                adopt(elem, adopted);
+            }
         }
     }
 
@@ -112,49 +177,528 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
      * See {@link Accumulator} for more information.
      */
     public Accumulator newAccumulator() {
-        return new Accumulator(configFormat, mapSupplier);
+        return new Accumulator(configFormat, mapSupplier, version);
     }
 
     /**
      * Creates a deep copy of this config into an {@link Accumulator}.
+     * <p>
+     * The copy is made lazily: each level of the copy reads the content of the corresponding level
+     * of this config, which is kept since the previous copy if it hasn't been modified, and copies
+     * it only when the copy is modified. Therefore, copying a big config that is rarely modified,
+     * for instance to save it, is cheap. The levels that contain lists are copied again by each
+     * call, because the lists may have been modified in place.
      *
      * @return a deep copy
      */
     public Accumulator newAccumulatorCopy() {
-        Accumulator acc = (Accumulator) copyValueInAccumulator(this);
-        return acc;
+        SharedCopy last = lastSharedCopy;
+        if (last == null || last.mutable || !last.versions.isCurrent()) {
+            last = withLockedLevels(this::buildSharedCopy);
+        }
+        return newAccumulator(last);
     }
 
+    private static <V> Map<String, V> ownMap(Map<String, V> map) {
+        return (map instanceof CopyOnWriteMap) ? ((CopyOnWriteMap<V>) map).own() : map;
+    }
+
+    /** Creates an accumulator that reads the given copy until its first modification. */
+    private Accumulator newAccumulator(SharedCopy copy) {
+        CopyOnWriteMap<Object> valuesCopy = new CopyOnWriteMap<>(copy.values, copy.convertedKeys,
+                this::accumulatorValue, mapSupplier);
+        CopyOnWriteMap<String> commentsCopy = new CopyOnWriteMap<>(copy.comments,
+                Collections.emptySet(), null, mapSupplier);
+        return new Accumulator(valuesCopy, commentsCopy, mapSupplier, configFormat, version);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object accumulatorValue(Object v) {
+        if (v instanceof SharedCopy) {
+            return newAccumulator((SharedCopy) v);
+        } else if (v instanceof List) {
+            // lists are mutable: each copy has its own lists
+            List<Object> copy = new ArrayList<>((List<Object>) v);
+            copy.replaceAll(this::accumulatorValue);
+            return copy;
+        } else {
+            return v;
+        }
+    }
+
+    /** Creates the shared copy of this level, assuming that it is locked by {@link #lockLevels}. */
     @SuppressWarnings({ "unchecked", "rawtypes" })
-    private Object copyValueInAccumulator(Object v) {
+    private SharedCopy buildSharedCopy(Map<StampedConfig, LevelCapture> captures, Versions versions) {
+        LevelCapture capture = captures.get(this);
+        if (capture.copy != null) {
+            return capture.copy;
+        }
+        SharedCopy last = lastSharedCopy;
+        boolean unchanged = (last != null && !last.mutable && last.modCount == modCount);
+        boolean mutable = false;
+        StampedConfig[] subLevels = capture.subLevels;
+        SharedCopy[] subCopies = new SharedCopy[subLevels.length];
+        for (int i = 0; i < subLevels.length; i++) {
+            subCopies[i] = subLevels[i].buildSharedCopy(captures, versions);
+            mutable |= subCopies[i].mutable;
+            if (unchanged && subCopies[i] != last.subCopies[i]) {
+                unchanged = false;
+            }
+        }
+        SharedCopy copy;
+        if (unchanged) {
+            copy = new SharedCopy(last, versions);
+        } else {
+            Map<String, Object> valuesCopy = mapSupplier.get();
+            Set<String> convertedKeys = new HashSet<>();
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                Object value = sharedValue(entry.getValue(), captures);
+                if (value instanceof SharedCopy || value instanceof List) {
+                    convertedKeys.add(entry.getKey());
+                    mutable |= (value instanceof List);
+                }
+                valuesCopy.put(entry.getKey(), value);
+            }
+            Map<String, String> commentsCopy = (Map) mapSupplier.get();
+            commentsCopy.putAll(comments);
+            copy = new SharedCopy(modCount, valuesCopy, commentsCopy, convertedKeys, subLevels,
+                    subCopies, mutable, versions);
+        }
+        lastSharedCopy = copy;
+        capture.copy = copy;
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object sharedValue(Object v, Map<StampedConfig, LevelCapture> captures) {
         if (v instanceof StampedConfig) {
-            StampedConfig stamped = (StampedConfig) v;
-            stamped.checkStateForNormalOp();
+            return captures.get(v).copy;
+        } else if (v instanceof List) {
+            List<Object> copy = new ArrayList<>((List<Object>) v);
+            copy.replaceAll(elem -> sharedValue(elem, captures));
+            return copy;
+        } else {
+            return v;
+        }
+    }
 
-            // lock the config and copy the values and comments
-            long stamp = stamped.lock.readLock();
-            try {
-                Map<String, Object> valuesCopy = mapSupplier.get();
-                valuesCopy.putAll(stamped.values);
-                valuesCopy.replaceAll((k, w) -> copyValueInAccumulator(w));
+    @Override
+    public long version() {
+        return version.get();
+    }
 
-                Map<String, String> commentsCopy = (Map) mapSupplier.get();
-                commentsCopy.putAll(stamped.comments);
-                return new Accumulator(valuesCopy, commentsCopy, mapSupplier, configFormat);
-            } finally {
-                stamped.lock.unlockRead(stamp);
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The levels that have not been modified since the previous snapshot are not copied again,
+     * they are shared by the two snapshots. The levels that contain lists are copied again by each
+     * snapshot, because the lists may have been modified in place. The modifications made inside
+     * of other mutable values are not detected.
+     */
+    @Override
+    public FrozenConfig snapshot() {
+        FrozenConfig last = currentSnapshot();
+        if (last != null) {
+            return last;
+        }
+        return withLockedLevels(this::buildSnapshot);
+    }
+
+    /** @return the last snapshot if it can be reused, else null */
+    private FrozenConfig currentSnapshot() {
+        Snapshot last = lastSnapshot;
+        if (last != null && !last.mutable && last.versions.isCurrent()) {
+            return last.config;
+        }
+        return null;
+    }
+
+    /**
+     * Executes an action while holding the read lock of every level, acquired from the root to
+     * the leaves. The locks are kept until the end of the action, so that all the levels are seen
+     * in the same state.
+     */
+    private <R> R withLockedLevels(BiFunction<Map<StampedConfig, LevelCapture>, Versions, R> action) {
+        Map<StampedConfig, LevelCapture> captures = new IdentityHashMap<>();
+        try {
+            lockLevels(captures);
+            List<AtomicLong> counters = new ArrayList<>(1);
+            for (StampedConfig level : captures.keySet()) {
+                if (!counters.contains(level.version)) {
+                    counters.add(level.version);
+                }
+            }
+            return action.apply(captures, new Versions(counters.toArray(new AtomicLong[0])));
+        } finally {
+            for (LevelCapture capture : captures.values()) {
+                capture.level.lock.unlockRead(capture.stamp);
             }
+        }
+    }
 
+    /** Read-locks this level and its sub-levels, and finds the sub-levels. */
+    private void lockLevels(Map<StampedConfig, LevelCapture> captures) {
+        if (captures.containsKey(this)) {
+            return; // already locked, the level appears several times in the config
+        }
+        checkStateForNormalOp();
+        LevelCapture capture = new LevelCapture(this, lock.readLock());
+        captures.put(this, capture);
+
+        // if this level has not changed, it contains the same sub-levels
+        // (unless it contains lists, which may have been modified in place)
+        Snapshot lastSnap = lastSnapshot;
+        SharedCopy lastCopy = lastSharedCopy;
+        if (lastSnap != null && !lastSnap.mutable && lastSnap.modCount == modCount) {
+            capture.subLevels = lastSnap.subLevels;
+        } else if (lastCopy != null && !lastCopy.mutable && lastCopy.modCount == modCount) {
+            capture.subLevels = lastCopy.subLevels;
+        } else {
+            List<StampedConfig> subLevels = new ArrayList<>();
+            for (Object value : values.values()) {
+                collectSubLevels(value, subLevels);
+            }
+            capture.subLevels = subLevels.toArray(new StampedConfig[0]);
+        }
+        for (StampedConfig subLevel : capture.subLevels) {
+            subLevel.lockLevels(captures);
+        }
+    }
+
+    private static void collectSubLevels(Object v, List<StampedConfig> subLevels) {
+        if (v instanceof StampedConfig) {
+            subLevels.add((StampedConfig) v);
         } else if (v instanceof List) {
-            List<Object> l = (List<Object>) v;
-            List<Object> copy = new ArrayList<>(l);
-            copy.replaceAll(elem -> copyValueInAccumulator(elem));
+            for (Object elem : (List<?>) v) {
+                collectSubLevels(elem, subLevels);
+            }
+        }
+    }
+
+    /** Creates the snapshot of this level, assuming that it is locked by {@link #lockLevels}. */
+    private FrozenConfig buildSnapshot(Map<StampedConfig, LevelCapture> captures, Versions versions) {
+        LevelCapture capture = captures.get(this);
+        if (capture.snapshot != null) {
+            return capture.snapshot;
+        }
+        Snapshot last = lastSnapshot;
+        boolean unchanged = (last != null && !last.mutable && last.modCount == modCount);
+        boolean mutable = false;
+        StampedConfig[] subLevels = capture.subLevels;
+        FrozenConfig[] subSnapshots = new FrozenConfig[subLevels.length];
+        for (int i = 0; i < subLevels.length; i++) {
+            subSnapshots[i] = subLevels[i].buildSnapshot(captures, versions);
+            mutable |= captures.get(subLevels[i]).snapshotMutable;
+            if (unchanged && subSnapshots[i] != last.subSnapshots[i]) {
+                unchanged = false;
+            }
+        }
+        FrozenConfig config;
+        if (unchanged) {
+            config = last.config;
+        } else {
+            // the sub-levels are replaced by their snapshot, which FrozenConfig reuses as it is
+            Map<String, Object> valuesCopy = new HashMap<>(values);
+            for (Map.Entry<String, Object> entry : valuesCopy.entrySet()) {
+                mutable |= (entry.getValue() instanceof List);
+                entry.setValue(snapshotValue(entry.getValue(), captures));
+            }
+            CommentedConfig copy = CommentedConfig.wrap(valuesCopy, configFormat);
+            for (Map.Entry<String, String> comment : comments.entrySet()) {
+                copy.setComment(Collections.singletonList(comment.getKey()), comment.getValue());
+            }
+            config = FrozenConfig.of(copy);
+        }
+        lastSnapshot = new Snapshot(modCount, config, subLevels, subSnapshots, mutable, versions);
+        capture.snapshot = config;
+        capture.snapshotMutable = mutable;
+        return config;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object snapshotValue(Object v, Map<StampedConfig, LevelCapture> captures) {
+        if (v instanceof StampedConfig) {
+            return captures.get(v).snapshot;
+        } else if (v instanceof List) {
+            List<Object> copy = new ArrayList<>((List<Object>) v);
+            copy.replaceAll(elem -> snapshotValue(elem, captures));
             return copy;
         } else {
             return v;
         }
     }
 
+    /** A level that is locked by {@link #withLockedLevels(BiFunction)}. */
+    private static final class LevelCapture {
+        final StampedConfig level;
+        final long stamp;
+        StampedConfig[] subLevels;
+        FrozenConfig snapshot;
+        boolean snapshotMutable;
+        SharedCopy copy;
+
+        LevelCapture(StampedConfig level, long stamp) {
+            this.level = level;
+            this.stamp = stamp;
+        }
+    }
+
+    /** The versions of the levels, at the time of a snapshot or of a copy. */
+    private static final class Versions {
+        final AtomicLong[] counters;
+        final long[] values;
+
+        Versions(AtomicLong[] counters) {
+            this.counters = counters;
+            this.values = new long[counters.length];
+            for (int i = 0; i < counters.length; i++) {
+                values[i] = counters[i].get();
+            }
+        }
+
+        /** @return true if no level has been modified since then */
+        boolean isCurrent() {
+            for (int i = 0; i < counters.length; i++) {
+                if (counters[i].get() != values[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /** The last snapshot of a level, reused as long as the level and its sub-levels don't change. */
+    private static final class Snapshot {
+        final long modCount;
+        final FrozenConfig config;
+        /** the sub-levels, in the order of the values, and their snapshot */
+        final StampedConfig[] subLevels;
+        final FrozenConfig[] subSnapshots;
+        /** true if the level or one of its sub-levels contains lists: see {@link SharedCopy#mutable} */
+        final boolean mutable;
+        final Versions versions;
+
+        Snapshot(long modCount, FrozenConfig config, StampedConfig[] subLevels,
+                FrozenConfig[] subSnapshots, boolean mutable, Versions versions) {
+            this.modCount = modCount;
+            this.config = config;
+            this.subLevels = subLevels;
+            this.subSnapshots = subSnapshots;
+            this.mutable = mutable;
+            this.versions = versions;
+        }
+    }
+
+    /**
+     * The content of a level, copied by {@link #newAccumulatorCopy()} and shared by the
+     * accumulators until they are modified. It is never modified.
+     */
+    private static final class SharedCopy {
+        final long modCount;
+        /** the values, where the sub-levels are replaced by their SharedCopy */
+        final Map<String, Object> values;
+        final Map<String, String> comments;
+        /** the keys of the values that each accumulator must convert: sub-levels and lists */
+        final Set<String> convertedKeys;
+        final StampedConfig[] subLevels;
+        final SharedCopy[] subCopies;
+        /**
+         * true if the level or one of its sub-levels contains lists, which can be modified in
+         * place without changing the versions: such a copy is never reused
+         */
+        final boolean mutable;
+        final Versions versions;
+
+        SharedCopy(long modCount, Map<String, Object> values, Map<String, String> comments,
+                Set<String> convertedKeys, StampedConfig[] subLevels, SharedCopy[] subCopies,
+                boolean mutable, Versions versions) {
+            this.modCount = modCount;
+            this.values = values;
+            this.comments = comments;
+            this.convertedKeys = convertedKeys;
+            this.subLevels = subLevels;
+            this.subCopies = subCopies;
+            this.mutable = mutable;
+            this.versions = versions;
+        }
+
+        SharedCopy(SharedCopy unchanged, Versions versions) {
+            this(unchanged.modCount, unchanged.values, unchanged.comments, unchanged.convertedKeys,
+                    unchanged.subLevels, unchanged.subCopies, unchanged.mutable, versions);
+        }
+    }
+
+    /**
+     * A map that reads a shared map until its first modification, then copies it. The shared
+     * values whose key is in {@code convertedKeys} are converted once, on their first read.
+     */
+    private static final class CopyOnWriteMap<V> extends AbstractMap<String, V> {
+        private final Map<String, V> shared;
+        private final Set<String> convertedKeys;
+        private final Function<Object, Object> conversion;
+        private final Supplier<Map<String, Object>> mapSupplier;
+        private Map<String, V> converted;
+        private Map<String, V> own;
+
+        CopyOnWriteMap(Map<String, V> shared, Set<String> convertedKeys,
+                Function<Object, Object> conversion, Supplier<Map<String, Object>> mapSupplier) {
+            this.shared = shared;
+            this.convertedKeys = convertedKeys;
+            this.conversion = conversion;
+            this.mapSupplier = mapSupplier;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V sharedValue(String key) {
+            V value = shared.get(key);
+            if (value == null || !convertedKeys.contains(key)) {
+                return value;
+            }
+            if (converted == null) {
+                converted = new HashMap<>();
+            }
+            return converted.computeIfAbsent(key, k -> (V) conversion.apply(shared.get(k)));
+        }
+
+        /** Copies the shared map, if not done yet, and returns the copy. */
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private Map<String, V> own() {
+            if (own == null) {
+                Map<String, V> copy = (Map) mapSupplier.get();
+                for (String key : shared.keySet()) {
+                    copy.put(key, sharedValue(key));
+                }
+                own = copy;
+                converted = null;
+            }
+            return own;
+        }
+
+        @Override
+        public V get(Object key) {
+            if (own != null) {
+                return own.get(key);
+            }
+            return (key instanceof String) ? sharedValue((String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return (own != null) ? own.containsKey(key) : shared.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return (own != null) ? own.size() : shared.size();
+        }
+
+        @Override
+        public V put(String key, V value) {
+            return own().put(key, value);
+        }
+
+        @Override
+        public V remove(Object key) {
+            return own().remove(key);
+        }
+
+        @Override
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        public void clear() {
+            if (own == null) {
+                own = (Map) mapSupplier.get();
+                converted = null;
+            } else {
+                own.clear();
+            }
+        }
+
+        @Override
+        public Set<Map.Entry<String, V>> entrySet() {
+            return new AbstractSet<Map.Entry<String, V>>() {
+                @Override
+                public Iterator<Map.Entry<String, V>> iterator() {
+                    if (own != null) {
+                        return own.entrySet().iterator();
+                    }
+                    // Iterates on the shared keys. The entries read the map, therefore they
+                    // remain valid after the copy of the shared map.
+                    Iterator<String> keys = shared.keySet().iterator();
+                    return new Iterator<Map.Entry<String, V>>() {
+                        private String lastKey;
+
+                        @Override
+                        public boolean hasNext() {
+                            return keys.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<String, V> next() {
+                            lastKey = keys.next();
+                            return new CopyOnWriteEntry(lastKey);
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (lastKey == null) {
+                                throw new IllegalStateException();
+                            }
+                            CopyOnWriteMap.this.remove(lastKey);
+                            lastKey = null;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return CopyOnWriteMap.this.size();
+                }
+            };
+        }
+
+        private final class CopyOnWriteEntry implements Map.Entry<String, V> {
+            private final String key;
+
+            CopyOnWriteEntry(String key) {
+                this.key = key;
+            }
+
+            @Override
+            public String getKey() {
+                return key;
+            }
+
+            @Override
+            public V getValue() {
+                return get(key);
+            }
+
+            @Override
+            public V setValue(V value) {
+                return put(key, value);
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                if (!(obj instanceof Map.Entry)) {
+                    return false;
+                }
+                Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+                return key.equals(other.getKey()) && Objects.equals(getValue(), other.getValue());
+            }
+
+            @Override
+            public int hashCode() {
+                return key.hashCode() ^ Objects.hashCode(getValue());
+            }
+
+            @Override
+            public String toString() {
+                return key + "=" + getValue();
+            }
+        }
+    }
+
     /**
      * A CommentedConfig that allows to quickly accumulate values before a {@link #replaceContentBy(Accumulator)}.
      * It is NOT thread-safe.
@@ -183,14 +727,20 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
         private boolean valid = true;
 
         Accumulator(Map<String, Object> values, Map<String, String> comments,
-                Supplier<Map<String, Object>> mapSupplier, ConfigFormat<?> configFormat) {
+                Supplier<Map<String, Object>> mapSupplier, ConfigFormat<?> configFormat,
+                AtomicLong version) {
             super(values, comments);
-            this.mirror = new StampedConfig(configFormat, mapSupplier, values, comments);
+            this.mirror = new StampedConfig(configFormat, mapSupplier, values, comments, version);
         }
 
         Accumulator(ConfigFormat<?> configFormat, Supplier<Map<String, Object>> mapSupplier) {
+            this(configFormat, mapSupplier, new AtomicLong());
+        }
+
+        Accumulator(ConfigFormat<?> configFormat, Supplier<Map<String, Object>> mapSupplier,
+                AtomicLong version) {
             super(mapSupplier);
-            this.mirror = new StampedConfig(configFormat, mapSupplier, map, commentMap);
+            this.mirror = new StampedConfig(configFormat, mapSupplier, map, commentMap, version);
         }
 
         // public static Accumulator inMemoryUniversal() {
@@ -209,11 +759,11 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
         }
 
         Map<String, Object> values() {
-            return map;
+            return mirror.values;
         }
 
         Map<String, String> comments() {
-            return commentMap;
+            return mirror.comments;
         }
 
         Supplier<Map<String, Object>> mapSupplier() {
@@ -224,6 +774,10 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
         void prepareReplacement() {
             checkValid();
             map.replaceAll((k, v) -> replaceValue(v));
+            // an accumulator made by newAccumulatorCopy() is backed by copy-on-write maps:
+            // give their own content to the mirror, not the wrappers
+            mirror.values = ownMap(map);
+            mirror.comments = ownMap(commentMap);
         }
 
         private Object replaceValue(Object v) {
@@ -247,7 +801,7 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
 
         @Override
         public AbstractCommentedConfig clone() {
-            Accumulator copy = new Accumulator(configFormat(), mapCreator);
+            Accumulator copy = new Accumulator(configFormat(), mapCreator, mirror.version);
             copy.map.putAll(this.map);
             copy.commentMap.putAll(this.commentMap);
             return copy;
@@ -255,7 +809,7 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
 
         @Override
         public CommentedConfig createSubConfig() {
-            return new Accumulator(configFormat(), mapCreator);
+            return new Accumulator(configFormat(), mapCreator, mirror.version);
         }
 
         @Override
@@ -266,6 +820,18 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
     }
 
     // ----- internal -----
+    /** Records a modification of this level. The write lock must be held. */
+    private void recordModification() {
+        modCount++;
+        version.incrementAndGet();
+    }
+
+    /** Records a modification of this level, then releases the write lock. */
+    private void unlockWrite(long stamp) {
+        recordModification();
+        lock.unlockWrite(stamp);
+    }
+
     private <V> V mapLockGet(Map<String, V> map, StampedLock lock, String key) {
         long stamp = lock.tryOptimisticRead();
         V value = map.get(key);
@@ -305,7 +871,8 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
         return contains;
     }
 
-    private <V> V mapLockRemove(Map<String, V> map, StampedLock lock, String key) {
+    private <V> V mapLockRemove(StampedConfig level, Map<String, V> map, String key) {
+        StampedLock lock = level.lock;
         long stamp = lock.tryWriteLock();
         if (stamp == 0) {
             checkStateForNormalOp();
@@ -317,11 +884,12 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
         try {
             return map.remove(key);
         } finally {
-            lock.unlockWrite(stamp);
+            level.unlockWrite(stamp);
         }
     }
 
-    private <V> V mapLockPut(Map<String, V> map, StampedLock lock, String key, V value) {
+    private <V> V mapLockPut(StampedConfig level, Map<String, V> map, String key, V value) {
+        StampedLock lock = level.lock;
         long stamp = lock.tryWriteLock();
         if (stamp == 0) {
             checkStateForNormalOp();
@@ -333,11 +901,12 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
         try {
             return map.put(key, value);
         } finally {
-            lock.unlockWrite(stamp);
+            level.unlockWrite(stamp);
         }
     }
 
-    private <V> V mapLockPutIfAbsent(Map<String, V> map, StampedLock lock, String key, V value) {
+    private <V> V mapLockPutIfAbsent(StampedConfig level, Map<String, V> map, String key, V value) {
+        StampedLock lock = level.lock;
         long stamp = lock.tryWriteLock();
         if (stamp == 0) {
             checkStateForNormalOp();
@@ -349,7 +918,7 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
         try {
             return map.putIfAbsent(key, value);
         } finally {
-            lock.unlockWrite(stamp);
+            level.unlockWrite(stamp);
         }
     }
 
@@ -388,6 +957,7 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
         // optimization: no recursion here
         StampedConfig current = this;
         for (String key : configPath) {
+            StampedConfig currentLevel = current;
             StampedLock lock = current.lock;
             Map<String, Object> values = current.values;
             // try optimistic read once
@@ -415,6 +985,7 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
                     isLock = true; // lock acquired, we need to release it later
                     current = createSubConfig();
                     values.put(key, current);
+                    currentLevel.recordModification();
                 } else if (level instanceof StampedConfig) {
                     current = (StampedConfig) level;
                 } else {
@@ -455,7 +1026,7 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
 
     @Override
     public StampedConfig createSubConfig() {
-        return new StampedConfig(configFormat, mapSupplier);
+        return new StampedConfig(configFormat, mapSupplier, version);
     }
 
     @Override
@@ -478,7 +1049,7 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
         try {
             values.clear();
         } finally {
-            lock.unlockWrite(stamp);
+            unlockWrite(stamp);
         }
     }
 
@@ -525,12 +1096,12 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
             case 0:
                 throw new IllegalArgumentException("empty entry path");
             case 1:
-                return mapLockPutIfAbsent(values, lock, path.get(0), nnValue) == null;
+                return mapLockPutIfAbsent(this, values, path.get(0), nnValue) == null;
             default: {
                 int lastIndex = path.size() - 1;
                 List<String> parentPath = path.subList(0, lastIndex);
                 StampedConfig parent = getOrCreateConfig(parentPath);
-                Object prev = mapLockPutIfAbsent(parent.values, parent.lock,
+                Object prev = mapLockPutIfAbsent(parent, parent.values,
                         path.get(lastIndex), nnValue);
                 return prev == null;
             }
@@ -544,7 +1115,7 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
             case 0:
                 throw new IllegalArgumentException("empty entry path");
             case 1:
-                return (T) mapLockRemove(values, lock, path.get(0));
+                return (T) mapLockRemove(this, values, path.get(0));
             default: {
                 int lastIndex = path.size() - 1;
                 List<String> parentPath = path.subList(0, lastIndex);
@@ -552,7 +1123,7 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
                 if (parent == null) {
                     return null;
                 }
-                return (T) mapLockRemove(parent.values, parent.lock, path.get(lastIndex));
+                return (T) mapLockRemove(parent, parent.values, path.get(lastIndex));
             }
         }
     }
@@ -565,12 +1136,12 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
             case 0:
                 throw new IllegalArgumentException("empty entry path");
             case 1:
-                return (T) mapLockPut(values, lock, path.get(0), nnValue);
+                return (T) mapLockPut(this, values, path.get(0), nnValue);
             default: {
                 int lastIndex = path.size() - 1;
                 List<String> parentPath = path.subList(0, lastIndex);
                 StampedConfig parent = getOrCreateConfig(parentPath);
-                return (T) mapLockPut(parent.values, parent.lock, path.get(lastIndex),
+                return (T) mapLockPut(parent, parent.values, path.get(lastIndex),
                         nnValue);
             }
         }
@@ -631,7 +1202,7 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
         try {
             unsafePutAll(other);
         } finally {
-            lock.unlockWrite(stamp);
+            unlockWrite(stamp);
         }
     }
 
@@ -700,7 +1271,105 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
         try {
             unsafeRemoveAll(other);
         } finally {
-            lock.unlockWrite(stamp);
+            unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The write lock of each modified (sub)config is acquired only once, from the root to the
+     * leaves, and the intermediary levels are checked before any modification. All the locks are
+     * held until the whole batch is applied, therefore the batch is applied atomically.
+     */
+    @Override
+    public List<ConfigBatch.Change> apply(ConfigBatch batch) {
+        List<StampedConfig> lockedLevels = new ArrayList<>();
+        List<Long> stamps = new ArrayList<>();
+        boolean applied = false;
+        try {
+            lockBatchLevels(batch.root, new ArrayList<>(), lockedLevels, stamps);
+            List<ConfigBatch.Change> changes = new ArrayList<>(batch.size());
+            applyBatchLevel(batch.root, new ArrayList<>(), changes);
+            applied = true;
+            return changes;
+        } finally {
+            for (int i = lockedLevels.size() - 1; i >= 0; i--) {
+                StampedConfig level = lockedLevels.get(i);
+                long stamp = stamps.get(i);
+                if (applied) {
+                    level.unlockWrite(stamp);
+                } else {
+                    level.lock.unlockWrite(stamp);// nothing has been modified
+                }
+            }
+        }
+    }
+
+    /**
+     * Acquires the write lock of this level and, recursively, of the existing sub-levels that the
+     * batch modifies, and checks that these sub-levels are configs.
+     */
+    private void lockBatchLevels(ConfigBatch.Node node, List<String> path,
+            List<StampedConfig> lockedLevels, List<Long> stamps) {
+        long stamp = lock.tryWriteLock();
+        if (stamp == 0) {
+            checkStateForNormalOp();
+            stamp = lock.writeLock();
+        }
+        lockedLevels.add(this);
+        stamps.add(stamp);
+        for (Map.Entry<String, ConfigBatch.Node> entry : node.children.entrySet()) {
+            String key = entry.getKey();
+            if (ConfigBatch.Node.isRemoval(node.values.get(key))) {
+                continue; // the level is removed, then created again if needed
+            }
+            Object level = values.get(key);
+            if (level instanceof StampedConfig) {
+                // locking the sub-configs while holding the parent's lock is fine: the locks are
+                // always acquired from the root to the leaves
+                path.add(key);
+                ((StampedConfig) level).lockBatchLevels(entry.getValue(), path, lockedLevels, stamps);
+                path.remove(path.size() - 1);
+            } else if (level != null && entry.getValue().hasSets) {
+                throw ConfigBatch.incompatibleLevel(path, key, level);
+            }
+        }
+    }
+
+    /**
+     * Applies the modifications of a batch to this level and, recursively, to the sub-levels.
+     * The existing levels must have been locked by {@link #lockBatchLevels}, the created levels
+     * are only reachable through them.
+     */
+    private void applyBatchLevel(ConfigBatch.Node node, List<String> path, List<ConfigBatch.Change> changes) {
+        for (Map.Entry<String, Object> entry : node.values.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+            if (ConfigBatch.Node.isRemoval(value)) {
+                ConfigBatch.addRemoval(changes, path, key, values.remove(key));
+            } else {
+                Object nnValue = (value == null) ? NULL_OBJECT : value;
+                ConfigBatch.addReplacement(changes, path, key, values.put(key, nnValue), nnValue);
+            }
+        }
+        for (Map.Entry<String, ConfigBatch.Node> entry : node.children.entrySet()) {
+            String key = entry.getKey();
+            ConfigBatch.Node child = entry.getValue();
+            Object level = values.get(key);
+            StampedConfig sub;
+            if (level instanceof StampedConfig) {
+                sub = (StampedConfig) level;
+            } else if (level == null && child.hasSets) {
+                sub = createSubConfig();
+                sub.recordModification();
+                values.put(key, sub);
+            } else {
+                continue; // only removals: nothing to remove in a missing or incompatible level
+            }
+            path.add(key);
+            sub.applyBatchLevel(child, path, changes);
+            path.remove(path.size() - 1);
         }
     }
 
@@ -720,7 +1389,7 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
             case 0:
                 throw new IllegalArgumentException("empty entry path");
             case 1:
-                return mapLockRemove(comments, lock, path.get(0));
+                return mapLockRemove(this, comments, path.get(0));
             default: {
                 int lastIndex = path.size() - 1;
                 List<String> parentPath = path.subList(0, lastIndex);
@@ -728,7 +1397,7 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
                 if (parent == null) {
                     return null;
                 }
-                return mapLockRemove(parent.comments, parent.lock, path.get(lastIndex));
+                return mapLockRemove(parent, parent.comments, path.get(lastIndex));
             }
         }
     }
@@ -739,12 +1408,12 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
             case 0:
                 throw new IllegalArgumentException("empty entry path");
             case 1:
-                return mapLockPut(comments, lock, path.get(0), value);
+                return mapLockPut(this, comments, path.get(0), value);
             default: {
                 int lastIndex = path.size() - 1;
                 List<String> parentPath = path.subList(0, lastIndex);
                 StampedConfig parent = getOrCreateConfig(parentPath);
-                return mapLockPut(parent.comments, parent.lock, path.get(lastIndex), value);
+                return mapLockPut(parent, parent.comments, path.get(lastIndex), value);
             }
         }
     }
@@ -877,30 +1546,54 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
                 }
             });
         } finally {
-            lock.unlockWrite(stamp);
+            unlockWrite(stamp);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The configs are compared by their {@link #snapshot()}. Since the snapshots of the levels
+     * that have not been modified are reused, with their hash code, different configs are usually
+     * told apart without comparing all their values. Two StampedConfigs are compared in the same
+     * state: if their last snapshots are not up to date, the new snapshots are taken while both
+     * configs are read-locked.
+     */
     @Override
     public boolean equals(Object obj) {
         if (obj == this) {
             return true;
         }
         if (obj instanceof StampedConfig) {
-            return bulkCommentedRead(view -> {
-                return ((StampedConfig) obj).bulkCommentedRead(objView -> {
-                    return view.equals(objView);
+            StampedConfig other = (StampedConfig) obj;
+            FrozenConfig snapshot = currentSnapshot(), otherSnapshot = other.currentSnapshot();
+            if (snapshot != null && otherSnapshot != null) {
+                return snapshot.equals(otherSnapshot);
+            }
+            return withLockedLevels((captures, versions) -> {
+                FrozenConfig lockedSnapshot = buildSnapshot(captures, versions);
+                return other.withLockedLevels((otherCaptures, otherVersions) -> {
+                    return lockedSnapshot.equals(other.buildSnapshot(otherCaptures, otherVersions));
                 });
             });
         } else if (obj instanceof UnmodifiableConfig) {
-            return bulkRead(view -> {
-                return view.equals(obj);
-            });
+            return snapshot().equals(obj);
         } else {
             return false;
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The hash code is computed on the {@link #snapshot()}, therefore only the levels that have
+     * been modified since the previous call are hashed again.
+     */
+    @Override
+    public int hashCode() {
+        return snapshot().hashCode();
+    }
+
     @Override
     public String toString() {
         return bulkRead(view -> {
@@ -1118,19 +1811,19 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
 
         @Override
         public String removeComment() {
-            return mapLockRemove(StampedConfig.this.comments, StampedConfig.this.lock, key);
+            return mapLockRemove(StampedConfig.this, StampedConfig.this.comments, key);
         }
 
         @Override
         public String setComment(String comment) {
-            return mapLockPut(StampedConfig.this.comments, StampedConfig.this.lock, key,
+            return mapLockPut(StampedConfig.this, StampedConfig.this.comments, key,
                     comment);
         }
 
         @Override
         @SuppressWarnings("unchecked")
         public <T> T setValue(Object value) {
-            return (T) mapLockPut(StampedConfig.this.values, StampedConfig.this.lock, key,
+            return (T) mapLockPut(StampedConfig.this, StampedConfig.this.values, key,
                     value);
         }
 
@@ -1179,12 +1872,14 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
         @Override
         public String removeComment() {
             checkValid();
+            StampedConfig.this.recordModification();
             return StampedConfig.this.comments.remove(key);
         }
 
         @Override
         public String setComment(String comment) {
             checkValid();
+            StampedConfig.this.recordModification();
             return StampedConfig.this.comments.put(key, comment);
         }
 
@@ -1192,6 +1887,7 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
         @SuppressWarnings("unchecked")
         public <T> T setValue(Object value) {
             checkValid();
+            StampedConfig.this.recordModification();
             return (T) StampedConfig.this.values.put(key, value);
         }
 
@@ -1306,7 +2002,7 @@ public final class StampedConfig implements ConcurrentCommentedConfig {
         } finally {
             view.invalidate();
             state.set(ThreadConfigState.NORMAL);
-            lock.unlockWrite(stamp);
+            unlockWrite(stamp);
         }
     }
 
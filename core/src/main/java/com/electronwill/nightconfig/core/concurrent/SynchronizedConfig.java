@@ -8,19 +8,25 @@ import java.util.Set;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 import com.electronwill.nightconfig.core.AbstractCommentedConfig;
 import com.electronwill.nightconfig.core.AbstractConfig;
 import com.electronwill.nightconfig.core.CommentedConfig;
 import com.electronwill.nightconfig.core.Config;
 import com.electronwill.nightconfig.core.ConfigFormat;
+import com.electronwill.nightconfig.core.FrozenConfig;
 import com.electronwill.nightconfig.core.InMemoryCommentedFormat;
 import com.electronwill.nightconfig.core.UnmodifiableCommentedConfig;
 import com.electronwill.nightconfig.core.UnmodifiableConfig;
+import com.electronwill.nightconfig.core.utils.CompactHashMap;
+import com.electronwill.nightconfig.core.utils.ConcurrentOrderedMap;
 import com.electronwill.nightconfig.core.utils.TransformingMap;
 
 /**
@@ -29,8 +35,28 @@ import com.electronwill.nightconfig.core.utils.TransformingMap;
  * <p>
  * Only one read or write can happen at the same time. This includes every read
  * and write on sub-configurations, iterator operations, etc.
+ * <p>
+ * In striped mode, enabled by {@link #SynchronizedConfig(ConfigFormat, Supplier, int)}, the
+ * sub-configurations up to a given depth (the "stripes") have their own monitor. The operations
+ * on different stripes can then happen at the same time, for instance the modifications of
+ * independent top-level sections. The monitor of the parent config is only held while looking
+ * for the stripe that contains the entry. The bulk operations, the operations that replace or
+ * remove several entries at once ({@code clear}, {@code putAll}, etc.), {@code equals},
+ * {@code hashCode}, {@code toString} and the operations on the comments of the whole tree hold the
+ * monitors of all the stripes, including the configs stored in lists, acquired from the root to the
+ * leaves, and are therefore still atomic.
+ * <p>
+ * A modification of "a.b" that runs while the stripe "a" is replaced (or removed) is not lost:
+ * if the stripe is no longer in its parent config at the end of the modification, the
+ * modification is made again, to the new stripe. A read of "a.b" may return the value of the old
+ * stripe.
+ * <p>
+ * The {@link #version()} is shared by the config and its sub-configurations. It counts the
+ * modifications made through the config, its views and their entries. The modifications made
+ * in place to the lists stored in the config can't be counted: a {@link #snapshot()} of a
+ * config that contains lists is therefore never reused.
  */
-public final class SynchronizedConfig implements ConcurrentCommentedConfig {
+public final class SynchronizedConfig implements ConcurrentCommentedConfig, VersionedConfig {
 
     public static SynchronizedConfig convert(Config c) {
         return convert(c, null);
@@ -40,8 +66,12 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
         if (c instanceof SynchronizedConfig) {
             return (SynchronizedConfig) c;
         } else {
-            SynchronizedConfig result = new SynchronizedConfig(c.configFormat(),
-                    Config.getDefaultMapCreator(false), parent);
+            // only the concurrent maps are deprecated, the default map creator is still fine here
+            @SuppressWarnings("deprecation")
+            Supplier<Map<String, Object>> mapCreator = Config.getDefaultMapCreator(false);
+            SynchronizedConfig result = (parent == null)
+                    ? new SynchronizedConfig(c.configFormat(), mapCreator)
+                    : parent.newSubConfig(c.configFormat(), mapCreator);
 
             CommentedConfig cc = CommentedConfig.fake(c);
             convertSubConfigs(cc, result);
@@ -88,24 +118,206 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
 
     /**
      * Root monitor: every operation on this config (including on
-     * sub-configurations) is synchronized with this object.
+     * sub-configurations, except the stripes in striped mode) is synchronized with this object.
      */
     final Object rootMonitor;
 
+    /**
+     * Number of levels of sub-configurations that have their own monitor (0 if not striped).
+     */
+    private final int stripeDepth;
+
+    /** Version of the whole config, shared with the sub-configurations. */
+    private final AtomicLong version;
+
+    private volatile Snapshot lastSnapshot;
+
     public SynchronizedConfig() {
         this(InMemoryCommentedFormat.defaultInstance(), Config.getDefaultMapCreator(false));
     }
 
     public SynchronizedConfig(ConfigFormat<?> configFormat,
             Supplier<Map<String, Object>> mapSupplier) {
-        this.rootMonitor = new Object();
-        this.dataHolder = new DataHolder(this, configFormat, mapSupplier);
+        this(configFormat, mapSupplier, new Object(), 0, new AtomicLong());
     }
 
     public SynchronizedConfig(ConfigFormat<?> configFormat,
             Supplier<Map<String, Object>> mapSupplier, SynchronizedConfig parent) {
-        this.rootMonitor = (parent == null) ? new Object() : parent.rootMonitor;
-        this.dataHolder = new DataHolder(parent == null ? this : parent, configFormat, mapSupplier);
+        this(configFormat, mapSupplier, (parent == null) ? new Object() : parent.rootMonitor, 0,
+                (parent == null) ? new AtomicLong() : parent.version);
+    }
+
+    /**
+     * Creates a striped SynchronizedConfig: the sub-configurations up to the given depth have
+     * their own monitor, so that the operations on independent sub-configurations can happen in
+     * parallel. For instance, with a depth of 1, each top-level sub-config has its own monitor,
+     * shared by all its descendants.
+     *
+     * @param configFormat the config format
+     * @param mapSupplier  the supplier of the maps that store the values
+     * @param stripeDepth  the number of levels of sub-configurations that have their own monitor,
+     *                     0 to disable striping
+     */
+    public SynchronizedConfig(ConfigFormat<?> configFormat,
+            Supplier<Map<String, Object>> mapSupplier, int stripeDepth) {
+        this(configFormat, mapSupplier, new Object(), stripeDepth, new AtomicLong());
+        if (stripeDepth < 0) {
+            throw new IllegalArgumentException("Invalid stripe depth: " + stripeDepth);
+        }
+    }
+
+    private SynchronizedConfig(ConfigFormat<?> configFormat,
+            Supplier<Map<String, Object>> mapSupplier, Object monitor, int stripeDepth,
+            AtomicLong version) {
+        this.rootMonitor = monitor;
+        this.stripeDepth = stripeDepth;
+        this.version = version;
+        this.dataHolder = new DataHolder(this, configFormat, mapSupplier);
+    }
+
+    /**
+     * Creates a sub-configuration of this config: a new stripe in striped mode, or a
+     * configuration that shares the monitor of this config.
+     */
+    private SynchronizedConfig newSubConfig(ConfigFormat<?> configFormat,
+            Supplier<Map<String, Object>> mapSupplier) {
+        if (stripeDepth > 0) {
+            return new SynchronizedConfig(configFormat, mapSupplier, new Object(), stripeDepth - 1,
+                    version);
+        }
+        return new SynchronizedConfig(configFormat, mapSupplier, this);
+    }
+
+    /**
+     * In striped mode, finds the stripe that contains the given path. The monitor of this config is
+     * only held during the search, so that the operation on the stripe doesn't block the other stripes.
+     *
+     * @param create true to create the missing sub-config
+     * @return the stripe, or null if the operation must hold the monitor of this config
+     */
+    private SynchronizedConfig stripeOf(List<String> path, boolean create) {
+        if (stripeDepth == 0 || path.size() < 2) {
+            return null;
+        }
+        synchronized (rootMonitor) {
+            Map<String, Object> values = dataHolder.valueMap();
+            Object level = values.get(path.get(0));
+            if (level == null && create) {
+                level = dataHolder.createSubConfig();
+                values.put(path.get(0), level);
+                version.incrementAndGet();
+            }
+            if (level instanceof SynchronizedConfig
+                    && ((SynchronizedConfig) level).rootMonitor != rootMonitor) {
+                return (SynchronizedConfig) level;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Executes a modification of the given path. In striped mode, the modification is made by the
+     * stripe that contains the path, without holding the monitor of this config. The stripe may
+     * be replaced or removed by another thread in the meantime, in which case the modification
+     * would be lost: if the stripe is no longer in this config when the modification is done,
+     * the modification is made again.
+     *
+     * @param create       true to create the missing sub-config
+     * @param stripeAction the modification to make on the stripe, with the path in the stripe
+     * @param action       the modification to make on this config if there is no stripe
+     */
+    private <R> R modifyPath(List<String> path, boolean create,
+            BiFunction<SynchronizedConfig, List<String>, R> stripeAction, Supplier<R> action) {
+        while (true) {
+            SynchronizedConfig stripe;
+            synchronized (rootMonitor) {
+                stripe = stripeOf(path, create);
+                if (stripe == null) {
+                    return modify(action);
+                }
+            }
+            R result = stripeAction.apply(stripe, path.subList(1, path.size()));
+            synchronized (rootMonitor) {
+                if (dataHolder.valueMap().get(path.get(0)) == stripe) {
+                    return result;
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes an action while holding the monitor of this config and, in striped mode, the
+     * monitors of all its stripes, including the configs stored in lists. The monitors are
+     * acquired from the root to the leaves, in the order of the values and of the list elements,
+     * which prevents deadlocks.
+     */
+    private <R> R withAllMonitors(Supplier<R> action) {
+        synchronized (rootMonitor) {
+            if (stripeDepth == 0) {
+                return action.get();
+            }
+            List<SynchronizedConfig> stripes = new ArrayList<>();
+            for (Object value : dataHolder.valueMap().values()) {
+                collectStripes(value, stripes);
+            }
+            return withMonitors(stripes, 0, action);
+        }
+    }
+
+    /** Adds the value to the stripes if it has its own monitor, or the stripes it contains if it's a list. */
+    private void collectStripes(Object value, List<SynchronizedConfig> stripes) {
+        if (value instanceof SynchronizedConfig) {
+            if (((SynchronizedConfig) value).rootMonitor != rootMonitor) {
+                stripes.add((SynchronizedConfig) value);
+            }
+        } else if (value instanceof List) {
+            for (Object element : (List<?>) value) {
+                collectStripes(element, stripes);
+            }
+        }
+    }
+
+    private static <R> R withMonitors(List<SynchronizedConfig> stripes, int index, Supplier<R> action) {
+        if (index == stripes.size()) {
+            return action.get();
+        }
+        return stripes.get(index).withAllMonitors(() -> withMonitors(stripes, index + 1, action));
+    }
+
+    private void withAllMonitors(Runnable action) {
+        withAllMonitors(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /** Executes a modification while holding the monitor of this config, and increases the version. */
+    private <R> R modify(Supplier<R> action) {
+        synchronized (rootMonitor) {
+            try {
+                return action.get();
+            } finally {
+                version.incrementAndGet();
+            }
+        }
+    }
+
+    /** Executes a modification while holding all the monitors, and increases the version. */
+    private <R> R modifyAll(Supplier<R> action) {
+        return withAllMonitors(() -> {
+            try {
+                return action.get();
+            } finally {
+                version.incrementAndGet();
+            }
+        });
+    }
+
+    private void modifyAll(Runnable action) {
+        modifyAll(() -> {
+            action.run();
+            return null;
+        });
     }
 
     // SynchronizedConfig(DataHolder subConfig, Object rootMonitor) {
@@ -125,7 +337,9 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
         synchronized (rootMonitor) {
             synchronized (newContent.rootMonitor) {
                 this.dataHolder = newContent.dataHolder;
+                this.dataHolder.syncConfig = this; // new sub-configs follow the mode of this config
                 newContent.dataHolder = null;
+                version.incrementAndGet();
             }
         }
     }
@@ -152,10 +366,15 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
             } else if (newContent instanceof AbstractConfig) {
                 try {
                     Map<String,Object> map = ((AbstractConfig)newContent).valueMap();
-                    if (map instanceof HashMap) {
-                        mapSupplier = HashMap::new;
-                    } else if (map instanceof LinkedHashMap) {
+                    // LinkedHashMap first, because it's also a HashMap
+                    if (map instanceof LinkedHashMap) {
                         mapSupplier = LinkedHashMap::new;
+                    } else if (map instanceof HashMap) {
+                        mapSupplier = HashMap::new;
+                    } else if (map instanceof CompactHashMap) {
+                        mapSupplier = CompactHashMap::new;
+                    } else if (map instanceof ConcurrentOrderedMap) {
+                        mapSupplier = ConcurrentOrderedMap::new;
                     }
                 } catch (UnsupportedOperationException ex) {
                     mapSupplier = null;
@@ -170,6 +389,7 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
                 dataHolder.putAllComments(cc);
                 convertSubConfigs(dataHolder, this);
                 this.dataHolder = dataHolder;
+                version.incrementAndGet();
             }
         }
     }
@@ -178,58 +398,85 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
 
     @Override
     public <R> R bulkCommentedRead(Function<? super UnmodifiableCommentedConfig, R> action) {
-        synchronized (rootMonitor) {
-            return action.apply(this.dataHolder);
-        }
+        return withAllMonitors(() -> action.apply(this.dataHolder));
     }
 
     @Override
     public <R> R bulkCommentedUpdate(Function<? super CommentedConfig, R> action) {
-        synchronized (rootMonitor) {
-            return action.apply(this.dataHolder);
+        return modifyAll(() -> action.apply(this.dataHolder));
+    }
+
+    // ----- VersionedConfig -----
+
+    @Override
+    public long version() {
+        return version.get();
+    }
+
+    @Override
+    public FrozenConfig snapshot() {
+        Snapshot last = lastSnapshot;
+        if (last != null && last.version == version.get()) {
+            return last.config;
+        }
+        return withAllMonitors(() -> {
+            // the version cannot change while all the monitors are held
+            FrozenConfig config = FrozenConfig.of(dataHolder);
+            // the lists may be modified in place without changing the version
+            lastSnapshot = containsLists(config) ? null : new Snapshot(version.get(), config);
+            return config;
+        });
+    }
+
+    private static boolean containsLists(UnmodifiableConfig config) {
+        for (UnmodifiableConfig.Entry entry : config.entrySet()) {
+            Object value = entry.getRawValue();
+            if (value instanceof List
+                    || value instanceof UnmodifiableConfig && containsLists((UnmodifiableConfig) value)) {
+                return true;
+            }
         }
+        return false;
     }
 
     // ----- Config -----
 
     @Override
     public boolean add(List<String> path, Object value) {
-        synchronized (rootMonitor) {
-            return dataHolder.add(path, value);
-        }
+        return modifyPath(path, true, (stripe, subPath) -> stripe.add(subPath, value),
+                () -> dataHolder.add(path, value));
     }
 
     @Override
     public void clearComments() {
-        synchronized (rootMonitor) {
-            dataHolder.clearComments();
-        }
-
+        modifyAll(() -> dataHolder.clearComments());
     }
 
     @Override
     public Map<String, String> commentMap() {
         synchronized (rootMonitor) {
-            return new SynchronizedMap<>(dataHolder.commentMap(), rootMonitor);
+            return new SynchronizedMap<>(dataHolder.commentMap(), rootMonitor, version);
         }
     }
 
     @Override
     public String removeComment(List<String> path) {
-        synchronized (rootMonitor) {
-            return dataHolder.removeComment(path);
-        }
+        return modifyPath(path, false, (stripe, subPath) -> stripe.removeComment(subPath),
+                () -> dataHolder.removeComment(path));
     }
 
     @Override
     public String setComment(List<String> path, String comment) {
-        synchronized (rootMonitor) {
-            return dataHolder.setComment(path, comment);
-        }
+        return modifyPath(path, true, (stripe, subPath) -> stripe.setComment(subPath, comment),
+                () -> dataHolder.setComment(path, comment));
     }
 
     @Override
     public boolean containsComment(List<String> path) {
+        SynchronizedConfig stripe = stripeOf(path, false);
+        if (stripe != null) {
+            return stripe.containsComment(path.subList(1, path.size()));
+        }
         synchronized (rootMonitor) {
             return dataHolder.containsComment(path);
         }
@@ -237,6 +484,10 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
 
     @Override
     public String getComment(List<String> path) {
+        SynchronizedConfig stripe = stripeOf(path, false);
+        if (stripe != null) {
+            return stripe.getComment(path.subList(1, path.size()));
+        }
         synchronized (rootMonitor) {
             return dataHolder.getComment(path);
         }
@@ -251,9 +502,7 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
 
     @Override
     public void clear() {
-        synchronized (rootMonitor) {
-            dataHolder.clear();
-        }
+        modifyAll(() -> dataHolder.clear());
     }
 
     @Override
@@ -264,33 +513,36 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
     @Override
     public Set<? extends CommentedConfig.Entry> entrySet() {
         synchronized (rootMonitor) {
-            return new SynchronizedSet<>(dataHolder.entrySet(), rootMonitor);
+            @SuppressWarnings("unchecked")
+            Set<CommentedConfig.Entry> entries = (Set<CommentedConfig.Entry>) dataHolder.entrySet();
+            return new SynchronizedSet<>(entries, rootMonitor, version,
+                    entry -> new SynchronizedEntry(entry, rootMonitor, version));
         }
     }
 
     @Override
     public <T> T remove(List<String> path) {
-        synchronized (rootMonitor) {
-            return dataHolder.remove(path);
-        }
+        return modifyPath(path, false, (stripe, subPath) -> stripe.<T>remove(subPath),
+                () -> dataHolder.<T>remove(path));
     }
 
     @Override
     public <T> T set(List<String> path, Object value) {
-        synchronized (rootMonitor) {
-            return dataHolder.set(path, value);
-        }
+        return modifyPath(path, true, (stripe, subPath) -> stripe.<T>set(subPath, value),
+                () -> dataHolder.<T>set(path, value));
     }
 
     @Override
     public String toString() {
-        synchronized (rootMonitor) {
-            return "SynchronizedConfig{" + dataHolder.toString() + "}";
-        }
+        return withAllMonitors(() -> "SynchronizedConfig{" + dataHolder.toString() + "}");
     }
 
     @Override
     public boolean contains(List<String> path) {
+        SynchronizedConfig stripe = stripeOf(path, false);
+        if (stripe != null) {
+            return stripe.contains(path.subList(1, path.size()));
+        }
         synchronized (rootMonitor) {
             return dataHolder.contains(path);
         }
@@ -298,13 +550,15 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
 
     @Override
     public boolean equals(Object obj) {
-        synchronized (rootMonitor) {
-            return dataHolder.equals(obj);
-        }
+        return withAllMonitors(() -> dataHolder.equals(obj));
     }
 
     @Override
     public <T> T getRaw(List<String> path) {
+        SynchronizedConfig stripe = stripeOf(path, false);
+        if (stripe != null) {
+            return stripe.getRaw(path.subList(1, path.size()));
+        }
         synchronized (rootMonitor) {
             return dataHolder.getRaw(path);
         }
@@ -312,9 +566,7 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
 
     @Override
     public int hashCode() {
-        synchronized (rootMonitor) {
-            return dataHolder.hashCode();
-        }
+        return withAllMonitors(() -> dataHolder.hashCode());
     }
 
     @Override
@@ -345,50 +597,23 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
             Map<String, Object> transformingMap = new TransformingMap<>(dataHolder.valueMap(),
                     o -> o,
                     toWrite -> convertValue(toWrite, this), o -> o);
-            return new SynchronizedMap<>(transformingMap, rootMonitor);
-        }
-    }
-
-    @Override
-    public boolean add(String path, Object value) {
-        synchronized (rootMonitor) {
-            return dataHolder.add(path, value);
+            return new SynchronizedMap<>(transformingMap, rootMonitor, version);
         }
     }
 
     @Override
     public void addAll(UnmodifiableConfig other) {
-        synchronized (rootMonitor) {
-            dataHolder.addAll(other);
-        }
+        modifyAll(() -> dataHolder.addAll(other));
     }
 
     @Override
     public void putAll(UnmodifiableConfig other) {
-        synchronized (rootMonitor) {
-            dataHolder.putAll(other);
-        }
-    }
-
-    @Override
-    public <T> T remove(String path) {
-        synchronized (rootMonitor) {
-            return dataHolder.remove(path);
-        }
+        modifyAll(() -> dataHolder.putAll(other));
     }
 
     @Override
     public void removeAll(UnmodifiableConfig toRemove) {
-        synchronized (rootMonitor) {
-            dataHolder.removeAll(toRemove);
-        }
-    }
-
-    @Override
-    public <T> T set(String path, Object value) {
-        synchronized (rootMonitor) {
-            return dataHolder.set(path, value);
-        }
+        modifyAll(() -> dataHolder.removeAll(toRemove));
     }
 
     @Override
@@ -396,60 +621,25 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
         return dataHolder.unmodifiable();
     }
 
-    @Override
-    public void update(List<String> path, Object value) {
-        synchronized (rootMonitor) {
-            dataHolder.update(path, value);
-        }
-    }
-
-    @Override
-    public <T> T apply(List<String> path) {
-        synchronized (rootMonitor) {
-            return dataHolder.apply(path);
-        }
-    }
-
-    @Override
-    public <T> T get(List<String> path) {
-        synchronized (rootMonitor) {
-            return dataHolder.get(path);
-        }
-    }
-
-    @Override
-    public boolean isNull(List<String> path) {
-        synchronized (rootMonitor) {
-            return dataHolder.isNull(path);
-        }
-    }
-
     @Override
     public Map<String, CommentNode> getComments() {
-        synchronized (rootMonitor) {
-            return dataHolder.getComments(); // this is a deep copy, no need for synchronizedmap
-        }
+        // this is a deep copy, no need for synchronizedmap
+        return withAllMonitors(() -> dataHolder.getComments());
     }
 
     @Override
     public void getComments(Map<String, CommentNode> destination) {
-        synchronized (rootMonitor) {
-            dataHolder.getComments(destination);
-        }
+        withAllMonitors(() -> dataHolder.getComments(destination));
     }
 
     @Override
     public void putAllComments(Map<String, CommentNode> comments) {
-        synchronized (rootMonitor) {
-            dataHolder.putAllComments(comments);
-        }
+        modifyAll(() -> dataHolder.putAllComments(comments));
     }
 
     @Override
     public void putAllComments(UnmodifiableCommentedConfig commentedConfig) {
-        synchronized (rootMonitor) {
-            dataHolder.putAllComments(commentedConfig);
-        }
+        modifyAll(() -> dataHolder.putAllComments(commentedConfig));
     }
 
     private static final class DataHolder extends AbstractCommentedConfig {
@@ -477,9 +667,7 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
 
         @Override
         public SynchronizedConfig createSubConfig() {
-            synchronized (syncConfig.rootMonitor) {
-                return new SynchronizedConfig(format, mapCreator, syncConfig);
-            }
+            return syncConfig.newSubConfig(format, mapCreator);
         }
 
         @Override
@@ -492,10 +680,12 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
     private static final class SynchronizedMap<K, V> implements Map<K, V> {
         private final Map<K, V> map;
         private final Object rootMonitor;
+        private final AtomicLong version;
 
-        SynchronizedMap(Map<K, V> map, Object monitor) {
+        SynchronizedMap(Map<K, V> map, Object monitor, AtomicLong version) {
             this.map = map;
             this.rootMonitor = monitor;
+            this.version = version;
         }
 
         @Override
@@ -522,7 +712,11 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
         @Override
         public void clear() {
             synchronized (rootMonitor) {
-                map.clear();
+                try {
+                    map.clear();
+                } finally {
+                    version.incrementAndGet();
+                }
             }
         }
 
@@ -543,7 +737,8 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
         @Override
         public Set<Entry<K, V>> entrySet() {
             synchronized (rootMonitor) {
-                return new SynchronizedSet<Entry<K, V>>(map.entrySet(), rootMonitor);
+                return new SynchronizedSet<Entry<K, V>>(map.entrySet(), rootMonitor, version,
+                        entry -> new SynchronizedMapEntry<>(entry, rootMonitor, version));
             }
         }
 
@@ -571,21 +766,33 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
         @Override
         public V put(K key, V value) {
             synchronized (rootMonitor) {
-                return map.put(key, value);
+                try {
+                    return map.put(key, value);
+                } finally {
+                    version.incrementAndGet();
+                }
             }
         }
 
         @Override
         public void putAll(Map<? extends K, ? extends V> m) {
             synchronized (rootMonitor) {
-                map.putAll(m);
+                try {
+                    map.putAll(m);
+                } finally {
+                    version.incrementAndGet();
+                }
             }
         }
 
         @Override
         public V remove(Object key) {
             synchronized (rootMonitor) {
-                return map.remove(key);
+                try {
+                    return map.remove(key);
+                } finally {
+                    version.incrementAndGet();
+                }
             }
         }
 
@@ -607,30 +814,48 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
     private static class SynchronizedCollection<E> implements Collection<E> {
         private final Collection<E> coll;
         private final Object rootMonitor;
+        private final AtomicLong version;
+        /** wraps the elements given by the iterators, like the entries */
+        private final UnaryOperator<E> wrapper;
 
-        SynchronizedCollection(Collection<E> coll, Object rootMonitor) {
+        SynchronizedCollection(Collection<E> coll, Object rootMonitor, AtomicLong version,
+                UnaryOperator<E> wrapper) {
             this.coll = coll;
             this.rootMonitor = rootMonitor;
+            this.version = version;
+            this.wrapper = wrapper;
         }
 
         @Override
         public boolean add(E e) {
             synchronized (rootMonitor) {
-                return coll.add(e);
+                try {
+                    return coll.add(e);
+                } finally {
+                    version.incrementAndGet();
+                }
             }
         }
 
         @Override
         public boolean addAll(Collection<? extends E> c) {
             synchronized (rootMonitor) {
-                return coll.addAll(c);
+                try {
+                    return coll.addAll(c);
+                } finally {
+                    version.incrementAndGet();
+                }
             }
         }
 
         @Override
         public void clear() {
             synchronized (rootMonitor) {
-                coll.clear();
+                try {
+                    coll.clear();
+                } finally {
+                    version.incrementAndGet();
+                }
             }
         }
 
@@ -658,28 +883,40 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
         @Override
         public Iterator<E> iterator() {
             synchronized (rootMonitor) {
-                return new SynchronizedIterator<>(coll.iterator(), rootMonitor);
+                return new SynchronizedIterator<>(coll.iterator(), rootMonitor, version, wrapper);
             }
         }
 
         @Override
         public boolean remove(Object o) {
             synchronized (rootMonitor) {
-                return coll.remove(o);
+                try {
+                    return coll.remove(o);
+                } finally {
+                    version.incrementAndGet();
+                }
             }
         }
 
         @Override
         public boolean removeAll(Collection<?> c) {
             synchronized (rootMonitor) {
-                return coll.removeAll(c);
+                try {
+                    return coll.removeAll(c);
+                } finally {
+                    version.incrementAndGet();
+                }
             }
         }
 
         @Override
         public boolean retainAll(Collection<?> c) {
             synchronized (rootMonitor) {
-                return coll.retainAll(c);
+                try {
+                    return coll.retainAll(c);
+                } finally {
+                    version.incrementAndGet();
+                }
             }
         }
 
@@ -707,14 +944,18 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
         @Override
         public boolean removeIf(Predicate<? super E> filter) {
             synchronized (rootMonitor) {
-                return coll.removeIf(filter);
+                try {
+                    return coll.removeIf(filter);
+                } finally {
+                    version.incrementAndGet();
+                }
             }
         }
 
         @Override
         public void forEach(Consumer<? super E> action) {
             synchronized (rootMonitor) {
-                coll.forEach(action);
+                coll.forEach(element -> action.accept(wrapper.apply(element)));
             }
         }
 
@@ -723,16 +964,21 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
     private static final class SynchronizedIterator<E> implements Iterator<E> {
         private final Iterator<E> iter;
         private final Object rootMonitor;
+        private final AtomicLong version;
+        private final UnaryOperator<E> wrapper;
 
-        SynchronizedIterator(Iterator<E> iter, Object rootMonitor) {
+        SynchronizedIterator(Iterator<E> iter, Object rootMonitor, AtomicLong version,
+                UnaryOperator<E> wrapper) {
             this.iter = iter;
             this.rootMonitor = rootMonitor;
+            this.version = version;
+            this.wrapper = wrapper;
         }
 
         @Override
         public void forEachRemaining(Consumer<? super E> action) {
             synchronized (rootMonitor) {
-                iter.forEachRemaining(action);
+                iter.forEachRemaining(element -> action.accept(wrapper.apply(element)));
             }
         }
 
@@ -746,22 +992,160 @@ public final class SynchronizedConfig implements ConcurrentCommentedConfig {
         @Override
         public E next() {
             synchronized (rootMonitor) {
-                return iter.next();
+                return wrapper.apply(iter.next());
             }
         }
 
         @Override
         public void remove() {
             synchronized (rootMonitor) {
-                iter.remove();
+                try {
+                    iter.remove();
+                } finally {
+                    version.incrementAndGet();
+                }
             }
         }
     }
 
     private static final class SynchronizedSet<E> extends SynchronizedCollection<E>
             implements Set<E> {
-        SynchronizedSet(Set<E> coll, Object rootMonitor) {
-            super(coll, rootMonitor);
+        SynchronizedSet(Set<E> coll, Object rootMonitor, AtomicLong version,
+                UnaryOperator<E> wrapper) {
+            super(coll, rootMonitor, version, wrapper);
+        }
+    }
+
+    /** An entry of {@link #entrySet()}, modified while holding the root monitor. */
+    private static final class SynchronizedEntry implements CommentedConfig.Entry {
+        private final CommentedConfig.Entry entry;
+        private final Object rootMonitor;
+        private final AtomicLong version;
+
+        SynchronizedEntry(CommentedConfig.Entry entry, Object rootMonitor, AtomicLong version) {
+            this.entry = entry;
+            this.rootMonitor = rootMonitor;
+            this.version = version;
+        }
+
+        @Override
+        public String getKey() {
+            return entry.getKey();
+        }
+
+        @Override
+        public <T> T getRawValue() {
+            synchronized (rootMonitor) {
+                return entry.getRawValue();
+            }
+        }
+
+        @Override
+        public <T> T setValue(Object value) {
+            synchronized (rootMonitor) {
+                try {
+                    return entry.setValue(value);
+                } finally {
+                    version.incrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public String getComment() {
+            synchronized (rootMonitor) {
+                return entry.getComment();
+            }
+        }
+
+        @Override
+        public String setComment(String comment) {
+            synchronized (rootMonitor) {
+                try {
+                    return entry.setComment(comment);
+                } finally {
+                    version.incrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public String removeComment() {
+            synchronized (rootMonitor) {
+                try {
+                    return entry.removeComment();
+                } finally {
+                    version.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /** An entry of a {@link SynchronizedMap}, modified while holding the root monitor. */
+    private static final class SynchronizedMapEntry<K, V> implements Map.Entry<K, V> {
+        private final Map.Entry<K, V> entry;
+        private final Object rootMonitor;
+        private final AtomicLong version;
+
+        SynchronizedMapEntry(Map.Entry<K, V> entry, Object rootMonitor, AtomicLong version) {
+            this.entry = entry;
+            this.rootMonitor = rootMonitor;
+            this.version = version;
+        }
+
+        @Override
+        public K getKey() {
+            return entry.getKey();
+        }
+
+        @Override
+        public V getValue() {
+            synchronized (rootMonitor) {
+                return entry.getValue();
+            }
+        }
+
+        @Override
+        public V setValue(V value) {
+            synchronized (rootMonitor) {
+                try {
+                    return entry.setValue(value);
+                } finally {
+                    version.incrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            synchronized (rootMonitor) {
+                return entry.equals(obj);
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            synchronized (rootMonitor) {
+                return entry.hashCode();
+            }
+        }
+
+        @Override
+        public String toString() {
+            synchronized (rootMonitor) {
+                return entry.toString();
+            }
+        }
+    }
+
+    /** The last snapshot of a config, valid as long as the version doesn't change. */
+    private static final class Snapshot {
+        final long version;
+        final FrozenConfig config;
+
+        Snapshot(long version, FrozenConfig config) {
+            this.version = version;
+            this.config = config;
         }
     }
 
@@ -0,0 +1,85 @@
+package com.electronwill.nightconfig.core.concurrent;
+
+import com.electronwill.nightconfig.core.FrozenConfig;
+
+/**
+ * Interface for thread-safe configurations that count their modifications.
+ * <p>
+ * The version of the config increases each time that the config is modified, including by a
+ * bulk update or by the replacement of its content. It allows to know whether the config has
+ * changed without comparing its content: a state derived from the config stays valid as long as
+ * the version stays the same.
+ * <p>
+ * Here is an example:
+ *
+ * <pre>
+ * {@code
+ * long version = config.version(); // read the version BEFORE the snapshot
+ * FrozenConfig snapshot = config.snapshot();
+ * Derived derived = compute(snapshot);
+ *
+ * // later
+ * if (config.version() != version) {
+ *     // the config has been modified, recompute the derived state
+ * }
+ * }
+ * </pre>
+ *
+ * See the package documentation for more information: {@link com.electronwill.nightconfig.core.concurrent}.
+ */
+public interface VersionedConfig extends ConcurrentConfig {
+    /**
+     * Returns the current version of the config. The version increases after every modification
+     * of the config, and possibly after operations that turn out to change nothing.
+     * <p>
+     * The modifications made inside of a mutable value, for instance with {@code list.add(e)} on a
+     * list stored in the config, are not detected.
+     *
+     * @return the current version
+     */
+    long version();
+
+    /**
+     * Returns an immutable copy of the config, in the state of a single point in time. The snapshot
+     * is consistent: it contains all the modifications made before that point, and none of the
+     * modifications made after it. It includes all the modifications counted by a call to
+     * {@link #version()} made before the snapshot.
+     * <p>
+     * As long as the config isn't modified, the same snapshot is returned, without copying the
+     * config again. The parts of the config that contain lists are copied by each snapshot, since
+     * the lists may have been modified in place.
+     *
+     * @return a snapshot of the config
+     */
+    FrozenConfig snapshot();
+
+    /**
+     * Returns the version of a config that is not necessarily a {@code VersionedConfig}, for
+     * instance the config wrapped by another one.
+     *
+     * @param config the config
+     * @return the current version of the config
+     * @throws UnsupportedOperationException if the config isn't a {@code VersionedConfig}
+     */
+    static long versionOf(ConcurrentConfig config) {
+        if (config instanceof VersionedConfig) {
+            return ((VersionedConfig) config).version();
+        }
+        throw new UnsupportedOperationException("The config doesn't count its modifications: " + config.getClass());
+    }
+
+    /**
+     * Returns a snapshot of a config that is not necessarily a {@code VersionedConfig}. If it isn't
+     * one, the config is copied in a {@link ConcurrentConfig#bulkRead(java.util.function.Function)},
+     * every time.
+     *
+     * @param config the config
+     * @return a snapshot of the config
+     */
+    static FrozenConfig snapshotOf(ConcurrentConfig config) {
+        if (config instanceof VersionedConfig) {
+            return ((VersionedConfig) config).snapshot();
+        }
+        return config.bulkRead(FrozenConfig::of);
+    }
+}
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.electronwill.nightconfig.core.conversion;
 import com.electronwill.nightconfig.core.CommentedConfig;
 import com.electronwill.nightconfig.core.UnmodifiableCommentedConfig;
 import com.electronwill.nightconfig.core.utils.TransformingSet;
+import com.electronwill.nightconfig.core.utils.ViewCache;
 
 import java.util.List;
 import java.util.Map;
@@ -15,6 +16,11 @@ import java.util.function.Predicate;
  */
 abstract class AbstractConvertedCommentedConfig<C extends CommentedConfig>
 		extends AbstractConvertedConfig<C> implements CommentedConfig {
+	@SuppressWarnings("unchecked")
+	private final ViewCache<Set<? extends CommentedConfig.Entry>, Set<CommentedConfig.Entry>> entrySetCache =
+			new ViewCache<>(set -> new TransformingSet<>((Set<CommentedConfig.Entry>)set,
+					ConvertedEntry::new, o -> null, e -> e));
+
 	public AbstractConvertedCommentedConfig(C config, Function<Object, Object> readConversion,
 											Function<Object, Object> writeConversion,
 											Predicate<Class<?>> supportPredicate) {
@@ -67,44 +73,52 @@ abstract class AbstractConvertedCommentedConfig<C extends CommentedConfig>
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public Set<? extends CommentedConfig.Entry> entrySet() {
-		Function<CommentedConfig.Entry, CommentedConfig.Entry> readTransfo = entry -> new CommentedConfig.Entry() {
-			@Override
-			public String getComment() {
-				return entry.getComment();
-			}
-
-			@Override
-			public String setComment(String comment) {
-				return entry.setComment(comment);
-			}
-
-			@Override
-			public String removeComment() {
-				return entry.removeComment();
-			}
-
-			@Override
-			public String getKey() {
-				return entry.getKey();
-			}
-
-			@Override
-			public <T> T getRawValue() {
-				return (T)readConversion.apply(entry.getRawValue());
-			}
-
-			@Override
-			public <T> T setValue(Object value) {
-				return (T)readConversion.apply(entry.setValue(writeConversion.apply(value)));
-			}
-		};
-		return new TransformingSet<>(config.entrySet(), readTransfo, o -> null, e -> e);
+		return entrySetCache.get(config.entrySet());
 	}
 
 	@Override
 	public CommentedConfig createSubConfig() {
 		return config.createSubConfig();
 	}
+
+	private final class ConvertedEntry implements CommentedConfig.Entry {
+		private final CommentedConfig.Entry entry;
+
+		ConvertedEntry(CommentedConfig.Entry entry) {
+			this.entry = entry;
+		}
+
+		@Override
+		public String getComment() {
+			return entry.getComment();
+		}
+
+		@Override
+		public String setComment(String comment) {
+			return entry.setComment(comment);
+		}
+
+		@Override
+		public String removeComment() {
+			return entry.removeComment();
+		}
+
+		@Override
+		public String getKey() {
+			return entry.getKey();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T getRawValue() {
+			return (T)readConversion.apply(entry.getRawValue());
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T setValue(Object value) {
+			return (T)readConversion.apply(entry.setValue(writeConversion.apply(value)));
+		}
+	}
 }
\ No newline at end of file
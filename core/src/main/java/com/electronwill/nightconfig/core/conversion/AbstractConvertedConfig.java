@@ -4,6 +4,7 @@ import com.electronwill.nightconfig.core.Config;
 import com.electronwill.nightconfig.core.ConfigFormat;
 import com.electronwill.nightconfig.core.utils.ConfigWrapper;
 import com.electronwill.nightconfig.core.utils.TransformingMap;
+import com.electronwill.nightconfig.core.utils.ViewCache;
 
 import java.util.List;
 import java.util.Map;
@@ -18,6 +19,7 @@ abstract class AbstractConvertedConfig<C extends Config> extends ConfigWrapper<C
 	final Function<Object, Object> readConversion, writeConversion;
 	final Predicate<Class<?>> supportPredicate;
 	final ConfigFormat<?> format;
+	private final ViewCache<Map<String, Object>, Map<String, Object>> valueMapCache;
 
 	AbstractConvertedConfig(C config, Function<Object, Object> readConversion,
 							Function<Object, Object> writeConversion,
@@ -27,6 +29,8 @@ abstract class AbstractConvertedConfig<C extends Config> extends ConfigWrapper<C
 		this.writeConversion = writeConversion;
 		this.supportPredicate = supportPredicate;
 		this.format = new ConvertedFormat<>(config.configFormat(), supportPredicate);
+		this.valueMapCache = new ViewCache<>(map -> new TransformingMap<>(map, readConversion,
+				writeConversion, writeConversion));
 	}
 
 	@Override
@@ -36,8 +40,7 @@ abstract class AbstractConvertedConfig<C extends Config> extends ConfigWrapper<C
 
 	@Override
 	public Map<String, Object> valueMap() {
-		return new TransformingMap<>(config.valueMap(), readConversion, writeConversion,
-									 writeConversion);
+		return valueMapCache.get(config.valueMap());
 	}
 
 	@Override
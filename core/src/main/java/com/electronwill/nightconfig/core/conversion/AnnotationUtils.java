@@ -3,6 +3,7 @@ package com.electronwill.nightconfig.core.conversion;
 import com.electronwill.nightconfig.core.EnumGetMethod;
 import com.electronwill.nightconfig.core.utils.StringUtils;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
@@ -18,6 +19,12 @@ import java.util.function.Predicate;
  */
 @SuppressWarnings("deprecation")
 final class AnnotationUtils {
+	/** The annotations that are checked by {@link #checkField(Field, Object)}. */
+	private static final List<Class<? extends Annotation>> SPEC_ANNOTATIONS = Arrays.asList(
+		SpecNotNull.class, SpecClassInArray.class, SpecStringInArray.class, SpecStringInRange.class,
+		SpecDoubleInRange.class, SpecFloatInRange.class, SpecLongInRange.class, SpecIntInRange.class,
+		SpecEnum.class, SpecValidator.class);
+
 	private AnnotationUtils() {}
 
 	/**
@@ -98,6 +105,50 @@ final class AnnotationUtils {
 	 * @param value the field's value
 	 */
 	static void checkField(Field field, Object value) {
+		checkField(field, value, null);
+	}
+
+	/**
+	 * Checks if a field has at least one spec annotation, that is, if {@link #checkField(Field,
+	 * Object)} can fail.
+	 */
+	static boolean hasSpecs(Field field) {
+		for (Class<? extends Annotation> spec : SPEC_ANNOTATIONS) {
+			if (field.getDeclaredAnnotation(spec) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Creates an instance of the validator specified by the @SpecValidator annotation of the
+	 * field. If there is no @SpecValidator annotation, returns {@code null}.
+	 */
+	static Predicate<Object> createValidator(Field field) {
+		SpecValidator spec = field.getDeclaredAnnotation(SpecValidator.class);
+		if (spec == null) {
+			return null;
+		}
+		try {
+			Constructor<? extends Predicate<Object>> constructor = spec.value()
+																	   .getDeclaredConstructor();
+			constructor.setAccessible(true);
+			return constructor.newInstance();
+		} catch (ReflectiveOperationException ex) {
+			throw new ReflectionException("Cannot create a converter for field " + field, ex);
+		}
+	}
+
+	/**
+	 * Checks that the value of a field corresponds to its spec annotation, if any, with an
+	 * existing instance of its @SpecValidator.
+	 *
+	 * @param field     the field to check
+	 * @param value     the field's value
+	 * @param validator the instance of the field's validator, or null to create it if needed
+	 */
+	static void checkField(Field field, Object value, Predicate<Object> validator) {
 		//--- Misc checks ---
 		SpecNotNull specNotNull = field.getDeclaredAnnotation(SpecNotNull.class);
 		if (specNotNull != null) {
@@ -145,19 +196,14 @@ final class AnnotationUtils {
 		// --- Custom check with a validator --
 		SpecValidator specValidator = field.getDeclaredAnnotation(SpecValidator.class);
 		if (specValidator != null) {
-			checkFieldSpec(field, value, specValidator);
+			checkFieldSpec(field, value, specValidator, validator);
 		}
 	}
 
-	private static void checkFieldSpec(Field field, Object value, SpecValidator spec) {
-		final Predicate<Object> validatorInstance;
-		try {
-			Constructor<? extends Predicate<Object>> constructor = spec.value()
-																	   .getDeclaredConstructor();
-			constructor.setAccessible(true);
-			validatorInstance = constructor.newInstance();
-		} catch (ReflectiveOperationException ex) {
-			throw new ReflectionException("Cannot create a converter for field " + field, ex);
+	private static void checkFieldSpec(Field field, Object value, SpecValidator spec,
+									   Predicate<Object> validatorInstance) {
+		if (validatorInstance == null) {
+			validatorInstance = createValidator(field);
 		}
 		if (!validatorInstance.test(value)) {
 			throw new InvalidValueException(
@@ -2,6 +2,7 @@ package com.electronwill.nightconfig.core.conversion;
 
 import com.electronwill.nightconfig.core.*;
 import com.electronwill.nightconfig.core.concurrent.ConcurrentCommentedConfig;
+import com.electronwill.nightconfig.core.concurrent.VersionedConfig;
 import com.electronwill.nightconfig.core.file.CommentedFileConfig;
 
 import java.io.File;
@@ -14,7 +15,7 @@ import java.util.function.Predicate;
  */
 public final class ConvertedCommentedFileConfig
 		extends AbstractConvertedCommentedConfig<CommentedFileConfig>
-		implements CommentedFileConfig {
+		implements CommentedFileConfig, VersionedConfig {
 
 	public ConvertedCommentedFileConfig(CommentedFileConfig config, ConversionTable readTable,
 										ConversionTable writeTable,
@@ -39,6 +40,22 @@ public final class ConvertedCommentedFileConfig
 		return config.getNioPath();
 	}
 
+	@Override
+	public long version() {
+		return VersionedConfig.versionOf(config);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Like the views given to the bulk operations, the snapshot contains the values of the
+	 * underlying config, without conversion.
+	 */
+	@Override
+	public FrozenConfig snapshot() {
+		return VersionedConfig.snapshotOf(config);
+	}
+
 	@Override
 	public void save() {
 		config.save();
@@ -2,6 +2,7 @@ package com.electronwill.nightconfig.core.conversion;
 
 import com.electronwill.nightconfig.core.Config;
 import com.electronwill.nightconfig.core.utils.TransformingSet;
+import com.electronwill.nightconfig.core.utils.ViewCache;
 
 import java.util.Set;
 import java.util.function.Function;
@@ -13,6 +14,11 @@ import java.util.function.Predicate;
  * @author TheElectronWill
  */
 public final class ConvertedConfig extends AbstractConvertedConfig<Config> {
+	@SuppressWarnings("unchecked")
+	private final ViewCache<Set<? extends Config.Entry>, Set<Config.Entry>> entrySetCache =
+			new ViewCache<>(set -> new TransformingSet<>((Set<Config.Entry>)set, ConvertedEntry::new,
+					o -> null, e -> e));
+
 	/**
 	 * Creates a new ConvertedConfig that uses two conversion tables.
 	 *
@@ -43,24 +49,32 @@ public final class ConvertedConfig extends AbstractConvertedConfig<Config> {
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public Set<? extends Config.Entry> entrySet() {
-		Function<Config.Entry, Config.Entry> readTransfo = entry -> new Config.Entry() {
-			@Override
-			public Object setValue(Object value) {
-				return readConversion.apply(entry.setValue(writeConversion.apply(value)));
-			}
+		return entrySetCache.get(config.entrySet());
+	}
+
+	private final class ConvertedEntry implements Config.Entry {
+		private final Config.Entry entry;
+
+		ConvertedEntry(Config.Entry entry) {
+			this.entry = entry;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T setValue(Object value) {
+			return (T)readConversion.apply(entry.setValue(writeConversion.apply(value)));
+		}
 
-			@Override
-			public String getKey() {
-				return entry.getKey();
-			}
+		@Override
+		public String getKey() {
+			return entry.getKey();
+		}
 
-			@Override
-			public <T> T getRawValue() {
-				return (T)readConversion.apply(entry.getRawValue());
-			}
-		};
-		return new TransformingSet<>(config.entrySet(), readTransfo, o -> null, e -> e);
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T getRawValue() {
+			return (T)readConversion.apply(entry.getRawValue());
+		}
 	}
 }
\ No newline at end of file
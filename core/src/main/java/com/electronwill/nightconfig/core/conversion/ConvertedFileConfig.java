@@ -1,8 +1,10 @@
 package com.electronwill.nightconfig.core.conversion;
 
 import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.core.FrozenConfig;
 import com.electronwill.nightconfig.core.UnmodifiableConfig;
 import com.electronwill.nightconfig.core.concurrent.ConcurrentConfig;
+import com.electronwill.nightconfig.core.concurrent.VersionedConfig;
 import com.electronwill.nightconfig.core.file.FileConfig;
 
 import java.io.File;
@@ -13,7 +15,7 @@ import java.util.function.Predicate;
 /**
  * @author TheElectronWill
  */
-public class ConvertedFileConfig extends AbstractConvertedConfig<FileConfig> implements FileConfig {
+public class ConvertedFileConfig extends AbstractConvertedConfig<FileConfig> implements FileConfig, VersionedConfig {
 	public ConvertedFileConfig(FileConfig config, ConversionTable readTable,
 							   ConversionTable writeTable, Predicate<Class<?>> supportPredicate) {
 		this(config, readTable::convert, writeTable::convert, supportPredicate);
@@ -35,6 +37,22 @@ public class ConvertedFileConfig extends AbstractConvertedConfig<FileConfig> imp
 		return config.getNioPath();
 	}
 
+	@Override
+	public long version() {
+		return VersionedConfig.versionOf(config);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Like the views given to the bulk operations, the snapshot contains the values of the
+	 * underlying config, without conversion.
+	 */
+	@Override
+	public FrozenConfig snapshot() {
+		return VersionedConfig.snapshotOf(config);
+	}
+
 	@Override
 	public void save() {
 		config.save();
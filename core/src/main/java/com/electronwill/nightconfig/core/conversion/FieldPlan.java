@@ -0,0 +1,200 @@
+package com.electronwill.nightconfig.core.conversion;
+
+import com.electronwill.nightconfig.core.EnumGetMethod;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The resolved conversion metadata of a field, shared by {@link ObjectConverter} and
+ * {@link ObjectBinder}. The plans are computed once per class and cached, so that converting
+ * many objects of the same class doesn't repeat the reflection work for each of them.
+ *
+ * @author TheElectronWill
+ */
+@SuppressWarnings("deprecation")
+final class FieldPlan {
+	private static final FieldPlan[] NO_PLANS = {};
+
+	private static final ClassValue<FieldPlan[]> PLANS = new ClassValue<FieldPlan[]>() {
+		@Override
+		protected FieldPlan[] computeValue(Class<?> cls) {
+			Field[] fields = cls.getDeclaredFields();
+			if (fields.length == 0) {
+				return NO_PLANS;
+			}
+			FieldPlan[] plans = new FieldPlan[fields.length];
+			for (int i = 0; i < fields.length; i++) {
+				plans[i] = new FieldPlan(fields[i], cls);
+			}
+			return plans;
+		}
+	};
+
+	private static final ClassValue<Constructor<?>> CONSTRUCTORS = new ClassValue<Constructor<?>>() {
+		@Override
+		protected Constructor<?> computeValue(Class<?> cls) {
+			try {
+				Constructor<?> ctor = cls.getDeclaredConstructor(); // constructor without params
+				if (!ctor.isAccessible()) {
+					ctor.setAccessible(true); // forces the constructor to be accessible
+				}
+				return ctor;
+			} catch (ReflectiveOperationException ex) {
+				throw new ReflectionException("Unable to create an instance of " + cls, ex);
+			}
+		}
+	};
+
+	/**
+	 * Returns the plans of the fields declared by a class, in the order of
+	 * {@link Class#getDeclaredFields()}. The fields of the superclasses are not included.
+	 */
+	static FieldPlan[] of(Class<?> cls) {
+		return PLANS.get(cls);
+	}
+
+	/**
+	 * Creates an instance of the specified class, using its constructor that requires no
+	 * argument. The constructor is looked up once per class.
+	 *
+	 * @throws ReflectionException if the class doesn't have a constructor without arguments, or if
+	 *                             the constructor cannot be accessed, or for another reason.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> T newInstance(Class<T> cls) {
+		try {
+			return (T)CONSTRUCTORS.get(cls).newInstance(); // calls the constructor
+		} catch (ReflectiveOperationException ex) {
+			throw new ReflectionException("Unable to create an instance of " + cls, ex);
+		}
+	}
+
+	final Field field;
+	final Class<?> type;
+	final boolean isStatic, isTransient, isFinal;
+	final List<String> path;
+	final boolean forceBreakdown;
+	final boolean preserveNotNull;
+
+	/** The method to use for enum fields: given by @SpecEnum, or NAME_IGNORECASE. */
+	final EnumGetMethod enumGetMethod;
+
+	/** The element types of a Collection field, null if the field isn't a generic collection. */
+	private final List<Class<?>> elementTypes;
+
+	/** True if the field has at least one @Spec annotation. */
+	private final boolean hasSpecs;
+
+	// lazily initialized, because creating them may fail and the field may not be used
+	private volatile boolean accessible, converterCreated, validatorCreated;
+	private volatile Converter<Object, Object> converter;// null if none
+	private volatile Predicate<Object> validator;// null if none
+
+	private FieldPlan(Field field, Class<?> declaringClass) {
+		this.field = field;
+		this.type = field.getType();
+		int mods = field.getModifiers();
+		this.isStatic = Modifier.isStatic(mods);
+		this.isTransient = Modifier.isTransient(mods);
+		this.isFinal = Modifier.isFinal(mods);
+		this.path = Collections.unmodifiableList(AnnotationUtils.getPath(field));
+		this.forceBreakdown = field.isAnnotationPresent(ForceBreakdown.class);
+		this.preserveNotNull = AnnotationUtils.mustPreserve(field, declaringClass);
+		SpecEnum specEnum = field.getAnnotation(SpecEnum.class);
+		this.enumGetMethod = (specEnum == null) ? EnumGetMethod.NAME_IGNORECASE : specEnum.method();
+		Type genericType = field.getGenericType();
+		if (Collection.class.isAssignableFrom(type) && genericType instanceof ParameterizedType) {
+			List<Class<?>> types = new ArrayList<>();
+			detectElementTypes((ParameterizedType)genericType, types);
+			this.elementTypes = Collections.unmodifiableList(types);
+		} else {
+			this.elementTypes = null;
+		}
+		this.hasSpecs = AnnotationUtils.hasSpecs(field);
+	}
+
+	/**
+	 * Returns the field, made accessible.
+	 */
+	Field accessibleField() {
+		if (!accessible) {
+			if (!field.isAccessible()) {
+				field.setAccessible(true);// Enforces field access if needed
+			}
+			accessible = true;
+		}
+		return field;
+	}
+
+	/**
+	 * Returns the converter given by the @Conversion annotation of the field, or {@code null} if
+	 * there is none. The converter is created once and shared.
+	 */
+	Converter<Object, Object> converter() {
+		if (!converterCreated) {
+			converter = AnnotationUtils.getConverter(field);
+			converterCreated = true;
+		}
+		return converter;
+	}
+
+	/**
+	 * Returns a list of the generic parameters of the field's collection type.
+	 * For instance, for {@code LinkedList<List<Collection<Supplier<String>>>>}
+	 * this method returns a list containing {@code [Collection.class, Supplier.class]}.
+	 *
+	 * @throws ReflectionException if the field isn't a parameterized collection
+	 */
+	List<Class<?>> elementTypes() {
+		if (elementTypes == null) {
+			throw new ReflectionException("Unable to get the element types of field " + field);
+		}
+		return elementTypes;
+	}
+
+	/**
+	 * Checks that the value of the field corresponds to its spec annotations, if any.
+	 *
+	 * @see AnnotationUtils#checkField(Field, Object)
+	 */
+	void check(Object value) {
+		if (hasSpecs) {
+			if (!validatorCreated) {
+				validator = AnnotationUtils.createValidator(field);
+				validatorCreated = true;
+			}
+			AnnotationUtils.checkField(field, value, validator);
+		}
+	}
+
+	private static void detectElementTypes(ParameterizedType genericType, List<Class<?>> storage) {
+		if (genericType != null && genericType.getActualTypeArguments().length > 0) {
+			Type parameter = genericType.getActualTypeArguments()[0];
+			if (parameter instanceof ParameterizedType) {
+				ParameterizedType genericParameter = (ParameterizedType)parameter;
+				Class<?> paramClass = (Class<?>)genericParameter.getRawType();
+
+				storage.add(paramClass);
+				if (Collection.class.isAssignableFrom(paramClass)) {
+					detectElementTypes(genericParameter, storage);
+				}
+			} else if ((parameter instanceof Class)) {
+				storage.add((Class<?>)parameter);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "FieldPlan{" + "field=" + field + ", path=" + path + '}';
+	}
+}
\ No newline at end of file
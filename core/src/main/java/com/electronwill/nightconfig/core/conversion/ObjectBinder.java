@@ -8,7 +8,6 @@ import com.electronwill.nightconfig.core.utils.TransformingMap;
 import com.electronwill.nightconfig.core.utils.TransformingSet;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -113,26 +112,21 @@ public final class ObjectBinder {
 	private BoundConfig createBoundConfig(Object object, Class<?> clazz,
 										  ConfigFormat<?> configFormat) {
 		final BoundConfig boundConfig = new BoundConfig(object, configFormat, bypassFinal);
-		for (Field field : clazz.getDeclaredFields()) {
-			final int fieldModifiers = field.getModifiers();
-			if (object == null && Modifier.isStatic(fieldModifiers)) {
+		for (FieldPlan plan : FieldPlan.of(clazz)) {
+			if (object == null && plan.isStatic) {
 				continue;// Don't process static fields of object instances
 			}
-			if (!bypassTransient && Modifier.isTransient(fieldModifiers)) {
+			if (!bypassTransient && plan.isTransient) {
 				continue;// Don't process transient fields if configured so
 			}
-			if (!field.isAccessible()) {
-				field.setAccessible(true);// Enforces field access if needed
-			}
-			List<String> path = AnnotationUtils.getPath(field);
+			final Field field = plan.accessibleField();// Enforces field access if needed
+			List<String> path = plan.path;
 			FieldInfos fieldInfos;
-			Converter<Object, Object> converter = AnnotationUtils.getConverter(field);
-            boolean isEnum = Enum.class.isAssignableFrom(field.getType());
+			Converter<Object, Object> converter = plan.converter();
+            boolean isEnum = Enum.class.isAssignableFrom(plan.type);
 			if (converter == null) {
                 if (isEnum) {
-                    SpecEnum spec = field.getAnnotation(SpecEnum.class);
-                    EnumGetMethod method = (spec == null) ? EnumGetMethod.NAME_IGNORECASE : spec.method();
-                    converter = new EnumValueConverter(field.getType(), method);
+                    converter = new EnumValueConverter(plan.type, plan.enumGetMethod);
                 } else {
 				    converter = NoOpConverter.INSTANCE;
                 }
@@ -141,11 +135,11 @@ public final class ObjectBinder {
 				Object value = converter.convertFromField(field.get(object));
 				if (value == null || isEnum || configFormat.supportsType(value.getClass())) {
                     // Create a FieldInfos for this simple field
-					fieldInfos = new FieldInfos(field, null, converter);
+					fieldInfos = new FieldInfos(plan, null, converter);
 				} else {
                     // Bind recursively
-					BoundConfig subConfig = createBoundConfig(value, field.getType(), configFormat);
-					fieldInfos = new FieldInfos(field, subConfig, converter);
+					BoundConfig subConfig = createBoundConfig(value, plan.type, configFormat);
+					fieldInfos = new FieldInfos(plan, subConfig, converter);
 				}
 			} catch (IllegalAccessException e) {
 				throw new ReflectionException("Failed to bind field " + field, e);
@@ -388,24 +382,26 @@ public final class ObjectBinder {
 	 */
 	@SuppressWarnings("deprecation")
 	private static final class FieldInfos {
+		final FieldPlan plan;
 		final Field field;// always non-null
 		final BoundConfig boundConfig;// non-null iff the field is a sub config
 		final Converter<Object, Object> converter;
 
-		FieldInfos(Field field, BoundConfig boundConfig, Converter<Object, Object> converter) {
-			this.field = field;
+		FieldInfos(FieldPlan plan, BoundConfig boundConfig, Converter<Object, Object> converter) {
+			this.plan = plan;
+			this.field = plan.field;
 			this.boundConfig = boundConfig;
 			this.converter = converter;
 		}
 
 		Object setValue(Object fieldObject, Object value, boolean bypassFinal) {
-			if (!bypassFinal && Modifier.isFinal(field.getModifiers())) {
+			if (!bypassFinal && plan.isFinal) {
 				throw new UnsupportedOperationException("Cannot modify the field " + field);
 			}
 			try {
 				Object previousValue = converter.convertFromField(field.get(fieldObject));
 				Object newValue = converter.convertToField(value);
-				AnnotationUtils.checkField(field, newValue);
+				plan.check(newValue);
 				field.set(fieldObject, newValue);
 				return previousValue;
 			} catch (IllegalAccessException e) {
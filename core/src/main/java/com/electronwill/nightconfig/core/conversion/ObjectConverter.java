@@ -2,7 +2,6 @@ package com.electronwill.nightconfig.core.conversion;
 
 import com.electronwill.nightconfig.core.Config;
 import com.electronwill.nightconfig.core.ConfigFormat;
-import com.electronwill.nightconfig.core.EnumGetMethod;
 import com.electronwill.nightconfig.core.UnmodifiableConfig;
 
 import java.lang.reflect.*;
@@ -141,18 +140,15 @@ public final class ObjectConverter {
 	private void convertToConfig(Object object, Class<?> clazz, Config destination) {
 		// This loop walks through the class hierarchy, see clazz = clazz.getSuperclass(); at the end
 		while (clazz != Object.class) {
-			for (Field field : clazz.getDeclaredFields()) {
+			for (FieldPlan plan : FieldPlan.of(clazz)) {
 				// --- Checks modifiers ---
-				final int fieldModifiers = field.getModifiers();
-				if (object != null && Modifier.isStatic(fieldModifiers)) {
+				if (object != null && plan.isStatic) {
 					continue;// Don't process static fields of object instances
 				}
-				if (!bypassTransient && Modifier.isTransient(fieldModifiers)) {
+				if (!bypassTransient && plan.isTransient) {
 					continue;// Don't process transient fields if configured so
 				}
-				if (!field.isAccessible()) {
-					field.setAccessible(true);// Enforces field access if needed
-				}
+				final Field field = plan.accessibleField();
 
 				// --- Applies annotations ---
 				Object value;
@@ -161,13 +157,13 @@ public final class ObjectConverter {
 				} catch (IllegalAccessException e) {// Unexpected: setAccessible is called if needed
 					throw new ReflectionException("Unable to parse the field " + field, e);
 				}
-				AnnotationUtils.checkField(field, value);/* Checks that the value is conform to an
-																eventual @SpecSometing annotation */
-				Converter<Object, Object> converter = AnnotationUtils.getConverter(field);
+				plan.check(value);/* Checks that the value is conform to an
+										eventual @SpecSometing annotation */
+				Converter<Object, Object> converter = plan.converter();
 				if (converter != null) {
 					value = converter.convertFromField(value);
 				}
-				List<String> path = AnnotationUtils.getPath(field);
+				List<String> path = plan.path;
 				ConfigFormat<?> format = destination.configFormat();
 
 				// --- Writes the value to the configuration ---
@@ -183,7 +179,7 @@ public final class ObjectConverter {
                         } else {
                             destination.set(path, value.toString()); // if not supported, serialize it
                         }
-                    } else if (field.isAnnotationPresent(ForceBreakdown.class) || !format.supportsType(valueType)) {
+                    } else if (plan.forceBreakdown || !format.supportsType(valueType)) {
 						// We have to convert the value
 						destination.set(path, value);
 						Config converted = destination.createSubConfig();
@@ -220,32 +216,30 @@ public final class ObjectConverter {
 	private void convertToObject(UnmodifiableConfig config, Object object, Class<?> clazz) {
 		// This loop walks through the class hierarchy, see clazz = clazz.getSuperclass(); at the end
 		while (clazz != Object.class) {
-			for (Field field : clazz.getDeclaredFields()) {
+			for (FieldPlan plan : FieldPlan.of(clazz)) {
 				// --- Checks modifiers ---
-				final int fieldModifiers = field.getModifiers();
-				if (object == null && Modifier.isStatic(fieldModifiers)) {
+				if (object == null && plan.isStatic) {
 					continue;// Don't process static fields of object instances
 				}
-				if (bypassFinal || !Modifier.isFinal(fieldModifiers)) {
-					field.setAccessible(true);// Enforces field access if needed AND configured so
-				} else {
+				if (!bypassFinal && plan.isFinal) {
 					continue;// Don't process final fields if configured so
 				}
-				if (!bypassTransient && Modifier.isTransient(fieldModifiers)) {
+				final Field field = plan.accessibleField();// Enforces field access if needed
+				if (!bypassTransient && plan.isTransient) {
 					continue;// Don't process transient fields if configured so
 				}
 
 				// --- Applies annotations ---
-				List<String> path = AnnotationUtils.getPath(field);
+				List<String> path = plan.path;
 				Object value = config.get(path);
-				Converter<Object, Object> converter = AnnotationUtils.getConverter(field);
+				Converter<Object, Object> converter = plan.converter();
 				if (converter != null) {
 					value = converter.convertToField(value);
 				}
 				// System.err.println("value: " + value + ", annotations: " + Arrays.asList(field.getDeclaredAnnotations()));
 
 				// --- Writes the value to the object's field, converting it if needed ---
-				Class<?> fieldType = field.getType();
+				Class<?> fieldType = plan.type;
 				try {
 					if (value instanceof UnmodifiableConfig && !(fieldType.isAssignableFrom(value.getClass()))) {
 						// --- Read as a sub-object ---
@@ -256,9 +250,9 @@ public final class ObjectConverter {
 						if (fieldValue == null) {
 							fieldValue = createInstance(fieldType);
 							field.set(object, fieldValue);
-							convertToObject(cfg, fieldValue, field.getType());
+							convertToObject(cfg, fieldValue, fieldType);
 						} else {
-							convertToObject(cfg, fieldValue, field.getType());
+							convertToObject(cfg, fieldValue, fieldType);
 						}
 
 					} else if (value instanceof Collection && Collection.class.isAssignableFrom(fieldType)) {
@@ -266,8 +260,7 @@ public final class ObjectConverter {
 						final Collection<?> src = (Collection<?>)value;
 						final Class<?> srcBottomType = bottomElementType(src);
 
-						final ParameterizedType genericType = (ParameterizedType)field.getGenericType();
-						final List<Class<?>> dstTypes = elementTypes(genericType);
+						final List<Class<?>> dstTypes = plan.elementTypes();
 						final Class<?> dstBottomType = dstTypes.get(dstTypes.size()-1);
 
 						if (srcBottomType == null
@@ -275,7 +268,7 @@ public final class ObjectConverter {
 							|| dstBottomType.isAssignableFrom(srcBottomType)) {
 
 							// Simple list, no conversion needed
-							AnnotationUtils.checkField(field, value);
+							plan.check(value);
 							field.set(object, value);
 
 						} else {
@@ -298,20 +291,18 @@ public final class ObjectConverter {
 							convertConfigsToObject(src, dst, dstTypes, 0);
 
 							// Applies the checks
-							AnnotationUtils.checkField(field, dst);
+							plan.check(dst);
 						}
 					} else {
 						// --- Read as a plain value ---
-						if (value == null && AnnotationUtils.mustPreserve(field, clazz)) {
-							AnnotationUtils.checkField(field, field.get(object));
+						if (value == null && plan.preserveNotNull) {
+							plan.check(field.get(object));
 						} else {
-							AnnotationUtils.checkField(field, value);
-                            if (field.getType().isEnum()) {
+							plan.check(value);
+                            if (fieldType.isEnum()) {
                                 @SuppressWarnings("rawtypes")
-								Class<? extends Enum> enumType = (Class<? extends Enum>) field.getType();
-                                SpecEnum specEnum = field.getAnnotation(SpecEnum.class);
-                                EnumGetMethod method = (specEnum == null) ? EnumGetMethod.NAME_IGNORECASE : specEnum.method();
-                                field.set(object, method.get(value, enumType));
+								Class<? extends Enum> enumType = (Class<? extends Enum>) fieldType;
+                                field.set(object, plan.enumGetMethod.get(value, enumType));
                             } else {
 							    field.set(object, value);
                             }
@@ -352,37 +343,6 @@ public final class ObjectConverter {
 		return null;
 	}
 
-	private void detectElementTypes(ParameterizedType genericType, List<Class<?>> storage) {
-		if (genericType != null && genericType.getActualTypeArguments().length > 0) {
-			Type parameter = genericType.getActualTypeArguments()[0];
-			if (parameter instanceof ParameterizedType) {
-				ParameterizedType genericParameter = (ParameterizedType)parameter;
-				Class<?> paramClass = (Class<?>)genericParameter.getRawType();
-
-				storage.add(paramClass);
-				if (Collection.class.isAssignableFrom(paramClass)) {
-					detectElementTypes(genericParameter, storage);
-				}
-			} else if ((parameter instanceof Class)) {
-				storage.add((Class<?>)parameter);
-			}
-		}
-	}
-
-	/**
-	 * Returns a list of the generic parameters of a list.
-	 * For instance, for {@code LinkedList<List<Collection<Supplier<String>>>>}
-	 * this method returns a list containing {@code [Collection.class, Supplier.class]}.
-	 *
-	 * @param genericType the list generic type
-	 * @return a list of the types of the list's elements
-	 */
-	private List<Class<?>> elementTypes(ParameterizedType genericType) {
-		List<Class<?>> storage = new ArrayList<>();
-		detectElementTypes(genericType, storage);
-		return storage;
-	}
-
 	/**
 	 * Gets the type of the "bottom element" of a collection.
 	 * For instance, for a list {@code [["string"], ["another string"]]}
@@ -485,14 +445,6 @@ public final class ObjectConverter {
 	 *                             the constructor cannot be accessed, or for another reason.
 	 */
 	private <T> T createInstance(Class<T> tClass) {
-		try {
-			Constructor<T> ctor = tClass.getDeclaredConstructor(); // constructor without params
-			if (!ctor.isAccessible()) {
-				ctor.setAccessible(true); // forces the constructor to be accessible
-			}
-			return ctor.newInstance(); // calls the constructor
-		} catch (ReflectiveOperationException ex) {
-			throw new ReflectionException("Unable to create an instance of " + tClass, ex);
-		}
+		return FieldPlan.newInstance(tClass);
 	}
 }
\ No newline at end of file
@@ -15,10 +15,12 @@ import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.*;
+import java.util.function.Consumer;
 
 import com.electronwill.nightconfig.core.*;
 import com.electronwill.nightconfig.core.concurrent.ConcurrentCommentedConfig;
 import com.electronwill.nightconfig.core.concurrent.StampedConfig;
+import com.electronwill.nightconfig.core.concurrent.VersionedConfig;
 import com.electronwill.nightconfig.core.io.*;
 import com.electronwill.nightconfig.core.utils.ConcurrentCommentedConfigWrapper;
 
@@ -26,7 +28,7 @@ import com.electronwill.nightconfig.core.utils.ConcurrentCommentedConfigWrapper;
  * @author TheElectronWill
  */
 final class AsyncFileConfig extends ConcurrentCommentedConfigWrapper<StampedConfig>
-		implements CommentedFileConfig {
+		implements CommentedFileConfig, VersionedConfig {
 	/**
 	 * Holder for the executor service: allows to create the executor on demand in a thread-safe way
 	 * (thanks to class initialization rules).
@@ -76,12 +78,13 @@ final class AsyncFileConfig extends ConcurrentCommentedConfigWrapper<StampedConf
 
 	// Listeners
 	private final ConfigLoadFilter reloadFilter;
+	private final Consumer<Config> loadCorrector;// null if none
 	private final Runnable saveListener, loadListener;
 
 	AsyncFileConfig(StampedConfig config, Path nioPath, Charset charset, ConfigWriter writer,
 			WritingMode writingMode, ConfigParser<?> parser,
 			ParsingMode parsingMode, FileNotFoundAction notFoundAction,
-			boolean asyncLoad, ConfigLoadFilter reloadFilter,
+			boolean asyncLoad, ConfigLoadFilter reloadFilter, Consumer<Config> loadCorrector,
 			Runnable saveListener, Runnable loadListener,
 			Duration debounceTime) {
 
@@ -102,6 +105,7 @@ final class AsyncFileConfig extends ConcurrentCommentedConfigWrapper<StampedConf
 
 		// listeners
 		this.reloadFilter = reloadFilter;
+		this.loadCorrector = loadCorrector;
 		this.saveListener = saveListener;
 		this.loadListener = loadListener;
 	}
@@ -198,6 +202,10 @@ final class AsyncFileConfig extends ConcurrentCommentedConfigWrapper<StampedConf
 				StampedConfig newSafeContent = config.createSubConfig(); // this is actually an independant config
 				newSafeContent.putAll(newCC);
 				newSafeContent.putAllComments(newCC);
+				if (loadCorrector != null) {
+					// the new content is not visible yet
+					loadCorrector.accept(newSafeContent);
+				}
 				config.replaceContentBy(newSafeContent);
 				// It could work with SynchronizedConfig too:
 				// if (config instanceof SynchronizedConfig) {
@@ -208,13 +216,14 @@ final class AsyncFileConfig extends ConcurrentCommentedConfigWrapper<StampedConf
 				// }
 				break;
 			default:
-				putWithParsingMode(parsingMode, newCC, config);
+				putWithParsingMode(parsingMode, newCC, config, loadCorrector);
 				break;
 		}
 		loadListener.run();
 	}
 
-	static void putWithParsingMode(ParsingMode parsingMode, CommentedConfig newCC, ConcurrentCommentedConfig config) {
+	static void putWithParsingMode(ParsingMode parsingMode, CommentedConfig newCC, ConcurrentCommentedConfig config,
+			Consumer<Config> loadCorrector) {
 		config.bulkCommentedUpdate(view -> {
 			for (CommentedConfig.Entry entry : newCC.entrySet()) {
 				List<String> key = Collections.singletonList(entry.getKey());
@@ -230,6 +239,9 @@ final class AsyncFileConfig extends ConcurrentCommentedConfigWrapper<StampedConf
 				}
 				parsingMode.put(view, key, value);
 			}
+			if (loadCorrector != null) {
+				loadCorrector.accept(view);
+			}
 		});
 	}
 
@@ -244,6 +256,16 @@ final class AsyncFileConfig extends ConcurrentCommentedConfigWrapper<StampedConf
 		return nioPath;
 	}
 
+	@Override
+	public long version() {
+		return config.version();
+	}
+
+	@Override
+	public FrozenConfig snapshot() {
+		return config.snapshot();
+	}
+
 	@Override
 	public void save() {
 		if (closed) {
@@ -1,5 +1,7 @@
 package com.electronwill.nightconfig.core.file;
 
+import com.electronwill.nightconfig.core.FrozenConfig;
+import com.electronwill.nightconfig.core.concurrent.VersionedConfig;
 import com.electronwill.nightconfig.core.utils.ConcurrentCommentedConfigWrapper;
 
 import java.io.File;
@@ -10,7 +12,7 @@ import java.util.concurrent.TimeUnit;
  * @author TheElectronWill
  */
 final class AutoreloadFileConfig<C extends CommentedFileConfig> extends ConcurrentCommentedConfigWrapper<C>
-		implements CommentedFileConfig {
+		implements CommentedFileConfig, VersionedConfig {
 
 	private final FileWatcher watcher;
 	private final Runnable autoListener; // called on automatic reload
@@ -37,6 +39,16 @@ final class AutoreloadFileConfig<C extends CommentedFileConfig> extends Concurre
 		return config.getNioPath();
 	}
 
+	@Override
+	public long version() {
+		return VersionedConfig.versionOf(config);
+	}
+
+	@Override
+	public FrozenConfig snapshot() {
+		return VersionedConfig.snapshotOf(config);
+	}
+
 	@Override
 	public void save() {
 		config.save();
@@ -2,8 +2,11 @@ package com.electronwill.nightconfig.core.file;
 
 import com.electronwill.nightconfig.core.CommentedConfig;
 import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.core.FrozenConfig;
 import com.electronwill.nightconfig.core.UnmodifiableCommentedConfig;
 import com.electronwill.nightconfig.core.UnmodifiableConfig;
+import com.electronwill.nightconfig.core.concurrent.ConfigBatch;
+import com.electronwill.nightconfig.core.concurrent.VersionedConfig;
 import com.electronwill.nightconfig.core.utils.ConcurrentCommentedConfigWrapper;
 import com.electronwill.nightconfig.core.utils.ObservedMap;
 
@@ -17,7 +20,7 @@ import java.util.function.Function;
  * @author TheElectronWill
  */
 final class AutosaveCommentedFileConfig extends ConcurrentCommentedConfigWrapper<CommentedFileConfig>
-		implements CommentedFileConfig {
+		implements CommentedFileConfig, VersionedConfig {
 	private final Runnable autoSaveListener; // called on automatic save
 
 	AutosaveCommentedFileConfig(CommentedFileConfig fileConfig, Runnable autosaveListener) {
@@ -126,6 +129,16 @@ final class AutosaveCommentedFileConfig extends ConcurrentCommentedConfigWrapper
 		return config.getNioPath();
 	}
 
+	@Override
+	public long version() {
+		return VersionedConfig.versionOf(config);
+	}
+
+	@Override
+	public FrozenConfig snapshot() {
+		return VersionedConfig.snapshotOf(config);
+	}
+
 	@Override
 	public void load() {
 		config.load();
@@ -149,4 +162,11 @@ final class AutosaveCommentedFileConfig extends ConcurrentCommentedConfigWrapper
 		autoSave();
 		return result;
 	}
+
+	@Override
+	public List<ConfigBatch.Change> apply(ConfigBatch batch) {
+		List<ConfigBatch.Change> result = config.apply(batch);
+		autoSave();
+		return result;
+	}
 }
@@ -1,6 +1,8 @@
 package com.electronwill.nightconfig.core.file;
 
 import com.electronwill.nightconfig.core.*;
+import com.electronwill.nightconfig.core.concurrent.ConfigBatch;
+import com.electronwill.nightconfig.core.concurrent.VersionedConfig;
 import com.electronwill.nightconfig.core.utils.*;
 
 import java.io.File;
@@ -14,7 +16,22 @@ import java.util.function.Function;
  * @author TheElectronWill
  */
 class CheckedCommentedFileConfig extends ConcurrentCommentedConfigWrapper<CommentedFileConfig>
-		implements CommentedFileConfig {
+		implements CommentedFileConfig, VersionedConfig {
+	private final ConfigFormat<?> format;
+	/**
+	 * The type of the last supported value, to check the values of the same type faster. This
+	 * assumes that {@link ConfigFormat#supportsType(Class)} only depends on the class, which is
+	 * the case of the formats of NightConfig: a format whose answer changes over time, or depends
+	 * on something else than the class, could let an unsupported value of this type through.
+	 */
+	private Class<?> lastSupportedType;
+
+	// the views are cached to avoid creating wrappers for each read
+	private final ViewCache<Map<String, Object>, Map<String, Object>> valueMapCache =
+			new ViewCache<>(map -> new TransformingMap<>(map, v -> v, this::checkedValue, o -> o));
+	private final ViewCache<Set<CommentedConfig.Entry>, Set<CommentedConfig.Entry>> entrySetCache =
+			new ViewCache<>(set -> new TransformingSet<>(set, v -> v, this::checkedValue, o -> o));
+
 	/**
 	 * Creates a new CheckedConfig around a commented configuration.
 	 * <p>
@@ -24,6 +41,7 @@ class CheckedCommentedFileConfig extends ConcurrentCommentedConfigWrapper<Commen
 	 */
 	CheckedCommentedFileConfig(CommentedFileConfig config) {
 		super(config);
+		this.format = config.configFormat();
 	}
 
 	@Override
@@ -31,6 +49,16 @@ class CheckedCommentedFileConfig extends ConcurrentCommentedConfigWrapper<Commen
 		return config.getNioPath();
 	}
 
+	@Override
+	public long version() {
+		return VersionedConfig.versionOf(config);
+	}
+
+	@Override
+	public FrozenConfig snapshot() {
+		return VersionedConfig.snapshotOf(config);
+	}
+
 	@Override
 	public File getFile() {
 		return config.getFile();
@@ -76,16 +104,21 @@ class CheckedCommentedFileConfig extends ConcurrentCommentedConfigWrapper<Commen
 		return super.add(path, checkedValue(value));
 	}
 
+	@Override
+	public List<ConfigBatch.Change> apply(ConfigBatch batch) {
+		batch.forEachSet((path, value) -> checkValue(value));
+		return config.apply(batch);
+	}
+
 	@Override
 	public Map<String, Object> valueMap() {
-		return new TransformingMap<>(super.valueMap(), v -> v, this::checkedValue, o -> o);
+		return valueMapCache.get(super.valueMap());
 	}
 
 	@Override
 	@SuppressWarnings("unchecked")
 	public Set<? extends CommentedConfig.Entry> entrySet() {
-		return new TransformingSet<>((Set<CommentedConfig.Entry>) super.entrySet(), v -> v,
-				this::checkedValue, o -> o);
+		return entrySetCache.get((Set<CommentedConfig.Entry>)super.entrySet());
 	}
 
 	@Override
@@ -98,11 +131,16 @@ class CheckedCommentedFileConfig extends ConcurrentCommentedConfigWrapper<Commen
 	 * isn't supported.
 	 */
 	private void checkValue(Object value) {
-		ConfigFormat<?> format = configFormat();
-		if (value != null && !format.supportsType(value.getClass())) {
-			throw new IllegalArgumentException(
-					"Unsupported value type: " + value.getClass().getTypeName());
-		} else if (value == null && !format.supportsType(null)) {
+		if (value != null) {
+			Class<?> type = value.getClass();
+			if (type != lastSupportedType) {
+				if (!format.supportsType(type)) {
+					throw new IllegalArgumentException(
+							"Unsupported value type: " + type.getTypeName());
+				}
+				lastSupportedType = type;
+			}
+		} else if (!format.supportsType(null)) {
 			throw new IllegalArgumentException(
 					"Null values aren't supported by this configuration.");
 		}
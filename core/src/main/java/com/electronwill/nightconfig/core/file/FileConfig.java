@@ -9,6 +9,7 @@ import java.util.function.Function;
 import com.electronwill.nightconfig.core.Config;
 import com.electronwill.nightconfig.core.ConfigFormat;
 import com.electronwill.nightconfig.core.concurrent.ConcurrentConfig;
+import com.electronwill.nightconfig.core.concurrent.VersionedConfig;
 
 /**
  * A configuration that is tied to a particular file.
@@ -58,6 +59,11 @@ import com.electronwill.nightconfig.core.concurrent.ConcurrentConfig;
  * <p>
  * For more details, please see the documentation of the {@code concurrent} package, which is internally
  * used by {@code FileConfig}s: {@link com.electronwill.nightconfig.core.concurrent}.
+ * <p>
+ * The {@code FileConfig}s created by the {@link GenericBuilder builders} are
+ * {@link VersionedConfig}s: their version increases with every modification, including each
+ * (re)load from the file, and a consistent copy of the configuration can be obtained quickly with
+ * {@link VersionedConfig#snapshot()}.
  *
  * @author TheElectronWill
  */
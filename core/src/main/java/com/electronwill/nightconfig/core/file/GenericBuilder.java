@@ -1,11 +1,14 @@
 package com.electronwill.nightconfig.core.file;
 
+import com.electronwill.nightconfig.core.CompiledConfigSpec;
 import com.electronwill.nightconfig.core.Config;
 import com.electronwill.nightconfig.core.ConfigFormat;
+import com.electronwill.nightconfig.core.ConfigSpec.CorrectionListener;
 import com.electronwill.nightconfig.core.concurrent.ConcurrentConfig;
 import com.electronwill.nightconfig.core.concurrent.StampedConfig;
 import com.electronwill.nightconfig.core.concurrent.SynchronizedConfig;
 import com.electronwill.nightconfig.core.io.*;
+import com.electronwill.nightconfig.core.utils.CompactHashMap;
 
 import java.io.File;
 import java.io.IOException;
@@ -18,6 +21,7 @@ import java.time.Duration;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
@@ -33,6 +37,8 @@ import java.util.function.Supplier;
  * <li>Not autoreloaded - change it with {@link #autoreload()}</li>
  * <li>Values' insertion order preserved if {@link Config#isInsertionOrderPreserved()}
  * returns true when the builder is constructed.</li>
+ * <li>Backed by compact maps if {@link Config#isCompactMapUsed()} returns true when the
+ * builder is constructed.</li>
  * </ul>
  *
  * @author TheElectronWill
@@ -47,10 +53,15 @@ public abstract class GenericBuilder<Base extends Config, Result extends FileCon
 	protected ParsingMode parsingMode = ParsingMode.REPLACE;
 	protected FileNotFoundAction nefAction = FileNotFoundAction.CREATE_EMPTY;
 	protected boolean sync = false, autosave = false, atomicMove = false;
+	protected int stripeDepth = 0;
 	protected FileWatcher autoreloadFileWatcher = null;
 	protected boolean preserveInsertionOrder = Config.isInsertionOrderPreserved();
+	protected boolean compactMaps = Config.isCompactMapUsed();
 	protected Supplier<Map<String, Object>> mapCreator = null;
 
+	protected CompiledConfigSpec spec = null;
+	protected CorrectionListener specListener = null;
+
 	private ConfigLoadFilter loadFilter;
 	protected Runnable loadListener, saveListener;
 	protected Runnable autoLoadListener, autoSaveListener;
@@ -171,6 +182,20 @@ public abstract class GenericBuilder<Base extends Config, Result extends FileCon
 		return this;
 	}
 
+	/**
+	 * Makes the configuration "write-synchronous" and striped: the sub-configurations up to the
+	 * given depth have their own lock, so that independent sections of the configuration can be
+	 * modified in parallel. See {@link SynchronizedConfig#SynchronizedConfig(ConfigFormat, Supplier, int)}.
+	 *
+	 * @param stripeDepth the number of levels of sub-configurations that have their own lock
+	 * @return this builder
+	 */
+	public GenericBuilder<Base, Result> syncStriped(int stripeDepth) {
+		sync = true;
+		this.stripeDepth = stripeDepth;
+		return this;
+	}
+
 	/**
 	 * Makes the configuration "write-asynchronous", that is, its {@link FileConfig#save()}
 	 * method does not wait for the write operation to complete.
@@ -329,6 +354,23 @@ public abstract class GenericBuilder<Base extends Config, Result extends FileCon
 		return this;
 	}
 
+	/**
+	 * Makes the configuration corrected by the given specification. The whole configuration is
+	 * corrected during each (re)load, in the same atomic operation, therefore the uncorrected
+	 * content is never visible. The {@link #onLoad(Runnable) load listener} is called after that.
+	 * After a modification, only the modified entries are corrected, see
+	 * {@link com.electronwill.nightconfig.core.SpecCorrectedConfig}.
+	 *
+	 * @param spec     the specification to apply
+	 * @param listener the listener to notify of each correction
+	 * @return this builder
+	 */
+	public GenericBuilder<Base, Result> correctWith(CompiledConfigSpec spec, CorrectionListener listener) {
+		this.spec = spec;
+		this.specListener = listener;
+		return this;
+	}
+
 	/**
 	 * Makes the configuration concurrent, that is, thread-safe.
 	 *
@@ -354,6 +396,19 @@ public abstract class GenericBuilder<Base extends Config, Result extends FileCon
 		return this;
 	}
 
+	/**
+	 * Makes the configuration use {@link CompactHashMap}s as backing maps. They use much less
+	 * memory than HashMaps when the tables are small, and preserve the insertion order.
+	 * <p>
+	 * If this method is not called, the default value of {@link Config#isCompactMapUsed()} is applied.
+	 *
+	 * @return this builder
+	 */
+	public GenericBuilder<Base, Result> compactBackingMaps() {
+		compactMaps = true;
+		return this;
+	}
+
 	/**
 	 * Uses a specific Supplier to create the backing maps (one for the top level
 	 * and one for each sub-configuration) of the configuration.
@@ -371,6 +426,18 @@ public abstract class GenericBuilder<Base extends Config, Result extends FileCon
 		} : r;
 	}
 
+	/**
+	 * @return the full correction of the loaded content, or null if no spec is set
+	 */
+	private Consumer<Config> loadCorrector() {
+		if (spec == null) {
+			return null;
+		}
+		CompiledConfigSpec spec = this.spec;
+		CorrectionListener specListener = this.specListener;
+		return loaded -> spec.correct(loaded, specListener);
+	}
+
 	/**
 	 * Creates a new FileConfig with the chosen settings.
 	 *
@@ -382,7 +449,11 @@ public abstract class GenericBuilder<Base extends Config, Result extends FileCon
 
 		// complete missing fields
 		if (mapCreator == null) {
-			mapCreator = preserveInsertionOrder ? LinkedHashMap::new : HashMap::new;
+			if (compactMaps) {
+				mapCreator = CompactHashMap::new;
+			} else {
+				mapCreator = preserveInsertionOrder ? LinkedHashMap::new : HashMap::new;
+			}
 		}
 		saveListener = runnableOrNothing(saveListener);
 		loadListener = runnableOrNothing(loadListener);
@@ -402,20 +473,25 @@ public abstract class GenericBuilder<Base extends Config, Result extends FileCon
 
 		// build writing facilities
 		if (sync) {
-			SynchronizedConfig config = new SynchronizedConfig(format, mapCreator);
+			SynchronizedConfig config = new SynchronizedConfig(format, mapCreator, stripeDepth);
 			fileConfig = new SyncFileConfig(config, file, charset, writer, writingMode,
-					parser, parsingMode, nefAction, loadFilter, saveListener, loadListener);
+					parser, parsingMode, nefAction, loadFilter, loadCorrector(), saveListener,
+					loadListener);
 		} else {
 			StampedConfig config = new StampedConfig(format, mapCreator);
 			fileConfig = new AsyncFileConfig(config, file, charset, writer, writingMode,
-					parser, parsingMode, nefAction, false, loadFilter, saveListener, loadListener,
-					debounceTime);
+					parser, parsingMode, nefAction, false, loadFilter, loadCorrector(), saveListener,
+					loadListener, debounceTime);
 		}
 		// add automatic reloading
 		if (autoreloadFileWatcher != null) {
 			fileConfig = new AutoreloadFileConfig<>(fileConfig, autoreloadFileWatcher,
 					autoLoadListener);
 		}
+		// add incremental correction
+		if (spec != null) {
+			fileConfig = new SpecCorrectedFileConfig(fileConfig, spec, specListener);
+		}
 		// add automatic saving
 		if (autosave) {
 			return buildAutosave(fileConfig);
@@ -0,0 +1,67 @@
+package com.electronwill.nightconfig.core.file;
+
+import com.electronwill.nightconfig.core.CompiledConfigSpec;
+import com.electronwill.nightconfig.core.ConfigSpec.CorrectionListener;
+import com.electronwill.nightconfig.core.FrozenConfig;
+import com.electronwill.nightconfig.core.SpecCorrectedConfig;
+import com.electronwill.nightconfig.core.concurrent.VersionedConfig;
+
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * A file config that is corrected by a {@link CompiledConfigSpec} after each modification.
+ * The corrections after a (re)load are made by the load corrector of the underlying config, in
+ * the same atomic operation as the load, see
+ * {@link GenericBuilder#correctWith(CompiledConfigSpec, CorrectionListener)}.
+ *
+ * @author TheElectronWill
+ */
+class SpecCorrectedFileConfig extends SpecCorrectedConfig<CommentedFileConfig>
+		implements CommentedFileConfig, VersionedConfig {
+
+	SpecCorrectedFileConfig(CommentedFileConfig config, CompiledConfigSpec spec,
+			CorrectionListener listener) {
+		super(config, spec, listener);
+	}
+
+	@Override
+	public Path getNioPath() {
+		return config.getNioPath();
+	}
+
+	@Override
+	public long version() {
+		return VersionedConfig.versionOf(config);
+	}
+
+	@Override
+	public FrozenConfig snapshot() {
+		return VersionedConfig.snapshotOf(config);
+	}
+
+	@Override
+	public File getFile() {
+		return config.getFile();
+	}
+
+	@Override
+	public void save() {
+		config.save();
+	}
+
+	@Override
+	public void load() {
+		config.load();
+	}
+
+	@Override
+	public void close() {
+		config.close();
+	}
+
+	@Override
+	public String toString() {
+		return "spec-corrected of " + config;
+	}
+}
\ No newline at end of file
@@ -3,9 +3,11 @@ package com.electronwill.nightconfig.core.file;
 import java.io.File;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.util.function.Consumer;
 
 import com.electronwill.nightconfig.core.*;
 import com.electronwill.nightconfig.core.concurrent.SynchronizedConfig;
+import com.electronwill.nightconfig.core.concurrent.VersionedConfig;
 import com.electronwill.nightconfig.core.io.ConfigParser;
 import com.electronwill.nightconfig.core.io.ConfigWriter;
 import com.electronwill.nightconfig.core.io.ParsingMode;
@@ -16,7 +18,7 @@ import com.electronwill.nightconfig.core.utils.ConcurrentCommentedConfigWrapper;
  * @author TheElectronWill
  */
 final class SyncFileConfig extends ConcurrentCommentedConfigWrapper<SynchronizedConfig>
-		implements CommentedFileConfig {
+		implements CommentedFileConfig, VersionedConfig {
 	private final Path nioPath;
 	private final Charset charset;
 	private volatile boolean closed;
@@ -32,12 +34,13 @@ final class SyncFileConfig extends ConcurrentCommentedConfigWrapper<Synchronized
 
 	// Listeners
 	private final ConfigLoadFilter reloadFilter;
+	private final Consumer<Config> loadCorrector;// null if none
 	private final Runnable saveListener, loadListener;
 
 	SyncFileConfig(SynchronizedConfig config, Path nioPath, Charset charset, ConfigWriter writer,
 			WritingMode writingMode, ConfigParser<?> parser,
 			ParsingMode parsingMode, FileNotFoundAction nefAction,
-			ConfigLoadFilter reloadFilter,
+			ConfigLoadFilter reloadFilter, Consumer<Config> loadCorrector,
 			Runnable saveListener, Runnable loadListener) {
 
 		// Synchronize the reads and writes on the underlying configuration, to make it thread-safe.
@@ -52,6 +55,7 @@ final class SyncFileConfig extends ConcurrentCommentedConfigWrapper<Synchronized
 		this.nefAction = nefAction;
 		this.writingMode = writingMode;
 		this.reloadFilter = reloadFilter;
+		this.loadCorrector = loadCorrector;
 		this.saveListener = saveListener;
 		this.loadListener = loadListener;
 	}
@@ -68,6 +72,16 @@ final class SyncFileConfig extends ConcurrentCommentedConfigWrapper<Synchronized
 		return nioPath;
 	}
 
+	@Override
+	public long version() {
+		return config.version();
+	}
+
+	@Override
+	public FrozenConfig snapshot() {
+		return config.snapshot();
+	}
+
 	@Override
 	public void save() {
 		if (closed) {
@@ -87,6 +101,9 @@ final class SyncFileConfig extends ConcurrentCommentedConfigWrapper<Synchronized
 		if (reloadFilter == null) {
 			config.bulkCommentedUpdate(view -> {
 				parser.parse(nioPath, view, parsingMode, nefAction, charset);
+				if (loadCorrector != null) {
+					loadCorrector.accept(view);
+				}
 			});
 		} else {
 			Config newConfig = parser.parse(nioPath, nefAction, charset);
@@ -96,10 +113,14 @@ final class SyncFileConfig extends ConcurrentCommentedConfigWrapper<Synchronized
 			}
 			switch (parsingMode) {
 				case REPLACE:
+					if (loadCorrector != null) {
+						// the new content is not visible yet
+						loadCorrector.accept(newCC);
+					}
 					config.replaceContentBy(newCC);
 					break;
 				default:
-					AsyncFileConfig.putWithParsingMode(parsingMode, newCC, config);
+					AsyncFileConfig.putWithParsingMode(parsingMode, newCC, config, loadCorrector);
 					break;
 			}
 		}
@@ -0,0 +1,99 @@
+package com.electronwill.nightconfig.core.io;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the characters in a {@link Writer}, through an internal buffer. Unlike
+ * {@link WriterOutput}, the Writer is only called when the buffer is full, or when
+ * {@link #flush()} is called. This is much faster when writing a lot of small pieces, like
+ * single characters.
+ * <p>
+ * The {@link #flush()} method must be called after the last write, otherwise the end of the
+ * data will be lost.
+ *
+ * @author TheElectronWill
+ */
+public final class BufferedWriterOutput implements CharacterOutput {
+	private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private final Writer writer;
+	private final char[] buffer;
+	private int position;
+
+	/**
+	 * Creates a new BufferedWriterOutput with the default buffer size.
+	 *
+	 * @param writer the Writer to write to
+	 */
+	public BufferedWriterOutput(Writer writer) {
+		this(writer, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a new BufferedWriterOutput.
+	 *
+	 * @param writer     the Writer to write to
+	 * @param bufferSize the size of the buffer, in number of characters
+	 */
+	public BufferedWriterOutput(Writer writer, int bufferSize) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("Invalid buffer size: " + bufferSize);
+		}
+		this.writer = writer;
+		this.buffer = new char[bufferSize];
+	}
+
+	@Override
+	public void write(char c) {
+		if (position == buffer.length) {
+			flush();
+		}
+		buffer[position++] = c;
+	}
+
+	@Override
+	public void write(char[] chars, int offset, int length) {
+		if (length > buffer.length - position) {
+			flush();
+			if (length >= buffer.length) {// too big for the buffer, don't copy it
+				writeDirectly(chars, offset, length);
+				return;
+			}
+		}
+		System.arraycopy(chars, offset, buffer, position, length);
+		position += length;
+	}
+
+	@Override
+	public void write(String s, int offset, int length) {
+		while (length > 0) {
+			if (position == buffer.length) {
+				flush();
+			}
+			int n = Math.min(length, buffer.length - position);
+			s.getChars(offset, offset + n, buffer, position);
+			position += n;
+			offset += n;
+			length -= n;
+		}
+	}
+
+	/**
+	 * Writes the buffered characters to the Writer. The Writer itself isn't flushed.
+	 */
+	public void flush() {
+		if (position > 0) {
+			writeDirectly(buffer, 0, position);
+			position = 0;
+		}
+	}
+
+	private void writeDirectly(char[] chars, int offset, int length) {
+		try {
+			writer.write(chars, offset, length);
+		} catch (IOException e) {
+			throw new WritingException(e);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,156 @@
+package com.electronwill.nightconfig.core.io;
+
+import java.math.BigInteger;
+
+/**
+ * Converts a decimal number, given as a 64-bits significand and a power of ten, to the nearest
+ * double, without going through a String.
+ * <p>
+ * Two fast paths are tried: Clinger's exact path, for small significands and exponents, then the
+ * Eisel-Lemire algorithm, which handles the vast majority of the other numbers. The rare numbers
+ * that are too close to a rounding boundary are left to {@link Double#parseDouble(String)}.
+ *
+ * @author TheElectronWill
+ */
+final class DecimalParsing {
+	private DecimalParsing() {}// Utility class that can't be constructed
+
+	/** Returned when the fast paths can't determine the correctly rounded double. */
+	static final double FAILED = Double.NaN;
+
+	/** The maximum number of significant decimal digits that fits in the significand. */
+	static final int MAX_DIGITS = 19;
+
+	/** The powers of ten that are exactly representable as doubles. */
+	private static final double[] EXACT_POWERS = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private static final long MAX_EXACT_SIGNIFICAND = 1L << 53;
+	private static final int MIN_EXPONENT = -348, MAX_EXPONENT = 347;
+
+	/**
+	 * Computes the double that is the nearest to {@code significand * 10^exp10}.
+	 *
+	 * @param significand the decimal significand, interpreted as an unsigned long
+	 * @param exp10       the decimal exponent
+	 * @param negative    true if the number is negative
+	 * @return the correctly rounded double, or {@link #FAILED}
+	 */
+	static double toDouble(long significand, int exp10, boolean negative) {
+		if (significand == 0) {
+			return negative ? -0.0 : 0.0;
+		}
+		if (significand > 0 && significand <= MAX_EXACT_SIGNIFICAND
+			&& exp10 >= -22 && exp10 <= 22) {
+			// Clinger's fast path: both operands are exact, so is the division or multiplication
+			double d = (double)significand;
+			d = (exp10 < 0) ? d / EXACT_POWERS[-exp10] : d * EXACT_POWERS[exp10];
+			return negative ? -d : d;
+		}
+		if (exp10 < MIN_EXPONENT) {
+			return negative ? -0.0 : 0.0;
+		} else if (exp10 > MAX_EXPONENT) {
+			return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+		}
+		return eiselLemire(significand, exp10, negative);
+	}
+
+	/**
+	 * The Eisel-Lemire algorithm, see "Number Parsing at a Gigabyte per Second" by D. Lemire.
+	 */
+	private static double eiselLemire(long significand, int exp10, boolean negative) {
+		// normalization
+		int lz = Long.numberOfLeadingZeros(significand);
+		long w = significand << lz;
+		long exp2 = ((217706L * exp10) >> 16) + 64 + 1023 - lz;
+
+		// multiplication by the 128-bits approximation of 10^exp10
+		int index = 2 * (exp10 - MIN_EXPONENT);
+		long[] powers = PowersOfTen.TABLE;
+		long hi = multiplyHigh(w, powers[index]);
+		long lo = w * powers[index];
+
+		// wider approximation if the result may be imprecise
+		if ((hi & 0x1FF) == 0x1FF && Long.compareUnsigned(lo + w, w) < 0) {
+			long yHi = multiplyHigh(w, powers[index + 1]);
+			long yLo = w * powers[index + 1];
+			long mergedHi = hi, mergedLo = lo + yHi;
+			if (Long.compareUnsigned(mergedLo, lo) < 0) {
+				mergedHi++;
+			}
+			if ((mergedHi & 0x1FF) == 0x1FF && mergedLo + 1 == 0
+				&& Long.compareUnsigned(yLo + w, w) < 0) {
+				return FAILED;
+			}
+			hi = mergedHi;
+			lo = mergedLo;
+		}
+
+		// shift to 54 bits
+		long msb = hi >>> 63;
+		long mantissa = hi >>> (msb + 9);
+		exp2 -= 1 ^ msb;
+
+		// half-way ambiguity
+		if (lo == 0 && (hi & 0x1FF) == 0 && (mantissa & 3) == 1) {
+			return FAILED;
+		}
+
+		// from 54 to 53 bits
+		mantissa += mantissa & 1;
+		mantissa >>>= 1;
+		if ((mantissa >>> 53) > 0) {
+			mantissa >>>= 1;
+			exp2++;
+		}
+
+		// subnormal numbers, infinites and NaNs are left to the slow path
+		if (exp2 <= 0 || exp2 >= 0x7FF) {
+			return FAILED;
+		}
+		long bits = (exp2 << 52) | (mantissa & 0x000FFFFFFFFFFFFFL);
+		if (negative) {
+			bits |= 0x8000000000000000L;
+		}
+		return Double.longBitsToDouble(bits);
+	}
+
+	/**
+	 * @return the high 64 bits of the unsigned 128-bits product of a and b
+	 */
+	private static long multiplyHigh(long a, long b) {
+		long a0 = a & 0xFFFFFFFFL, a1 = a >>> 32;
+		long b0 = b & 0xFFFFFFFFL, b1 = b >>> 32;
+		long p00 = a0 * b0, p01 = a0 * b1, p10 = a1 * b0, p11 = a1 * b1;
+		long middle = (p00 >>> 32) + (p01 & 0xFFFFFFFFL) + (p10 & 0xFFFFFFFFL);
+		return p11 + (p01 >>> 32) + (p10 >>> 32) + (middle >>> 32);
+	}
+
+	/**
+	 * The 128-bits approximations (rounded down) of the powers of ten, as (high, low) pairs,
+	 * computed on first use.
+	 */
+	private static final class PowersOfTen {
+		static final long[] TABLE = new long[2 * (MAX_EXPONENT - MIN_EXPONENT + 1)];
+
+		static {
+			BigInteger ten = BigInteger.TEN;
+			for (int e = MIN_EXPONENT; e <= MAX_EXPONENT; e++) {
+				BigInteger m;
+				if (e >= 0) {
+					BigInteger p = ten.pow(e);
+					int shift = 128 - p.bitLength();
+					m = (shift >= 0) ? p.shiftLeft(shift) : p.shiftRight(-shift);
+				} else {
+					BigInteger p = ten.pow(-e);
+					m = BigInteger.ONE.shiftLeft(127 + p.bitLength()).divide(p);
+				}
+				int index = 2 * (e - MIN_EXPONENT);
+				TABLE[index] = m.shiftRight(64).longValue();
+				TABLE[index + 1] = m.longValue();
+			}
+		}
+	}
+}
\ No newline at end of file
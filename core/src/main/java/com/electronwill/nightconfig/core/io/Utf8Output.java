@@ -0,0 +1,189 @@
+package com.electronwill.nightconfig.core.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Encodes the characters in UTF-8 and writes them to an {@link OutputStream}, through an
+ * internal byte buffer. This avoids the intermediate char buffers and the generic charset
+ * encoder of an {@link java.io.OutputStreamWriter}: the ASCII characters, which are the vast
+ * majority of the characters of a configuration, are copied directly into the byte buffer.
+ * <p>
+ * Like {@link java.io.OutputStreamWriter}, the malformed surrogate pairs are replaced by
+ * {@code '?'}. The {@link #close()} method must be called after the last write, otherwise the
+ * end of the data will be lost.
+ *
+ * @author TheElectronWill
+ */
+public final class Utf8Output implements CharacterOutput, AutoCloseable {
+	private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private final OutputStream output;
+	private final byte[] buffer;
+	private int position;
+	/** A high surrogate that waits for the next character, or 0 */
+	private char highSurrogate;
+
+	/**
+	 * Creates a new Utf8Output with the default buffer size.
+	 *
+	 * @param output the stream to write to
+	 */
+	public Utf8Output(OutputStream output) {
+		this(output, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a new Utf8Output with a buffer of the given size. Used by the tests to exercise
+	 * the buffer boundaries with small buffers.
+	 *
+	 * @param output     the stream to write to
+	 * @param bufferSize the size of the buffer, at least 4 bytes
+	 */
+	Utf8Output(OutputStream output, int bufferSize) {
+		this.output = output;
+		this.buffer = new byte[bufferSize];
+	}
+
+	@Override
+	public void write(char c) {
+		if (c < 0x80 && highSurrogate == 0) {
+			if (position == buffer.length) {
+				flushBuffer();
+			}
+			buffer[position++] = (byte)c;
+		} else {
+			encode(c);
+		}
+	}
+
+	@Override
+	public void write(char[] chars, int offset, int length) {
+		final int end = offset + length;
+		int i = offset;
+		while (i < end) {
+			// ASCII fast path
+			final byte[] buf = buffer;
+			int pos = position;
+			int max = Math.min(end, i + buf.length - pos);
+			if (highSurrogate == 0) {
+				char c;
+				while (i < max && (c = chars[i]) < 0x80) {
+					buf[pos++] = (byte)c;
+					i++;
+				}
+			}
+			position = pos;
+			if (i < end) {
+				if (i < max) {
+					encode(chars[i++]);
+				} else {
+					flushBuffer();
+				}
+			}
+		}
+	}
+
+	@Override
+	public void write(String s, int offset, int length) {
+		final int end = offset + length;
+		int i = offset;
+		while (i < end) {
+			// ASCII fast path
+			final byte[] buf = buffer;
+			int pos = position;
+			int max = Math.min(end, i + buf.length - pos);
+			if (highSurrogate == 0) {
+				char c;
+				while (i < max && (c = s.charAt(i)) < 0x80) {
+					buf[pos++] = (byte)c;
+					i++;
+				}
+			}
+			position = pos;
+			if (i < end) {
+				if (i < max) {
+					encode(s.charAt(i++));
+				} else {
+					flushBuffer();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Encodes a character that may need several bytes.
+	 */
+	private void encode(char c) {
+		if (buffer.length - position < 4) {
+			flushBuffer();
+		}
+		if (highSurrogate != 0) {
+			char high = highSurrogate;
+			highSurrogate = 0;
+			if (Character.isLowSurrogate(c)) {
+				int codePoint = Character.toCodePoint(high, c);
+				buffer[position++] = (byte)(0xF0 | (codePoint >> 18));
+				buffer[position++] = (byte)(0x80 | ((codePoint >> 12) & 0x3F));
+				buffer[position++] = (byte)(0x80 | ((codePoint >> 6) & 0x3F));
+				buffer[position++] = (byte)(0x80 | (codePoint & 0x3F));
+				return;
+			}
+			buffer[position++] = '?';// unpaired high surrogate
+		}
+		if (c < 0x80) {
+			buffer[position++] = (byte)c;
+		} else if (c < 0x800) {
+			buffer[position++] = (byte)(0xC0 | (c >> 6));
+			buffer[position++] = (byte)(0x80 | (c & 0x3F));
+		} else if (Character.isHighSurrogate(c)) {
+			highSurrogate = c;
+		} else if (Character.isLowSurrogate(c)) {
+			buffer[position++] = '?';// unpaired low surrogate
+		} else {
+			buffer[position++] = (byte)(0xE0 | (c >> 12));
+			buffer[position++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+			buffer[position++] = (byte)(0x80 | (c & 0x3F));
+		}
+	}
+
+	private void flushBuffer() {
+		if (position > 0) {
+			try {
+				output.write(buffer, 0, position);
+			} catch (IOException e) {
+				throw new WritingException(e);
+			}
+			position = 0;
+		}
+	}
+
+	/**
+	 * Writes the buffered bytes to the stream, and flushes the stream.
+	 */
+	public void flush() {
+		flushBuffer();
+		try {
+			output.flush();
+		} catch (IOException e) {
+			throw new WritingException(e);
+		}
+	}
+
+	/**
+	 * Writes the buffered bytes to the stream, and closes the stream.
+	 */
+	@Override
+	public void close() {
+		if (highSurrogate != 0) {
+			highSurrogate = 0;
+			write('?');
+		}
+		flushBuffer();
+		try {
+			output.close();
+		} catch (IOException e) {
+			throw new WritingException(e);
+		}
+	}
+}
\ No newline at end of file
@@ -47,29 +47,35 @@ public final class Utils {
 	 * @param chars the CharsWrapper representing a long
 	 * @param base  the base of the number
 	 * @return the long value represented by the CharsWrapper
+	 * @throws ParsingException if the chars aren't a valid long in the specified base
 	 */
 	public static long parseLong(CharsWrapper chars, int base) {
-		// Optimized lightweight parsing
-		int offset = chars.offset;
+		// Optimized lightweight parsing: one pass, no allocation
+		char[] array = chars.chars;
+		int i = chars.offset, limit = chars.limit;
 		boolean negative = false;
-		char firstChar = chars.charAt(0);
-		if (firstChar == '-') {
-			negative = true;
-			offset += 1;
-		} else if (firstChar == '+') {
-			offset += 1;
+		if (i < limit && (array[i] == '-' || array[i] == '+')) {
+			negative = (array[i] == '-');
+			i++;
 		}
-		long value = 0, coefficient = 1;
-		char[] array = chars.chars;
-		for (int i = chars.limit - 1; i >= offset; i--) {
+		if (i == limit) {
+			throw new ParsingException("Invalid integer: " + chars);
+		}
+		// Accumulates negatively, like Long.parseLong, to support Long.MIN_VALUE
+		long min = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long minBeforeMultiply = min / base;
+		long value = 0;
+		for (; i < limit; i++) {
 			int digitValue = Character.digit(array[i], base);
 			if (digitValue == -1) {//invalid digit in the specified base
 				throw new ParsingException("Invalid integer: " + chars);
 			}
-			value += digitValue * coefficient;
-			coefficient *= base;
+			if (value < minBeforeMultiply || (value *= base) < min + digitValue) {
+				throw new ParsingException("Integer out of range: " + chars);
+			}
+			value -= digitValue;
 		}
-		return negative ? -value : value;
+		return negative ? value : -value;
 	}
 
 	/**
@@ -85,11 +91,138 @@ public final class Utils {
 
 	/**
 	 * Parses a CharsWrapper that represents a double value.
+	 * <p>
+	 * Only the decimal notation of JSON and TOML is accepted: an optional sign, at least one
+	 * digit, an optional fractional part with at least one digit and an optional exponent, like
+	 * {@code -12.5e-3}. It is parsed in one pass and without creating any object, except for
+	 * the few numbers that are very close to a rounding boundary, which are given to
+	 * {@link Double#parseDouble(String)}.
 	 *
 	 * @param chars the CharsWrapper representing a double
 	 * @return the double value represented by the CharsWrapper
+	 * @throws ParsingException if the chars aren't a valid decimal number
 	 */
 	public static double parseDouble(CharsWrapper chars) {
+		char[] array = chars.chars;
+		int i = chars.offset, limit = chars.limit;
+		boolean negative = false;
+		if (i < limit && (array[i] == '-' || array[i] == '+')) {
+			negative = (array[i] == '-');
+			i++;
+		}
+		long significand = 0;
+		int significantDigits = 0, exp10 = 0;
+		boolean valid, truncated = false;
+
+		// integer part
+		int integerStart = i;
+		for (; i < limit; i++) {
+			int digit = array[i] - '0';
+			if (digit < 0 || digit > 9) {
+				break;
+			}
+			if (significantDigits < DecimalParsing.MAX_DIGITS) {
+				significand = significand * 10 + digit;
+				if (significand != 0) {
+					significantDigits++;
+				}
+			} else {
+				truncated |= (digit != 0);
+				exp10++;
+			}
+		}
+		valid = (i != integerStart);
+		// fractional part
+		if (valid && i < limit && array[i] == '.') {
+			int fractionStart = ++i;
+			for (; i < limit; i++) {
+				int digit = array[i] - '0';
+				if (digit < 0 || digit > 9) {
+					break;
+				}
+				if (significantDigits < DecimalParsing.MAX_DIGITS) {
+					significand = significand * 10 + digit;
+					if (significand != 0) {
+						significantDigits++;
+					}
+					exp10--;
+				} else {
+					truncated |= (digit != 0);
+				}
+			}
+			valid = (i != fractionStart);// no digit after '.': invalid
+		}
+		// exponent
+		if (valid && i < limit && (array[i] == 'e' || array[i] == 'E')) {
+			i++;
+			boolean negativeExponent = false;
+			if (i < limit && (array[i] == '-' || array[i] == '+')) {
+				negativeExponent = (array[i] == '-');
+				i++;
+			}
+			int exponentStart = i, exponent = 0;
+			for (; i < limit; i++) {
+				int digit = array[i] - '0';
+				if (digit < 0 || digit > 9) {
+					break;
+				}
+				if (exponent < 100_000) {// beyond that, the result is zero or infinite anyway
+					exponent = exponent * 10 + digit;
+				}
+			}
+			valid = (i != exponentStart);// no digit after 'e': invalid
+			exp10 += negativeExponent ? -exponent : exponent;
+		}
+		if (!valid || i != limit) {
+			throw new ParsingException("Invalid number: " + chars);
+		}
+		if (!truncated) {
+			double d = DecimalParsing.toDouble(significand, exp10, negative);
+			if (!Double.isNaN(d)) {
+				return d;
+			}
+		}
+		// valid number that is too long or too close to a rounding boundary: use the slow path
 		return Double.parseDouble(chars.toString());
 	}
+
+	/**
+	 * Parses a CharsWrapper that represents a decimal number, and returns an Integer if the
+	 * number is an integer that fits in an int, a Long if it's an integer that fits in a long,
+	 * and a Double otherwise. For the integers, the parsing is done in one pass, without
+	 * creating any object except the returned one.
+	 *
+	 * @param chars the CharsWrapper representing a number
+	 * @return the Integer, Long or Double value represented by the CharsWrapper
+	 * @throws ParsingException if the chars aren't a valid decimal number, see
+	 *                          {@link #parseDouble(CharsWrapper)}
+	 */
+	public static Number parseNumber(CharsWrapper chars) {
+		char[] array = chars.chars;
+		int i = chars.offset, limit = chars.limit;
+		boolean negative = false;
+		if (i < limit && (array[i] == '-' || array[i] == '+')) {
+			negative = (array[i] == '-');
+			i++;
+		}
+		int digitsStart = i;
+		long min = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long value = 0;
+		for (; i < limit; i++) {
+			int digit = array[i] - '0';
+			if (digit < 0 || digit > 9 || value < min / 10 || (value * 10) < min + digit) {
+				break;// not an integer, or too big for a long
+			}
+			value = value * 10 - digit;
+		}
+		if (i == limit && i != digitsStart) {
+			long longValue = negative ? value : -value;
+			int intValue = (int)longValue;
+			if (intValue == longValue) {
+				return intValue;// returns an int if it is enough to represent the value correctly
+			}
+			return longValue;
+		}
+		return parseDouble(chars);
+	}
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.electronwill.nightconfig.core.serde;
 import java.util.*;
 import java.util.function.Supplier;
 import java.lang.reflect.Field;
+import java.lang.reflect.Type;
 
 import com.electronwill.nightconfig.core.NullObject;
 import com.electronwill.nightconfig.core.UnmodifiableConfig;
@@ -17,8 +18,18 @@ class AbstractObjectDeserializer {
 	protected ValueDeserializerProvider<?, ?> defaultProvider;
 	protected final boolean applyTransientModifier;
 
+	/** cache of the deserializer lookups, null if the providers are not frozen */
+	private final LookupCache<ValueDeserializer<?, ?>> lookupCache;
+
 	protected AbstractObjectDeserializer(ObjectDeserializerBuilder builder) {
-		this.generalProviders = builder.deserializerProviders;
+		if (builder.frozenProviders) {
+			// copy the providers, so that the builder cannot invalidate the cache
+			this.generalProviders = Collections.unmodifiableList(new ArrayList<>(builder.deserializerProviders));
+			this.lookupCache = new LookupCache<>();
+		} else {
+			this.generalProviders = builder.deserializerProviders;
+			this.lookupCache = null;
+		}
 		this.defaultProvider = builder.defaultProvider;
 		this.applyTransientModifier = builder.applyTransientModifier;
 		assert generalProviders != null && defaultProvider != null;
@@ -106,13 +117,21 @@ class AbstractObjectDeserializer {
 	protected <T, R> ValueDeserializer<T, R> findValueDeserializer(T value, TypeConstraint resultType) {
 		Class<?> valueClass = value == null ? null : value.getClass();
 		ValueDeserializer<?, ?> maybeDe;
-		for (ValueDeserializerProvider<?, ?> provider : generalProviders) {
-			maybeDe = provider.provide(valueClass, resultType);
-			if (maybeDe != null) {
-				return (ValueDeserializer<T, R>) maybeDe;
+		if (lookupCache == null) {
+			maybeDe = lookupValueDeserializer(valueClass, resultType);
+		} else {
+			// the providers only depend on the value's class and on the type of the result
+			Type fullType = resultType.getFullType();
+			Object cached = lookupCache.get(valueClass, fullType);
+			if (cached == null) {
+				maybeDe = lookupValueDeserializer(valueClass, resultType);
+				lookupCache.put(valueClass, fullType, maybeDe);
+			} else if (LookupCache.isNotFound(cached)) {
+				maybeDe = null;
+			} else {
+				maybeDe = (ValueDeserializer<?, ?>) cached;
 			}
 		}
-		maybeDe = defaultProvider.provide(valueClass, resultType);
 		if (maybeDe != null) {
 			return (ValueDeserializer<T, R>) maybeDe;
 		}
@@ -121,6 +140,22 @@ class AbstractObjectDeserializer {
 				+ value + " and result constraint " + resultType);
 	}
 
+	/**
+	 * Asks the providers for a deserializer, in order.
+	 *
+	 * @return the deserializer, or null if no provider has one
+	 */
+	private ValueDeserializer<?, ?> lookupValueDeserializer(Class<?> valueClass, TypeConstraint resultType) {
+		ValueDeserializer<?, ?> maybeDe;
+		for (ValueDeserializerProvider<?, ?> provider : generalProviders) {
+			maybeDe = provider.provide(valueClass, resultType);
+			if (maybeDe != null) {
+				return maybeDe;
+			}
+		}
+		return defaultProvider.provide(valueClass, resultType);
+	}
+
 	protected Supplier<?> findDefaultValueSupplier(Object rawConfigValue, Field field, Object instance) {
 		EnumMap<SerdeDefault.WhenValue, SerdeDefault> defaultForDeserializing = AnnotationProcessor
 				.getConfigDefaultAnnotations(field)
@@ -195,8 +195,27 @@ final class AnnotationProcessor {
 	}
 
 	// ====== SerdeDefault ======
+	/** The parsed SerdeDefault annotations of the fields, by declaring class. */
+	private static final ClassValue<Map<Field, EnumMap<SerdePhase, EnumMap<SerdeDefault.WhenValue, SerdeDefault>>>> DEFAULT_ANNOTATIONS = new ClassValue<Map<Field, EnumMap<SerdePhase, EnumMap<SerdeDefault.WhenValue, SerdeDefault>>>>() {
+		@Override
+		protected Map<Field, EnumMap<SerdePhase, EnumMap<SerdeDefault.WhenValue, SerdeDefault>>> computeValue(
+				Class<?> cls) {
+			return new java.util.concurrent.ConcurrentHashMap<>();
+		}
+	};
+
+	/**
+	 * Returns the {@link SerdeDefault} annotations of a field, by phase and by value condition.
+	 * The result is computed once per field, it must not be modified.
+	 */
 	static EnumMap<SerdePhase, EnumMap<SerdeDefault.WhenValue, SerdeDefault>> getConfigDefaultAnnotations(
 			Field field) {
+		return DEFAULT_ANNOTATIONS.get(field.getDeclaringClass())
+				.computeIfAbsent(field, AnnotationProcessor::parseConfigDefaultAnnotations);
+	}
+
+	private static EnumMap<SerdePhase, EnumMap<SerdeDefault.WhenValue, SerdeDefault>> parseConfigDefaultAnnotations(
+			Field field) {
 		// init top-level map
 		EnumMap<SerdePhase, EnumMap<SerdeDefault.WhenValue, SerdeDefault>> byPhase = new EnumMap<>(
 				SerdePhase.class);
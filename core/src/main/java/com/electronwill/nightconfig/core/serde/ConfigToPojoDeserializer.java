@@ -1,8 +1,6 @@
 package com.electronwill.nightconfig.core.serde;
 
 import java.util.Optional;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Modifier;
 
 import com.electronwill.nightconfig.core.UnmodifiableConfig;
 
@@ -23,16 +21,7 @@ final class ConfigToPojoDeserializer
 			TypeConstraint t = resultType.get();
 			Class<?> cls = t.getSatisfyingRawType().orElseThrow(() -> new SerdeException(
 					"Could not find a concrete type that can satisfy the constraint " + t));
-            Object instance;
-            try {
-                Constructor<?> constructor = cls.getDeclaredConstructor();
-                if (!Modifier.isPublic(constructor.getModifiers())) {
-                    constructor.setAccessible(true);
-                }
-                instance = constructor.newInstance();
-            } catch (Exception e) {
-                throw new SerdeException("Failed to create an instance of " + cls, e);
-            }
+            Object instance = FieldPlan.newInstance(cls);
             ctx.deserializeFields(value, instance);
             return instance;
 		}
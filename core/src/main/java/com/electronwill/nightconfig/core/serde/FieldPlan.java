@@ -0,0 +1,270 @@
+package com.electronwill.nightconfig.core.serde;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+import com.electronwill.nightconfig.core.serde.annotations.*;
+import com.electronwill.nightconfig.core.serde.annotations.SerdeAssert.AssertThat;
+
+/**
+ * Internal class: the (de)serialization plan of a field, computed once per class.
+ * <p>
+ * A plan holds the field's accessors, as {@link MethodHandle}s, and its resolved annotations:
+ * config key, comment, skip conditions and assertions. The predicates that don't depend on the
+ * object being (de)serialized are resolved once and cached too. The predicates that are looked
+ * up in the object itself ({@code CUSTOM} conditions without {@code customClass}) are resolved
+ * on each use, because they can be bound to the object.
+ */
+final class FieldPlan {
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+	private static final Predicate<Object> ALWAYS_TRUE = v -> true;
+	private static final FieldPlan[] NO_PLANS = {};
+
+	/** The plans of the fields declared by a class, without its superclasses. */
+	private static final ClassValue<FieldPlan[]> DECLARED = new ClassValue<FieldPlan[]>() {
+		@Override
+		protected FieldPlan[] computeValue(Class<?> cls) {
+			List<FieldPlan> plans = new ArrayList<>();
+			for (Field field : cls.getDeclaredFields()) {
+				int mods = field.getModifiers();
+				if (!Modifier.isStatic(mods) && !field.isSynthetic()) {
+					plans.add(new FieldPlan(field));
+				}
+			}
+			return plans.toArray(NO_PLANS);
+		}
+	};
+
+	/** The plans of all the fields of a class, including the inherited ones. */
+	private static final ClassValue<FieldPlan[]> ALL = new ClassValue<FieldPlan[]>() {
+		@Override
+		protected FieldPlan[] computeValue(Class<?> cls) {
+			List<FieldPlan> plans = new ArrayList<>();
+			for (Class<?> c = cls; c != null && c != Object.class; c = c.getSuperclass()) {
+				Collections.addAll(plans, DECLARED.get(c));
+			}
+			return plans.toArray(NO_PLANS);
+		}
+	};
+
+	/** The no-arg constructors, adapted to return an Object. */
+	private static final ClassValue<MethodHandle> CONSTRUCTORS = new ClassValue<MethodHandle>() {
+		@Override
+		protected MethodHandle computeValue(Class<?> cls) {
+			try {
+				Constructor<?> constructor = cls.getDeclaredConstructor();
+				if (!Modifier.isPublic(constructor.getModifiers())) {
+					constructor.setAccessible(true);
+				}
+				return MethodHandles.lookup().unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE);
+			} catch (Exception e) {
+				throw new SerdeException("Failed to create an instance of " + cls, e);
+			}
+		}
+	};
+
+	/**
+	 * Returns the plans of all the non-static fields of a class, including the inherited ones.
+	 * The fields of the class come first, then the ones of its superclass, and so on.
+	 */
+	static FieldPlan[] of(Class<?> cls) {
+		return ALL.get(cls);
+	}
+
+	/**
+	 * Creates a new instance of a class with its no-arg constructor.
+	 */
+	static Object newInstance(Class<?> cls) {
+		MethodHandle constructor = CONSTRUCTORS.get(cls);
+		try {
+			return (Object)constructor.invokeExact();
+		} catch (Throwable e) {
+			throw new SerdeException("Failed to create an instance of " + cls, e);
+		}
+	}
+
+	final Field field;
+	final boolean isTransient;
+	final List<String> path;
+	final String comment;
+	final TypeConstraint type;
+	final SerdeSkipSerializingIf skipSerializingIf;
+	final SerdeSkipDeserializingIf skipDeserializingIf;
+	final SerdeAssert[] asserts;// null if none
+
+	// lazily initialized, racy but idempotent
+	private volatile MethodHandle getter, setter;
+	private volatile Predicate<Object> skipSerializing, skipDeserializing;
+	private volatile Predicate<Object> assertSerializing, assertDeserializing;
+
+	private FieldPlan(Field field) {
+		this.field = field;
+		this.isTransient = Modifier.isTransient(field.getModifiers());
+		SerdeKey keyAnnot = field.getAnnotation(SerdeKey.class);
+		this.path = Collections.singletonList(keyAnnot == null ? field.getName() : keyAnnot.value());
+		this.comment = configComment(field);
+		this.type = new TypeConstraint(field.getGenericType());
+		this.skipSerializingIf = field.getAnnotation(SerdeSkipSerializingIf.class);
+		this.skipDeserializingIf = field.getAnnotation(SerdeSkipDeserializingIf.class);
+		SerdeAssert[] assertAnnots = field.getAnnotationsByType(SerdeAssert.class);
+		this.asserts = (assertAnnots.length == 0) ? null : assertAnnots;
+	}
+
+	private static String configComment(Field field) {
+		SerdeComment[] commentAnnots = field.getDeclaredAnnotationsByType(SerdeComment.class);
+		if (commentAnnots.length == 0) {
+			return null;
+		}
+		StringBuilder comment = new StringBuilder(commentAnnots[0].value());
+		for (int i = 1; i < commentAnnots.length; i++) {
+			comment.append('\n').append(commentAnnots[i].value());
+		}
+		return comment.toString();
+	}
+
+	/**
+	 * Reads the value of the field.
+	 */
+	Object get(Object instance) throws Throwable {
+		MethodHandle h = getter;
+		if (h == null) {
+			getter = h = unreflectGetter();
+		}
+		return (Object)h.invokeExact(instance);
+	}
+
+	/**
+	 * Modifies the value of the field.
+	 */
+	void set(Object instance, Object value) throws Throwable {
+		MethodHandle h = setter;
+		if (h == null) {
+			setter = h = unreflectSetter();
+		}
+		h.invokeExact(instance, value);
+	}
+
+	private MethodHandle unreflectGetter() throws IllegalAccessException {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		try {
+			return lookup.unreflectGetter(field).asType(GETTER_TYPE);
+		} catch (IllegalAccessException e) {
+			field.setAccessible(true);
+			return lookup.unreflectGetter(field).asType(GETTER_TYPE);
+		}
+	}
+
+	private MethodHandle unreflectSetter() throws ReflectiveOperationException {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		try {
+			return lookup.unreflectSetter(field).asType(SETTER_TYPE);
+		} catch (IllegalAccessException e) {
+			field.setAccessible(true);
+		}
+		try {
+			return lookup.unreflectSetter(field).asType(SETTER_TYPE);
+		} catch (IllegalAccessException e) {
+			// Some final fields can only be modified with Field.set
+			MethodHandle fieldSet = lookup.findVirtual(Field.class, "set", SETTER_TYPE);
+			return fieldSet.bindTo(field);
+		}
+	}
+
+	/**
+	 * @return the skip predicate for the serialization, or null if none
+	 */
+	@SuppressWarnings("unchecked")
+	Predicate<Object> skipSerializingPredicate(Object instance) {
+		if (skipSerializingIf == null) {
+			return null;
+		}
+		Predicate<Object> p = skipSerializing;
+		if (p == null) {
+			p = (Predicate<Object>)AnnotationProcessor.resolveSkipSerializingIfPredicate(skipSerializingIf,
+					instance, field);
+			if (!dependsOnInstance(skipSerializingIf.customClass(), skipSerializingIf.customCheck())) {
+				skipSerializing = p;
+			}
+		}
+		return p;
+	}
+
+	/**
+	 * @return the skip predicate for the deserialization, or null if none
+	 */
+	@SuppressWarnings("unchecked")
+	Predicate<Object> skipDeserializingPredicate(Object instance) {
+		if (skipDeserializingIf == null) {
+			return null;
+		}
+		Predicate<Object> p = skipDeserializing;
+		if (p == null) {
+			p = (Predicate<Object>)AnnotationProcessor.resolveSkipDeserializingIfPredicate(skipDeserializingIf,
+					instance);
+			if (!dependsOnInstance(skipDeserializingIf.customClass(), skipDeserializingIf.customCheck())) {
+				skipDeserializing = p;
+			}
+		}
+		return p;
+	}
+
+	/**
+	 * @return the combined assertions of the phase, or null if none
+	 */
+	@SuppressWarnings("unchecked")
+	Predicate<Object> assertPredicate(Object instance, SerdePhase phase) {
+		if (asserts == null) {
+			return null;
+		}
+		boolean serializing = (phase == SerdePhase.SERIALIZING);
+		Predicate<Object> p = serializing ? assertSerializing : assertDeserializing;
+		if (p == null) {
+			p = (Predicate<Object>)AnnotationProcessor.resolveAssertPredicate(asserts, instance, phase, field);
+			if (p == null) {
+				p = ALWAYS_TRUE;
+			}
+			if (!assertsDependOnInstance()) {
+				if (serializing) {
+					assertSerializing = p;
+				} else {
+					assertDeserializing = p;
+				}
+			}
+		}
+		return (p == ALWAYS_TRUE) ? null : p;
+	}
+
+	private boolean assertsDependOnInstance() {
+		for (SerdeAssert annot : asserts) {
+			for (AssertThat condition : annot.value()) {
+				if (condition == AssertThat.CUSTOM && annot.customClass() == Object.class) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * A custom condition without a custom class is looked up in the object being
+	 * (de)serialized, and can be bound to it.
+	 */
+	private static boolean dependsOnInstance(Class<?> customClass, String customCheck) {
+		return customClass == Object.class && !customCheck.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "FieldPlan(" + field + ")";
+	}
+}
\ No newline at end of file
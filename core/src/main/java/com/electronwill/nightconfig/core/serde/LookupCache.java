@@ -0,0 +1,79 @@
+package com.electronwill.nightconfig.core.serde;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Internal class: caches the result of the lookup of a serializer or deserializer, by runtime
+ * class of the value and by context (the {@code ConfigFormat} for the serialization, the type of
+ * the result for the deserialization).
+ * <p>
+ * The failed lookups are cached too, so that an unsupported value fails fast. The cache is only
+ * valid if the providers cannot change, see {@link ObjectSerializerBuilder#freezeProviders()}
+ * and {@link ObjectDeserializerBuilder#freezeProviders()}.
+ * <p>
+ * The results are attached to the classes with a {@link ClassValue}, so that the cache doesn't
+ * prevent the classes (and their class loader) from being unloaded. For each class, only the
+ * last {@value #MAX_CONTEXTS} contexts are kept: the contexts that are created on the fly, like
+ * the formats of {@code InMemoryFormat.withSupport(...)}, don't make the cache grow forever.
+ *
+ * @param <V> type of the cached serializers or deserializers
+ */
+final class LookupCache<V> {
+	/** marks a lookup that has found nothing */
+	private static final Object NOT_FOUND = new Object();
+
+	/** the maximum number of contexts cached for each class */
+	static final int MAX_CONTEXTS = 8;
+
+	private final ClassValue<ContextMap> byClass = new ClassValue<ContextMap>() {
+		@Override
+		protected ContextMap computeValue(Class<?> type) {
+			return new ContextMap();
+		}
+	};
+	private final ContextMap nullValues = new ContextMap();
+
+	/**
+	 * @return the cached value, {@link #isNotFound(Object) NOT_FOUND} if the lookup has failed,
+	 *         or null if the lookup hasn't been cached
+	 */
+	Object get(Class<?> valueClass, Object context) {
+		ContextMap contexts = contextsOf(valueClass);
+		synchronized (contexts) {
+			return contexts.get(context);
+		}
+	}
+
+	/**
+	 * Caches the result of a lookup.
+	 *
+	 * @param result the value that has been found, or null if nothing has been found
+	 */
+	void put(Class<?> valueClass, Object context, V result) {
+		ContextMap contexts = contextsOf(valueClass);
+		synchronized (contexts) {
+			contexts.put(context, result == null ? NOT_FOUND : result);
+		}
+	}
+
+	static boolean isNotFound(Object cached) {
+		return cached == NOT_FOUND;
+	}
+
+	private ContextMap contextsOf(Class<?> valueClass) {
+		return (valueClass == null) ? nullValues : byClass.get(valueClass);
+	}
+
+	/** The results for one class, by context, in access order. */
+	private static final class ContextMap extends LinkedHashMap<Object, Object> {
+		ContextMap() {
+			super(4, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+			return size() > MAX_CONTEXTS;
+		}
+	}
+}
@@ -23,6 +23,9 @@ public final class ObjectDeserializerBuilder {
 	/** setting: skip transient fields as requested by the modifier */
 	boolean applyTransientModifier = true;
 
+	/** setting: copy the providers on build and cache the lookups */
+	boolean frozenProviders = false;
+
 	ObjectDeserializerBuilder(boolean standards) {
 		if (standards) {
 			registerStandardDeserializers();
@@ -45,6 +48,19 @@ public final class ObjectDeserializerBuilder {
 		this.applyTransientModifier = false;
 	}
 
+	/**
+	 * Freezes the providers: the {@link ObjectDeserializer} that is built takes a copy of them,
+	 * instead of seeing the providers that are registered afterwards.
+	 * <p>
+	 * This allows the deserializer to cache the deserializer that is chosen for each class of
+	 * value and type of result, instead of asking every provider for every value. It is only
+	 * correct if the providers always give the same answer for the same class and type, which
+	 * is the case of the standard providers.
+	 */
+	public void freezeProviders() {
+		this.frozenProviders = true;
+	}
+
 	/**
 	 * Adds a {@link ValueDeserializer} that will be used to deserialize config values
 	 * of type {@code valueClass} to objects of type {@code resultClass}.
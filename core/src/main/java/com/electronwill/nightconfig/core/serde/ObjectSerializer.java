@@ -1,6 +1,8 @@
 package com.electronwill.nightconfig.core.serde;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.IdentityHashMap;
 import java.util.EnumMap;
@@ -90,9 +92,20 @@ public final class ObjectSerializer {
 	/** setting: skip transient fields as requested by the modifier */
 	final boolean applyTransientModifier;
 
+	/** cache of the serializer lookups, null if the providers are not frozen */
+	private final LookupCache<ValueSerializer<?, ?>> lookupCache;
+
 	ObjectSerializer(ObjectSerializerBuilder builder) {
-		this.classBasedSerializers = builder.classBasedSerializers;
-		this.generalProviders = builder.generalProviders;
+		if (builder.frozenProviders) {
+			// copy the providers, so that the builder cannot invalidate the cache
+			this.classBasedSerializers = new IdentityHashMap<>(builder.classBasedSerializers);
+			this.generalProviders = Collections.unmodifiableList(new ArrayList<>(builder.generalProviders));
+			this.lookupCache = new LookupCache<>();
+		} else {
+			this.classBasedSerializers = builder.classBasedSerializers;
+			this.generalProviders = builder.generalProviders;
+			this.lookupCache = null;
+		}
 		this.defaultProvider = builder.defaultProvider;
 		this.applyTransientModifier = builder.applyTransientModifier;
 		assert classBasedSerializers != null && generalProviders != null && defaultProvider != null;
@@ -172,22 +185,46 @@ public final class ObjectSerializer {
 	@SuppressWarnings("unchecked")
 	<T, R> ValueSerializer<T, R> findValueSerializer(Object value, SerializerContext ctx) {
 		Class<?> valueClass = value == null ? null : value.getClass();
-		ValueSerializer<?, ?> maybeSe = null;
+		ValueSerializer<?, ?> maybeSe;
+		if (lookupCache == null) {
+			maybeSe = lookupValueSerializer(valueClass, ctx);
+		} else {
+			// the providers only depend on the value's class and on the ConfigFormat
+			ConfigFormat<?> format = ctx.configFormat();
+			Object cached = lookupCache.get(valueClass, format);
+			if (cached == null) {
+				maybeSe = lookupValueSerializer(valueClass, ctx);
+				lookupCache.put(valueClass, format, maybeSe);
+			} else if (LookupCache.isNotFound(cached)) {
+				maybeSe = null;
+			} else {
+				maybeSe = (ValueSerializer<?, ?>) cached;
+			}
+		}
+		if (maybeSe != null) {
+			return (ValueSerializer<T, R>) maybeSe;
+		}
+		throw ObjectSerializer.noSerializerFound(value, valueClass, ctx);
+	}
+
+	/**
+	 * Asks the providers for a serializer, in order.
+	 *
+	 * @return the serializer, or null if no provider has one
+	 */
+	private ValueSerializer<?, ?> lookupValueSerializer(Class<?> valueClass, SerializerContext ctx) {
+		ValueSerializer<?, ?> maybeSe;
 		for (ValueSerializerProvider<?, ?> provider : generalProviders) {
 			maybeSe = provider.provide(valueClass, ctx);
 			if (maybeSe != null) {
-				return (ValueSerializer<T, R>) maybeSe;
+				return maybeSe;
 			}
 		}
 		maybeSe = classBasedSerializers.get(valueClass);
 		if (maybeSe != null) {
-			return (ValueSerializer<T, R>) maybeSe;
+			return maybeSe;
 		}
-		maybeSe = defaultProvider.provide(valueClass, ctx);
-		if (maybeSe != null) {
-			return (ValueSerializer<T, R>) maybeSe;
-		}
-		throw ObjectSerializer.noSerializerFound(value, valueClass, ctx);
+		return defaultProvider.provide(valueClass, ctx);
 	}
 
 	Supplier<?> findDefaultValueSupplier(Object fieldValue, Field field, Object instance) {
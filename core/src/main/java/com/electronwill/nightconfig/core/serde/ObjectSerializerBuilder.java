@@ -24,6 +24,9 @@ public final class ObjectSerializerBuilder {
     /** setting: skip transient fields as requested by the modifier */
     boolean applyTransientModifier = true;
 
+    /** setting: copy the providers on build and cache the lookups */
+    boolean frozenProviders = false;
+
     ObjectSerializerBuilder(boolean standards) {
         if (standards) {
             registerStandardSerializers();
@@ -97,6 +100,19 @@ public final class ObjectSerializerBuilder {
         this.applyTransientModifier = false;
     }
 
+    /**
+     * Freezes the serializers and providers: the {@link ObjectSerializer} that is built takes
+     * a copy of them, instead of seeing the serializers that are registered afterwards.
+     * <p>
+     * This allows the serializer to cache the serializer that is chosen for each class of value
+     * and {@code ConfigFormat}, instead of asking every provider for every value. It is only
+     * correct if the providers always give the same answer for the same class and format, which
+     * is the case of the standard providers.
+     */
+    public void freezeProviders() {
+        this.frozenProviders = true;
+    }
+
     /** registers the standard serializers */
     @SuppressWarnings({ "rawtypes", "unchecked" })
     private void registerStandardSerializers() {
@@ -1,9 +1,6 @@
 package com.electronwill.nightconfig.core.serde;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.util.Collections;
-import java.util.List;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -69,101 +66,74 @@ public final class SerializerContext {
 	 * @param destination the config that we are modifying (result of the serialization)
 	 */
 	public void serializeFields(Object source, Config destination) {
-		// loop through the class hierarchy of the source type
-		Class<?> cls = source.getClass();
-		while (cls != Object.class) {
-			for (Field field : cls.getDeclaredFields()) {
-				if (preCheck(field)) {
-					// read the fields's value
-					Object value;
-					try {
-						value = field.get(source);
-					} catch (Exception e) {
-						throw new SerdeException("Failed to read field `" + field + "`", e);
-					}
-
-					// skip the field if the annotation say so
-					if (skipField(field, source, value)) {
-						continue; // don't serialize, go to the next field
-					}
-
-					// get the config key and config comment
-					List<String> path = Collections.singletonList(configKey(field));
-					String comment = configComment(field);
-
-					// Try to apply the default value.
-					// (Note that this is not symmetrical with the deserialization process: the
-					// default value is always a Java value, and we will serialize this default
-					// value instead of the field's value.)
-					Supplier<?> defaultValueSupplier = settings.findDefaultValueSupplier(value, field, source);
-					if (defaultValueSupplier != null) {
-						try {
-							value = defaultValueSupplier.get();
-						} catch (Exception e) {
-							throw new SerdeException("Error in default value provider for field " + field);
-						}
-					}
-
-					// check the value of the field
-					if (!assertField(field, source, value)) {
-						throw new SerdeAssertException("Field `" + field + "` has an invalid value: " + value);
-					}
-
-					// find the right serializer
-					ValueSerializer<Object, ?> serializer = settings.findValueSerializer(value, this);
-
-					// serialize the value and modify the destination
-					try {
-						Object serialized = serializer.serialize(value, this);
-						destination.set(path, serialized);
-						if (comment != null && (destination instanceof CommentedConfig)) {
-							((CommentedConfig) destination).setComment(path, comment);
-						}
-					} catch (Exception ex) {
-						throw new SerdeException(
-								"Error during serialization of field `" + field
-										+ "` with serializer " + serializer,
-								ex);
-					}
+		// the fields of the whole class hierarchy, with their resolved annotations
+		for (FieldPlan plan : FieldPlan.of(source.getClass())) {
+			if (plan.isTransient && settings.applyTransientModifier) {
+				continue;
+			}
+			Field field = plan.field;
+
+			// read the fields's value
+			Object value;
+			try {
+				value = plan.get(source);
+			} catch (Throwable e) {
+				throw new SerdeException("Failed to read field `" + field + "`", e);
+			}
+
+			// skip the field if the annotation say so
+			if (skipField(plan, source, value)) {
+				continue; // don't serialize, go to the next field
+			}
+
+			// Try to apply the default value.
+			// (Note that this is not symmetrical with the deserialization process: the
+			// default value is always a Java value, and we will serialize this default
+			// value instead of the field's value.)
+			Supplier<?> defaultValueSupplier = settings.findDefaultValueSupplier(value, field, source);
+			if (defaultValueSupplier != null) {
+				try {
+					value = defaultValueSupplier.get();
+				} catch (Exception e) {
+					throw new SerdeException("Error in default value provider for field " + field);
 				}
 			}
-			cls = cls.getSuperclass();
-		}
-	}
 
-	private String configKey(Field field) {
-		SerdeKey keyAnnot = field.getAnnotation(SerdeKey.class);
-		return keyAnnot == null ? field.getName() : keyAnnot.value();
-	}
+			// check the value of the field
+			if (!assertField(plan, source, value)) {
+				throw new SerdeAssertException("Field `" + field + "` has an invalid value: " + value);
+			}
 
-	private String configComment(Field field) {
-		SerdeComment[] commentAnnots = field.getDeclaredAnnotationsByType(SerdeComment.class);
-		if (commentAnnots.length == 0) {
-			return null;
-		}
-		String comment = commentAnnots[0].value();
-		for (int i = 1; i < commentAnnots.length; i++) {
-			comment += "\n";
-			comment += commentAnnots[i].value();
+			// find the right serializer
+			ValueSerializer<Object, ?> serializer = settings.findValueSerializer(value, this);
+
+			// serialize the value and modify the destination
+			try {
+				Object serialized = serializer.serialize(value, this);
+				destination.set(plan.path, serialized);
+				if (plan.comment != null && (destination instanceof CommentedConfig)) {
+					((CommentedConfig) destination).setComment(plan.path, plan.comment);
+				}
+			} catch (Exception ex) {
+				throw new SerdeException(
+						"Error during serialization of field `" + field
+								+ "` with serializer " + serializer,
+						ex);
+			}
 		}
-		return comment;
 	}
 
 	/**
 	 * @return true if the field should be skipped
 	 */
-	@SuppressWarnings("unchecked")
-	private boolean skipField(Field field, Object fieldContainer, Object fieldValue) {
-		SerdeSkipSerializingIf annot = field.getAnnotation(SerdeSkipSerializingIf.class);
-		if (annot == null) {
+	private boolean skipField(FieldPlan plan, Object fieldContainer, Object fieldValue) {
+		if (plan.skipSerializingIf == null) {
 			return false;
 		}
 		try {
-			Predicate<?> skipPredicate = AnnotationProcessor.resolveSkipSerializingIfPredicate(annot, fieldContainer,
-					field);
-			return ((Predicate<Object>) skipPredicate).test(fieldValue);
+			return plan.skipSerializingPredicate(fieldContainer).test(fieldValue);
 		} catch (Exception e) {
-			String msg = "Failed to resolve or apply skip predicate for serialization of field " + field;
+			String msg = "Failed to resolve or apply skip predicate for serialization of field " + plan.field;
 			throw new SerdeException(msg, e);
 		}
 	}
@@ -171,36 +141,19 @@ public final class SerializerContext {
 	/**
 	 * @return false if there is an assertion and it fails
 	 */
-	@SuppressWarnings("unchecked")
-	private boolean assertField(Field field, Object fieldContainer, Object fieldValue) {
-		SerdeAssert[] annot = field.getAnnotationsByType(SerdeAssert.class);
-		if (annot == null || annot.length == 0) {
+	private boolean assertField(FieldPlan plan, Object fieldContainer, Object fieldValue) {
+		if (plan.asserts == null) {
 			return true;
 		}
 		try {
-			Predicate<?> assertPredicate = AnnotationProcessor.resolveAssertPredicate(annot, fieldContainer,
-					SerdePhase.SERIALIZING, field);
+			Predicate<Object> assertPredicate = plan.assertPredicate(fieldContainer, SerdePhase.SERIALIZING);
 			if (assertPredicate == null) {
 				return true;
 			}
-			return ((Predicate<Object>) assertPredicate).test(fieldValue);
+			return assertPredicate.test(fieldValue);
 		} catch (Exception e) {
-			String msg = "Failed to resolve or apply assertion for serialization of field " + field;
+			String msg = "Failed to resolve or apply assertion for serialization of field " + plan.field;
 			throw new SerdeException(msg, e);
 		}
 	}
-
-	private boolean preCheck(Field field) {
-		int mods = field.getModifiers();
-		if (Modifier.isStatic(mods) || field.isSynthetic()) {
-			return false;
-		}
-		if (Modifier.isTransient(mods) && settings.applyTransientModifier) {
-			return false;
-		}
-		if (Modifier.isFinal(mods) || !Modifier.isPublic(mods)) {
-			field.setAccessible(true);
-		}
-		return true;
-	}
 }
@@ -0,0 +1,457 @@
+package com.electronwill.nightconfig.core.utils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A map that is optimized for the small tables that make up most configurations. The entries are
+ * stored in three arrays (hashes, keys and values) in insertion order, without any entry object.
+ * Up to {@value #LINEAR_THRESHOLD} entries, the keys are found by scanning the arrays. When the
+ * map grows beyond that, an open-addressing hash table with linear probing is built on top of
+ * the arrays.
+ * <p>
+ * Compared to a {@link java.util.HashMap}, a map with a few entries uses several times less
+ * memory, and the iteration order is the insertion order, like a
+ * {@link java.util.LinkedHashMap}. A removed entry leaves a tombstone in the arrays, which is
+ * skipped by the lookups and the iteration. The tombstones are discarded when the arrays are full
+ * and contain enough of them, so that the removals take a constant amortized time.
+ * <p>
+ * This map is not thread-safe. It supports null keys and values.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @author TheElectronWill
+ */
+public final class CompactHashMap<K, V> extends AbstractMap<K, V> {
+	/** The maximum number of entries that are looked up by a linear scan. */
+	static final int LINEAR_THRESHOLD = 8;
+	private static final int[] NO_HASHES = {};
+	private static final Object[] NO_OBJECTS = {};
+	/** The key of a removed entry. */
+	private static final Object REMOVED = new Object();
+
+	private int[] hashes;
+	private Object[] keys;
+	private Object[] values;
+	private int size;
+	/** The number of used array cells, including the removed entries. */
+	private int used;
+
+	/**
+	 * The hash table, null if there are less than LINEAR_THRESHOLD used cells. Each slot contains
+	 * the index of an entry plus one, or 0 if it's empty. Its length is a power of two. The
+	 * removed entries are not in the table.
+	 */
+	private int[] table;
+
+	/** The number of structural modifications, to detect the concurrent modifications. */
+	private int modCount;
+
+	private Set<Map.Entry<K, V>> entrySet;
+
+	/**
+	 * Creates an empty map. Its arrays are allocated when the first entry is added.
+	 */
+	public CompactHashMap() {
+		this.hashes = NO_HASHES;
+		this.keys = NO_OBJECTS;
+		this.values = NO_OBJECTS;
+	}
+
+	/**
+	 * Creates an empty map that can contain the given number of entries without growing.
+	 *
+	 * @param initialCapacity the initial capacity
+	 */
+	public CompactHashMap(int initialCapacity) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+		}
+		this.hashes = new int[initialCapacity];
+		this.keys = new Object[initialCapacity];
+		this.values = new Object[initialCapacity];
+	}
+
+	/**
+	 * Creates a map with the same mappings as the given map.
+	 *
+	 * @param map the map to copy
+	 */
+	public CompactHashMap(Map<? extends K, ? extends V> map) {
+		this(map.size());
+		putAll(map);
+	}
+
+	private static int hash(Object key) {
+		// spreads the consecutive hash codes, which would form long clusters in the table
+		int h = (key == null) ? 0 : key.hashCode() * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * @return the index of the entry, or -1 if there is no such entry
+	 */
+	private int indexOf(Object key, int hash) {
+		// The fields are read once and the indexes are checked, because StampedConfig reads its
+		// maps optimistically, while they may be modified (the result is then discarded).
+		final int[] hashes = this.hashes;
+		final Object[] keys = this.keys;
+		final int[] table = this.table;
+		final int length = Math.min(hashes.length, keys.length);
+		if (table == null) {
+			final int used = Math.min(this.used, length);
+			for (int i = 0; i < used; i++) {
+				if (hashes[i] == hash && Objects.equals(keys[i], key)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		final int mask = table.length - 1;
+		for (int slot = hash & mask, probes = 0; probes < table.length; slot = (slot + 1) & mask, probes++) {
+			int e = table[slot] - 1;
+			if (e < 0 || e >= length) {
+				return -1;
+			}
+			if (hashes[e] == hash && Objects.equals(keys[e], key)) {
+				return e;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key, hash(key)) >= 0;
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		for (int i = 0; i < used; i++) {
+			if (keys[i] != REMOVED && Objects.equals(values[i], value)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		int index = indexOf(key, hash(key));
+		Object[] values = this.values;
+		return (index < 0 || index >= values.length) ? null : (V)values[index];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V getOrDefault(Object key, V defaultValue) {
+		int index = indexOf(key, hash(key));
+		return (index < 0) ? defaultValue : (V)values[index];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V put(K key, V value) {
+		int hash = hash(key);
+		int index = indexOf(key, hash);
+		if (index >= 0) {
+			V old = (V)values[index];
+			values[index] = value;
+			return old;
+		}
+		add(key, value, hash);
+		return null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V putIfAbsent(K key, V value) {
+		int hash = hash(key);
+		int index = indexOf(key, hash);
+		if (index >= 0) {
+			V old = (V)values[index];
+			if (old == null) {
+				values[index] = value;
+			}
+			return old;
+		}
+		add(key, value, hash);
+		return null;
+	}
+
+	private void add(K key, V value, int hash) {
+		if (used == keys.length) {
+			if (used - size >= (used >> 2) && used > 0) {
+				// at least a quarter of removed entries: reuse their cells
+				compact();
+			} else {
+				int capacity = (used < 4) ? 4 : used + (used >> 1);
+				hashes = Arrays.copyOf(hashes, capacity);
+				keys = Arrays.copyOf(keys, capacity);
+				values = Arrays.copyOf(values, capacity);
+			}
+		}
+		int index = used++;
+		hashes[index] = hash;
+		keys[index] = key;
+		values[index] = value;
+		size++;
+		modCount++;
+		if (table != null) {
+			if (size * 2 > table.length) {
+				rebuildTable();
+			} else {
+				insertInTable(table, index);
+			}
+		} else if (used > LINEAR_THRESHOLD) {
+			rebuildTable();
+		}
+	}
+
+	/**
+	 * Removes the tombstones by moving the entries, in the same order, to the beginning of the
+	 * arrays.
+	 */
+	private void compact() {
+		int j = 0;
+		for (int i = 0; i < used; i++) {
+			if (keys[i] != REMOVED) {
+				hashes[j] = hashes[i];
+				keys[j] = keys[i];
+				values[j] = values[i];
+				j++;
+			}
+		}
+		Arrays.fill(keys, j, used, null);
+		Arrays.fill(values, j, used, null);
+		used = j;
+		if (used > LINEAR_THRESHOLD) {
+			rebuildTable();
+		} else {
+			table = null;
+		}
+	}
+
+	/**
+	 * Builds the hash table, with a load factor of at most 0.5.
+	 */
+	private void rebuildTable() {
+		int[] newTable = new int[Integer.highestOneBit(Math.max(size, 1) * 4 - 1)];
+		for (int i = 0; i < used; i++) {
+			if (keys[i] != REMOVED) {
+				insertInTable(newTable, i);
+			}
+		}
+		table = newTable;
+	}
+
+	private void insertInTable(int[] table, int index) {
+		final int mask = table.length - 1;
+		int slot = hashes[index] & mask;
+		while (table[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		table[slot] = index + 1;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remove(Object key) {
+		int index = indexOf(key, hash(key));
+		if (index < 0) {
+			return null;
+		}
+		V old = (V)values[index];
+		removeAt(index);
+		return old;
+	}
+
+	/**
+	 * Removes an entry by replacing it with a tombstone. The other entries don't move.
+	 */
+	private void removeAt(int index) {
+		if (table != null) {
+			removeFromTable(index);
+		}
+		keys[index] = REMOVED;
+		values[index] = null;
+		size--;
+		modCount++;
+		if (size == 0) {
+			// all the entries are removed, the cells can be reused
+			Arrays.fill(keys, 0, used, null);
+			used = 0;
+			table = null;
+		}
+	}
+
+	/**
+	 * Removes an entry from the hash table, and moves back the following entries of the same
+	 * cluster (backward-shift deletion), so that the lookups don't need tombstones in the table.
+	 */
+	private void removeFromTable(int index) {
+		final int[] table = this.table;
+		final int mask = table.length - 1;
+		int hole = hashes[index] & mask;
+		while (table[hole] != index + 1) {
+			hole = (hole + 1) & mask;
+		}
+		for (int slot = (hole + 1) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+			int ideal = hashes[table[slot] - 1] & mask;
+			// the entry can move to the hole if the hole is between its ideal slot and its slot
+			if (((slot - ideal) & mask) >= ((slot - hole) & mask)) {
+				table[hole] = table[slot];
+				hole = slot;
+			}
+		}
+		table[hole] = 0;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(keys, 0, used, null);
+		Arrays.fill(values, 0, used, null);
+		size = 0;
+		used = 0;
+		table = null;
+		modCount++;
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		Set<Map.Entry<K, V>> set = entrySet;
+		if (set == null) {
+			entrySet = set = new EntrySet();
+		}
+		return set;
+	}
+
+	private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public void clear() {
+			CompactHashMap.this.clear();
+		}
+	}
+
+	private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+		private int next = 0, last = -1;
+		private int expectedModCount = modCount;
+
+		EntryIterator() {
+			skipRemoved();
+		}
+
+		private void skipRemoved() {
+			while (next < used && keys[next] == REMOVED) {
+				next++;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next < used;
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (next >= used) {
+				throw new NoSuchElementException();
+			}
+			last = next++;
+			skipRemoved();
+			return new Entry(last);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			removeAt(last);
+			last = -1;
+			expectedModCount = modCount;
+		}
+	}
+
+	private final class Entry implements Map.Entry<K, V> {
+		private final int index;
+
+		Entry(int index) {
+			this.index = index;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public K getKey() {
+			return (K)keys[index];
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V getValue() {
+			return (V)values[index];
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V setValue(V value) {
+			V old = (V)values[index];
+			values[index] = value;
+			return old;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> other = (Map.Entry<?, ?>)obj;
+			return Objects.equals(getKey(), other.getKey())
+				&& Objects.equals(getValue(), other.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+		}
+
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
+	}
+}
\ No newline at end of file
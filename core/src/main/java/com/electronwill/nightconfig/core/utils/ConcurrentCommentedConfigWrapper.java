@@ -2,7 +2,9 @@ package com.electronwill.nightconfig.core.utils;
 
 import com.electronwill.nightconfig.core.*;
 import com.electronwill.nightconfig.core.concurrent.ConcurrentCommentedConfig;
+import com.electronwill.nightconfig.core.concurrent.ConfigBatch;
 
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -60,4 +62,9 @@ public abstract class ConcurrentCommentedConfigWrapper<C extends ConcurrentComme
 	public <R> R bulkCommentedUpdate(Function<? super CommentedConfig, R> action) {
 		return config.bulkCommentedUpdate(action);
 	}
+
+	@Override
+	public List<ConfigBatch.Change> apply(ConfigBatch batch) {
+		return config.apply(batch);
+	}
 }
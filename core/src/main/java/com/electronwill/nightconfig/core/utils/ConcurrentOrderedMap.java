@@ -0,0 +1,353 @@
+package com.electronwill.nightconfig.core.utils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread-safe map that iterates over its entries in insertion order, like a
+ * {@link java.util.LinkedHashMap}, without a global lock.
+ * <p>
+ * The entries are stored in a {@link ConcurrentHashMap}, and are also appended to a lock-free
+ * log that gives the iteration order. Removing an entry marks it as removed, and the log is
+ * purged once it contains more removed entries than live ones. Replacing the value of a key
+ * doesn't change its position, but removing a key and putting it again moves it to the end.
+ * <p>
+ * Like the ConcurrentHashMap, the iterators are weakly consistent and the null keys and values
+ * are not supported.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @author TheElectronWill
+ */
+public final class ConcurrentOrderedMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+	private final ConcurrentHashMap<K, Node<K, V>> map;
+	private final ConcurrentLinkedQueue<Node<K, V>> log = new ConcurrentLinkedQueue<>();
+
+	/** The approximate number of removed nodes that are still in the log. */
+	private final AtomicInteger removedInLog = new AtomicInteger();
+
+	private Set<Map.Entry<K, V>> entrySet;
+
+	/**
+	 * Creates an empty map.
+	 */
+	public ConcurrentOrderedMap() {
+		this.map = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Creates an empty map that can contain the given number of entries without growing.
+	 *
+	 * @param initialCapacity the initial capacity
+	 */
+	public ConcurrentOrderedMap(int initialCapacity) {
+		this.map = new ConcurrentHashMap<>(initialCapacity);
+	}
+
+	@Override
+	public int size() {
+		return map.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return map.isEmpty();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return map.containsKey(key);
+	}
+
+	@Override
+	public V get(Object key) {
+		Node<K, V> node = map.get(key);
+		return (node == null) ? null : node.value;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		Objects.requireNonNull(value);
+		Object[] previous = new Object[1];
+		map.compute(key, (k, node) -> {
+			if (node == null) {
+				return append(k, value);
+			}
+			previous[0] = node.value;
+			node.value = value;
+			return node;
+		});
+		return cast(previous[0]);
+	}
+
+	@Override
+	public V putIfAbsent(K key, V value) {
+		Objects.requireNonNull(value);
+		Object[] previous = new Object[1];
+		map.compute(key, (k, node) -> {
+			if (node == null) {
+				return append(k, value);
+			}
+			previous[0] = node.value;
+			return node;
+		});
+		return cast(previous[0]);
+	}
+
+	@Override
+	public V replace(K key, V value) {
+		Objects.requireNonNull(value);
+		Object[] previous = new Object[1];
+		map.computeIfPresent(key, (k, node) -> {
+			previous[0] = node.value;
+			node.value = value;
+			return node;
+		});
+		return cast(previous[0]);
+	}
+
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		Objects.requireNonNull(oldValue);
+		Objects.requireNonNull(newValue);
+		boolean[] replaced = new boolean[1];
+		map.computeIfPresent(key, (k, node) -> {
+			if (node.value.equals(oldValue)) {
+				node.value = newValue;
+				replaced[0] = true;
+			}
+			return node;
+		});
+		return replaced[0];
+	}
+
+	@Override
+	public V remove(Object key) {
+		Object[] previous = new Object[1];
+		map.computeIfPresent(cast(key), (k, node) -> {
+			previous[0] = node.value;
+			node.removed = true;
+			return null;
+		});
+		if (previous[0] != null) {
+			onRemoved();
+		}
+		return cast(previous[0]);
+	}
+
+	@Override
+	public boolean remove(Object key, Object value) {
+		if (value == null) {
+			return false;
+		}
+		boolean[] removed = new boolean[1];
+		map.computeIfPresent(cast(key), (k, node) -> {
+			if (node.value.equals(value)) {
+				node.removed = true;
+				removed[0] = true;
+				return null;
+			}
+			return node;
+		});
+		if (removed[0]) {
+			onRemoved();
+		}
+		return removed[0];
+	}
+
+	/**
+	 * Removes the given node, if it's still in the map.
+	 */
+	private void remove(Node<K, V> node) {
+		boolean[] removed = new boolean[1];
+		map.computeIfPresent(node.key, (k, current) -> {
+			if (current == node) {
+				node.removed = true;
+				removed[0] = true;
+				return null;
+			}
+			return current;
+		});
+		if (removed[0]) {
+			onRemoved();
+		}
+	}
+
+	@Override
+	public void clear() {
+		for (Node<K, V> node : log) {
+			if (!node.removed) {
+				remove(node);
+			}
+		}
+	}
+
+	/**
+	 * Creates a node and appends it to the log. Called while the key is locked by the
+	 * ConcurrentHashMap, so that the nodes of the same key are logged in order.
+	 */
+	private Node<K, V> append(K key, V value) {
+		Node<K, V> node = new Node<>(key, value);
+		log.add(node);
+		return node;
+	}
+
+	private void onRemoved() {
+		// The count is approximate, it only decides when to purge the log.
+		if (removedInLog.incrementAndGet() > map.size() + 8) {
+			removedInLog.set(0);
+			log.removeIf(node -> node.removed);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T cast(Object o) {
+		return (T)o;
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		Set<Map.Entry<K, V>> set = entrySet;
+		if (set == null) {
+			entrySet = set = new EntrySet();
+		}
+		return set;
+	}
+
+	private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public int size() {
+			return map.size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> entry = (Map.Entry<?, ?>)o;
+			Node<K, V> node = map.get(entry.getKey());
+			return node != null && node.value.equals(entry.getValue());
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> entry = (Map.Entry<?, ?>)o;
+			return ConcurrentOrderedMap.this.remove(entry.getKey(), entry.getValue());
+		}
+
+		@Override
+		public void clear() {
+			ConcurrentOrderedMap.this.clear();
+		}
+	}
+
+	private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+		private final Iterator<Node<K, V>> it = log.iterator();
+		private Node<K, V> next, last;
+
+		EntryIterator() {
+			advance();
+		}
+
+		private void advance() {
+			next = null;
+			while (it.hasNext()) {
+				Node<K, V> node = it.next();
+				if (!node.removed) {
+					next = node;
+					return;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			last = next;
+			advance();
+			return last;
+		}
+
+		@Override
+		public void remove() {
+			if (last == null) {
+				throw new IllegalStateException();
+			}
+			ConcurrentOrderedMap.this.remove(last);
+			last = null;
+		}
+	}
+
+	private static final class Node<K, V> implements Map.Entry<K, V> {
+		final K key;
+		volatile V value;
+		volatile boolean removed;
+
+		Node(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public K getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public V setValue(V value) {
+			Objects.requireNonNull(value);
+			V old = this.value;
+			this.value = value;
+			return old;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> other = (Map.Entry<?, ?>)obj;
+			return key.equals(other.getKey()) && value.equals(other.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return key.hashCode() ^ value.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+}
\ No newline at end of file
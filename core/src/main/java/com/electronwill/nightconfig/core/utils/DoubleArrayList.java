@@ -0,0 +1,131 @@
+package com.electronwill.nightconfig.core.utils;
+
+import java.util.Arrays;
+
+/**
+ * A list of doubles backed by a {@code double[]} array, which increases its capacity as necessary.
+ *
+ * @author TheElectronWill
+ */
+public final class DoubleArrayList extends NumberArrayList<Double> {
+	private double[] data;
+
+	/**
+	 * Creates a new empty DoubleArrayList.
+	 */
+	public DoubleArrayList() {
+		this(new double[8], 0);
+	}
+
+	/**
+	 * Creates a new DoubleArrayList containing a copy of the given values.
+	 *
+	 * @param values the values to copy
+	 */
+	public DoubleArrayList(double... values) {
+		this(values.clone(), values.length);
+	}
+
+	DoubleArrayList(double[] data, int size) {
+		super(size);
+		this.data = data;
+	}
+
+	/**
+	 * Returns the element at the specified position, without boxing it.
+	 *
+	 * @param index the index of the element
+	 * @return the element
+	 */
+	public double getDouble(int index) {
+		checkIndex(index);
+		return data[index];
+	}
+
+	/**
+	 * Replaces the element at the specified position.
+	 *
+	 * @param index the index of the element
+	 * @param value the new value
+	 * @return the previous value
+	 */
+	public double setDouble(int index, double value) {
+		checkModifiable();
+		checkIndex(index);
+		double previous = data[index];
+		data[index] = value;
+		return previous;
+	}
+
+	/**
+	 * Appends a value to the end of the list.
+	 *
+	 * @param value the value to add
+	 */
+	public void addDouble(double value) {
+		addDouble(size, value);
+	}
+
+	/**
+	 * Inserts a value at the specified position.
+	 *
+	 * @param index the position of the new element
+	 * @param value the value to insert
+	 */
+	public void addDouble(int index, double value) {
+		checkModifiable();
+		checkPositionIndex(index);
+		if (size == data.length) {
+			data = Arrays.copyOf(data, newCapacity(size, size + 1));
+		}
+		System.arraycopy(data, index, data, index + 1, size - index);
+		data[index] = value;
+		size++;
+		modCount++;
+	}
+
+	/**
+	 * @return a new array containing all the elements of the list
+	 */
+	public double[] toDoubleArray() {
+		return Arrays.copyOf(data, size);
+	}
+
+	@Override
+	public String elementToString(int index) {
+		return Double.toString(getDouble(index));
+	}
+
+	@Override
+	public Double get(int index) {
+		return getDouble(index);
+	}
+
+	@Override
+	public Double set(int index, Double element) {
+		return setDouble(index, element);
+	}
+
+	@Override
+	public void add(int index, Double element) {
+		addDouble(index, element);
+	}
+
+	@Override
+	public Double remove(int index) {
+		checkModifiable();
+		checkIndex(index);
+		double removed = data[index];
+		System.arraycopy(data, index + 1, data, index, size - index - 1);
+		size--;
+		modCount++;
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		checkModifiable();
+		size = 0;
+		modCount++;
+	}
+}
\ No newline at end of file
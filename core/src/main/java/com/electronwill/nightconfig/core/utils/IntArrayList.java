@@ -0,0 +1,131 @@
+package com.electronwill.nightconfig.core.utils;
+
+import java.util.Arrays;
+
+/**
+ * A list of integers backed by an {@code int[]} array, which increases its capacity as necessary.
+ *
+ * @author TheElectronWill
+ */
+public final class IntArrayList extends NumberArrayList<Integer> {
+	private int[] data;
+
+	/**
+	 * Creates a new empty IntArrayList.
+	 */
+	public IntArrayList() {
+		this(new int[8], 0);
+	}
+
+	/**
+	 * Creates a new IntArrayList containing a copy of the given values.
+	 *
+	 * @param values the values to copy
+	 */
+	public IntArrayList(int... values) {
+		this(values.clone(), values.length);
+	}
+
+	IntArrayList(int[] data, int size) {
+		super(size);
+		this.data = data;
+	}
+
+	/**
+	 * Returns the element at the specified position, without boxing it.
+	 *
+	 * @param index the index of the element
+	 * @return the element
+	 */
+	public int getInt(int index) {
+		checkIndex(index);
+		return data[index];
+	}
+
+	/**
+	 * Replaces the element at the specified position.
+	 *
+	 * @param index the index of the element
+	 * @param value the new value
+	 * @return the previous value
+	 */
+	public int setInt(int index, int value) {
+		checkModifiable();
+		checkIndex(index);
+		int previous = data[index];
+		data[index] = value;
+		return previous;
+	}
+
+	/**
+	 * Appends a value to the end of the list.
+	 *
+	 * @param value the value to add
+	 */
+	public void addInt(int value) {
+		addInt(size, value);
+	}
+
+	/**
+	 * Inserts a value at the specified position.
+	 *
+	 * @param index the position of the new element
+	 * @param value the value to insert
+	 */
+	public void addInt(int index, int value) {
+		checkModifiable();
+		checkPositionIndex(index);
+		if (size == data.length) {
+			data = Arrays.copyOf(data, newCapacity(size, size + 1));
+		}
+		System.arraycopy(data, index, data, index + 1, size - index);
+		data[index] = value;
+		size++;
+		modCount++;
+	}
+
+	/**
+	 * @return a new array containing all the elements of the list
+	 */
+	public int[] toIntArray() {
+		return Arrays.copyOf(data, size);
+	}
+
+	@Override
+	public String elementToString(int index) {
+		return Integer.toString(getInt(index));
+	}
+
+	@Override
+	public Integer get(int index) {
+		return getInt(index);
+	}
+
+	@Override
+	public Integer set(int index, Integer element) {
+		return setInt(index, element);
+	}
+
+	@Override
+	public void add(int index, Integer element) {
+		addInt(index, element);
+	}
+
+	@Override
+	public Integer remove(int index) {
+		checkModifiable();
+		checkIndex(index);
+		int removed = data[index];
+		System.arraycopy(data, index + 1, data, index, size - index - 1);
+		size--;
+		modCount++;
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		checkModifiable();
+		size = 0;
+		modCount++;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.electronwill.nightconfig.core.utils;
+
+import java.util.Arrays;
+
+/**
+ * A list of longs backed by a {@code long[]} array, which increases its capacity as necessary.
+ *
+ * @author TheElectronWill
+ */
+public final class LongArrayList extends NumberArrayList<Long> {
+	private long[] data;
+
+	/**
+	 * Creates a new empty LongArrayList.
+	 */
+	public LongArrayList() {
+		this(new long[8], 0);
+	}
+
+	/**
+	 * Creates a new LongArrayList containing a copy of the given values.
+	 *
+	 * @param values the values to copy
+	 */
+	public LongArrayList(long... values) {
+		this(values.clone(), values.length);
+	}
+
+	LongArrayList(long[] data, int size) {
+		super(size);
+		this.data = data;
+	}
+
+	/**
+	 * Returns the element at the specified position, without boxing it.
+	 *
+	 * @param index the index of the element
+	 * @return the element
+	 */
+	public long getLong(int index) {
+		checkIndex(index);
+		return data[index];
+	}
+
+	/**
+	 * Replaces the element at the specified position.
+	 *
+	 * @param index the index of the element
+	 * @param value the new value
+	 * @return the previous value
+	 */
+	public long setLong(int index, long value) {
+		checkModifiable();
+		checkIndex(index);
+		long previous = data[index];
+		data[index] = value;
+		return previous;
+	}
+
+	/**
+	 * Appends a value to the end of the list.
+	 *
+	 * @param value the value to add
+	 */
+	public void addLong(long value) {
+		addLong(size, value);
+	}
+
+	/**
+	 * Inserts a value at the specified position.
+	 *
+	 * @param index the position of the new element
+	 * @param value the value to insert
+	 */
+	public void addLong(int index, long value) {
+		checkModifiable();
+		checkPositionIndex(index);
+		if (size == data.length) {
+			data = Arrays.copyOf(data, newCapacity(size, size + 1));
+		}
+		System.arraycopy(data, index, data, index + 1, size - index);
+		data[index] = value;
+		size++;
+		modCount++;
+	}
+
+	/**
+	 * @return a new array containing all the elements of the list
+	 */
+	public long[] toLongArray() {
+		return Arrays.copyOf(data, size);
+	}
+
+	@Override
+	public String elementToString(int index) {
+		return Long.toString(getLong(index));
+	}
+
+	@Override
+	public Long get(int index) {
+		return getLong(index);
+	}
+
+	@Override
+	public Long set(int index, Long element) {
+		return setLong(index, element);
+	}
+
+	@Override
+	public void add(int index, Long element) {
+		addLong(index, element);
+	}
+
+	@Override
+	public Long remove(int index) {
+		checkModifiable();
+		checkIndex(index);
+		long removed = data[index];
+		System.arraycopy(data, index + 1, data, index, size - index - 1);
+		size--;
+		modCount++;
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		checkModifiable();
+		size = 0;
+		modCount++;
+	}
+}
\ No newline at end of file
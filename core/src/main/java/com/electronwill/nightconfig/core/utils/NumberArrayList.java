@@ -0,0 +1,207 @@
+package com.electronwill.nightconfig.core.utils;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A list of numbers that is backed by an array of primitive values, instead of an array of
+ * boxed numbers. This uses much less memory than an {@link ArrayList} of Integers, Longs or
+ * Doubles, especially for big lists.
+ * <p>
+ * The values are boxed when they are read with the List methods, use the specialized methods of
+ * the subclasses (like {@link IntArrayList#getInt(int)}) to avoid that. A list can be made
+ * unmodifiable with {@link #freeze()}.
+ *
+ * @param <E> the type of the numbers
+ * @author TheElectronWill
+ * @see IntArrayList
+ * @see LongArrayList
+ * @see DoubleArrayList
+ */
+public abstract class NumberArrayList<E extends Number> extends AbstractList<E> implements RandomAccess {
+	/**
+	 * The number of elements in the list.
+	 */
+	int size;
+
+	/**
+	 * True if the list can't be modified anymore.
+	 */
+	private boolean frozen;
+
+	NumberArrayList(int size) {
+		this.size = size;
+	}
+
+	/**
+	 * Makes this list unmodifiable: after this method has been called, all the methods that
+	 * would modify the list throw an {@link UnsupportedOperationException}. Unlike
+	 * {@link java.util.Collections#unmodifiableList(List)}, the frozen list keeps its type, and
+	 * its elements can still be read without boxing.
+	 *
+	 * @return this list
+	 */
+	public final NumberArrayList<E> freeze() {
+		frozen = true;
+		return this;
+	}
+
+	/**
+	 * @return true if the list has been frozen by {@link #freeze()}, false otherwise
+	 */
+	public final boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Returns the String representation of the element at the specified position, without
+	 * boxing it. The result is the same as {@code String.valueOf(get(index))}.
+	 *
+	 * @param index the index of the element
+	 * @return the element as a String
+	 */
+	public abstract String elementToString(int index);
+
+	@Override
+	public final int size() {
+		return size;
+	}
+
+	final void checkModifiable() {
+		if (frozen) {
+			throw new UnsupportedOperationException("This list is frozen");
+		}
+	}
+
+	final void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	final void checkPositionIndex(int index) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	static int newCapacity(int oldCapacity, int minCapacity) {
+		int capacity = oldCapacity + (oldCapacity >> 1) + 1;
+		return Math.max(capacity, minCapacity);
+	}
+
+	/**
+	 * Builds a list from a sequence of values. If all the values are integers, or if they are
+	 * all doubles, the list is an {@link IntArrayList}, a {@link LongArrayList} or a
+	 * {@link DoubleArrayList}. Otherwise, the values are put in a fallback list.
+	 * <p>
+	 * The integers are stored in an IntArrayList if they all fit in an int, or in a LongArrayList
+	 * if at least one of them doesn't. If the values end up in the fallback list, the integers
+	 * that fit in an int are given as Integers.
+	 */
+	public static final class Builder {
+		private final List<Object> fallback;
+		private boolean useFallback;
+		private int[] ints;
+		private long[] longs;
+		private double[] doubles;
+		private int size;
+
+		/**
+		 * Creates a new Builder that uses a new ArrayList if the values aren't homogeneous numbers.
+		 */
+		public Builder() {
+			this(new ArrayList<>());
+		}
+
+		/**
+		 * Creates a new Builder with the list to use if the values aren't homogeneous numbers.
+		 * The fallback list is also returned by {@link #build()} if there is no value.
+		 *
+		 * @param fallback an empty list
+		 */
+		public Builder(List<Object> fallback) {
+			this.fallback = fallback;
+		}
+
+		/**
+		 * Adds a value to the list.
+		 *
+		 * @param value the value to add
+		 */
+		public void add(Object value) {
+			if (useFallback) {
+				fallback.add(value);
+			} else if (value instanceof Integer && longs == null && doubles == null) {
+				if (ints == null) {
+					ints = new int[8];
+				} else if (size == ints.length) {
+					ints = Arrays.copyOf(ints, newCapacity(size, size + 1));
+				}
+				ints[size++] = (Integer)value;
+			} else if ((value instanceof Integer || value instanceof Long) && doubles == null) {
+				if (longs == null) {
+					longs = new long[(ints == null) ? 8 : newCapacity(ints.length, size + 1)];
+					for (int i = 0; i < size; i++) {
+						longs[i] = ints[i];
+					}
+					ints = null;
+				} else if (size == longs.length) {
+					longs = Arrays.copyOf(longs, newCapacity(size, size + 1));
+				}
+				longs[size++] = ((Number)value).longValue();
+			} else if (value instanceof Double && ints == null && longs == null) {
+				if (doubles == null) {
+					doubles = new double[8];
+				} else if (size == doubles.length) {
+					doubles = Arrays.copyOf(doubles, newCapacity(size, size + 1));
+				}
+				doubles[size++] = (Double)value;
+			} else {
+				moveToFallback();
+				fallback.add(value);
+			}
+		}
+
+		private void moveToFallback() {
+			for (int i = 0; i < size; i++) {
+				if (ints != null) {
+					fallback.add(ints[i]);
+				} else if (longs != null) {
+					long l = longs[i];
+					int small = (int)l;
+					fallback.add((small == l) ? (Object)small : (Object)l);
+				} else {
+					fallback.add(doubles[i]);
+				}
+			}
+			ints = null;
+			longs = null;
+			doubles = null;
+			useFallback = true;
+		}
+
+		/**
+		 * Returns the built list. The Builder must not be used after this method has been called.
+		 *
+		 * @return a NumberArrayList, or the fallback list
+		 */
+		@SuppressWarnings("unchecked")
+		public <T> List<T> build() {
+			List<?> result;
+			if (ints != null) {
+				result = new IntArrayList(ints, size);
+			} else if (longs != null) {
+				result = new LongArrayList(longs, size);
+			} else if (doubles != null) {
+				result = new DoubleArrayList(doubles, size);
+			} else {
+				result = fallback;
+			}
+			return (List<T>)result;
+		}
+	}
+}
\ No newline at end of file
@@ -38,6 +38,10 @@ public final class TransformingMap<K, InternalV, ExternalV> extends AbstractMap<
 	private final Function<Object, Object> searchTransformation;
 	private final Map<K, InternalV> internalMap;
 
+	// the views are created once, like the ones of the standard maps
+	private Collection<ExternalV> values;
+	private Set<Map.Entry<K, ExternalV>> entrySet;
+
 	/**
 	 * Create a new TransformingMap.
 	 *
@@ -109,12 +113,26 @@ public final class TransformingMap<K, InternalV, ExternalV> extends AbstractMap<
 
 	@Override
 	public Collection<ExternalV> values() {
-		return new TransformingCollection<>(internalMap.values(), readTransformation,
-											writeTransformation, searchTransformation);
+		Collection<ExternalV> view = values;
+		if (view == null) {
+			view = new TransformingCollection<>(internalMap.values(), readTransformation,
+												writeTransformation, searchTransformation);
+			values = view;
+		}
+		return view;
 	}
 
 	@Override
 	public Set<Map.Entry<K, ExternalV>> entrySet() {
+		Set<Map.Entry<K, ExternalV>> view = entrySet;
+		if (view == null) {
+			view = createEntrySet();
+			entrySet = view;
+		}
+		return view;
+	}
+
+	private Set<Map.Entry<K, ExternalV>> createEntrySet() {
 		Function<Entry<K, InternalV>, Entry<K, ExternalV>> internalToExternal = internalEntry -> new TransformingMapEntry<>(
 				internalEntry, readTransformation, writeTransformation);
 
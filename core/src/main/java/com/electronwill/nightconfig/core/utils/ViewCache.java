@@ -0,0 +1,62 @@
+package com.electronwill.nightconfig.core.utils;
+
+import java.util.function.Function;
+
+/**
+ * Caches a view of an object, for instance a TransformingMap around the valueMap of a config, so
+ * that the wrappers don't create a new view each time they're called.
+ * <p>
+ * The view is only valid for the object it has been created with. If a different object is
+ * given, which happens with the configs that return a new map from each call to
+ * {@code valueMap()}, the cache is disabled and a new view is created each time.
+ *
+ * @param <S> the type of the object
+ * @param <V> the type of the view
+ * @author TheElectronWill
+ */
+public final class ViewCache<S, V> {
+	private final Function<? super S, ? extends V> viewCreator;
+	private volatile Cached<S, V> cached;
+	private volatile boolean disabled;
+
+	/**
+	 * Creates a new ViewCache.
+	 *
+	 * @param viewCreator the function that creates a view of an object
+	 */
+	public ViewCache(Function<? super S, ? extends V> viewCreator) {
+		this.viewCreator = viewCreator;
+	}
+
+	/**
+	 * Returns the view of an object. It is created if needed.
+	 *
+	 * @param source the object
+	 * @return the view of the object
+	 */
+	public V get(S source) {
+		Cached<S, V> c = cached;
+		if (c != null && c.source == source) {
+			return c.view;
+		}
+		V view = viewCreator.apply(source);
+		if (c == null && !disabled) {
+			cached = new Cached<>(source, view);
+		} else if (c != null) {
+			// the object has changed: it may change at each call, stop caching
+			disabled = true;
+			cached = null;
+		}
+		return view;
+	}
+
+	private static final class Cached<S, V> {
+		final S source;
+		final V view;
+
+		Cached(S source, V view) {
+			this.source = source;
+			this.view = view;
+		}
+	}
+}
\ No newline at end of file
@@ -8,7 +8,6 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.RecordComponent;
 
 import com.electronwill.nightconfig.core.UnmodifiableConfig;
@@ -45,16 +44,7 @@ final class ConfigToPojoDeserializer
 	private Object deserializeToNormalClass(UnmodifiableConfig value, Class<?> cls,
 			DeserializerContext ctx) {
 
-		Object instance;
-		try {
-			Constructor<?> constructor = cls.getDeclaredConstructor();
-			if (!Modifier.isPublic(constructor.getModifiers())) {
-				constructor.setAccessible(true);
-			}
-			instance = constructor.newInstance();
-		} catch (Exception e) {
-			throw new SerdeException("Failed to create an instance of " + cls, e);
-		}
+		Object instance = FieldPlan.newInstance(cls);
 		ctx.deserializeFields(value, instance);
 		return instance;
 	}
@@ -0,0 +1,45 @@
+package com.electronwill.nightconfig.core;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author TheElectronWill
+ */
+public class CheckedConfigTest {
+
+	@Test
+	public void cachedViews() {
+		InMemoryFormat format = InMemoryFormat.withSupport(type -> type != Thread.class);
+		Config config = format.createConfig().checked();
+		config.set("a", 1);
+		config.set("b.c", "str");
+		assertSame(config.valueMap(), config.valueMap());
+		assertSame(config.entrySet(), config.entrySet());
+
+		// the cached views still check the values
+		Map<String, Object> map = config.valueMap();
+		assertThrows(IllegalArgumentException.class, () -> map.put("t", Thread.currentThread()));
+		assertThrows(IllegalArgumentException.class, () -> config.set("t", Thread.currentThread()));
+		map.put("d", 4);
+		assertEquals(4, (int)config.get("d"));
+
+		AtomicInteger count = new AtomicInteger();
+		config.valueMap().forEach((k, v) -> count.incrementAndGet());
+		assertEquals(3, count.get());
+	}
+
+	@Test
+	public void checkedAtCreation() {
+		InMemoryFormat format = InMemoryFormat.withSupport(type -> type != Thread.class);
+		Config config = format.createConfig();
+		config.set("a.b", 1);
+		config.checked();
+		config.set("a.t", Thread.currentThread());
+		assertThrows(IllegalArgumentException.class, config::checked);
+	}
+}
@@ -0,0 +1,109 @@
+package com.electronwill.nightconfig.core;
+
+import com.electronwill.nightconfig.core.utils.CompactHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author TheElectronWill
+ */
+public class CompactHashMapTest {
+
+	@Test
+	public void testSameAsLinkedHashMap() {
+		Random random = new Random(42);
+		for (int maxKeys : new int[] { 4, 8, 9, 50, 1000 }) {
+			Map<String, Integer> expected = new LinkedHashMap<>();
+			Map<String, Integer> map = new CompactHashMap<>();
+			for (int i = 0; i < 5000; i++) {
+				String key = "key" + random.nextInt(maxKeys);
+				int op = random.nextInt(4);
+				if (op == 0) {
+					assertEquals(expected.remove(key), map.remove(key));
+				} else if (op == 1) {
+					assertEquals(expected.get(key), map.get(key));
+					assertEquals(expected.containsKey(key), map.containsKey(key));
+				} else {
+					assertEquals(expected.put(key, i), map.put(key, i));
+				}
+				assertEquals(expected.size(), map.size());
+			}
+			assertEquals(expected, map);
+			assertEquals(map, expected);
+			assertEquals(expected.hashCode(), map.hashCode());
+			assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+		}
+	}
+
+	@Test
+	public void testRemovals() {
+		Map<String, Integer> expected = new LinkedHashMap<>();
+		Map<String, Integer> map = new CompactHashMap<>();
+		for (int round = 0; round < 3; round++) {
+			for (int i = 0; i < 1000; i++) {
+				expected.put("key" + i, i);
+				map.put("key" + i, i);
+			}
+			// removes the entries one by one, from the beginning and from the middle
+			for (int i = 0; i < 1000; i += 2) {
+				assertEquals(i, (int)map.remove("key" + i));
+				expected.remove("key" + i);
+			}
+			assertFalse(map.containsValue(null));
+			assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+			for (int i = 0; i < 1000; i += 3) {
+				assertEquals(expected.get("key" + i), map.get("key" + i));
+			}
+			for (int i = 1; i < 1000; i += 2) {
+				map.remove("key" + i);
+				expected.remove("key" + i);
+			}
+			assertTrue(map.isEmpty());
+			assertFalse(map.entrySet().iterator().hasNext());
+		}
+	}
+
+	@Test
+	public void testIterator() {
+		Map<String, Object> map = new CompactHashMap<>();
+		for (int i = 0; i < 20; i++) {
+			map.put("key" + i, i);
+		}
+		map.put(null, null);
+		assertTrue(map.containsKey(null));
+		for (Iterator<Map.Entry<String, Object>> it = map.entrySet().iterator(); it.hasNext(); ) {
+			Map.Entry<String, Object> entry = it.next();
+			if (entry.getValue() == null || (Integer)entry.getValue() % 2 == 0) {
+				it.remove();
+			} else {
+				entry.setValue("odd");
+			}
+		}
+		assertEquals(10, map.size());
+		assertEquals("odd", map.get("key1"));
+		assertFalse(map.containsKey("key2"));
+		assertFalse(map.containsKey(null));
+	}
+
+	@Test
+	public void testCompactConfig() {
+		Config.setCompactMapUsed(true);
+		try {
+			Config config = Config.inMemory();
+			config.set("a.b.c", 1);
+			config.set("a.d", 2);
+			assertEquals(1, config.<Integer>get("a.b.c"));
+			assertTrue(config.valueMap() instanceof CompactHashMap);
+			assertTrue(config.<Config>get("a").valueMap() instanceof CompactHashMap);
+		} finally {
+			Config.setCompactMapUsed(false);
+		}
+	}
+}
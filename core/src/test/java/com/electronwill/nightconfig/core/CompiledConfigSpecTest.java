@@ -0,0 +1,189 @@
+package com.electronwill.nightconfig.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import com.electronwill.nightconfig.core.concurrent.ConcurrentCommentedConfig;
+import com.electronwill.nightconfig.core.concurrent.StampedConfig;
+import com.electronwill.nightconfig.core.concurrent.SynchronizedConfig;
+import com.electronwill.sharedtests.TestEnum;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author TheElectronWill
+ */
+public class CompiledConfigSpecTest {
+
+	private static ConfigSpec createSpec() {
+		ConfigSpec spec = new ConfigSpec();
+		spec.define("a.b.string", "");
+		spec.define("a.b.int", 20);
+		spec.defineInRange("a.i", 0, -20, 20);
+		spec.defineInRange("a.l", 0L, -20L, 20L);
+		spec.defineInRange("a.f", 0.1f, -0.2f, 0.2f);
+		spec.defineInRange("a.d", 0.1, -0.1, 0.2);
+		spec.defineInList("a.s", "default", Arrays.asList("a", "b", "c", "default"));
+		spec.defineList("a.list", Arrays.asList("1", "2"), element -> element instanceof String);
+		spec.defineRestrictedEnum("a.enum", TestEnum.A, Arrays.asList(TestEnum.A, TestEnum.B),
+			EnumGetMethod.ORDINAL_OR_NAME_IGNORECASE);
+		return spec;
+	}
+
+	private static Config createIncorrectConfig() {
+		Config config = Config.inMemory();
+		config.set("a.b", "not a config");
+		config.set("a.i", 18L);// Long in an Integer range: incorrect
+		config.set("a.l", 12);// Integer in a Long range: incorrect too
+		config.set("a.f", 0.15);// Double in a Float range: correct
+		config.set("a.d", 1);// Integer in a Double range: incorrect
+		config.set("a.s", "value");
+		config.set("a.list", Arrays.asList("hey", false));
+		config.set("a.enum", "C");
+		config.set("a.unspecified", 0);
+		config.set("unspecified", Collections.emptyList());
+		return config;
+	}
+
+	@Test
+	public void sameCorrectionsAsConfigSpec() {
+		ConfigSpec spec = createSpec();
+		CompiledConfigSpec compiled = spec.compile();
+
+		Config expected = createIncorrectConfig();
+		Config actual = createIncorrectConfig();
+		assertFalse(spec.isCorrect(expected));
+		assertFalse(compiled.isCorrect(actual));
+
+		Set<String> expectedCorrections = new HashSet<>();
+		Set<String> actualCorrections = new HashSet<>();
+		int expectedCount = spec.correct(expected, (action, path, incorrectValue, correctedValue) ->
+			expectedCorrections.add(action + " " + path + " " + incorrectValue + " " + correctedValue));
+		int actualCount = compiled.correct(actual, (action, path, incorrectValue, correctedValue) ->
+			actualCorrections.add(action + " " + path + " " + incorrectValue + " " + correctedValue));
+
+		assertEquals(expectedCount, actualCount);
+		assertEquals(expectedCorrections, actualCorrections);
+		assertEquals(expected, actual);
+		assertTrue(compiled.isCorrect(actual));
+		assertTrue(spec.isCorrect(actual));
+		assertEquals(0, compiled.correct(actual));
+	}
+
+	@Test
+	public void parallelCorrection() {
+		ConfigSpec spec = new ConfigSpec();
+		for (int i = 0; i < 8; i++) {
+			for (int j = 0; j < CompiledConfigSpec.PARALLEL_THRESHOLD; j++) {
+				spec.defineInRange(Arrays.asList("level" + i, "value" + j), j, 0, 1000);
+			}
+		}
+		CompiledConfigSpec compiled = spec.compile();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Config config = Config.inMemory();
+			assertFalse(compiled.isCorrect(config, pool));
+			int count = compiled.correct(config, (action, path, incorrectValue, correctedValue) -> {}, pool);
+			assertEquals(8 + 8 * CompiledConfigSpec.PARALLEL_THRESHOLD, count);
+			assertTrue(compiled.isCorrect(config, pool));
+			assertTrue(spec.isCorrect(config));
+
+			config.set("level3.value7", 1001);
+			assertFalse(compiled.isCorrect(config, pool));
+			assertEquals(1, compiled.correct(config, (action, path, incorrectValue, correctedValue) -> {}, pool));
+			assertEquals(7, (int)config.get("level3.value7"));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void attachedToStampedConfig() {
+		testAttached(new StampedConfig());
+	}
+
+	@Test
+	public void attachedToSynchronizedConfig() {
+		testAttached(new SynchronizedConfig());
+	}
+
+	private static void testAttached(ConcurrentCommentedConfig base) {
+		base.set("a.i", 100);
+		List<String> corrections = new ArrayList<>();
+		ConcurrentCommentedConfig config = createSpec().compile().attach(base,
+			(action, path, incorrectValue, correctedValue) ->
+				corrections.add(action + " " + String.join(".", path)));
+
+		// existing values are corrected
+		assertEquals(0, (int)config.get("a.i"));
+		assertEquals(20, (int)config.get("a.b.int"));
+		assertTrue(corrections.contains("REPLACE a.i"));
+		assertTrue(corrections.contains("ADD a.b.int"));
+
+		// only the modified entries are corrected
+		corrections.clear();
+		config.set("a.i", 10);
+		assertEquals(10, (int)config.get("a.i"));
+		assertTrue(corrections.isEmpty());
+
+		config.set("a.i", 21);
+		assertEquals(0, (int)config.get("a.i"));
+		assertEquals(Collections.singletonList("REPLACE a.i"), corrections);
+
+		corrections.clear();
+		config.set("a.unspecified", true);
+		assertFalse(config.contains("a.unspecified"));
+		assertEquals(Collections.singletonList("REMOVE a.unspecified"), corrections);
+
+		corrections.clear();
+		config.remove("a.s");
+		assertEquals("default", config.get("a.s"));
+		assertEquals(Collections.singletonList("ADD a.s"), corrections);
+
+		corrections.clear();
+		config.set("a.b", "not a config");
+		assertTrue(config.get("a.b") instanceof Config);
+		assertEquals("", config.get("a.b.string"));
+		assertEquals(20, (int)config.get("a.b.int"));
+
+		// the modifications made in a bulk update are corrected before the update ends
+		corrections.clear();
+		long fromView = config.bulkUpdate(view -> {
+			view.set("a.l", 100L);
+			view.set("a.d", 0.15);
+			view.set("a.enum", TestEnum.C);
+			return view.get("a.l");
+		});
+		assertEquals(100L, fromView);
+		assertEquals(0L, (long)config.get("a.l"));
+		assertEquals(0.15, (double)config.get("a.d"));
+		assertEquals(TestEnum.A, config.get("a.enum"));
+		assertEquals(new HashSet<>(Arrays.asList("REPLACE a.l", "REPLACE a.enum")),
+			new HashSet<>(corrections));
+
+		// the modifications made through valueMap() are corrected
+		corrections.clear();
+		Map<String, Object> valueMap = config.valueMap();
+		valueMap.put("a", "not a config");
+		assertEquals(0, (int)config.get("a.i"));
+		valueMap.remove("a");
+		assertEquals("default", config.get("a.s"));
+		for (Map.Entry<String, Object> entry : valueMap.entrySet()) {
+			entry.setValue(12);
+		}
+		assertTrue(config.get("a") instanceof Config);
+		assertFalse(corrections.isEmpty());
+
+		// clear corrects everything
+		config.clear();
+		assertEquals(0, (int)config.get("a.i"));
+		assertEquals("default", config.get("a.s"));
+	}
+}
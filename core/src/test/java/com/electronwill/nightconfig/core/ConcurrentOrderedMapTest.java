@@ -0,0 +1,99 @@
+package com.electronwill.nightconfig.core;
+
+import com.electronwill.nightconfig.core.concurrent.StampedConfig;
+import com.electronwill.nightconfig.core.utils.ConcurrentOrderedMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author TheElectronWill
+ */
+public class ConcurrentOrderedMapTest {
+
+	@Test
+	public void testOrder() {
+		Map<String, Integer> map = new ConcurrentOrderedMap<>();
+		map.put("c", 1);
+		map.put("a", 2);
+		map.put("b", 3);
+		map.put("a", 4);// replacing doesn't move the entry
+		assertEquals(Arrays.asList("c", "a", "b"), new ArrayList<>(map.keySet()));
+		assertEquals(4, map.get("a"));
+
+		map.remove("c");
+		map.put("c", 5);// removing and putting again moves the entry to the end
+		assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(map.keySet()));
+		assertEquals(3, map.size());
+
+		for (Iterator<String> it = map.keySet().iterator(); it.hasNext(); ) {
+			if (it.next().equals("b")) {
+				it.remove();
+			}
+		}
+		assertEquals(Arrays.asList("a", "c"), new ArrayList<>(map.keySet()));
+		assertEquals(4, map.putIfAbsent("a", 6));
+		assertFalse(map.remove("a", 6));
+		assertTrue(map.remove("a", 4));
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertFalse(map.entrySet().iterator().hasNext());
+	}
+
+	@Test
+	public void testConcurrentWrites() throws InterruptedException {
+		Map<String, Integer> map = new ConcurrentOrderedMap<>();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		for (int t = 0; t < 4; t++) {
+			final int thread = t;
+			executor.execute(() -> {
+				for (int i = 0; i < 1000; i++) {
+					String key = thread + "-" + i;
+					map.put(key, i);
+					if (i % 3 == 0) {
+						map.remove(key);
+					}
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals(4 * 666, map.size());
+
+		// each thread's keys are in the order of their insertion
+		int[] lastIndex = { -1, -1, -1, -1 };
+		int count = 0;
+		for (Map.Entry<String, Integer> entry : map.entrySet()) {
+			int thread = entry.getKey().charAt(0) - '0';
+			assertTrue(entry.getValue() > lastIndex[thread]);
+			lastIndex[thread] = entry.getValue();
+			count++;
+		}
+		assertEquals(map.size(), count);
+	}
+
+	@Test
+	public void testOrderedConcurrentConfig() {
+		StampedConfig config = new StampedConfig(InMemoryCommentedFormat.defaultInstance(),
+			ConcurrentOrderedMap::new);
+		config.set("z", 1);
+		config.set("y.b", 2);
+		config.set("y.a", 3);
+		config.set("x", 4);
+		List<String> keys = new ArrayList<>();
+		for (UnmodifiableConfig.Entry entry : config.entrySet()) {
+			keys.add(entry.getKey());
+		}
+		assertEquals(Arrays.asList("z", "y", "x"), keys);
+		assertEquals(3, config.<Integer>get("y.a"));
+	}
+}
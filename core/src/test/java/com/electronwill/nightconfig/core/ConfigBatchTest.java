@@ -0,0 +1,203 @@
+package com.electronwill.nightconfig.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import com.electronwill.nightconfig.core.concurrent.ConcurrentConfig;
+import com.electronwill.nightconfig.core.concurrent.ConfigBatch;
+import com.electronwill.nightconfig.core.concurrent.StampedConfig;
+import com.electronwill.nightconfig.core.concurrent.SynchronizedConfig;
+import org.junit.jupiter.api.Test;
+
+import static com.electronwill.nightconfig.core.NullObject.NULL_OBJECT;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author TheElectronWill
+ */
+public class ConfigBatchTest {
+
+	private static ConfigBatch createBatch() {
+		return new ConfigBatch()
+			.set("a.b.c", 1)
+			.set("a.b.d", "d")
+			.set("a.e", null)
+			.set("top", true)
+			.remove("a.old")
+			.remove("missing.x")
+			.set("a.b.c", 2);// replaces the first modification of a.b.c
+	}
+
+	private static void fill(Config config) {
+		config.set("a.old", "old");
+		config.set("a.b.d", "d");
+		config.set("unmodified", 0);
+	}
+
+	@Test
+	public void applyToStampedConfig() {
+		testApply(new StampedConfig());
+	}
+
+	@Test
+	public void applyToSynchronizedConfig() {
+		testApply(new SynchronizedConfig());
+	}
+
+	@Test
+	public void applyToConfig() {
+		Config config = Config.inMemory();
+		fill(config);
+		List<ConfigBatch.Change> changes = createBatch().applyTo(config);
+		checkResult(config, changes);
+	}
+
+	private static void testApply(ConcurrentConfig config) {
+		fill(config);
+		List<ConfigBatch.Change> changes = config.apply(createBatch());
+		checkResult(config, changes);
+		assertTrue(config.apply(createBatch()).isEmpty());
+	}
+
+	private static void checkResult(Config config, List<ConfigBatch.Change> changes) {
+		assertEquals(6, createBatch().size());
+		assertEquals(2, (int)config.get("a.b.c"));
+		assertEquals("d", config.get("a.b.d"));
+		assertTrue(config.contains("a.e"));
+		assertNull(config.get("a.e"));
+		assertTrue(config.<Boolean>get("top"));
+		assertFalse(config.contains("a.old"));
+		assertFalse(config.contains("missing"));
+		assertEquals(0, (int)config.get("unmodified"));
+
+		Set<String> actual = new HashSet<>();
+		for (ConfigBatch.Change change : changes) {
+			actual.add(String.join(".", change.getPath()) + " " + change.getOldValue() + " -> " + change.getNewValue());
+		}
+		Set<String> expected = new HashSet<>(Arrays.asList(
+			"a.b.c null -> 2",
+			"a.e null -> " + NULL_OBJECT,
+			"top null -> true",
+			"a.old old -> null"));
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void modificationOrder() {
+		StampedConfig config = new StampedConfig();
+		config.set("a.x", 1);
+		config.apply(new ConfigBatch().remove("a").set("a.b", 2));
+		assertFalse(config.contains("a.x"));
+		assertEquals(2, (int)config.get("a.b"));
+
+		ConfigBatch batch = new ConfigBatch().set("a.b", 1).set("a.c.d", 1).set("a", 5);
+		assertEquals(1, batch.size());
+		config.apply(batch);
+		assertEquals(5, (int)config.get("a"));
+		config.apply(new ConfigBatch().set("a.b", 3).remove("a"));
+		assertFalse(config.contains("a"));
+		assertThrows(IllegalArgumentException.class, () -> new ConfigBatch().set("a", 5).set("a.b", 1));
+		assertThrows(IllegalArgumentException.class, () -> new ConfigBatch().set("a", null).set("a.b", 1));
+
+		config.set("value", "not a config");
+		assertThrows(IncompatibleIntermediaryLevelException.class,
+			() -> config.apply(new ConfigBatch().set("value.sub", 0)));
+		assertEquals("not a config", config.get("value"));
+		// a sub-level that contains only removals is not created
+		config.apply(new ConfigBatch().remove("value.sub").remove("new.sub"));
+		assertFalse(config.contains("new"));
+	}
+
+	@Test
+	public void incompatibleLevelModifiesNothing() {
+		testIncompatibleLevel(new StampedConfig());
+		testIncompatibleLevel(new SynchronizedConfig());
+		Config config = Config.inMemory();
+		fillIncompatible(config);
+		assertThrows(IncompatibleIntermediaryLevelException.class, () -> incompatibleBatch().applyTo(config));
+		checkUnmodified(config);
+	}
+
+	private static ConfigBatch incompatibleBatch() {
+		return new ConfigBatch().set("top", 1).set("a.x", 1).set("new.x", 1).set("a.b.value.sub", 0);
+	}
+
+	private static void fillIncompatible(Config config) {
+		config.set("top", 0);
+		config.set("a.b.value", "not a config");
+	}
+
+	private static void testIncompatibleLevel(ConcurrentConfig config) {
+		fillIncompatible(config);
+		assertThrows(IncompatibleIntermediaryLevelException.class, () -> config.apply(incompatibleBatch()));
+		checkUnmodified(config);
+		// the locks have been released
+		config.apply(new ConfigBatch().set("a.x", 2));
+		assertEquals(2, (int)config.get("a.x"));
+	}
+
+	private static void checkUnmodified(Config config) {
+		assertEquals(0, (int)config.get("top"));
+		assertFalse(config.contains("a.x"));
+		assertFalse(config.contains("new"));
+		assertEquals("not a config", config.get("a.b.value"));
+	}
+
+	@Test
+	public void atomicApplication() throws InterruptedException {
+		StampedConfig config = new StampedConfig();
+		ConfigBatch batch = new ConfigBatch();
+		for (int i = 0; i < 1000; i++) {
+			batch.set(Arrays.asList("level" + (i % 10), "value" + i), i);
+		}
+		CountDownLatch start = new CountDownLatch(1);
+		List<Throwable> errors = new ArrayList<>();
+		Thread reader = new Thread(() -> {
+			try {
+				start.await();
+				for (int n = 0; n < 100; n++) {
+					int count = config.bulkRead(view -> {
+						int c = 0;
+						for (int i = 0; i < 10; i++) {
+							Config level = view.get("level" + i);
+							c += (level == null) ? 0 : level.size();
+						}
+						return c;
+					});
+					assertTrue(count == 0 || count == 1000, "partial batch: " + count);
+				}
+			} catch (Throwable t) {
+				synchronized (errors) {
+					errors.add(t);
+				}
+			}
+		});
+		reader.start();
+		start.countDown();
+		assertEquals(1000, config.apply(batch).size());
+		reader.join();
+		assertEquals(Arrays.asList(), errors);
+		assertEquals(999, (int)config.get("level9.value999"));
+	}
+
+	@Test
+	public void specCorrected() {
+		ConfigSpec spec = new ConfigSpec();
+		spec.defineInRange("a.i", 0, 0, 10);
+		spec.define("a.s", "default");
+		List<String> corrections = new ArrayList<>();
+		ConcurrentConfig config = spec.compile().attach(new StampedConfig(),
+			(action, path, incorrectValue, correctedValue) -> corrections.add(action + " " + String.join(".", path)));
+		corrections.clear();
+
+		List<ConfigBatch.Change> changes = config.apply(new ConfigBatch().set("a.i", 100).remove("a.s"));
+		assertEquals(2, changes.size());
+		assertEquals(0, (int)config.get("a.i"));
+		assertEquals("default", config.get("a.s"));
+		assertEquals(new HashSet<>(Arrays.asList("REPLACE a.i", "ADD a.s")), new HashSet<>(corrections));
+	}
+}
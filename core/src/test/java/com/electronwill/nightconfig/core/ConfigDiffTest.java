@@ -0,0 +1,204 @@
+package com.electronwill.nightconfig.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.electronwill.nightconfig.core.concurrent.StampedConfig;
+import com.electronwill.nightconfig.core.concurrent.SynchronizedConfig;
+import com.electronwill.nightconfig.core.utils.UnmodifiableConfigWrapper;
+import org.junit.jupiter.api.Test;
+
+import static com.electronwill.nightconfig.core.NullObject.NULL_OBJECT;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author TheElectronWill
+ */
+public class ConfigDiffTest {
+
+	private static CommentedConfig createBefore() {
+		CommentedConfig config = CommentedConfig.inMemory();
+		config.set("same.x", 1);
+		config.set("a.changed", "old");
+		config.set("a.removed", true);
+		config.set("a.nulled", 0);
+		config.set("level", "not a config");
+		config.set("gone.x", 1);
+		config.setComment("a.changed", "old comment");
+		config.setComment("same", "same comment");
+		return config;
+	}
+
+	private static CommentedConfig createAfter() {
+		CommentedConfig config = CommentedConfig.inMemory();
+		config.set("same.x", 1);
+		config.set("a.changed", "new");
+		config.set("a.nulled", null);
+		config.set("a.added", 2);
+		config.set("level.sub", "now a config");
+		config.set("new.list", new ArrayList<>(Arrays.asList(1, 2)));
+		config.setComment("a.changed", "new comment");
+		config.setComment("new.list", "inner comment");
+		config.set("new.level.x", 3);
+		config.setComment("new.level.x", "nested comment");
+		config.setComment("same", "same comment");
+		return config;
+	}
+
+	@Test
+	public void computeDiff() {
+		ConfigDiff diff = ConfigDiff.of(createBefore(), createAfter());
+		Set<String> actual = new HashSet<>();
+		for (ConfigDiff.Change change : diff.getValueChanges()) {
+			actual.add(change.getType() + " " + String.join(".", change.getPath()));
+		}
+		Set<String> expected = new HashSet<>(Arrays.asList(
+			"CHANGED a.changed",
+			"REMOVED a.removed",
+			"CHANGED a.nulled",
+			"ADDED a.added",
+			"CHANGED level",
+			"REMOVED gone",
+			"ADDED new"));
+		assertEquals(expected, actual);
+		for (ConfigDiff.Change change : diff.getValueChanges()) {
+			if (change.getPath().equals(Arrays.asList("a", "nulled"))) {
+				assertEquals(NULL_OBJECT, change.getNewValue());
+			} else if (change.getPath().equals(Arrays.asList("new"))) {
+				assertTrue(change.getNewValue() instanceof FrozenConfig);
+			}
+		}
+		assertEquals(1, diff.getCommentChanges().size());
+		ConfigDiff.Change comment = diff.getCommentChanges().get(0);
+		assertEquals(Arrays.asList("a", "changed"), comment.getPath());
+		assertEquals("old comment", comment.getOldValue());
+		assertEquals("new comment", comment.getNewValue());
+
+		assertTrue(ConfigDiff.of(createBefore(), createBefore()).isEmpty());
+	}
+
+	@Test
+	public void commentsInLists() {
+		CommentedConfig before = createTables("old comment");
+		CommentedConfig after = createTables("new comment");
+		assertEquals(before, after);// equals ignores the comments
+
+		ConfigDiff diff = ConfigDiff.of(before, after);
+		assertFalse(diff.isEmpty());
+		assertEquals(1, diff.getValueChanges().size());
+		assertEquals(ConfigDiff.Change.Type.CHANGED, diff.getValueChanges().get(0).getType());
+		assertEquals(Arrays.asList("tables"), diff.getValueChanges().get(0).getPath());
+
+		CommentedConfig patched = CommentedConfig.copy(before);
+		diff.applyTo(patched);
+		assertEquals("new comment", patched.<List<CommentedConfig>>get("tables").get(0).getComment("x"));
+		assertTrue(ConfigDiff.of(patched, after).isEmpty());
+		assertTrue(ConfigDiff.of(before, createTables("old comment")).isEmpty());
+	}
+
+	private static CommentedConfig createTables(String comment) {
+		CommentedConfig config = CommentedConfig.inMemory();
+		CommentedConfig table = config.createSubConfig();
+		table.set("x", 1);
+		table.setComment("x", comment);
+		config.set("tables", new ArrayList<>(Arrays.asList(table)));
+		return config;
+	}
+
+	@Test
+	public void applyToConfig() {
+		testApply(CommentedConfig.inMemory());
+	}
+
+	@Test
+	public void applyToStampedConfig() {
+		testApply(new StampedConfig());
+	}
+
+	@Test
+	public void applyToSynchronizedConfig() {
+		testApply(new SynchronizedConfig());
+	}
+
+	private static void testApply(CommentedConfig config) {
+		config.putAll(createBefore());
+		config.putAllComments(createBefore().getComments());
+		CommentedConfig after = createAfter();
+		ConfigDiff diff = ConfigDiff.of(config, after);
+		diff.applyTo(config);
+		assertEquals(after, config);
+		assertEquals("new comment", config.getComment("a.changed"));
+		assertEquals("inner comment", config.getComment("new.list"));
+		assertEquals("nested comment", config.getComment("new.level.x"));
+		assertSame(config.<Config>get("new").getClass(), config.<Config>get("new.level").getClass());
+		assertNull(config.get("a.nulled"));
+		assertTrue(config.contains("a.nulled"));
+		assertTrue(ConfigDiff.of(config, after).isEmpty());
+
+		// the applied values are copies
+		config.<List<Integer>>get("new.list").add(3);
+		assertEquals(Arrays.asList(1, 2), after.get("new.list"));
+	}
+
+	@Test
+	public void diffSnapshots() {
+		StampedConfig config = new StampedConfig();
+		for (int i = 0; i < 100; i++) {
+			config.set(Arrays.asList("level" + i, "value"), i);
+		}
+		FrozenConfig before = config.snapshot();
+		config.set("level50.value", -1);
+		// the unchanged levels are shared by the snapshots, so the diff skips them
+		FrozenConfig after = config.snapshot();
+		for (int i = 0; i < 100; i++) {
+			Object levelBefore = before.get("level" + i), levelAfter = after.get("level" + i);
+			if (i == 50) {
+				assertNotSame(levelBefore, levelAfter);
+			} else {
+				assertSame(levelBefore, levelAfter);
+			}
+		}
+		ConfigDiff diff = ConfigDiff.of(before, config);
+		assertEquals(1, diff.getValueChanges().size());
+		ConfigDiff.Change change = diff.getValueChanges().get(0);
+		assertEquals(Arrays.asList("level50", "value"), change.getPath());
+		assertEquals(50, (int)change.getOldValue());
+		assertEquals(-1, (int)change.getNewValue());
+
+		// the patch restores the old content
+		ConfigDiff.of(config, before).applyTo(config);
+		assertEquals(before, config);
+	}
+
+	@Test
+	public void sharedLevelsAreNotVisited() {
+		int[] reads = {0};
+		UnmodifiableConfig shared = new UnmodifiableConfigWrapper<Config>(Config.inMemory()) {
+			@Override
+			public <T> T getRaw(List<String> path) {
+				reads[0]++;
+				return super.getRaw(path);
+			}
+
+			@Override
+			public Set<? extends Entry> entrySet() {
+				reads[0]++;
+				return super.entrySet();
+			}
+		};
+		Config before = Config.inMemory();
+		before.set("shared", shared);
+		before.set("changed.x", 1);
+		Config after = Config.inMemory();
+		after.set("shared", shared);
+		after.set("changed.x", 2);
+
+		ConfigDiff diff = ConfigDiff.of(before, after);
+		assertEquals(1, diff.getValueChanges().size());
+		assertEquals(Arrays.asList("changed", "x"), diff.getValueChanges().get(0).getPath());
+		assertEquals(0, reads[0], "the shared level has been visited");
+	}
+}
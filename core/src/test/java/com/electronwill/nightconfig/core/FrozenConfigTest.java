@@ -0,0 +1,117 @@
+package com.electronwill.nightconfig.core;
+
+import com.electronwill.nightconfig.core.concurrent.StampedConfig;
+import com.electronwill.nightconfig.core.utils.IntArrayList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author TheElectronWill
+ */
+class FrozenConfigTest {
+
+	@Test
+	public void testFreeze() {
+		CommentedConfig config = CommentedConfig.inMemory();
+		config.set("b", "value");
+		config.set("a.x", 1);
+		config.set("a.y", null);
+		config.setComment("a.x", "comment x");
+		CommentedConfig element = CommentedConfig.inMemory();
+		element.set("key", true);
+		config.set("list", new ArrayList<>(Arrays.asList(element, 2)));
+
+		FrozenConfig frozen = config.freeze();
+		assertEquals(config, frozen);
+		assertEquals(frozen, config);
+		assertEquals(config.hashCode(), frozen.hashCode());
+		assertEquals(1, frozen.<Integer>get("a.x"));
+		assertTrue(frozen.contains("a.y"));
+		assertNull(frozen.get("a.y"));
+		assertFalse(frozen.contains("a.z"));
+		assertFalse(frozen.contains("b.c"));
+		assertEquals("comment x", frozen.getComment("a.x"));
+		assertNull(frozen.getComment("b"));
+		assertTrue(frozen.<List<?>>get("list").get(0) instanceof FrozenConfig);
+		assertSame(frozen, frozen.freeze());
+
+		// the keys are sorted
+		List<String> keys = new ArrayList<>();
+		for (UnmodifiableCommentedConfig.Entry entry : frozen.entrySet()) {
+			keys.add(entry.getKey());
+		}
+		assertEquals(Arrays.asList("a", "b", "list"), keys);
+
+		// the frozen config is a copy
+		config.set("b", "modified");
+		assertEquals("value", frozen.get("b"));
+		assertThrows(UnsupportedOperationException.class, () -> frozen.<List<Object>>get("list").add(3));
+	}
+
+	@Test
+	public void testFreezeNumberList() {
+		Config config = Config.inMemory();
+		IntArrayList ints = new IntArrayList(1, 2, 3);
+		config.set("ints", ints);
+
+		FrozenConfig frozen = config.freeze();
+		IntArrayList frozenInts = frozen.get("ints");
+		assertNotSame(ints, frozenInts);
+		assertTrue(frozenInts.isFrozen());
+		assertEquals(2, frozenInts.getInt(1));
+		assertEquals(ints, frozenInts);
+		assertThrows(UnsupportedOperationException.class, () -> frozenInts.addInt(4));
+		assertThrows(UnsupportedOperationException.class, () -> frozenInts.setInt(0, 4));
+		assertThrows(UnsupportedOperationException.class, () -> frozenInts.remove(0));
+		assertThrows(UnsupportedOperationException.class, frozenInts::clear);
+
+		// the original list is still modifiable
+		ints.addInt(4);
+		assertEquals(3, frozenInts.size());
+	}
+
+	@Test
+	public void testFreezeConcurrentConfig() {
+		StampedConfig config = new StampedConfig(InMemoryCommentedFormat.defaultInstance(), HashMap::new);
+		config.set("a.b.c", 1);
+		config.setComment("a", "comment");
+		FrozenConfig frozen = config.freeze();
+		assertEquals(1, frozen.<Integer>get("a.b.c"));
+		assertEquals("comment", frozen.getComment("a"));
+	}
+
+	@Test
+	public void testEquality() {
+		Config config = Config.inMemory();
+		config.set("a.x", 1);
+		config.set("b.y", "y");
+		FrozenConfig f1 = config.freeze();
+		FrozenConfig f2 = config.freeze();
+		assertNotSame(f1, f2);
+		assertEquals(f1, f2);
+		assertEquals(f1.hashCode(), f2.hashCode());
+
+		config.set("b.y", "z");
+		FrozenConfig f3 = config.freeze();
+		assertNotEquals(f1, f3);
+		assertEquals(config.hashCode(), f3.hashCode());
+		assertEquals(FrozenConfig.of(Config.inMemory()), Config.inMemory().freeze());
+
+		StampedConfig stamped = new StampedConfig(InMemoryCommentedFormat.defaultInstance(), HashMap::new);
+		stamped.set("a.x", 1);
+		stamped.set("b.y", "z");
+		assertEquals(f3, stamped);
+		assertEquals(stamped, f3);
+		assertEquals(stamped, config);
+		assertEquals(f3.hashCode(), stamped.hashCode());
+		stamped.set("a.x", 2);
+		assertNotEquals(stamped, f3);
+		assertNotEquals(f3.hashCode(), stamped.hashCode());
+	}
+}
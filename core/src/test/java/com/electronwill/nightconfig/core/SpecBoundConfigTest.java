@@ -0,0 +1,193 @@
+package com.electronwill.nightconfig.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author TheElectronWill
+ */
+public class SpecBoundConfigTest {
+
+	private static CompiledConfigSpec createSpec() {
+		ConfigSpec spec = new ConfigSpec();
+		spec.define("name", "default");
+		spec.defineInRange("a.int", 1, 0, 100);
+		spec.defineInRange("a.long", 2L, 0L, 100L);
+		spec.defineInRange("a.double", 0.5, 0.0, 1.0);
+		spec.define("a.bool", false);
+		spec.define("a.b.string", "");
+		return spec.compile();
+	}
+
+	@Test
+	public void slots() {
+		SpecBoundConfig config = createSpec().createConfig();
+		assertTrue(config.isEmpty());
+		assertEquals(8, createSpec().correct(config));
+		assertEquals(1, config.getInt("a.int"));
+		assertEquals(new HashSet<>(Arrays.asList("name", "a")), config.valueMap().keySet());
+
+		int intSlot = config.slot("a.int");
+		int doubleSlot = config.slot(Arrays.asList("a", "double"));
+		int boolSlot = config.slot("a.bool");
+		assertEquals(-1, config.slot("a.undefined"));
+		assertEquals(-1, config.slot("name.undefined"));
+
+		config.setInt(intSlot, 42);
+		assertEquals(42, config.getInt(intSlot));
+		assertEquals(42, (int)config.get("a.int"));
+		assertEquals(42L, config.getLong(intSlot));
+
+		config.set("a.double", 0.25);
+		assertEquals(0.25, config.getDouble(doubleSlot));
+		config.setBoolean(boolSlot, true);
+		assertTrue(config.<Boolean>get("a.bool"));
+
+		// a value of another type doesn't fit in the primitive slot, but it is still accepted
+		config.set("a.int", "not an int");
+		assertEquals("not an int", config.get(intSlot));
+		config.set(intSlot, null);
+		assertTrue(config.contains(intSlot));
+		assertTrue(config.isNull("a.int"));
+		config.remove("a.int");
+		assertFalse(config.contains(intSlot));
+		assertFalse(config.contains("a.int"));
+
+		// the slots are shared with the sub-configs
+		Config a = config.get("a");
+		assertEquals(config.slot("a.b.string"), ((SpecBoundConfig)a).slot("b.string"));
+		a.set("long", 10L);
+		assertEquals(10L, config.getLong(config.slot("a.long")));
+	}
+
+	@Test
+	public void typedAccessorsDontTruncate() {
+		SpecBoundConfig config = createSpec().createConfig();
+		int intSlot = config.slot("a.int");
+		int longSlot = config.slot("a.long");
+		int doubleSlot = config.slot("a.double");
+
+		config.setLong(longSlot, 7L);
+		assertEquals(7, config.getInt(longSlot));
+		config.setLong(longSlot, Long.MAX_VALUE);
+		assertThrows(ArithmeticException.class, () -> config.getInt(longSlot));
+		assertEquals(Long.MAX_VALUE, config.getLong(longSlot));
+
+		config.set(intSlot, 5_000_000_000L);// boxed, doesn't fit in the int slot
+		assertThrows(ArithmeticException.class, () -> config.getInt(intSlot));
+		assertEquals(5_000_000_000L, config.getLong(intSlot));
+
+		config.setDouble(doubleSlot, 0.75);
+		assertThrows(ClassCastException.class, () -> config.getInt(doubleSlot));
+		assertThrows(ClassCastException.class, () -> config.getLong(doubleSlot));
+		config.set(intSlot, 1.5);
+		assertThrows(ClassCastException.class, () -> config.getInt(intSlot));
+		assertEquals(1.5, config.getDouble(intSlot));
+	}
+
+	@Test
+	public void overflow() {
+		SpecBoundConfig config = createSpec().createConfig();
+		config.set("name", "test");
+		config.set("extra", 1);
+		config.set("a.extra.deep", true);
+		config.setComment("extra", "comment of extra");
+		config.setComment("name", "comment of name");
+		assertEquals(3, config.size());
+		assertEquals(1, (int)config.get("extra"));
+		assertTrue(config.<Boolean>get("a.extra.deep"));
+		assertEquals("comment of extra", config.getComment("extra"));
+		assertEquals("comment of name", config.getComment("name"));
+		assertEquals(2, config.commentMap().size());
+
+		Map<String, Object> map = config.valueMap();
+		assertEquals(1, map.remove("extra"));
+		assertFalse(config.contains("extra"));
+		map.put("name", "from map");
+		assertEquals("from map", config.get("name"));
+
+		CompiledConfigSpec spec = createSpec();
+		spec.correct(config);
+		assertFalse(config.contains("a.extra"));
+		assertTrue(spec.isCorrect(config));
+	}
+
+	@Test
+	public void subConfigsFilledAfterInsertion() {
+		// like a parser: creates the sub-config, inserts it, then fills it
+		SpecBoundConfig config = createSpec().createConfig();
+		CommentedConfig a = config.createSubConfig();
+		config.set("a", a);
+		Config b = a.createSubConfig();
+		a.set("b", b);
+		a.set("int", 12);
+		a.setComment("int", "comment");
+		b.set("string", "value");
+		assertSame(a, config.get("a"));
+		assertEquals(12, config.getInt(config.slot("a.int")));
+		assertEquals("comment", config.getComment("a.int"));
+		assertEquals("value", config.get(config.slot("a.b.string")));
+
+		// a sub-config filled before its insertion is bound too
+		CommentedConfig a2 = config.createSubConfig();
+		a2.set("int", 13);
+		a2.set("b.string", "value2");
+		config.set("a", a2);
+		assertEquals(13, config.getInt(config.slot("a.int")));
+		assertEquals("value2", config.get(config.slot("a.b.string")));
+
+		// the replaced sub-config keeps its content
+		assertEquals(12, (int)a.get("int"));
+		assertEquals("comment", a.getComment("int"));
+		assertEquals("value", b.get("string"));
+		a.set("int", 0);
+		assertEquals(13, config.getInt(config.slot("a.int")));
+	}
+
+	@Test
+	public void sameAsOtherConfigs() {
+		CommentedConfig expected = CommentedConfig.inMemory();
+		expected.set("name", "test");
+		expected.set("a.int", 10);
+		expected.set("a.b.string", "str");
+		expected.set("extra", Collections.singletonList("x"));
+		expected.setComment("a.int", "comment");
+
+		SpecBoundConfig config = createSpec().createConfig();
+		config.putAll(expected);
+		assertEquals(expected, config);
+		assertEquals(config, expected);
+		assertEquals(expected.hashCode(), config.hashCode());
+		assertEquals("comment", config.getComment("a.int"));
+
+		// other configs are copied
+		assertNotSame(expected.get("a"), config.get("a"));
+		expected.set("a.int", 11);
+		assertEquals(10, (int)config.get("a.int"));
+
+		CommentedConfig copy = CommentedConfig.copy(config);
+		assertEquals(config, copy);
+		assertEquals("comment", copy.getComment("a.int"));
+
+		config.clear();
+		assertTrue(config.isEmpty());
+		assertFalse(config.containsComment("a.int"));
+
+		// a null value isn't equal to a missing key
+		SpecBoundConfig withNull = createSpec().createConfig();
+		withNull.set("name", null);
+		Config withOther = Config.inMemory();
+		withOther.set("other", "value");
+		assertNotEquals(withNull, withOther);
+		assertNotEquals(withOther, withNull);
+		Config withNullToo = Config.inMemory();
+		withNullToo.set("name", null);
+		assertEquals(withNull, withNullToo);
+	}
+}
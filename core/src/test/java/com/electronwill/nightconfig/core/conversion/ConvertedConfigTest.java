@@ -0,0 +1,70 @@
+package com.electronwill.nightconfig.core.conversion;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import com.electronwill.nightconfig.core.Config;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConvertedConfigTest {
+
+	private static ConversionTable readTable() {
+		ConversionTable table = new ConversionTable();
+		table.put(Integer.class, Object::toString);
+		return table;
+	}
+
+	private static ConversionTable writeTable() {
+		ConversionTable table = new ConversionTable();
+		table.put(String.class, Integer::parseInt);
+		return table;
+	}
+
+	@Test
+	public void cachedViews() {
+		Config config = Config.inMemory();
+		config.set("a", 1);
+		ConvertedConfig converted = new ConvertedConfig(config, readTable(), writeTable(),
+				type -> true);
+		assertSame(converted.valueMap(), converted.valueMap());
+		assertSame(converted.entrySet(), converted.entrySet());
+
+		// the cached views still convert on read...
+		Map<String, Object> map = converted.valueMap();
+		assertEquals("1", map.get("a"));
+		Config.Entry entry = converted.entrySet().iterator().next();
+		assertEquals("1", entry.getValue());
+		assertEquals("1", entry.getRawValue());
+
+		// ...and on write
+		assertEquals("1", entry.setValue("2"));
+		assertEquals(2, (int)config.get("a"));
+		assertEquals("2", entry.getValue());
+		map.put("b", "3");
+		assertEquals(3, (int)config.get("b"));
+		assertEquals("3", converted.get("b"));
+	}
+
+	@Test
+	public void cachedCommentedViews() {
+		CommentedConfig config = CommentedConfig.inMemory();
+		config.set("a", 1);
+		config.setComment("a", "comment");
+		ConvertedCommentedConfig converted = new ConvertedCommentedConfig(config, readTable(),
+				writeTable(), type -> true);
+		assertSame(converted.valueMap(), converted.valueMap());
+		assertSame(converted.entrySet(), converted.entrySet());
+
+		CommentedConfig.Entry entry = converted.entrySet().iterator().next();
+		assertEquals("1", entry.getValue());
+		assertEquals("comment", entry.getComment());
+
+		assertEquals("1", entry.setValue("5"));
+		assertEquals(5, (int)config.get("a"));
+		assertEquals("5", entry.getValue());
+		entry.setComment("new comment");
+		assertEquals("new comment", config.getComment("a"));
+	}
+}
@@ -0,0 +1,30 @@
+package com.electronwill.nightconfig.core.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferedWriterOutputTest {
+	@Test
+	void writeAcrossBufferBoundaries() {
+		StringWriter writer = new StringWriter();
+		BufferedWriterOutput output = new BufferedWriterOutput(writer, 4);
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 20; i++) {
+			String s = "abcdefghij".substring(0, i % 10);
+			output.write(s);
+			output.write(s.toCharArray());
+			output.write('|');
+			expected.append(s).append(s).append('|');
+		}
+		output.write("0123456789", 2, 3);
+		output.write(new char[] {'x', 'y', 'z'}, 1, 2);
+		expected.append("234yz");
+		assertTrue(writer.toString().length() < expected.length());// not flushed yet
+
+		output.flush();
+		assertEquals(expected.toString(), writer.toString());
+	}
+}
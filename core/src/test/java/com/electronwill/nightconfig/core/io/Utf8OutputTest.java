@@ -0,0 +1,35 @@
+package com.electronwill.nightconfig.core.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Utf8OutputTest {
+	@Test
+	void encodeLikeTheJdk() {
+		Random random = new Random(42);
+		char[] alphabet = {'a', 'z', '~', '\n', 'é', 'ß', '€', '中', '\uD83D', '\uDE00'};
+		for (int n = 0; n < 200; n++) {
+			char[] chars = new char[random.nextInt(100)];
+			for (int i = 0; i < chars.length; i++) {
+				chars[i] = alphabet[random.nextInt(alphabet.length)];
+			}
+			String str = new String(chars);
+
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (Utf8Output output = new Utf8Output(bytes, 16)) {
+				int split = chars.length / 3;
+				output.write(str, 0, split);
+				output.write(chars, split, split);
+				for (int i = 2 * split; i < chars.length; i++) {
+					output.write(chars[i]);
+				}
+			}
+			assertArrayEquals(str.getBytes(StandardCharsets.UTF_8), bytes.toByteArray());
+		}
+	}
+}
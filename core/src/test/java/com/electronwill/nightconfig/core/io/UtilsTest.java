@@ -2,6 +2,8 @@ package com.electronwill.nightconfig.core.io;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class UtilsTest {
@@ -13,4 +15,65 @@ class UtilsTest {
 		assertEquals(-123456789L, Utils.parseLong(new CharsWrapper("-123456789"), 10));
 		assertEquals(0xff, Utils.parseLong(new CharsWrapper("ff"), 16));
 	}
+
+	@Test
+	void parseLongLimits() {
+		assertEquals(Long.MAX_VALUE, Utils.parseLong(new CharsWrapper("9223372036854775807"), 10));
+		assertEquals(Long.MIN_VALUE, Utils.parseLong(new CharsWrapper("-9223372036854775808"), 10));
+		assertEquals(-1L, Utils.parseLong(new CharsWrapper("-1"), 2));
+		assertThrows(ParsingException.class, () -> Utils.parseLong(new CharsWrapper("9223372036854775808"), 10));
+		assertThrows(ParsingException.class, () -> Utils.parseLong(new CharsWrapper("12345678901234567890"), 10));
+		assertThrows(ParsingException.class, () -> Utils.parseLong(new CharsWrapper("-"), 10));
+		assertThrows(ParsingException.class, () -> Utils.parseLong(new CharsWrapper("12a"), 10));
+	}
+
+	@Test
+	void parseDouble() {
+		String[] values = {"0", "-0", "0.0", "1", "-1.5", "3.14159265358979", "1e10", "1E-10", "+2.5e+3",
+			"123456789012345678901234567890", "0.000000000000000000000000000001", "1e308", "1.8e308",
+			"4.9e-324", "2.2250738585072014E-308", "1e-400", "9007199254740993", "0.1", "0.3",
+			"1.7976931348623157e308", "2.47e-324", "7.2057594037927933e16"};
+		for (String value : values) {
+			assertDoubleEquals(value);
+		}
+		Random random = new Random(42);
+		for (int i = 0; i < 100_000; i++) {
+			double d = Double.longBitsToDouble(random.nextLong());
+			if (!Double.isNaN(d) && !Double.isInfinite(d)) {
+				assertDoubleEquals(Double.toString(d));
+			}
+			assertDoubleEquals(random.nextInt() + "." + random.nextInt(Integer.MAX_VALUE) + "e" + (random.nextInt(600) - 300));
+		}
+	}
+
+	@Test
+	void parseInvalidDouble() {
+		String[] values = {"", "-", "+", "1e", "1e+", "1.2.3", "1.", ".5", "-.5", "1.e5", "NaN", "-NaN", "Infinity",
+			"-Infinity", "1d", "1f", "1.5D", "1.5F", "0x1p3", "1-2", "--1", "1 ", " 1"};
+		for (String value : values) {
+			assertThrows(ParsingException.class, () -> Utils.parseDouble(new CharsWrapper(value)), value);
+		}
+	}
+
+	private static void assertDoubleEquals(String value) {
+		double expected = Double.parseDouble(value);
+		double actual = Utils.parseDouble(new CharsWrapper(value));
+		assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(actual), value);
+	}
+
+	@Test
+	void parseNumber() {
+		assertEquals(123, Utils.parseNumber(new CharsWrapper("123")));
+		assertEquals(-2147483648, Utils.parseNumber(new CharsWrapper("-2147483648")));
+		assertEquals(2147483648L, Utils.parseNumber(new CharsWrapper("2147483648")));
+		assertEquals(Long.MIN_VALUE, Utils.parseNumber(new CharsWrapper("-9223372036854775808")));
+		assertEquals(1.2345678901234567e19, Utils.parseNumber(new CharsWrapper("12345678901234567890")));
+		assertEquals(-0.5, Utils.parseNumber(new CharsWrapper("-0.5")));
+		assertEquals(1e3, Utils.parseNumber(new CharsWrapper("1e3")));
+		assertThrows(ParsingException.class, () -> Utils.parseNumber(new CharsWrapper("-")));
+		assertThrows(ParsingException.class, () -> Utils.parseNumber(new CharsWrapper("NaN")));
+		assertThrows(ParsingException.class, () -> Utils.parseNumber(new CharsWrapper("-Infinity")));
+		assertThrows(ParsingException.class, () -> Utils.parseNumber(new CharsWrapper("1d")));
+		assertThrows(ParsingException.class, () -> Utils.parseNumber(new CharsWrapper("1f")));
+	}
 }
\ No newline at end of file
@@ -24,6 +24,7 @@ import java.util.stream.Collectors;
 import com.electronwill.nightconfig.core.CommentedConfig;
 import com.electronwill.nightconfig.core.UnmodifiableCommentedConfig.CommentNode;
 import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.core.FrozenConfig;
 import com.electronwill.nightconfig.core.IncompatibleIntermediaryLevelException;
 import com.electronwill.nightconfig.core.Config.Entry;
 
@@ -556,6 +557,60 @@ class CommonTests {
         });
     }
 
+    public static <C extends ConcurrentCommentedConfig & VersionedConfig> void testVersionAndSnapshot(C config) {
+        long v0 = config.version();
+        FrozenConfig empty = config.snapshot();
+        assertTrue(empty.isEmpty());
+        assertSame(empty, config.snapshot());
+
+        config.set("a", 1);
+        config.set("sub.nested.value", "x");
+        config.setComment("a", "comment of a");
+        long v1 = config.version();
+        assertTrue(v1 > v0);
+        FrozenConfig snapshot = config.snapshot();
+        assertSame(snapshot, config.snapshot());
+        assertEquals(1, (int) snapshot.get("a"));
+        assertEquals("x", snapshot.get("sub.nested.value"));
+        assertEquals("comment of a", snapshot.getComment("a"));
+
+        // reads don't change the version
+        config.get("sub.nested.value");
+        config.bulkRead(view -> {
+            return view.size();
+        });
+        config.entrySet().forEach(entry -> entry.getRawValue());
+        assertEquals(v1, config.version());
+
+        // modification of a sub-config
+        Config sub = config.get("sub");
+        sub.set("nested.value", "y");
+        assertTrue(config.version() > v1);
+        FrozenConfig snapshot2 = config.snapshot();
+        assertNotSame(snapshot, snapshot2);
+        assertEquals("x", snapshot.get("sub.nested.value"));
+        assertEquals("y", snapshot2.get("sub.nested.value"));
+        assertEquals(1, (int) snapshot2.get("a"));
+
+        long v2 = config.version();
+        config.bulkUpdate(view -> {
+            view.set("b", 2);
+        });
+        assertTrue(config.version() > v2);
+        assertEquals(2, (int) config.snapshot().get("b"));
+
+        long v3 = config.version();
+        config.entrySet().removeIf(entry -> entry.getKey().equals("b"));
+        assertTrue(config.version() > v3);
+        assertFalse(config.snapshot().contains("b"));
+
+        long v4 = config.version();
+        config.clear();
+        assertTrue(config.version() > v4);
+        assertEquals(0, config.snapshot().size());
+        assertEquals("y", snapshot2.get("sub.nested.value"));
+    }
+
     /**
      * From multiple threads, check that the integrity of the config is respected, i.e.
      * that we only see either the old version or the new version, not a mix of the two.
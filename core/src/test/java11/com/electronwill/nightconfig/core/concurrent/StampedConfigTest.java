@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.lang.AssertionError;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -15,6 +16,7 @@ import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.Timeout.ThreadMode;
 
 import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.core.FrozenConfig;
 import com.electronwill.nightconfig.core.InMemoryCommentedFormat;
 
 public class StampedConfigTest {
@@ -82,6 +84,126 @@ public class StampedConfigTest {
         CommonTests.testBulkOperations(newConfig());
     }
 
+    @Test
+    public void versionAndSnapshot() {
+        CommonTests.testVersionAndSnapshot(newConfig());
+    }
+
+    @Test
+    public void snapshotSharesUnmodifiedLevels() {
+        StampedConfig config = newConfig();
+        config.set("a.x", 1);
+        config.set("b.y", 2);
+        config.set("list", List.of(config.createSubConfig()));
+        FrozenConfig s1 = config.snapshot();
+        assertTrue(s1.<List<?>>get("list").get(0) instanceof FrozenConfig);
+
+        config.set("b.y", 3);
+        FrozenConfig s2 = config.snapshot();
+        assertNotSame(s1, s2);
+        assertSame(s1.get("a"), s2.get("a"));
+        assertNotSame(s1.get("b"), s2.get("b"));
+        assertEquals(2, (int) s1.get("b.y"));
+        assertEquals(3, (int) s2.get("b.y"));
+
+        // the snapshot of a sub-config is shared with the snapshot of its parent
+        StampedConfig a = config.get("a");
+        assertSame(s2.get("a"), a.snapshot());
+
+        // reloads change the version
+        long version = config.version();
+        StampedConfig.Accumulator acc = config.newAccumulator();
+        acc.set("a.x", 10);
+        config.replaceContentBy(acc);
+        assertTrue(config.version() > version);
+        assertEquals(10, (int) config.snapshot().get("a.x"));
+        config.<Config>get("a").set("x", 11);
+        assertEquals(11, (int) config.snapshot().get("a.x"));
+
+        // the sub-configs of the new content share the version of the config
+        StampedConfig other = new StampedConfig();
+        other.set("s.x", 1);
+        StampedConfig s = other.get("s");
+        assertEquals(1, (int) s.snapshot().get("x"));
+        config.replaceContentBy(other);
+        version = config.version();
+        config.set("s.y", 5);
+        assertTrue(config.version() > version);
+        assertEquals(5, (int) config.snapshot().get("s.y"));
+        assertEquals(5, (int) s.snapshot().get("y"));
+        version = config.version();
+        StampedConfig.Accumulator otherAcc = other.newAccumulator();
+        otherAcc.set("t.x", 1);
+        config.replaceContentBy(otherAcc);
+        assertTrue(config.version() > version);
+        version = config.version();
+        config.set("t.x", 2);
+        assertTrue(config.version() > version);
+    }
+
+    @Test
+    public void equalsAndHashCode() {
+        StampedConfig a = newConfig();
+        StampedConfig b = newConfig();
+        for (StampedConfig config : List.of(a, b)) {
+            config.set("big.x", 1);
+            config.set("big.y", List.of(2, 3));
+            config.set("small", "s");
+        }
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(a.hashCode(), a.snapshot().hashCode());
+
+        b.set("small", "modified");
+        assertNotEquals(a, b);
+        assertNotEquals(a.hashCode(), b.hashCode());
+        b.set("small", "s");
+        assertEquals(a, b);
+
+        b.<StampedConfig>get("big").set("x", 10);
+        assertNotEquals(a, b);
+        assertNotEquals(a.<StampedConfig>get("big"), b.get("big"));
+        assertEquals(a.<StampedConfig>get("big"), a.snapshot().<FrozenConfig>get("big"));
+
+        // the lists modified in place are compared and hashed again
+        b.<StampedConfig>get("big").set("x", 1);
+        a.set("list", new ArrayList<>(List.of(1)));
+        b.set("list", new ArrayList<>(List.of(1)));
+        assertEquals(a, b);
+        a.<List<Integer>>get("list").add(2);
+        assertNotEquals(a, b);
+        assertNotEquals(a.hashCode(), b.hashCode());
+        b.<List<Integer>>get("list").add(2);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(List.of(1, 2), a.snapshot().get("list"));
+    }
+
+    @Test
+    public void consistentSnapshots() throws InterruptedException {
+        StampedConfig config = newConfig();
+        config.set("a.x", 0);
+        config.set("b.y", 0);
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            for (int i = 1; !stop.get(); i++) {
+                config.apply(new ConfigBatch().set("a.x", i).set("b.y", i));
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 1000; i++) {
+                long version = config.version();
+                FrozenConfig snapshot = config.snapshot();
+                assertEquals((int) snapshot.get("a.x"), (int) snapshot.get("b.y"));
+                assertTrue(config.version() >= version);
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+    }
+
     @Test
     public void accumulator() {
         CommonTests.testBasicSanity(newAccumulator(), false);
@@ -90,6 +212,68 @@ public class StampedConfigTest {
         CommonTests.testIterators(newAccumulator());
     }
 
+    @Test
+    public void accumulatorCopy() {
+        StampedConfig config = newConfig();
+        config.set("a.x", 1);
+        config.set("b.y", 2);
+        config.set("list", new ArrayList<>(List.of("e")));
+        config.setComment("a", "comment");
+        StampedConfig.Accumulator copy1 = config.newAccumulatorCopy();
+        StampedConfig.Accumulator copy2 = config.newAccumulatorCopy();
+        assertEquals(config, copy1);
+        assertEquals(config, copy2);
+        assertEquals("comment", copy1.getComment("a"));
+        assertTrue(copy1.get("a") instanceof StampedConfig.Accumulator);
+
+        // modifying a copy doesn't modify the config, nor the other copies
+        copy1.set("a.x", 10);
+        copy1.remove("b");
+        copy1.<List<String>>get("list").add("f");
+        copy1.setComment("a", "modified");
+        assertEquals(1, (int) config.get("a.x"));
+        assertEquals(1, (int) copy2.get("a.x"));
+        assertEquals(2, (int) copy2.get("b.y"));
+        assertEquals(List.of("e"), config.get("list"));
+        assertEquals(List.of("e"), copy2.get("list"));
+        assertEquals("comment", copy2.getComment("a"));
+        assertEquals(10, (int) copy1.get("a.x"));
+        assertEquals(List.of("e", "f"), copy1.get("list"));
+
+        // modifying the config doesn't modify the existing copies
+        config.set("b.y", 3);
+        config.remove("a");
+        assertEquals(2, (int) copy2.get("b.y"));
+        assertEquals(1, (int) copy2.get("a.x"));
+        StampedConfig.Accumulator copy3 = config.newAccumulatorCopy();
+        assertEquals(3, (int) copy3.get("b.y"));
+        assertFalse(copy3.contains("a"));
+
+        // the lists modified in place are copied again
+        config.<List<String>>get("list").add("g");
+        config.set("b.list", new ArrayList<>(List.of(1)));
+        assertEquals(List.of(1), config.newAccumulatorCopy().get("b.list"));
+        config.<List<Integer>>get("b.list").add(2);
+        assertEquals(List.of("e", "g"), config.newAccumulatorCopy().get("list"));
+        assertEquals(List.of(1, 2), config.newAccumulatorCopy().get("b.list"));
+
+        // a copy can become the new content of the config
+        config.replaceContentBy(copy1);
+        assertEquals(10, (int) config.get("a.x"));
+        assertFalse(config.contains("b"));
+        assertTrue(config.get("a") instanceof StampedConfig);
+        assertEquals("modified", config.getComment("a"));
+        config.set("a.z", 0);
+        assertFalse(copy2.contains("a.z"));
+        assertFalse(copy3.contains("a.z"));
+
+        // an unmodified copy can also replace the content
+        StampedConfig other = newConfig();
+        other.replaceContentBy(copy2);
+        assertEquals(1, (int) other.get("a.x"));
+        assertTrue(other.get("a") instanceof StampedConfig);
+    }
+
     @Test
     public void replaceContentByAccumulator() throws InterruptedException {
         CommonTests.testReplaceContent(4, newConfig(), newAccumulator(),
@@ -1,8 +1,20 @@
 package com.electronwill.nightconfig.core.concurrent;
 
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.jupiter.api.Test;
 
+import com.electronwill.nightconfig.core.CommentedConfig;
 import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.core.FrozenConfig;
 import com.electronwill.nightconfig.core.InMemoryCommentedFormat;
 
 public class SynchronizedConfigTest {
@@ -12,6 +24,12 @@ public class SynchronizedConfigTest {
                 Config.getDefaultMapCreator(false));
     }
 
+    @SuppressWarnings("deprecation")
+    static SynchronizedConfig newStripedConfig() {
+        return new SynchronizedConfig(InMemoryCommentedFormat.defaultInstance(),
+                Config.getDefaultMapCreator(false), 2);
+    }
+
     @Test
     public void basicSanity() {
         CommonTests.testBasicSanity(newConfig());
@@ -69,4 +87,191 @@ public class SynchronizedConfigTest {
     public void replaceContentByConfig() throws InterruptedException {
         CommonTests.testReplaceContent(4, newConfig(), newConfig(), (a,b) -> a.replaceContentBy(b));
     }
+
+    @Test
+    public void versionAndSnapshot() {
+        CommonTests.testVersionAndSnapshot(newConfig());
+        CommonTests.testVersionAndSnapshot(newStripedConfig());
+    }
+
+    @Test
+    public void snapshotAfterEntrySetValue() {
+        SynchronizedConfig config = newConfig();
+        config.set("a", 1);
+        FrozenConfig snapshot = config.snapshot();
+        long version = config.version();
+        for (CommentedConfig.Entry entry : config.entrySet()) {
+            entry.setValue(2);
+        }
+        assertTrue(config.version() > version);
+        assertEquals(1, (int) snapshot.get("a"));
+        assertEquals(2, (int) config.snapshot().get("a"));
+
+        version = config.version();
+        config.entrySet().forEach(entry -> entry.setComment("comment"));
+        assertTrue(config.version() > version);
+        assertEquals("comment", config.snapshot().getComment("a"));
+    }
+
+    @Test
+    public void snapshotAfterListModification() {
+        SynchronizedConfig config = newConfig();
+        config.set("sub.list", new ArrayList<>(List.of(1)));
+        FrozenConfig snapshot = config.snapshot();
+        config.<List<Integer>>get("sub.list").add(2);// in place, doesn't change the version
+        FrozenConfig snapshot2 = config.snapshot();
+        assertNotSame(snapshot, snapshot2);
+        assertEquals(List.of(1), snapshot.get("sub.list"));
+        assertEquals(List.of(1, 2), snapshot2.get("sub.list"));
+    }
+
+    @Test
+    public void striped() throws InterruptedException {
+        CommonTests.testBasicSanity(newStripedConfig());
+        CommonTests.testComments(newStripedConfig());
+        CommonTests.testErrors(newStripedConfig());
+        CommonTests.testPutAll(newStripedConfig(), newStripedConfig());
+        CommonTests.testRemoveAll(newStripedConfig(), newStripedConfig());
+        CommonTests.testPutAllComments(newStripedConfig(), newStripedConfig());
+        CommonTests.testIterators(newStripedConfig());
+        CommonTests.testConcurrentCounters(newStripedConfig());
+        CommonTests.testBulkOperations(newStripedConfig());
+        CommonTests.testReplaceContent(4, newStripedConfig(), newStripedConfig(), (a,b) -> a.replaceContentBy(b));
+    }
+
+    @Test
+    public void independentStripes() throws Exception {
+        SynchronizedConfig config = newStripedConfig();
+        config.set("a.b.c", 1);
+        config.set("d.e", 2);
+        SynchronizedConfig a = config.get("a");
+        SynchronizedConfig b = a.get("b");
+        assertNotSame(config.rootMonitor, a.rootMonitor);
+        assertNotSame(a.rootMonitor, b.rootMonitor);
+        SynchronizedConfig c = b.createSubConfig();
+        assertSame(b.rootMonitor, c.rootMonitor);
+
+        // while the stripe "a" is locked, the other stripes can be used
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch locked = new CountDownLatch(1), release = new CountDownLatch(1);
+        try {
+            Future<?> bulk = executor.submit(() -> {
+                a.bulkUpdate(view -> {
+                    locked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    view.set("b.c", 3);
+                });
+            });
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+            config.set("d.e", 4);
+            config.set("d.f.g", 5);
+            config.set("new.value", 6);
+            assertEquals(4, (int)config.get("d.e"));
+            assertEquals(5, (int)config.get("d.f.g"));
+            release.countDown();
+            bulk.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(3, (int)config.get("a.b.c"));
+
+        // the operations on the whole tree see every stripe
+        CommentedConfig copy = CommentedConfig.copy(config);
+        assertEquals(copy, config);
+        assertEquals(copy.hashCode(), config.hashCode());
+        config.setComment("a.b.c", "comment");
+        assertEquals("comment", config.getComments().get("a").getChildren().get("b").getChildren().get("c").getComment());
+    }
+
+    @Test
+    public void stripeRemovedDuringModification() throws Exception {
+        SynchronizedConfig config = newStripedConfig();
+        config.set("a.old", 0);
+        SynchronizedConfig a = config.get("a");
+
+        // the writer finds the stripe "a", then waits for its monitor
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch locked = new CountDownLatch(1), release = new CountDownLatch(1);
+        Thread[] writer = new Thread[1];
+        try {
+            Future<?> bulk = executor.submit(() -> {
+                a.bulkUpdate(view -> {
+                    locked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+            });
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+            writer[0] = new Thread(() -> config.set("a.x", 1));
+            writer[0].start();
+            while (writer[0].getState() != Thread.State.BLOCKED) {
+                Thread.sleep(1);
+            }
+            // the stripe is removed before the writer gets its monitor
+            assertSame(a, config.remove("a"));
+            release.countDown();
+            bulk.get(10, TimeUnit.SECONDS);
+            writer[0].join(10_000);
+        } finally {
+            executor.shutdownNow();
+        }
+        // the modification has been made again, to a new stripe
+        assertEquals(1, (int)config.get("a.x"));
+        assertFalse(config.contains("a.old"));
+        assertNotSame(a, config.get("a"));
+    }
+
+    @Test
+    public void stripesInLists() throws Exception {
+        SynchronizedConfig config = newStripedConfig();
+        SynchronizedConfig elem = config.createSubConfig();
+        elem.set("x", 1);
+        config.set("list", new ArrayList<>(List.of(List.of(elem))));
+        assertNotSame(config.rootMonitor, elem.rootMonitor);
+
+        // the operations on the whole tree wait for the configs stored in lists
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch locked = new CountDownLatch(1), release = new CountDownLatch(1);
+        CountDownLatch entered = new CountDownLatch(1);
+        int[] seen = new int[1];
+        try {
+            Future<?> bulk = executor.submit(() -> {
+                elem.bulkUpdate(view -> {
+                    locked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    view.set("x", 2);
+                });
+            });
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+            Thread reader = new Thread(() -> config.bulkRead(view -> {
+                entered.countDown();
+                seen[0] = view.<List<List<Config>>>get("list").get(0).get(0).<Integer>get("x");
+            }));
+            reader.start();
+            Thread.State state;
+            while ((state = reader.getState()) != Thread.State.BLOCKED && state != Thread.State.TERMINATED) {
+                Thread.sleep(1);
+            }
+            assertEquals(Thread.State.BLOCKED, state);
+            assertEquals(1, entered.getCount());
+            release.countDown();
+            bulk.get(10, TimeUnit.SECONDS);
+            reader.join(10_000);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2, seen[0]);
+        assertEquals(CommentedConfig.copy(config).hashCode(), config.hashCode());
+    }
 }
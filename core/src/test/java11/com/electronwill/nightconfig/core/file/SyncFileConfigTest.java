@@ -6,8 +6,11 @@ import java.nio.file.Path;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import com.electronwill.nightconfig.core.concurrent.VersionedConfig;
 import com.electronwill.nightconfig.core.io.ParsingMode;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 public class SyncFileConfigTest {
     @TempDir
     static Path tmp;
@@ -33,6 +36,20 @@ public class SyncFileConfigTest {
         Util.testLoadMerge(newConfig(file, ParsingMode.MERGE, false));
     }
 
+    @Test
+    public void testVersion() {
+        Path file = tmp.resolve("syncFileConfig.txt");
+        FileConfig config = FileConfig.builder(file, new Util.TestFormat(true)).sync().build();
+        VersionedConfig versioned = assertInstanceOf(VersionedConfig.class, config);
+        long version = versioned.version();
+        config.set("a", "old A");
+        assertTrue(versioned.version() > version);
+        version = versioned.version();
+        config.load();
+        assertTrue(versioned.version() > version);
+        assertEquals("new A", versioned.snapshot().get("a"));
+    }
+
     private FileConfig newConfig(Path file, ParsingMode parsingMode, boolean useProperSubConfigType) {
         var format = new Util.TestFormat(useProperSubConfigType);
         return FileConfig.builder(file, format).sync().parsingMode(parsingMode).build();
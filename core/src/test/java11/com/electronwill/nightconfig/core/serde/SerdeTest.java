@@ -166,6 +166,65 @@ public final class SerdeTest {
 		});
 	}
 
+	@Test
+	public void testFrozenProviders() throws Exception {
+		Predicate<Class<?>> onlyIntOrFloat = (cls) -> cls == Boolean.class || cls == boolean.class
+				|| cls == Integer.class || cls == int.class || cls == Long.class || cls == long.class
+				|| cls == Float.class || cls == float.class || cls == Double.class
+				|| cls == double.class;
+
+		// the lookup depends on the ConfigFormat, the cached serializers must not be mixed up
+		var serBuilder = ObjectSerializer.builder();
+		serBuilder.freezeProviders();
+		var ser = serBuilder.build();
+		for (int i = 0; i < 2; i++) {
+			var serialized = ser.serializeFields(new Primitives(), Config::inMemoryUniversal);
+			assertEquals(Primitives.SERIALIZED, serialized);
+			var exotic = ser.serializeFields(new Primitives(),
+					() -> Config.of(InMemoryFormat.withSupport(onlyIntOrFloat)));
+			assertEquals((int) Character.MAX_VALUE, (int) exotic.get("c"));
+		}
+
+		// the serializer doesn't see the providers that are registered after build()
+		serBuilder.withSerializerForClass(Integer.class, (v, ctx) -> "not an int");
+		assertEquals(Primitives.SERIALIZED, ser.serializeFields(new Primitives(), Config::inMemoryUniversal));
+
+		var deBuilder = ObjectDeserializer.builder();
+		deBuilder.freezeProviders();
+		var de = deBuilder.build();
+		for (int i = 0; i < 2; i++) {
+			assertEquals(new Primitives(), de.deserializeFields(Primitives.SERIALIZED, Primitives::new));
+		}
+
+		// failed lookups are cached too, and still fail
+		var blankBuilder = ObjectDeserializer.blankBuilder();
+		blankBuilder.freezeProviders();
+		var blank = blankBuilder.build();
+		for (int i = 0; i < 2; i++) {
+			assertThrows(SerdeException.class, () -> {
+				blank.deserializeToCollection(Arrays.asList(1, 2), List.class, Integer.class);
+			});
+		}
+	}
+
+	@Test
+	public void testLookupCacheIsBounded() {
+		var cache = new LookupCache<String>();
+		var first = InMemoryFormat.withSupport(cls -> true);
+		cache.put(Integer.class, first, "first");
+		cache.put(null, first, null);
+		assertEquals("first", cache.get(Integer.class, first));
+		assertTrue(LookupCache.isNotFound(cache.get(null, first)));
+		assertNull(cache.get(Long.class, first));
+
+		// the formats created on the fly evict the oldest ones
+		for (int i = 0; i < LookupCache.MAX_CONTEXTS; i++) {
+			cache.put(Integer.class, InMemoryFormat.withSupport(cls -> true), "other");
+		}
+		assertNull(cache.get(Integer.class, first));
+		assertTrue(LookupCache.isNotFound(cache.get(null, first)));
+	}
+
 	static class Simple {
 		String myString = "abcdefg";
 		String nullString;
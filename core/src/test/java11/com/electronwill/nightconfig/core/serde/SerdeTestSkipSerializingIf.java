@@ -143,6 +143,20 @@ public final class SerdeTestSkipSerializingIf {
 		testSkipMe(SkipIfCustomInObject3::new);
 	}
 
+	@Test
+	public void customInObjectIsBoundToEachObject() throws Exception {
+		// the predicate is a field of the object: it must not be cached with the class
+		var skipAll = new SkipIfCustomInObject3();
+		skipAll.name = "n";
+		skipAll.skipPredicate = name -> true;
+		assertTrue(serialize(skipAll).isEmpty());
+
+		var skipNone = new SkipIfCustomInObject3();
+		skipNone.name = "n";
+		skipNone.skipPredicate = name -> false;
+		assertEquals("n", serialize(skipNone).get("name"));
+	}
+
 	static class SkipIfCustomInAnotherClass1 {
 		@SerdeSkipSerializingIf(value = SkipSerIf.CUSTOM, customClass = SkipPredicates.class, customCheck = "skipMethod")
 		String name;
@@ -9,7 +9,6 @@ multiRelease {
 
 dependencies {
 	api(project(":core"))
-	implementation(libs.typesafeConfig)
 
 	testImplementation(project(":test-shared"))
 }
@@ -3,29 +3,38 @@ package com.electronwill.nightconfig.hocon;
 import com.electronwill.nightconfig.core.CommentedConfig;
 import com.electronwill.nightconfig.core.Config;
 import com.electronwill.nightconfig.core.ConfigFormat;
+import com.electronwill.nightconfig.core.UnmodifiableConfig;
 import com.electronwill.nightconfig.core.concurrent.ConcurrentCommentedConfig;
+import com.electronwill.nightconfig.core.file.FileNotFoundAction;
 import com.electronwill.nightconfig.core.io.ConfigParser;
 import com.electronwill.nightconfig.core.io.ParsingException;
 import com.electronwill.nightconfig.core.io.ParsingMode;
-import com.typesafe.config.*;
+import com.electronwill.nightconfig.core.io.ReaderInput;
+import com.electronwill.nightconfig.core.io.WritingException;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Reader;
-import java.util.*;
-
-import static com.electronwill.nightconfig.core.NullObject.NULL_OBJECT;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
 
 /**
- * A HOCON parser that uses the typesafehub config library.
+ * A HOCON parser. It supports the substitutions ({@code ${path}} and {@code ${?path}}), the
+ * self-references, the {@code +=} operator, the value concatenations, the object merging and the
+ * includes ({@code include "name"}, with the optional {@code file()}, {@code classpath()},
+ * {@code url()} and {@code required()} qualifiers).
+ * <p>
+ * The relative file includes are resolved against the directory of the parsed file, or against
+ * the working directory if the data doesn't come from a file.
  *
  * @author TheElectronWill
- * @see <a href="https://github.com/typesafehub/config/blob/master/HOCON.md">HOCON spec by
- * typesafehub</a>
+ * @see <a href="https://github.com/lightbend/config/blob/main/HOCON.md">HOCON specification</a>
  */
 public final class HoconParser implements ConfigParser<CommentedConfig> {
-	private static final ConfigParseOptions OPTIONS = ConfigParseOptions.defaults()
-																		.setAllowMissing(false)
-																		.setSyntax(ConfigSyntax.CONF);
-
 	@Override
 	public ConfigFormat<CommentedConfig> getFormat() {
 		return HoconFormat.instance();
@@ -40,75 +49,65 @@ public final class HoconParser implements ConfigParser<CommentedConfig> {
 
 	@Override
 	public void parse(Reader reader, Config destination, ParsingMode parsingMode) {
-		try {
-			ConfigObject parsed = ConfigFactory.parseReader(reader, OPTIONS).resolve().root();
-
-			if (destination instanceof ConcurrentCommentedConfig) {
-				ConcurrentCommentedConfig conf = (ConcurrentCommentedConfig)destination;
-				conf.bulkCommentedUpdate(view -> {
-					parsingMode.prepareParsing(view);
-					put(parsed, view, parsingMode);
-				});
-			} else if (destination instanceof CommentedConfig) {
-				parsingMode.prepareParsing(destination);
-				put(parsed, (CommentedConfig)destination, parsingMode);
-			} else {
-				parsingMode.prepareParsing(destination);
-				put(parsed, destination, parsingMode);
-			}
-		} catch (Exception e) {
-			throw new ParsingException("HOCON parsing failed", e);
-		}
+		parse(reader, null, destination, parsingMode);
 	}
 
-	private static void put(ConfigObject typesafeConfig, Config destination,
-							ParsingMode parsingMode) {
-		for (Map.Entry<String, ConfigValue> entry : typesafeConfig.entrySet()) {
-			List<String> path = ConfigUtil.splitPath(entry.getKey());
-			parsingMode.put(destination, path, unwrap(entry.getValue().unwrapped()));
-		}
+	@Override
+	public CommentedConfig parse(Path file, FileNotFoundAction notFoundAction, Charset charset) {
+		CommentedConfig config = HoconFormat.instance().createConfig();
+		parse(file, config, ParsingMode.MERGE, notFoundAction, charset);
+		return config;
 	}
 
-	private static void put(ConfigObject typesafeConfig, CommentedConfig destination,
-							ParsingMode parsingMode) {
-		for (Map.Entry<String, ConfigValue> entry : typesafeConfig.entrySet()) {
-			List<String> path = Collections.singletonList(entry.getKey());
-			ConfigValue value = entry.getValue();
-			if (value instanceof ConfigObject) {
-				CommentedConfig subConfig = destination.createSubConfig();
-				put((ConfigObject)value, subConfig, parsingMode);
-				parsingMode.put(destination, path, subConfig);
-			} else {
-				parsingMode.put(destination, path, unwrap(value.unwrapped()));
+	@Override
+	public void parse(Path file, Config destination, ParsingMode parsingMode,
+					  FileNotFoundAction notFoundAction, Charset charset) {
+		try {
+			if (Files.notExists(file) && !notFoundAction.run(file, getFormat())) {
+				return;
 			}
-			List<String> comments = value.origin().comments();
-			if (!comments.isEmpty()) {
-				destination.setComment(path, String.join("\n", value.origin().comments()));
+			try (Reader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file), charset))) {
+				parse(reader, file.toAbsolutePath().getParent(), destination, parsingMode);
 			}
+		} catch (IOException e) {
+			throw new WritingException("An I/O error occured", e);
 		}
 	}
 
-	@SuppressWarnings("unchecked")
-	private static Object unwrap(Object o) {
-		if (o instanceof Map) {
-			Map<String, ?> map = (Map<String, ?>)o;
-			Map<String, Object> unwrappedMap = new HashMap<>(map.size());
-			for (Map.Entry<String, ?> entry : map.entrySet()) {
-				unwrappedMap.put(entry.getKey(), unwrap(entry.getValue()));
-			}
-			return Config.wrap(unwrappedMap, HoconFormat.instance());
-		} else if (o instanceof List) {
-			List<?> list = (List<?>)o;
-			if (!list.isEmpty() && list.get(0) instanceof Map) {
-				List<Config> configList = new ArrayList<>();
-				for (Object element : list) {
-					configList.add((Config)unwrap(element));
+	private void parse(Reader reader, Path includeDirectory, Config destination, ParsingMode parsingMode) {
+		// reads and resolves the whole document before touching the destination
+		Config parsed = destination.createSubConfig();
+		try {
+			new HoconReader(new ReaderInput(reader), includeDirectory, Collections.emptyList(), 0)
+				.readDocument(parsed);
+			new SubstitutionResolver(parsed).resolveAll();
+		} catch (ParsingException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new ParsingException("HOCON parsing failed", e);
+		}
+		if (destination instanceof ConcurrentCommentedConfig) {
+			ConcurrentCommentedConfig conf = (ConcurrentCommentedConfig)destination;
+			conf.bulkCommentedUpdate(view -> {
+				parsingMode.prepareParsing(view);
+				put(parsed, view, parsingMode);
+			});
+		} else {
+			parsingMode.prepareParsing(destination);
+			put(parsed, destination, parsingMode);
+		}
+	}
+
+	private static void put(Config parsed, Config destination, ParsingMode parsingMode) {
+		for (UnmodifiableConfig.Entry entry : parsed.entrySet()) {
+			List<String> path = Collections.singletonList(entry.getKey());
+			parsingMode.put(destination, path, entry.getRawValue());
+			if (parsed instanceof CommentedConfig && destination instanceof CommentedConfig) {
+				String comment = ((CommentedConfig)parsed).getComment(path);
+				if (comment != null) {
+					((CommentedConfig)destination).setComment(path, comment);
 				}
-				return configList;
 			}
-		} else if (o == null) {
-			return NULL_OBJECT;
 		}
-		return o;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,792 @@
+package com.electronwill.nightconfig.hocon;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.core.io.CharacterInput;
+import com.electronwill.nightconfig.core.io.CharsWrapper;
+import com.electronwill.nightconfig.core.io.ParsingException;
+import com.electronwill.nightconfig.core.io.ReaderInput;
+import com.electronwill.nightconfig.core.io.Utils;
+import com.electronwill.nightconfig.hocon.Unresolved.Substitution;
+import com.electronwill.nightconfig.hocon.Unresolved.Whitespace;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.electronwill.nightconfig.core.NullObject.NULL_OBJECT;
+
+/**
+ * Reads a HOCON document into a Config. The values that contain substitutions are represented
+ * by {@link Unresolved} objects, see {@link SubstitutionResolver}.
+ *
+ * @author TheElectronWill
+ * @see <a href="https://github.com/lightbend/config/blob/main/HOCON.md">HOCON specification</a>
+ */
+final class HoconReader {
+	/** The characters that can't appear in unquoted strings. */
+	private static final char[] FORBIDDEN = {
+		'$', '"', '{', '}', '[', ']', ':', '=', ',', '+', '#', '`', '^', '?', '!', '@', '*', '&', '\\'
+	};
+	private static final char[] INCLUDE = {'i', 'n', 'c', 'l', 'u', 'd', 'e'};
+	private static final int MAX_INCLUDE_DEPTH = 50;
+
+	private final CharacterInput input;
+	private final Path includeDirectory;
+	private final List<String> rootPath;
+	private final int includeDepth;
+
+	/** The comments that precede the next field. */
+	private final List<String> pendingComments = new ArrayList<>();
+
+	/**
+	 * @param input            the input to read
+	 * @param includeDirectory the directory of the relative file includes, null for the working directory
+	 * @param rootPath         the path of the object that contains the document (non-empty for includes)
+	 * @param includeDepth     the number of nested includes
+	 */
+	HoconReader(CharacterInput input, Path includeDirectory, List<String> rootPath, int includeDepth) {
+		this.input = input;
+		this.includeDirectory = includeDirectory;
+		this.rootPath = rootPath;
+		this.includeDepth = includeDepth;
+	}
+
+	/**
+	 * Reads the whole document into a config. The root braces are optional.
+	 */
+	void readDocument(Config root) {
+		int first = skipBlank(true);
+		if (first == '{') {
+			input.read();
+			readObject(root, rootPath, true);
+			int after = skipBlank(false);
+			if (after != -1) {
+				throw new ParsingException("Invalid data after the end of the HOCON document: " + (char)after);
+			}
+		} else if (first == '[') {
+			throw new ParsingException("Invalid HOCON document: the root must be an object, not an array");
+		} else {
+			readObject(root, rootPath, false);
+		}
+	}
+
+	// --- Objects and fields ---
+
+	/**
+	 * Reads the fields of an object, after the opening brace (if any).
+	 */
+	private void readObject(Config object, List<String> objectPath, boolean braces) {
+		while (true) {
+			int c = skipBlank(true);
+			if (c == -1) {
+				if (braces) {
+					throw ParsingException.notEnoughData();
+				}
+				return;
+			} else if (c == '}') {
+				if (!braces) {
+					throw new ParsingException("Invalid character '}' outside of an object");
+				}
+				input.read();
+				return;
+			} else if (c == ',') {
+				throw new ParsingException("Invalid comma without a field before it");
+			}
+			readField(object, objectPath);
+			int after = skipSpacesAndComment();
+			if (after == ',') {
+				input.read();
+			} else if (after != '\n' && after != '}' && after != -1) {
+				throw new ParsingException("Invalid separator after a value: " + (char)after);
+			}
+		}
+	}
+
+	private void readField(Config object, List<String> objectPath) {
+		String comment = pendingComments.isEmpty() ? null : String.join("\n", pendingComments);
+		pendingComments.clear();
+		if (isInclude()) {
+			readInclude(object, objectPath);
+			return;
+		}
+		List<String> key = readPath('\0');
+		int sep = skipSpaces();
+		boolean append = false;
+		if (sep == ':' || sep == '=') {
+			input.read();
+		} else if (sep == '+' && input.peek(1) == '=') {
+			input.read();
+			input.read();
+			append = true;
+		} else if (sep != '{') {
+			throw new ParsingException("Invalid key-value separator after " + key + ": "
+				+ (sep == -1 ? "end of data" : String.valueOf((char)sep)));
+		}
+		skipSpaces();
+
+		// a.b.c = value is the same as a { b { c = value } }
+		Config parent = object;
+		List<String> parentPath = objectPath;
+		for (int i = 0; i < key.size() - 1; i++) {
+			parentPath = child(parentPath, key.get(i));
+			parent = subObject(parent, key.get(i), parentPath);
+		}
+		String lastKey = key.get(key.size() - 1);
+		List<String> fieldPath = child(parentPath, lastKey);
+		List<String> keyPath = Collections.singletonList(lastKey);
+		Object previous = parent.getRaw(keyPath);
+
+		Object value = readValue(parent, fieldPath, append ? null : previous);
+		if (append) {
+			value = append(parent, fieldPath, previous, value);
+		} else if (value instanceof Unresolved) {
+			((Unresolved)value).previous = previous;
+		} else if (value instanceof Config && previous instanceof Unresolved) {
+			// previous = ${a}, then previous { b = 1 }: merges both objects
+			value = new Unresolved(parts(previous, value), parent, fieldPath);
+		}
+		parent.set(keyPath, value);
+		if (comment != null && parent instanceof CommentedConfig) {
+			((CommentedConfig)parent).setComment(keyPath, comment);
+		}
+	}
+
+	/**
+	 * Gets or creates the sub-object of a field, to put nested fields in it.
+	 */
+	private Config subObject(Config parent, String key, List<String> path) {
+		List<String> keyPath = Collections.singletonList(key);
+		Object existing = parent.getRaw(keyPath);
+		if (existing instanceof Config) {
+			return (Config)existing;
+		} else if (existing instanceof Unresolved && ((Unresolved)existing).lastPart() instanceof Config) {
+			return (Config)((Unresolved)existing).lastPart();
+		}
+		Config sub = parent.createSubConfig();
+		if (existing instanceof Unresolved) {
+			parent.set(keyPath, new Unresolved(parts(existing, sub), parent, path));
+		} else {
+			parent.set(keyPath, sub);
+		}
+		return sub;
+	}
+
+	/**
+	 * Handles {@code field += value}, which is the same as {@code field = ${?field} [value]}.
+	 */
+	@SuppressWarnings("unchecked")
+	private Object append(Config parent, List<String> fieldPath, Object previous, Object value) {
+		if (!(value instanceof Unresolved) && (previous == null || previous instanceof List)) {
+			List<Object> list = (previous == null) ? new ArrayList<>() : (List<Object>)previous;
+			list.add(value);
+			return list;
+		}
+		List<Object> element = new ArrayList<>(1);
+		element.add(value);
+		Unresolved u = new Unresolved(parts(new Substitution(fieldPath, true), element), parent, fieldPath);
+		u.previous = previous;
+		return u;
+	}
+
+	// --- Includes ---
+
+	private boolean isInclude() {
+		for (int i = 0; i < INCLUDE.length; i++) {
+			if (input.peek(i) != INCLUDE[i]) {
+				return false;
+			}
+		}
+		int n = INCLUDE.length;
+		if (!isSpace(input.peek(n))) {
+			return false;
+		}
+		while (isSpace(input.peek(n))) {
+			n++;
+		}
+		int c = input.peek(n);
+		return c == '"' || c == 'f' || c == 'c' || c == 'u' || c == 'r';
+	}
+
+	/**
+	 * Reads {@code include "name"}, {@code include file("name")}, {@code include classpath("name")},
+	 * {@code include url("name")} and {@code include required(...)}, and reads the included
+	 * document into the current object.
+	 */
+	private void readInclude(Config object, List<String> objectPath) {
+		for (int i = 0; i < INCLUDE.length; i++) {
+			input.read();
+		}
+		skipSpaces();
+		boolean required = readFunctionStart("required");
+		String kind = null;
+		for (String k : new String[] {"file", "classpath", "url"}) {
+			if (readFunctionStart(k)) {
+				kind = k;
+				break;
+			}
+		}
+		if (input.read() != '"') {
+			throw new ParsingException("Invalid include: expected a quoted string");
+		}
+		String name = readQuotedString();
+		if (kind != null) {
+			readFunctionEnd();
+		}
+		if (required) {
+			readFunctionEnd();
+		}
+		if (includeDepth >= MAX_INCLUDE_DEPTH) {
+			throw new ParsingException("Too many nested includes, there is probably a cycle: " + name);
+		}
+		try {
+			if (!include(kind, name, object, objectPath) && required) {
+				throw new ParsingException("Required HOCON include not found: " + name);
+			}
+		} catch (IOException e) {
+			throw new ParsingException("Failed to read the included HOCON document " + name, e);
+		}
+	}
+
+	private boolean readFunctionStart(String function) {
+		int n = function.length();
+		for (int i = 0; i < n; i++) {
+			if (input.peek(i) != function.charAt(i)) {
+				return false;
+			}
+		}
+		if (input.peek(n) != '(') {
+			return false;
+		}
+		for (int i = 0; i <= n; i++) {
+			input.read();
+		}
+		skipSpaces();
+		return true;
+	}
+
+	private void readFunctionEnd() {
+		if (skipSpaces() != ')') {
+			throw new ParsingException("Invalid include: missing ')'");
+		}
+		input.read();
+		skipSpaces();
+	}
+
+	/**
+	 * @return true if the included document has been found, false otherwise
+	 */
+	private boolean include(String kind, String name, Config object, List<String> objectPath)
+		throws IOException {
+		if ("url".equals(kind) || (kind == null && name.contains("://"))) {
+			try (InputStream in = new URL(name).openStream()) {
+				includeStream(in, null, object, objectPath);
+			}
+			return true;
+		}
+		if (!"classpath".equals(kind)) {
+			Path file = (includeDirectory == null) ? Paths.get(name) : includeDirectory.resolve(name);
+			if (Files.isRegularFile(file)) {
+				try (InputStream in = Files.newInputStream(file)) {
+					includeStream(in, file.toAbsolutePath().getParent(), object, objectPath);
+				}
+				return true;
+			} else if ("file".equals(kind)) {
+				return false;
+			}
+		}
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		if (loader == null) {
+			loader = HoconReader.class.getClassLoader();
+		}
+		String resource = name.startsWith("/") ? name.substring(1) : name;
+		try (InputStream in = loader.getResourceAsStream(resource)) {
+			if (in == null) {
+				return false;
+			}
+			includeStream(in, null, object, objectPath);
+			return true;
+		}
+	}
+
+	private void includeStream(InputStream in, Path directory, Config object, List<String> objectPath) {
+		Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		new HoconReader(new ReaderInput(reader), directory, objectPath, includeDepth + 1).readDocument(object);
+	}
+
+	// --- Values ---
+
+	/**
+	 * Reads a value, which can be a concatenation of several values on the same line.
+	 *
+	 * @param owner    the config that contains the value
+	 * @param path     the path of the field, null for array elements
+	 * @param previous the previous value of the field, used to merge objects
+	 */
+	private Object readValue(Config owner, List<String> path, Object previous) {
+		List<Object> parts = new ArrayList<>(2);
+		boolean unresolved = false;
+		while (true) {
+			int c = input.peek();
+			if (c == -1 || c == '\n' || c == ',' || c == '}' || c == ']' || c == '#' || isCommentStart(c)) {
+				break;
+			}
+			Object last = lastValue(parts);
+			if (isSpace(c)) {
+				parts.add(new Whitespace(readSpaces()));
+			} else if (c == '"') {
+				input.read();
+				parts.add(readQuotedString());
+			} else if (c == '{') {
+				input.read();
+				Config target;
+				if (last instanceof Config) {
+					target = (Config)last;// {a = 1} {b = 2} is merged in place
+				} else if (last == null && previous instanceof Config) {
+					target = (Config)previous;// a {b = 1}, then a {c = 2} is merged in place
+				} else {
+					target = owner.createSubConfig();
+				}
+				readObject(target, (path == null) ? rootPath : path, true);
+				if (target == last) {
+					trimTrailingWhitespace(parts);
+				} else {
+					parts.add(target);
+				}
+			} else if (c == '[') {
+				input.read();
+				List<Object> list = readArray(owner, path);
+				if (last instanceof List) {
+					@SuppressWarnings("unchecked")
+					List<Object> lastList = (List<Object>)last;// created by readArray
+					lastList.addAll(list);// [1] [2] is the same as [1, 2]
+					trimTrailingWhitespace(parts);
+				} else {
+					parts.add(list);
+				}
+			} else if (c == '$' && input.peek(1) == '{') {
+				parts.add(readSubstitution());
+				unresolved = true;
+			} else if (c == '}' || Utils.arrayContains(FORBIDDEN, (char)c)) {
+				throw new ParsingException("Invalid character '" + (char)c + "' in an unquoted value");
+			} else {
+				parts.add(new UnquotedText(readUnquoted()));
+			}
+		}
+		// the whitespace at the end is not part of the value
+		trimTrailingWhitespace(parts);
+		if (parts.isEmpty()) {
+			throw new ParsingException("Missing value" + (path == null ? "" : " for " + path));
+		}
+		if (unresolved) {
+			for (int i = 0; i < parts.size(); i++) {
+				Object part = parts.get(i);
+				if (part instanceof UnquotedText) {
+					parts.set(i, part.toString());
+				}
+			}
+			return new Unresolved(parts, owner, path);
+		}
+		if (parts.size() == 1) {
+			Object single = parts.get(0);
+			return (single instanceof UnquotedText) ? simpleValue(single.toString()) : single;
+		}
+		// string concatenation
+		StringBuilder sb = new StringBuilder();
+		for (Object part : parts) {
+			if (part instanceof Config || part instanceof List) {
+				throw new ParsingException("Cannot concatenate an object or an array with a string"
+					+ (path == null ? "" : ", in " + path));
+			}
+			sb.append(part instanceof Whitespace ? ((Whitespace)part).value : part.toString());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Reads the elements of an array, after the opening bracket.
+	 */
+	private List<Object> readArray(Config owner, List<String> path) {
+		List<Object> list = new ArrayList<>();
+		while (true) {
+			int c = skipBlank(false);
+			if (c == ']') {
+				input.read();
+				return list;
+			} else if (c == -1) {
+				throw ParsingException.notEnoughData();
+			} else if (c == ',') {
+				throw new ParsingException("Invalid comma without an element before it, in an array");
+			}
+			list.add(readValue(owner, null, null));
+			int after = skipSpacesAndComment();
+			if (after == ',') {
+				input.read();
+			} else if (after != '\n' && after != ']') {
+				throw new ParsingException("Invalid separator in an array: "
+					+ (after == -1 ? "end of data" : String.valueOf((char)after)));
+			}
+		}
+	}
+
+	private Substitution readSubstitution() {
+		input.read();// $
+		input.read();// {
+		boolean optional = false;
+		if (input.peek() == '?') {
+			input.read();
+			optional = true;
+		}
+		skipSpaces();
+		List<String> path = readPath('}');
+		if (skipSpaces() != '}') {
+			throw new ParsingException("Invalid substitution " + path + ": missing '}'");
+		}
+		input.read();
+		if (rootPath.isEmpty()) {
+			return new Substitution(path, optional);
+		}
+		List<String> absolutePath = new ArrayList<>(rootPath);
+		absolutePath.addAll(path);
+		return new Substitution(absolutePath, optional, path);
+	}
+
+	/**
+	 * Converts an unquoted value to a number, a boolean or null if possible.
+	 */
+	private static Object simpleValue(String text) {
+		switch (text) {
+			case "true":
+				return true;
+			case "false":
+				return false;
+			case "null":
+				return NULL_OBJECT;
+		}
+		char first = text.charAt(0);
+		if (first == '-' || (first >= '0' && first <= '9')) {
+			for (int i = 1; i < text.length(); i++) {
+				char c = text.charAt(i);
+				if (!(c >= '0' && c <= '9') && c != '.' && c != 'e' && c != 'E' && c != '-' && c != '+') {
+					return text;
+				}
+			}
+			try {
+				return Utils.parseNumber(new CharsWrapper(text));
+			} catch (ParsingException ex) {
+				return text;// like 1.2.3
+			}
+		}
+		return text;
+	}
+
+	// --- Keys and strings ---
+
+	/**
+	 * Reads a path expression, like {@code a.b."c.d"}.
+	 *
+	 * @param end an additional character that ends the path
+	 */
+	private List<String> readPath(char end) {
+		List<String> path = new ArrayList<>(2);
+		StringBuilder key = new StringBuilder();
+		boolean keyStarted = false;
+		while (true) {
+			int c = input.peek();
+			if (c == '"') {
+				input.read();
+				key.append(readQuotedString());
+				keyStarted = true;
+			} else if (c == '.') {
+				input.read();
+				if (!keyStarted) {
+					throw new ParsingException("Invalid empty key in path " + path + key);
+				}
+				path.add(key.toString());
+				key.setLength(0);
+				keyStarted = false;
+			} else if (isSpace(c)) {
+				String spaces = readSpaces();
+				int next = input.peek();
+				if (next == -1 || next == '\n' || next == end || isCommentStart(next)
+					|| Utils.arrayContains(FORBIDDEN, (char)next) && next != '"') {
+					break;
+				}
+				key.append(spaces);// whitespace between two parts of the same key
+			} else if (c == -1 || c == '\n' || c == end || Utils.arrayContains(FORBIDDEN, (char)c)
+				|| isCommentStart(c)) {
+				break;
+			} else {
+				key.append((char)input.read());
+				keyStarted = true;
+			}
+		}
+		if (!keyStarted) {
+			int c = input.peek();
+			throw new ParsingException("Invalid key: " + path + key + " followed by "
+				+ (c == -1 ? "end of data" : "'" + (char)c + "'"));
+		}
+		path.add(key.toString());
+		return path;
+	}
+
+	/**
+	 * Reads a quoted string, after the first quote. Handles the triple-quoted strings.
+	 */
+	private String readQuotedString() {
+		StringBuilder sb = new StringBuilder();
+		if (input.peek() == '"' && input.peek(1) == '"') {
+			input.read();
+			input.read();
+			return readTripleQuotedString(sb);
+		}
+		while (true) {
+			char c = input.readChar();
+			if (c == '"') {
+				return sb.toString();
+			} else if (c == '\\') {
+				sb.append(readEscape());
+			} else if (c == '\n') {
+				throw new ParsingException("Invalid newline in a quoted string, use a triple-quoted string instead");
+			} else {
+				sb.append(c);
+			}
+		}
+	}
+
+	private String readTripleQuotedString(StringBuilder sb) {
+		int quotes = 0;
+		while (true) {
+			int c = input.read();
+			if (c == '"') {
+				quotes++;
+				continue;
+			}
+			if (quotes >= 3) {
+				if (c != -1) {
+					input.pushBack((char)c);
+				}
+				break;
+			}
+			if (c == -1) {
+				throw new ParsingException("Not enough data available: unterminated triple-quoted string");
+			}
+			for (; quotes > 0; quotes--) {
+				sb.append('"');
+			}
+			sb.append((char)c);
+		}
+		// the last three quotes end the string, the others are part of it
+		for (; quotes > 3; quotes--) {
+			sb.append('"');
+		}
+		return sb.toString();
+	}
+
+	private char readEscape() {
+		char c = input.readChar();
+		switch (c) {
+			case '"':
+			case '\\':
+			case '/':
+				return c;
+			case 'b':
+				return '\b';
+			case 'f':
+				return '\f';
+			case 'n':
+				return '\n';
+			case 'r':
+				return '\r';
+			case 't':
+				return '\t';
+			case 'u':
+				return (char)Utils.parseInt(input.readChars(4), 16);
+			default:
+				throw new ParsingException("Invalid escapement: \\" + c);
+		}
+	}
+
+	private String readUnquoted() {
+		StringBuilder sb = new StringBuilder();
+		while (true) {
+			int c = input.peek();
+			if (c == -1 || c == '\n' || isSpace(c) || isCommentStart(c)
+				|| Utils.arrayContains(FORBIDDEN, (char)c) && !(c == '+' && isExponentStart(sb))) {
+				return sb.toString();
+			}
+			sb.append((char)input.read());
+		}
+	}
+
+	/**
+	 * Checks if the text is the beginning of a number, up to the 'e' of its exponent. The sign
+	 * of the exponent is part of the number, like in JSON: {@code 1e+5}.
+	 */
+	private static boolean isExponentStart(CharSequence text) {
+		int last = text.length() - 1;
+		if (last < 1 || (text.charAt(last) != 'e' && text.charAt(last) != 'E')) {
+			return false;
+		}
+		for (int i = 0; i < last; i++) {
+			char c = text.charAt(i);
+			if (!(c >= '0' && c <= '9') && c != '.' && !(c == '-' && i == 0)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// --- Whitespace and comments ---
+
+	/**
+	 * Skips the whitespace, the newlines and the comments.
+	 *
+	 * @param collectComments true to keep the comments for the next field
+	 * @return the next character, which is not consumed
+	 */
+	private int skipBlank(boolean collectComments) {
+		boolean blankLine = false;
+		while (true) {
+			int c = input.peek();
+			if (c == '\n') {
+				input.read();
+				if (blankLine) {
+					pendingComments.clear();// a blank line separates the comments from the field
+				}
+				blankLine = true;
+			} else if (isSpace(c)) {
+				input.read();
+			} else if (c == '#' || isCommentStart(c)) {
+				String comment = readComment();
+				if (collectComments) {
+					pendingComments.add(comment);
+				}
+				blankLine = false;
+			} else {
+				return c;
+			}
+		}
+	}
+
+	/**
+	 * Skips the whitespace and the comment, if any, until the end of the line.
+	 *
+	 * @return the next character, which is not consumed
+	 */
+	private int skipSpacesAndComment() {
+		int c = skipSpaces();
+		if (c == '#' || isCommentStart(c)) {
+			readComment();
+			return input.peek();
+		}
+		return c;
+	}
+
+	private int skipSpaces() {
+		int c;
+		while (isSpace(c = input.peek())) {
+			input.read();
+		}
+		return c;
+	}
+
+	private String readSpaces() {
+		StringBuilder sb = new StringBuilder();
+		while (isSpace(input.peek())) {
+			sb.append((char)input.read());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Reads a comment until the end of the line, without consuming the newline.
+	 *
+	 * @return the text of the comment, without the # or // prefix
+	 */
+	private String readComment() {
+		if (input.read() == '/') {
+			input.read();
+		}
+		StringBuilder sb = new StringBuilder();
+		int c;
+		while ((c = input.peek()) != -1 && c != '\n') {
+			sb.append((char)input.read());
+		}
+		int last = sb.length() - 1;
+		if (last >= 0 && sb.charAt(last) == '\r') {
+			sb.setLength(last);
+		}
+		return sb.toString();
+	}
+
+	private boolean isCommentStart(int c) {
+		return c == '/' && input.peek(1) == '/';
+	}
+
+	private static boolean isSpace(int c) {
+		return c != '\n' && c != -1
+			&& (Character.isWhitespace(c) || Character.isSpaceChar(c) || c == '\uFEFF');
+	}
+
+	// --- Utilities ---
+
+	private static Object lastValue(List<Object> parts) {
+		for (int i = parts.size() - 1; i >= 0; i--) {
+			Object part = parts.get(i);
+			if (!(part instanceof Whitespace)) {
+				return part;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the whitespace at the end of the parts, for instance between two merged objects.
+	 */
+	private static void trimTrailingWhitespace(List<Object> parts) {
+		while (!parts.isEmpty() && parts.get(parts.size() - 1) instanceof Whitespace) {
+			parts.remove(parts.size() - 1);
+		}
+	}
+
+	private static List<String> child(List<String> path, String key) {
+		List<String> child = new ArrayList<>(path.size() + 1);
+		child.addAll(path);
+		child.add(key);
+		return child;
+	}
+
+	private static List<Object> parts(Object first, Object second) {
+		List<Object> parts = new ArrayList<>(2);
+		parts.add(first);
+		parts.add(second);
+		return parts;
+	}
+
+	/**
+	 * An unquoted string, which may be a number, a boolean or null if it isn't concatenated.
+	 */
+	private static final class UnquotedText {
+		final String text;
+
+		UnquotedText(String text) {
+			this.text = text;
+		}
+
+		@Override
+		public String toString() {
+			return text;
+		}
+	}
+}
\ No newline at end of file
@@ -54,7 +54,9 @@ public final class HoconWriter implements ConfigWriter {
 		} else {
 			commentedConfig = new FakeUnmodifiableCommentedConfig(config);
 		}
-		writeObject(commentedConfig, new WriterOutput(writer), true);
+		BufferedWriterOutput output = new BufferedWriterOutput(writer);
+		writeObject(commentedConfig, output, true);
+		output.flush();
 	}
 
 	private void writeObject(UnmodifiableCommentedConfig config, CharacterOutput output, boolean root) {
@@ -189,17 +191,18 @@ public final class HoconWriter implements ConfigWriter {
 		}
 		output.write('"');
 		final int length = s.length();
+		int runStart = 0;
 		for (int i = 0; i < length; i++) {
 			char c = s.charAt(i);
-			int escapeIndex = Utils.arrayIndexOf(TO_ESCAPE, c);
-			if (escapeIndex == -1) {
-				output.write(c);
-			} else {// the character must be escaped
-				char escaped = ESCAPED[escapeIndex];
+			int escapeIndex = (c > '\\') ? -1 : Utils.arrayIndexOf(TO_ESCAPE, c);
+			if (escapeIndex != -1) {// the character must be escaped
+				output.write(s, runStart, i - runStart);// the previous characters don't need it
 				output.write('\\');
-				output.write(escaped);
+				output.write(ESCAPED[escapeIndex]);
+				runStart = i + 1;
 			}
 		}
+		output.write(s, runStart, length - runStart);
 		output.write('"');
 	}
 
@@ -0,0 +1,287 @@
+package com.electronwill.nightconfig.hocon;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.core.UnmodifiableConfig;
+import com.electronwill.nightconfig.core.io.ParsingException;
+import com.electronwill.nightconfig.hocon.Unresolved.Substitution;
+import com.electronwill.nightconfig.hocon.Unresolved.Whitespace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Set;
+
+import static com.electronwill.nightconfig.core.NullObject.NULL_OBJECT;
+
+/**
+ * Replaces the {@link Unresolved} values of a config by their actual values, after the whole
+ * document has been read by the {@link HoconReader}.
+ *
+ * @author TheElectronWill
+ */
+final class SubstitutionResolver {
+	/** The value of an optional substitution that refers to nothing. */
+	private static final Object UNDEFINED = new Object();
+
+	private final Config root;
+
+	/** The values that are being resolved, to detect the cycles. */
+	private final Set<Unresolved> inProgress = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	SubstitutionResolver(Config root) {
+		this.root = root;
+	}
+
+	/**
+	 * Resolves all the substitutions of the root config.
+	 */
+	void resolveAll() {
+		resolveConfig(root);
+	}
+
+	private void resolveConfig(Config config) {
+		List<String> keys = new ArrayList<>(config.size());
+		for (UnmodifiableConfig.Entry entry : config.entrySet()) {
+			keys.add(entry.getKey());
+		}
+		for (String key : keys) {
+			List<String> path = Collections.singletonList(key);
+			Object value = config.getRaw(path);
+			Object resolved = resolve(value);
+			if (resolved == UNDEFINED) {
+				config.remove(path);
+			} else if (resolved != value) {
+				config.set(path, resolved);
+			}
+		}
+	}
+
+	private void resolveList(List<Object> list) {
+		for (ListIterator<Object> it = list.listIterator(); it.hasNext(); ) {
+			Object value = it.next();
+			Object resolved = resolve(value);
+			if (resolved == UNDEFINED) {
+				it.remove();
+			} else if (resolved != value) {
+				it.set(resolved);
+			}
+		}
+	}
+
+	/**
+	 * Resolves a value, and the values that it contains.
+	 *
+	 * @return the resolved value, or UNDEFINED
+	 */
+	@SuppressWarnings("unchecked")
+	private Object resolve(Object value) {
+		if (value instanceof Unresolved) {
+			Unresolved u = (Unresolved)value;
+			if (u.resolved == null) {
+				if (!inProgress.add(u)) {
+					throw new ParsingException("Cycle in the HOCON substitutions, involving " + describe(u));
+				}
+				u.resolved = concatenate(u);
+				inProgress.remove(u);
+			}
+			return u.resolved;
+		} else if (value instanceof Config) {
+			resolveConfig((Config)value);
+		} else if (value instanceof List) {
+			resolveList((List<Object>)value);
+		}
+		return value;
+	}
+
+	/**
+	 * Computes the value of an Unresolved by concatenating its parts.
+	 */
+	private Object concatenate(Unresolved u) {
+		List<Object> values = new ArrayList<>(u.parts.size());
+		boolean objects = false, lists = false, others = false;
+		for (Object part : u.parts) {
+			Object value;
+			if (part instanceof Substitution) {
+				value = lookup((Substitution)part, u);
+			} else if (part instanceof Whitespace) {
+				values.add(part);
+				continue;
+			} else {
+				value = resolve(part);
+			}
+			if (value == UNDEFINED) {
+				continue;
+			}
+			if (value instanceof Config) {
+				objects = true;
+			} else if (value instanceof List) {
+				lists = true;
+			} else {
+				others = true;
+			}
+			values.add(value);
+		}
+		Object result = UNDEFINED;
+		if (objects && !lists && !others) {
+			Config merged = u.owner.createSubConfig();
+			for (Object value : values) {
+				if (value instanceof Config) {
+					merge((Config)value, merged);
+				}
+			}
+			result = merged;
+		} else if (lists && !objects && !others) {
+			List<Object> concatenated = new ArrayList<>();
+			for (Object value : values) {
+				if (value instanceof List) {
+					concatenated.addAll((List<?>)value);
+				}
+			}
+			result = concatenated;
+		} else if (others && !objects && !lists) {
+			result = concatenateStrings(values);
+		} else if (objects || lists) {
+			throw new ParsingException("Cannot concatenate values of different types in " + describe(u));
+		}
+
+		// a = {x = 1}, then a = ${b} merges the two objects
+		Object previous = (u.previous == null) ? UNDEFINED : resolve(u.previous);
+		if (result == UNDEFINED) {
+			return previous;
+		} else if (result instanceof Config && previous instanceof Config) {
+			Config merged = u.owner.createSubConfig();
+			merge((Config)previous, merged);
+			merge((Config)result, merged);
+			return merged;
+		}
+		return result;
+	}
+
+	private static Object concatenateStrings(List<Object> values) {
+		// the whitespace at the beginning and at the end isn't part of the value
+		int start = 0, end = values.size();
+		while (start < end && values.get(start) instanceof Whitespace) {
+			start++;
+		}
+		while (end > start && values.get(end - 1) instanceof Whitespace) {
+			end--;
+		}
+		if (end - start == 1) {
+			return values.get(start);// a single value keeps its type
+		}
+		StringBuilder sb = new StringBuilder();
+		for (Object value : values.subList(start, end)) {
+			if (value instanceof Whitespace) {
+				sb.append(((Whitespace)value).value);
+			} else if (value == NULL_OBJECT) {
+				sb.append("null");
+			} else {
+				sb.append(value);
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Finds the value of a substitution.
+	 *
+	 * @return a copy of the value, or UNDEFINED
+	 */
+	private Object lookup(Substitution substitution, Unresolved u) {
+		Object value;
+		if (substitution.path.equals(u.path)) {
+			// self-reference: the value is the previous value of the field
+			value = (u.previous == null) ? UNDEFINED : resolve(u.previous);
+		} else {
+			value = find(substitution.path);
+			if (value == UNDEFINED && substitution.fallbackPath != null) {
+				value = find(substitution.fallbackPath);
+			}
+		}
+		if (value == UNDEFINED) {
+			String env = System.getenv(String.join(".", substitution.path));
+			if (env != null) {
+				return env;
+			} else if (substitution.optional) {
+				return UNDEFINED;
+			}
+			throw new ParsingException("Unresolved HOCON substitution " + substitution + " in " + describe(u));
+		}
+		return copy(value, u.owner);
+	}
+
+	/**
+	 * Gets the resolved value at the given path, starting from the root. Only the values on
+	 * the path are resolved, not their siblings.
+	 */
+	private Object find(List<String> path) {
+		Object current = root;
+		for (String key : path) {
+			if (current instanceof Unresolved) {
+				current = resolve(current);
+			}
+			if (!(current instanceof Config)) {
+				return UNDEFINED;
+			}
+			current = ((Config)current).getRaw(Collections.singletonList(key));
+			if (current == null) {
+				return UNDEFINED;
+			}
+		}
+		return resolve(current);
+	}
+
+	/**
+	 * Copies a value, so that each substitution gives a distinct object.
+	 */
+	private Object copy(Object value, Config owner) {
+		if (value instanceof Config) {
+			Config copy = owner.createSubConfig();
+			merge((Config)value, copy);
+			return copy;
+		} else if (value instanceof List) {
+			List<?> list = (List<?>)value;
+			List<Object> copy = new ArrayList<>(list.size());
+			for (Object element : list) {
+				copy.add(copy(resolve(element), owner));
+			}
+			return copy;
+		}
+		return value;
+	}
+
+	/**
+	 * Merges the source into the destination. The nested objects are merged recursively, the other
+	 * values of the source replace the ones of the destination.
+	 */
+	private void merge(Config source, Config destination) {
+		for (Iterator<? extends UnmodifiableConfig.Entry> it = source.entrySet().iterator(); it.hasNext(); ) {
+			UnmodifiableConfig.Entry entry = it.next();
+			List<String> path = Collections.singletonList(entry.getKey());
+			Object value = resolve(entry.getRawValue());
+			if (value == UNDEFINED) {
+				continue;
+			}
+			Object existing = destination.getRaw(path);
+			if (value instanceof Config && existing instanceof Config) {
+				merge((Config)value, (Config)existing);
+			} else {
+				destination.set(path, copy(value, destination));
+			}
+			if (source instanceof CommentedConfig && destination instanceof CommentedConfig) {
+				String comment = ((CommentedConfig)source).getComment(path);
+				if (comment != null) {
+					((CommentedConfig)destination).setComment(path, comment);
+				}
+			}
+		}
+	}
+
+	private static String describe(Unresolved u) {
+		return (u.path == null) ? "an array element" : String.join(".", u.path);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.electronwill.nightconfig.hocon;
+
+import com.electronwill.nightconfig.core.Config;
+
+import java.util.List;
+
+/**
+ * A HOCON value that contains substitutions. It is put in the configuration during the parsing,
+ * then replaced by its value once the whole document has been read.
+ *
+ * @author TheElectronWill
+ */
+final class Unresolved {
+	/**
+	 * The concatenated parts of the value: Strings, {@link Whitespace}, {@link Substitution},
+	 * Configs, Lists or other Unresolved values.
+	 */
+	final List<Object> parts;
+
+	/** The config that contains the value, used to create the resolved sub-configs. */
+	final Config owner;
+
+	/** The absolute path of the field, null for array elements. */
+	final List<String> path;
+
+	/**
+	 * The value that the field had before this one, used by self-referential substitutions
+	 * and merged with this value if both are objects.
+	 */
+	Object previous;
+
+	/** The resolved value, null if not resolved yet. */
+	Object resolved;
+
+	Unresolved(List<Object> parts, Config owner, List<String> path) {
+		this.parts = parts;
+		this.owner = owner;
+		this.path = path;
+	}
+
+	/**
+	 * @return the last part of the value
+	 */
+	Object lastPart() {
+		return parts.get(parts.size() - 1);
+	}
+
+	/**
+	 * A substitution, like {@code ${path}} or {@code ${?path}}.
+	 */
+	static final class Substitution {
+		final List<String> path;
+		final boolean optional;
+
+		/**
+		 * The path to try if nothing is found at the main path, null if none. The substitutions
+		 * of an included document are relative to the include point, but can also refer to the
+		 * root of the including document.
+		 */
+		final List<String> fallbackPath;
+
+		Substitution(List<String> path, boolean optional) {
+			this(path, optional, null);
+		}
+
+		Substitution(List<String> path, boolean optional, List<String> fallbackPath) {
+			this.path = path;
+			this.optional = optional;
+			this.fallbackPath = fallbackPath;
+		}
+
+		@Override
+		public String toString() {
+			return (optional ? "${?" : "${") + String.join(".", path) + "}";
+		}
+	}
+
+	/**
+	 * Whitespace between two concatenated values. It's only kept in string concatenations.
+	 */
+	static final class Whitespace {
+		final String value;
+
+		Whitespace(String value) {
+			this.value = value;
+		}
+	}
+}
\ No newline at end of file
@@ -5,11 +5,16 @@ import com.electronwill.nightconfig.core.InMemoryCommentedFormat;
 import com.electronwill.nightconfig.core.concurrent.StampedConfig;
 import com.electronwill.nightconfig.core.concurrent.SynchronizedConfig;
 import com.electronwill.nightconfig.core.file.FileNotFoundAction;
+import com.electronwill.nightconfig.core.io.ParsingException;
 import com.electronwill.nightconfig.core.io.ParsingMode;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.HashMap;
 
 import org.junit.jupiter.api.Test;
@@ -52,4 +57,79 @@ class HoconParserTest {
 		Util.checkExample(config);
 	}
 
+	@Test
+	public void readSubstitutions() {
+		String hocon = "base { host = localhost, port = 80 }\n"
+			+ "server = ${base} { port = 8080 }\n"
+			+ "url = \"http://\"${server.host}\":\"${server.port}/\n"
+			+ "path = [a]\n"
+			+ "path = ${path} [b]\n"
+			+ "path += c\n"
+			+ "missing = ${?does.not.exist}\n"
+			+ "fallback = 1\n"
+			+ "fallback = ${?does.not.exist}\n";
+		CommentedConfig config = new HoconParser().parse(new StringReader(hocon));
+		assertEquals("localhost", config.get("server.host"));
+		assertEquals(8080, config.<Integer>get("server.port"));
+		assertEquals(80, config.<Integer>get("base.port"));
+		assertEquals("http://localhost:8080/", config.get("url"));
+		assertEquals(Arrays.asList("a", "b", "c"), config.get("path"));
+		assertFalse(config.contains("missing"));
+		assertEquals(1, config.<Integer>get("fallback"));
+	}
+
+	@Test
+	public void readMergedObjects() {
+		String hocon = "a { x = 1, y { z = true } }\n"
+			+ "a { y.w = 2.5 }\n"
+			+ "a.x = unquoted string  value\n"
+			+ "# Comment\n"
+			+ "b : [1, 2] [3]";
+		CommentedConfig config = new HoconParser().parse(new StringReader(hocon));
+		assertEquals("unquoted string  value", config.get("a.x"));
+		assertEquals(true, config.<Boolean>get("a.y.z"));
+		assertEquals(2.5, config.<Double>get("a.y.w"));
+		assertEquals(Arrays.asList(1, 2, 3), config.get("b"));
+		assertEquals(" Comment", config.getComment("b"));
+	}
+
+	@Test
+	public void readExponents() {
+		String hocon = "a = 1e+5\nb = -1.5E+3\nc = 2e-2\nd = [1E+2, 3]";
+		CommentedConfig config = new HoconParser().parse(new StringReader(hocon));
+		assertEquals(1e5, config.<Double>get("a"));
+		assertEquals(-1.5e3, config.<Double>get("b"));
+		assertEquals(0.02, config.<Double>get("c"));
+		assertEquals(Arrays.asList(100.0, 3), config.get("d"));
+		// outside of a number, '+' is still forbidden
+		assertThrows(ParsingException.class, () -> new HoconParser().parse(new StringReader("a = x+y")));
+		assertThrows(ParsingException.class, () -> new HoconParser().parse(new StringReader("a = e+5")));
+	}
+
+	@Test
+	public void readTripleQuotedStringAtEnd() {
+		CommentedConfig config = new HoconParser().parse(new StringReader("a = \"\"\"x \"y\"\"\"\"\""));
+		assertEquals("x \"y\"\"", config.get("a"));
+		assertThrows(ParsingException.class, () -> new HoconParser().parse(new StringReader("a = \"\"\"x\"\"")));
+	}
+
+	@Test
+	public void readInclude() throws IOException {
+		Path dir = Files.createTempDirectory("night-config-hocon");
+		Path included = dir.resolve("included.conf");
+		Path main = dir.resolve("main.conf");
+		try {
+			Files.write(included, "b = 2\nc = ${a}".getBytes());
+			Files.write(main, "a = 1\nsub { include \"included.conf\" }\ninclude \"not-there.conf\"".getBytes());
+			CommentedConfig config = new HoconParser().parse(main, FileNotFoundAction.THROW_ERROR);
+			assertEquals(1, config.<Integer>get("a"));
+			assertEquals(2, config.<Integer>get("sub.b"));
+			assertEquals(1, config.<Integer>get("sub.c"));// ${a} is relative to the include point
+		} finally {
+			Files.deleteIfExists(included);
+			Files.deleteIfExists(main);
+			Files.deleteIfExists(dir);
+		}
+	}
+
 }
\ No newline at end of file
@@ -3,8 +3,11 @@ package com.electronwill.nightconfig.json;
 import static com.electronwill.nightconfig.core.NullObject.NULL_OBJECT;
 import static com.electronwill.nightconfig.json.MinimalJsonWriter.*;
 
+import java.io.OutputStream;
 import java.io.Writer;
 import java.lang.reflect.Array;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -13,13 +16,14 @@ import java.util.List;
 import java.util.function.Predicate;
 
 import com.electronwill.nightconfig.core.UnmodifiableConfig;
+import com.electronwill.nightconfig.core.io.BufferedWriterOutput;
 import com.electronwill.nightconfig.core.io.CharacterOutput;
 import com.electronwill.nightconfig.core.io.ConfigWriter;
 import com.electronwill.nightconfig.core.io.IndentStyle;
 import com.electronwill.nightconfig.core.io.NewlineStyle;
-import com.electronwill.nightconfig.core.io.Utils;
-import com.electronwill.nightconfig.core.io.WriterOutput;
+import com.electronwill.nightconfig.core.io.Utf8Output;
 import com.electronwill.nightconfig.core.io.WritingException;
+import com.electronwill.nightconfig.core.utils.NumberArrayList;
 
 /**
  * A configurable <a href="http://www.json.org/">JSON</a> writer.
@@ -41,7 +45,25 @@ public final class FancyJsonWriter implements ConfigWriter {
 	@Override
 	public void write(UnmodifiableConfig config, Writer writer) {
 		currentIndentLevel = 0;
-		writeObject(config, new WriterOutput(writer));
+		BufferedWriterOutput output = new BufferedWriterOutput(writer);
+		writeObject(config, output);
+		output.flush();
+	}
+
+	/**
+	 * Writes a configuration. The UTF-8 charset is handled without an intermediate
+	 * {@link Writer}, see {@link Utf8Output}.
+	 */
+	@Override
+	public void write(UnmodifiableConfig config, OutputStream output, Charset charset) {
+		if (!StandardCharsets.UTF_8.equals(charset)) {
+			ConfigWriter.super.write(config, output, charset);
+			return;
+		}
+		currentIndentLevel = 0;
+		try (Utf8Output out = new Utf8Output(output)) {
+			writeObject(config, out);
+		}
 	}
 
 	private void writeObject(UnmodifiableConfig config, CharacterOutput output) {
@@ -131,6 +153,8 @@ public final class FancyJsonWriter implements ConfigWriter {
 			return;
 		}
 		Iterator<?> it = collection.iterator();
+		NumberArrayList<?> numbers = (collection instanceof NumberArrayList) ? (NumberArrayList<?>)collection : null;
+		int index = 0;
 		output.write('[');
 		if (newlineAfterObjectStart) {
 			output.write(newline);
@@ -141,12 +165,15 @@ public final class FancyJsonWriter implements ConfigWriter {
 			increaseIndentLevel();
 		}
 		while (true) {
-			Object value = it.next();
 			if (indentElements) {
 				writeIndent(output);
 			}
-			writeValue(value, output);
-			if (it.hasNext()) {
+			if (numbers == null) {
+				writeValue(it.next(), output);
+			} else {
+				output.write(numbers.elementToString(index++));// no boxing
+			}
+			if ((numbers == null) ? it.hasNext() : index < numbers.size()) {
 				output.write(VALUE_SEPARATOR);
 				if (indentElements) {
 					output.write(newline);
@@ -190,29 +217,6 @@ public final class FancyJsonWriter implements ConfigWriter {
 		}
 	}
 
-	/**
-	 * Writes a String in the JSON format.
-	 *
-	 * @param s      the String to write
-	 * @param output the output to write to
-	 */
-	private void writeString(CharSequence s, CharacterOutput output) {
-		output.write('"');
-		final int length = s.length();
-		for (int i = 0; i < length; i++) {
-			char c = s.charAt(i);
-			int escapeIndex = Utils.arrayIndexOf(TO_ESCAPE, c);
-			if (escapeIndex == -1) {
-				output.write(c);
-			} else {// This character must be escaped
-				char escaped = ESCAPED[escapeIndex];
-				output.write('\\');
-				output.write(escaped);
-			}
-		}
-		output.write('"');
-	}
-
 	private void increaseIndentLevel() {
 		currentIndentLevel++;
 	}
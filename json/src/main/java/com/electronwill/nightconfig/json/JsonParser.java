@@ -2,12 +2,19 @@ package com.electronwill.nightconfig.json;
 
 import com.electronwill.nightconfig.core.Config;
 import com.electronwill.nightconfig.core.ConfigFormat;
+import com.electronwill.nightconfig.core.UnmodifiableConfig;
 import com.electronwill.nightconfig.core.concurrent.ConcurrentConfig;
 import com.electronwill.nightconfig.core.io.*;
+import com.electronwill.nightconfig.core.utils.DoubleArrayList;
 import com.electronwill.nightconfig.core.utils.FastStringReader;
+import com.electronwill.nightconfig.core.utils.IntArrayList;
+import com.electronwill.nightconfig.core.utils.LongArrayList;
+import com.electronwill.nightconfig.core.utils.NumberArrayList;
 
+import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -25,6 +32,8 @@ public final class JsonParser implements ConfigParser<Config> {
 	private final ConfigFormat<Config> configFormat;
 	private boolean emptyDataAccepted = false;
 	private boolean trailingDataAccepted = false;
+	private boolean lazy = false;
+	private boolean compactNumberArrays = false;
 
 	public JsonParser() {
 		this(JsonFormat.fancyInstance());
@@ -76,6 +85,58 @@ public final class JsonParser implements ConfigParser<Config> {
 		return this;
 	}
 
+	/**
+	 * @return true if the parser defers the parsing of nested objects and arrays, false otherwise (default)
+	 */
+	public boolean isLazy() {
+		return lazy;
+	}
+
+	/**
+	 * Enables or disables the lazy parsing mode. False by default. If set to true, the parser
+	 * reads the whole input in memory, but the nested JSON objects and arrays are only located
+	 * by a quick scan of the brackets. Each of them is parsed the first time it's accessed,
+	 * one level at a time. This reduces the parsing time and memory usage of large documents
+	 * when only a small part of the data is used.
+	 * <p>
+	 * Since the nested values are not checked before their first access, a {@link ParsingException}
+	 * may be thrown at that time if they are invalid. The deferred parsing is synchronized: lazy
+	 * values can be read by multiple threads.
+	 * <p>
+	 * When the destination is a {@link ConcurrentConfig}, only the arrays are deferred, because
+	 * the sub-configurations of a concurrent config must have a specific type.
+	 *
+	 * @param lazy true to parse the nested values on first access, false to parse everything immediately
+	 */
+	public JsonParser setLazy(boolean lazy) {
+		this.lazy = lazy;
+		return this;
+	}
+
+	/**
+	 * @return true if the parser stores the arrays of numbers in primitive-backed lists, false otherwise (default)
+	 */
+	public boolean isCompactNumberArrays() {
+		return compactNumberArrays;
+	}
+
+	/**
+	 * Enables or disables the compact storage of numeric arrays. False by default. If set to
+	 * true, the nested JSON arrays that only contain integers are parsed to an
+	 * {@link IntArrayList} or a {@link LongArrayList}, and the ones that only contain
+	 * floating-point numbers are parsed to a {@link DoubleArrayList}. These lists store the
+	 * numbers in a primitive array, which uses much less memory than boxed numbers.
+	 * <p>
+	 * Such lists only accept elements of their type: for instance, an IntArrayList can't
+	 * contain a String. In a LongArrayList, all the integers are Longs, even the small ones.
+	 *
+	 * @param compactNumberArrays true to use primitive-backed lists for arrays of numbers, false to use ArrayLists
+	 */
+	public JsonParser setCompactNumberArrays(boolean compactNumberArrays) {
+		this.compactNumberArrays = compactNumberArrays;
+		return this;
+	}
+
 	/**
 	 * Parses a JSON document, either a JSON object (parsed to a JsonConfig) or a JSON array
 	 * (parsed to a List).
@@ -106,6 +167,9 @@ public final class JsonParser implements ConfigParser<Config> {
 	 * @return either a JsonConfig or a List, depending on the document's type
 	 */
 	public Object parseDocument(Reader reader, Config configModel) {
+		if (lazy) {
+			return parseDocumentLazily(reader, configModel);
+		}
 		CharacterInput input = new ReaderInput(reader);
 		if (input.peek() == -1) {
 			if (emptyDataAccepted) {
@@ -156,6 +220,10 @@ public final class JsonParser implements ConfigParser<Config> {
 	 */
 	@Override
 	public void parse(Reader reader, Config destination, ParsingMode parsingMode) {
+		if (lazy) {
+			parseLazily(reader, destination, parsingMode);
+			return;
+		}
 		CharacterInput input = new ReaderInput(reader);
 		if (input.peek() == -1) {
 			if (emptyDataAccepted) {
@@ -181,6 +249,44 @@ public final class JsonParser implements ConfigParser<Config> {
 		checkNoTrailingData(input);
 	}
 
+	/**
+	 * Parses a JSON object to a compact, read-only config.
+	 *
+	 * @param json the data to parse
+	 * @return an UnmodifiableConfig with the content of the parsed object
+	 * @see #parseUnmodifiable(Reader)
+	 */
+	public UnmodifiableConfig parseUnmodifiable(String json) {
+		return parseUnmodifiable(new FastStringReader(json));
+	}
+
+	/**
+	 * Parses a JSON object to a compact, read-only config.
+	 * <p>
+	 * Instead of a tree of maps, the returned config stores the JSON document as a flat array of
+	 * tokens that refer to the original characters. The values are decoded on access (each
+	 * access decodes the value again), and the lookups walk the tokens. This uses much less
+	 * memory than a regular config, and is suitable for large documents that are only read.
+	 * The input is fully checked by this method.
+	 * <p>
+	 * The {@link #isLazy() lazy} setting has no effect on this method.
+	 *
+	 * @param reader the Reader to parse
+	 * @return an UnmodifiableConfig with the content of the parsed object
+	 */
+	public UnmodifiableConfig parseUnmodifiable(Reader reader) {
+		char[] chars = readAll(reader);
+		int start = startOfDocument(chars);
+		if (start == -1) {
+			return JsonTape.empty(this);
+		}
+		char firstChar = chars[start];
+		if (firstChar != '{') {
+			throw new ParsingException("Invalid first character for a json object: " + firstChar);
+		}
+		return JsonTape.parse(chars, start, this);
+	}
+
 	/**
 	 * Parses a JSON array to a List.
 	 *
@@ -221,6 +327,10 @@ public final class JsonParser implements ConfigParser<Config> {
 	 * @param destination the List where to put the data
 	 */
 	public void parseList(Reader reader, List<?> destination, ParsingMode parsingMode, Config configModel) {
+		if (lazy) {
+			parseListLazily(reader, destination, parsingMode, configModel);
+			return;
+		}
 		CharacterInput input = new ReaderInput(reader);
 		if (input.peek() == -1) {
 			if (emptyDataAccepted) {
@@ -238,7 +348,130 @@ public final class JsonParser implements ConfigParser<Config> {
 		checkNoTrailingData(input);
 	}
 
-	private <T extends Config> T parseObject(CharacterInput input, T config, ParsingMode parsingMode) {
+	// --- Parsing from a char array ---
+
+	/**
+	 * Reads all the remaining characters of a Reader.
+	 */
+	private static char[] readAll(Reader reader) {
+		char[] buffer = new char[8192];
+		int size = 0;
+		try {
+			int read;
+			while ((read = reader.read(buffer, size, buffer.length - size)) != -1) {
+				size += read;
+				if (size == buffer.length) {
+					buffer = Arrays.copyOf(buffer, size * 2);
+				}
+			}
+		} catch (IOException e) {
+			throw ParsingException.readFailed(e);
+		}
+		return Arrays.copyOf(buffer, size);
+	}
+
+	static int skipSpaces(char[] chars, int i) {
+		while (i < chars.length && Utils.arrayContains(SPACES, chars[i])) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * Returns the index of the first character of the document, or -1 if the input is empty and
+	 * empty data is accepted.
+	 */
+	private int startOfDocument(char[] chars) {
+		if (chars.length == 0) {
+			if (emptyDataAccepted) {
+				return -1;
+			} else {
+				throw new ParsingException("No json data: input is empty");
+			}
+		}
+		return skipSpaces(chars, 0);
+	}
+
+	void checkNoTrailingData(char[] chars, int end) {
+		if (!trailingDataAccepted) {
+			int trailing = skipSpaces(chars, end);
+			if (trailing < chars.length) {
+				int length = Math.min(6, chars.length - trailing);
+				String msg = String.format(
+						"Invalid data at the end of the JSON document: %s (use JsonParser.setTrailingDataAccepted(true) if you intend this to work)",
+						new String(chars, trailing, length));
+				throw new ParsingException(msg);
+			}
+		}
+	}
+
+	private Object parseDocumentLazily(Reader reader, Config configModel) {
+		char[] chars = readAll(reader);
+		int start = startOfDocument(chars);
+		if (start == -1) {
+			return configModel.createSubConfig();
+		}
+		LazyJsonSource source = new LazyJsonSource(chars, this, configModel, ParsingMode.MERGE);
+		char firstChar = source.charAt(start);
+		if (firstChar == '{') {
+			int end = source.skipValue(start);
+			checkNoTrailingData(chars, end);
+			Config config = configModel.createSubConfig();
+			source.fillObject(config, start, end);
+			return config;
+		} else if (firstChar == '[') {
+			int end = source.skipValue(start);
+			checkNoTrailingData(chars, end);
+			return source.fillArray(new ArrayList<>(), false, start, end, configModel);
+		} else {
+			throw new ParsingException("Invalid first character for a json document: " + firstChar);
+		}
+	}
+
+	private void parseLazily(Reader reader, Config destination, ParsingMode parsingMode) {
+		char[] chars = readAll(reader);
+		int start = startOfDocument(chars);
+		if (start == -1) {
+			return;
+		}
+		LazyJsonSource source = new LazyJsonSource(chars, this, destination, parsingMode);
+		char firstChar = source.charAt(start);
+		if (firstChar != '{') {
+			throw new ParsingException("Invalid first character for a json object: " + firstChar);
+		}
+		int end = source.skipValue(start);
+		checkNoTrailingData(chars, end);
+		if (destination instanceof ConcurrentConfig) {
+			((ConcurrentConfig)destination).bulkUpdate(view -> {
+				parsingMode.prepareParsing(view);
+				source.fillObject(view, start, end);
+			});
+		} else {
+			parsingMode.prepareParsing(destination);
+			source.fillObject(destination, start, end);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void parseListLazily(Reader reader, List<?> destination, ParsingMode parsingMode, Config configModel) {
+		char[] chars = readAll(reader);
+		int start = startOfDocument(chars);
+		if (start == -1) {
+			return;
+		}
+		LazyJsonSource source = new LazyJsonSource(chars, this, configModel, parsingMode);
+		char firstChar = source.charAt(start);
+		if (firstChar != '[') {
+			throw new ParsingException("Invalid first character for a json array: " + firstChar);
+		}
+		int end = source.skipValue(start);
+		checkNoTrailingData(chars, end);
+		source.fillArray((List<Object>)destination, false, start, end, configModel);
+	}
+
+	// --- Immediate parsing ---
+
+	<T extends Config> T parseObject(CharacterInput input, T config, ParsingMode parsingMode) {
 		char kfirst = input.readCharAndSkip(SPACES);
 		if (kfirst == '}') {
 			return config;
@@ -293,6 +526,25 @@ public final class JsonParser implements ConfigParser<Config> {
 		}
 	}
 
+	private List<Object> parseCompactArray(CharacterInput input, ParsingMode parsingMode, Config parentConfig) {
+		NumberArrayList.Builder builder = new NumberArrayList.Builder();
+		boolean first = true;
+		while (true) {
+			char valueFirst = input.readCharAndSkip(SPACES);// the first character of the value
+			if (first && valueFirst == ']') {
+				return builder.build();
+			}
+			first = false;
+			builder.add(parseValue(input, valueFirst, parsingMode, parentConfig));
+			char next = input.readCharAndSkip(SPACES);// the next character, should be ']' or ','
+			if (next == ']') {// end of the array
+				return builder.build();
+			} else if (next != ',') {// invalid separator
+				throw new ParsingException("Invalid value separator: " + next);
+			}
+		}
+	}
+
 	private Object parseValue(CharacterInput input, char firstChar, ParsingMode parsingMode, Config parentConfig) {
 		switch (firstChar) {
 			case '"':
@@ -300,6 +552,9 @@ public final class JsonParser implements ConfigParser<Config> {
 			case '{':
 				return parseObject(input, parentConfig.createSubConfig(), parsingMode);
 			case '[':
+				if (compactNumberArrays) {
+					return parseCompactArray(input, parsingMode, parentConfig);
+				}
 				return parseArray(input, new ArrayList<>(), parsingMode, parentConfig);
 			case 't':
 				return parseTrue(input);
@@ -314,16 +569,11 @@ public final class JsonParser implements ConfigParser<Config> {
 	}
 
 	private Number parseNumber(CharacterInput input) {
-		CharsWrapper chars = input.readCharsUntil(NUMBER_END);
-		if (chars.contains('.') || chars.contains('e') || chars.contains('E')) {// must be a double
-			return Utils.parseDouble(chars);
-		}
-		long l = Utils.parseLong(chars, 10);
-		int small = (int)l;
-		if (l == small) {// small value => return an int instead of a long
-			return small;
-		}
-		return l;
+		return parseNumber(input.readCharsUntil(NUMBER_END));
+	}
+
+	static Number parseNumber(CharsWrapper chars) {
+		return Utils.parseNumber(chars);// int, long or double, in one pass
 	}
 
 	private boolean parseTrue(CharacterInput input) {
@@ -350,7 +600,7 @@ public final class JsonParser implements ConfigParser<Config> {
 		return null;
 	}
 
-	private String parseString(CharacterInput input) {
+	String parseString(CharacterInput input) {
 		StringBuilder builder = new StringBuilder();
 		boolean escape = false;
 		char c;
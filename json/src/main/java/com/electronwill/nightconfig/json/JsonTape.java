@@ -0,0 +1,546 @@
+package com.electronwill.nightconfig.json;
+
+import com.electronwill.nightconfig.core.ConfigFormat;
+import com.electronwill.nightconfig.core.UnmodifiableConfig;
+import com.electronwill.nightconfig.core.io.ArrayInput;
+import com.electronwill.nightconfig.core.io.CharsWrapper;
+import com.electronwill.nightconfig.core.io.ParsingException;
+
+import java.util.*;
+
+import static com.electronwill.nightconfig.core.NullObject.NULL_OBJECT;
+
+/**
+ * A compact, read-only representation of a JSON document, see
+ * {@link JsonParser#parseUnmodifiable(java.io.Reader)}.
+ * <p>
+ * The document is stored as a flat array of tokens that refer to the original characters.
+ * Each token is made of three ints: its type and two values that depend on the type.
+ * <ul>
+ * <li>OBJECT and ARRAY: the number of elements and the position of the next token after the
+ * end of the container. The elements follow the container's token. In an object, each value
+ * is preceded by its key, which is a STRING token.</li>
+ * <li>STRING and NUMBER: the indexes of the first and last+1 characters of the value
+ * (without the quotes).</li>
+ * <li>TRUE, FALSE and NULL: unused.</li>
+ * </ul>
+ * Values are decoded each time they are accessed, there is no per-entry object.
+ *
+ * @author TheElectronWill
+ */
+final class JsonTape {
+	private static final int OBJECT = 0, ARRAY = 1, STRING = 2, ESCAPED_STRING = 3, NUMBER = 4;
+	private static final int TRUE = 5, FALSE = 6, NULL = 7;
+	private static final char[] TRUE_CHARS = {'t', 'r', 'u', 'e'};
+	private static final char[] FALSE_CHARS = {'f', 'a', 'l', 's', 'e'};
+	private static final char[] NULL_CHARS = {'n', 'u', 'l', 'l'};
+
+	private final char[] chars;
+	private final JsonParser parser;
+	private final int[] tape;
+
+	private JsonTape(char[] chars, JsonParser parser, int[] tape) {
+		this.chars = chars;
+		this.parser = parser;
+		this.tape = tape;
+	}
+
+	/**
+	 * Builds the tape of a JSON object. The whole input is checked.
+	 *
+	 * @param chars    the JSON data
+	 * @param start    the index of the '{' character
+	 * @param parser   the parser that provides the format and the settings
+	 * @return the root object
+	 */
+	static UnmodifiableConfig parse(char[] chars, int start, JsonParser parser) {
+		Builder builder = new Builder(chars);
+		int end = builder.parseValue(start);
+		parser.checkNoTrailingData(chars, end);
+		JsonTape jt = new JsonTape(chars, parser, builder.build());
+		return jt.new ObjectView(0);
+	}
+
+	/**
+	 * @return an empty config, for empty inputs
+	 */
+	static UnmodifiableConfig empty(JsonParser parser) {
+		JsonTape jt = new JsonTape(new char[0], parser, new int[] {OBJECT, 0, 3});
+		return jt.new ObjectView(0);
+	}
+
+	// --- Building ---
+
+	/**
+	 * Builds the tape of a document. The tape of a JsonTape never changes once built, so that
+	 * the views can be read by several threads.
+	 */
+	private static final class Builder {
+		private final char[] chars;
+		private int[] tape;
+		private int tapeSize;
+
+		Builder(char[] chars) {
+			this.chars = chars;
+			this.tape = new int[Math.max(48, chars.length / 4)];
+		}
+
+		int[] build() {
+			return Arrays.copyOf(tape, tapeSize);
+		}
+
+		private int addToken(int type, int a, int b) {
+			if (tapeSize + 3 > tape.length) {
+				tape = Arrays.copyOf(tape, tape.length * 2);
+			}
+			int position = tapeSize;
+			tape[tapeSize++] = type;
+			tape[tapeSize++] = a;
+			tape[tapeSize++] = b;
+			return position;
+		}
+
+		private char charAt(int i) {
+			if (i >= chars.length) {
+				throw ParsingException.notEnoughData();
+			}
+			return chars[i];
+		}
+
+		private int skipSpaces(int i) {
+			return JsonParser.skipSpaces(chars, i);
+		}
+
+		/**
+		 * Parses a value and appends its tokens to the tape.
+		 *
+		 * @param i the index of the first character of the value
+		 * @return the index just after the end of the value
+		 */
+		private int parseValue(int i) {
+			char first = charAt(i);
+			switch (first) {
+				case '{':
+					return parseObject(i);
+				case '[':
+					return parseArray(i);
+				case '"':
+					return parseString(i);
+				case 't':
+					return parseLiteral(i, TRUE_CHARS, TRUE, "expected boolean true");
+				case 'f':
+					return parseLiteral(i, FALSE_CHARS, FALSE, "expected boolean false");
+				case 'n':
+					return parseLiteral(i, NULL_CHARS, NULL, "expected null");
+				default:
+					return parseNumber(i);
+			}
+		}
+
+		private int parseObject(int i) {
+			int token = addToken(OBJECT, 0, 0);
+			int size = 0;
+			i = skipSpaces(i + 1);
+			if (charAt(i) != '}') {
+				while (true) {
+					char kfirst = charAt(i);
+					if (kfirst != '"') {
+						throw new ParsingException("Invalid beginning of a key: " + kfirst);
+					}
+					i = skipSpaces(parseString(i));
+					char sep = charAt(i);
+					if (sep != ':') {
+						throw new ParsingException("Invalid key-value separator: " + sep);
+					}
+					i = skipSpaces(parseValue(skipSpaces(i + 1)));
+					size++;
+					char vsep = charAt(i);
+					if (vsep == '}') {
+						break;
+					} else if (vsep != ',') {
+						throw new ParsingException("Invalid value separator: " + vsep);
+					}
+					i = skipSpaces(i + 1);
+				}
+			}
+			tape[token + 1] = size;
+			tape[token + 2] = tapeSize;
+			return i + 1;
+		}
+
+		private int parseArray(int i) {
+			int token = addToken(ARRAY, 0, 0);
+			int size = 0;
+			i = skipSpaces(i + 1);
+			if (charAt(i) != ']') {
+				while (true) {
+					i = skipSpaces(parseValue(i));
+					size++;
+					char next = charAt(i);
+					if (next == ']') {
+						break;
+					} else if (next != ',') {
+						throw new ParsingException("Invalid value separator: " + next);
+					}
+					i = skipSpaces(i + 1);
+				}
+			}
+			tape[token + 1] = size;
+			tape[token + 2] = tapeSize;
+			return i + 1;
+		}
+
+		private int parseString(int i) {
+			int start = i + 1;
+			boolean escaped = false;
+			for (i = start; ; i++) {
+				char c = charAt(i);
+				if (c == '"') {
+					break;
+				} else if (c == '\\') {
+					escaped = true;
+					char e = charAt(++i);
+					if (e == 'u') {
+						for (int end = i + 4; i < end; ) {
+							char h = charAt(++i);
+							if (Character.digit(h, 16) == -1) {
+								throw new ParsingException("Invalid escapement: \\u" + new CharsWrapper(chars, end - 3, i + 1));
+							}
+						}
+					} else if ("\"\\/bfnrt".indexOf(e) < 0) {
+						throw new ParsingException("Invalid escapement: \\" + e);
+					}
+				}
+			}
+			addToken(escaped ? ESCAPED_STRING : STRING, start, i);
+			return i + 1;
+		}
+
+		private int parseLiteral(int i, char[] expected, int type, String msg) {
+			int end = i + expected.length;
+			if (end > chars.length) {
+				throw ParsingException.notEnoughData();
+			}
+			CharsWrapper value = new CharsWrapper(chars, i, end);
+			if (!value.contentEquals(expected)) {
+				throw new ParsingException("Invalid value: " + value + " - " + msg);
+			}
+			addToken(type, 0, 0);
+			return end;
+		}
+
+		/**
+		 * Checks a number, with the grammar of {@link com.electronwill.nightconfig.core.io.Utils#parseDouble}:
+		 * an optional sign, digits, an optional fractional part and an optional exponent.
+		 */
+		private int parseNumber(int start) {
+			int i = start;
+			if (i < chars.length && (chars[i] == '-' || chars[i] == '+')) {
+				i++;
+			}
+			int digitsStart = i;
+			i = skipDigits(i);
+			boolean valid = (i != digitsStart);
+			if (valid && i < chars.length && chars[i] == '.') {
+				digitsStart = ++i;
+				i = skipDigits(i);
+				valid = (i != digitsStart);
+			}
+			if (valid && i < chars.length && (chars[i] == 'e' || chars[i] == 'E')) {
+				i++;
+				if (i < chars.length && (chars[i] == '-' || chars[i] == '+')) {
+					i++;
+				}
+				digitsStart = i;
+				i = skipDigits(i);
+				valid = (i != digitsStart);
+			}
+			if (!valid || (i < chars.length && isNumberChar(chars[i]))) {
+				int end = i;
+				while (end < chars.length && isNumberChar(chars[end])) {
+					end++;
+				}
+				throw new ParsingException("Invalid number: " + new CharsWrapper(chars, start, Math.max(end, start + 1)));
+			}
+			addToken(NUMBER, start, i);
+			return i;
+		}
+
+		private int skipDigits(int i) {
+			while (i < chars.length && chars[i] >= '0' && chars[i] <= '9') {
+				i++;
+			}
+			return i;
+		}
+
+		private static boolean isNumberChar(char c) {
+			return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+				|| c == '-' || c == '+' || c == '.';
+		}
+	}
+
+	// --- Reading ---
+
+	/** @return the position of the token that follows the value at the given position */
+	private int next(int token) {
+		int type = tape[token];
+		return (type == OBJECT || type == ARRAY) ? tape[token + 2] : token + 3;
+	}
+
+	private Object decode(int token, boolean inConfig) {
+		switch (tape[token]) {
+			case OBJECT:
+				return new ObjectView(token);
+			case ARRAY:
+				return new ArrayView(token);
+			case STRING:
+				return new String(chars, tape[token + 1], tape[token + 2] - tape[token + 1]);
+			case ESCAPED_STRING:
+				// the input contains the closing quote, which ends the parsing of the string
+				return parser.parseString(new ArrayInput(chars, tape[token + 1], tape[token + 2] + 1));
+			case NUMBER:
+				return JsonParser.parseNumber(new CharsWrapper(chars, tape[token + 1], tape[token + 2]));
+			case TRUE:
+				return true;
+			case FALSE:
+				return false;
+			default:
+				return inConfig ? NULL_OBJECT : null;
+		}
+	}
+
+	private boolean keyEquals(int token, String key) {
+		int start = tape[token + 1], end = tape[token + 2];
+		if (tape[token] == ESCAPED_STRING) {
+			return key.equals(decode(token, false));
+		}
+		if (end - start != key.length()) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (chars[i] != key.charAt(i - start)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Finds the value associated to a key in an object.
+	 *
+	 * @return the position of the value's token, or -1 if not found
+	 */
+	private int find(int object, String key) {
+		int size = tape[object + 1];
+		int token = object + 3;
+		for (int i = 0; i < size; i++) {
+			int valueToken = token + 3;
+			if (keyEquals(token, key)) {
+				return valueToken;
+			}
+			token = next(valueToken);
+		}
+		return -1;
+	}
+
+	/**
+	 * Finds the value at the given path.
+	 *
+	 * @return the position of the value's token, or -1 if not found
+	 */
+	private int find(int object, List<String> path) {
+		int token = object;
+		for (String key : path) {
+			if (tape[token] != OBJECT) {
+				return -1;
+			}
+			token = find(token, key);
+			if (token == -1) {
+				return -1;
+			}
+		}
+		return token;
+	}
+
+	/**
+	 * A JSON object of the tape.
+	 */
+	final class ObjectView implements UnmodifiableConfig {
+		private final int token;
+
+		ObjectView(int token) {
+			this.token = token;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T getRaw(List<String> path) {
+			int valueToken = find(token, path);
+			return (valueToken == -1) ? null : (T)decode(valueToken, true);
+		}
+
+		@Override
+		public boolean contains(List<String> path) {
+			return find(token, path) != -1;
+		}
+
+		@Override
+		public boolean isNull(List<String> path) {
+			int valueToken = find(token, path);
+			return valueToken != -1 && tape[valueToken] == NULL;
+		}
+
+		@Override
+		public int size() {
+			return tape[token + 1];
+		}
+
+		@Override
+		@Deprecated
+		public Map<String, Object> valueMap() {
+			Map<String, Object> map = new LinkedHashMap<>();
+			for (Entry entry : entrySet()) {
+				map.put(entry.getKey(), entry.getRawValue());
+			}
+			return Collections.unmodifiableMap(map);
+		}
+
+		@Override
+		public Set<? extends Entry> entrySet() {
+			return new AbstractSet<TapeEntry>() {
+				@Override
+				public Iterator<TapeEntry> iterator() {
+					return new Iterator<TapeEntry>() {
+						private int remaining = size();
+						private int keyToken = token + 3;
+
+						@Override
+						public boolean hasNext() {
+							return remaining > 0;
+						}
+
+						@Override
+						public TapeEntry next() {
+							if (remaining == 0) {
+								throw new NoSuchElementException();
+							}
+							remaining--;
+							TapeEntry entry = new TapeEntry(keyToken);
+							keyToken = JsonTape.this.next(keyToken + 3);
+							return entry;
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return ObjectView.this.size();
+				}
+			};
+		}
+
+		@Override
+		public ConfigFormat<?> configFormat() {
+			return parser.getFormat();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			if (!(obj instanceof UnmodifiableConfig)) {
+				return false;
+			}
+			UnmodifiableConfig conf = (UnmodifiableConfig)obj;
+			if (conf.size() != size()) {
+				return false;
+			}
+			for (Entry entry : entrySet()) {
+				List<String> key = Collections.singletonList(entry.getKey());
+				Object otherRaw = conf.getRaw(key);
+				if (otherRaw == null && !conf.contains(key)) {
+					return false;// a missing key isn't equal to a null value
+				}
+				Object otherValue = (otherRaw == NULL_OBJECT) ? null : otherRaw;
+				if (!Objects.equals(entry.getValue(), otherValue)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			// same as Map.hashCode(), to be consistent with the other configs
+			int h = 0;
+			for (Entry entry : entrySet()) {
+				h += Objects.hashCode(entry.getKey()) ^ Objects.hashCode(entry.getRawValue());
+			}
+			return h;
+		}
+
+		@Override
+		public String toString() {
+			return "JsonTape.ObjectView:" + valueMap();
+		}
+	}
+
+	/**
+	 * An entry of a JSON object of the tape.
+	 */
+	private final class TapeEntry implements UnmodifiableConfig.Entry {
+		private final int keyToken;
+
+		TapeEntry(int keyToken) {
+			this.keyToken = keyToken;
+		}
+
+		@Override
+		public String getKey() {
+			return (String)decode(keyToken, false);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T getRawValue() {
+			return (T)decode(keyToken + 3, true);
+		}
+	}
+
+	/**
+	 * A JSON array of the tape.
+	 */
+	final class ArrayView extends AbstractList<Object> implements RandomAccess {
+		private final int token;
+		private volatile int[] elements; // positions of the elements' tokens, computed on first access
+
+		ArrayView(int token) {
+			this.token = token;
+		}
+
+		private int[] elements() {
+			int[] e = elements;
+			if (e == null) {
+				e = new int[tape[token + 1]];
+				int element = token + 3;
+				for (int i = 0; i < e.length; i++) {
+					e[i] = element;
+					element = next(element);
+				}
+				elements = e;
+			}
+			return e;
+		}
+
+		@Override
+		public Object get(int index) {
+			return decode(elements()[index], false);
+		}
+
+		@Override
+		public int size() {
+			return tape[token + 1];
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.electronwill.nightconfig.json;
+
+import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.core.utils.ConfigWrapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A JSON object that is parsed on first access, see {@link JsonParser#setLazy(boolean)}.
+ * <p>
+ * The parsing is synchronized, therefore the config can be read by multiple threads, like a
+ * config that has been fully parsed.
+ *
+ * @author TheElectronWill
+ */
+final class LazyJsonConfig extends ConfigWrapper<Config> {
+	/** The source of the object, null when the object has been parsed. */
+	private volatile LazyJsonSource source;
+	private final int start, end;
+
+	LazyJsonConfig(Config config, LazyJsonSource source, int start, int end) {
+		super(config);
+		this.source = source;
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * @return true if the JSON object has been parsed
+	 */
+	boolean isParsed() {
+		return source == null;
+	}
+
+	private void ensureParsed() {
+		if (source != null) {
+			synchronized (this) {
+				LazyJsonSource src = source;
+				if (src != null) {
+					src.fillObject(config, start, end);
+					source = null; // the source can be garbage collected
+				}
+			}
+		}
+	}
+
+	@Override
+	public <T> T getRaw(List<String> path) {
+		ensureParsed();
+		return config.getRaw(path);
+	}
+
+	@Override
+	public boolean contains(List<String> path) {
+		ensureParsed();
+		return config.contains(path);
+	}
+
+	@Override
+	public int size() {
+		ensureParsed();
+		return config.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		ensureParsed();
+		return config.isEmpty();
+	}
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public Map<String, Object> valueMap() {
+		ensureParsed();
+		return config.valueMap();
+	}
+
+	@Override
+	public Set<? extends Config.Entry> entrySet() {
+		ensureParsed();
+		return config.entrySet();
+	}
+
+	@Override
+	public <T> T set(List<String> path, Object value) {
+		ensureParsed();
+		return config.set(path, value);
+	}
+
+	@Override
+	public boolean add(List<String> path, Object value) {
+		ensureParsed();
+		return config.add(path, value);
+	}
+
+	@Override
+	public <T> T remove(List<String> path) {
+		ensureParsed();
+		return config.remove(path);
+	}
+
+	@Override
+	public void clear() {
+		ensureParsed();
+		config.clear();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		ensureParsed();
+		return obj == this || config.equals(obj);
+	}
+
+	@Override
+	public int hashCode() {
+		ensureParsed();
+		return config.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		ensureParsed();
+		return config.toString();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.electronwill.nightconfig.json;
+
+import com.electronwill.nightconfig.core.Config;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A JSON array that is parsed on first access, see {@link JsonParser#setLazy(boolean)}.
+ * <p>
+ * The parsing is synchronized, therefore the list can be read by multiple threads, like a
+ * list that has been fully parsed.
+ *
+ * @author TheElectronWill
+ */
+final class LazyJsonList extends AbstractList<Object> implements RandomAccess {
+	/** The source of the array, null when the array has been parsed. */
+	private volatile LazyJsonSource source;
+	private final int start, end;
+	private final Config parentConfig;
+	private List<Object> list;
+
+	LazyJsonList(LazyJsonSource source, int start, int end, Config parentConfig) {
+		this.source = source;
+		this.start = start;
+		this.end = end;
+		this.parentConfig = parentConfig;
+	}
+
+	/**
+	 * @return true if the JSON array has been parsed
+	 */
+	boolean isParsed() {
+		return source == null;
+	}
+
+	private List<Object> parsed() {
+		if (source != null) {
+			synchronized (this) {
+				LazyJsonSource src = source;
+				if (src != null) {
+					list = src.fillArray(new ArrayList<>(), src.compactNumberArrays, start, end, parentConfig);
+					source = null; // the source can be garbage collected, and the list is published
+				}
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public Object get(int index) {
+		return parsed().get(index);
+	}
+
+	@Override
+	public int size() {
+		return parsed().size();
+	}
+
+	@Override
+	public Object set(int index, Object element) {
+		return parsed().set(index, element);
+	}
+
+	@Override
+	public void add(int index, Object element) {
+		parsed().add(index, element);
+		modCount++;
+	}
+
+	@Override
+	public Object remove(int index) {
+		Object removed = parsed().remove(index);
+		modCount++;
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		parsed().clear();
+		modCount++;
+	}
+}
\ No newline at end of file
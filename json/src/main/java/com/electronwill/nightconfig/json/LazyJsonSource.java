@@ -0,0 +1,241 @@
+package com.electronwill.nightconfig.json;
+
+import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.core.concurrent.ConcurrentConfig;
+import com.electronwill.nightconfig.core.io.ArrayInput;
+import com.electronwill.nightconfig.core.io.CharsWrapper;
+import com.electronwill.nightconfig.core.io.ParsingException;
+import com.electronwill.nightconfig.core.io.ParsingMode;
+import com.electronwill.nightconfig.core.io.Utils;
+import com.electronwill.nightconfig.core.utils.NumberArrayList;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The content of a JSON document that is parsed lazily, see {@link JsonParser#setLazy(boolean)}.
+ * <p>
+ * The whole document is kept in memory. Objects and arrays are first located by a structural
+ * scan that only looks at brackets and quotes, then parsed one level at a time, when they are
+ * accessed for the first time.
+ *
+ * @author TheElectronWill
+ */
+final class LazyJsonSource {
+	private static final char[] VALUE_END = {',', '}', ']', ' ', '\t', '\n', '\r'};
+	private static final char[] TRUE = {'t', 'r', 'u', 'e'}, FALSE = {'f', 'a', 'l', 's', 'e'};
+	private static final char[] NULL = {'n', 'u', 'l', 'l'};
+
+	final char[] chars;
+	final int limit;
+	private final JsonParser parser;
+	private final ParsingMode parsingMode;
+	final boolean compactNumberArrays;
+
+	/**
+	 * The sub-configurations of a concurrent config must be created by the concurrent config
+	 * itself, and they cannot be wrapped. In that case, only the arrays are deferred.
+	 */
+	private final Config concurrentModel;
+
+	LazyJsonSource(char[] chars, JsonParser parser, Config configModel, ParsingMode parsingMode) {
+		this.chars = chars;
+		this.limit = chars.length;
+		this.parser = parser;
+		this.parsingMode = parsingMode;
+		this.compactNumberArrays = parser.isCompactNumberArrays();
+		this.concurrentModel = (configModel instanceof ConcurrentConfig) ? configModel : null;
+	}
+
+	char charAt(int i) {
+		if (i >= limit) {
+			throw ParsingException.notEnoughData();
+		}
+		return chars[i];
+	}
+
+	private int skipSpaces(int i) {
+		return JsonParser.skipSpaces(chars, i);
+	}
+
+	/**
+	 * Skips a JSON value without parsing it.
+	 *
+	 * @param i the index of the first character of the value
+	 * @return the index just after the end of the value
+	 */
+	int skipValue(int i) {
+		char first = charAt(i);
+		if (first == '"') {
+			return skipString(i + 1);
+		}
+		if (first != '{' && first != '[') {
+			i++;
+			while (i < limit && !Utils.arrayContains(VALUE_END, chars[i])) {
+				i++;
+			}
+			return i;
+		}
+		// structural scan: only the brackets and the strings matter
+		int depth = 0;
+		while (i < limit) {
+			char c = chars[i++];
+			switch (c) {
+				case '"':
+					i = skipString(i);
+					break;
+				case '{':
+				case '[':
+					depth++;
+					break;
+				case '}':
+				case ']':
+					if (--depth == 0) {
+						return i;
+					}
+					break;
+			}
+		}
+		throw ParsingException.notEnoughData();
+	}
+
+	/**
+	 * @param i the index just after the opening quote
+	 * @return the index just after the closing quote
+	 */
+	private int skipString(int i) {
+		while (i < limit) {
+			char c = chars[i++];
+			if (c == '\\') {
+				i++;
+			} else if (c == '"') {
+				return i;
+			}
+		}
+		throw ParsingException.notEnoughData();
+	}
+
+	/**
+	 * Parses the first level of a JSON object into a config. The objects and arrays it
+	 * contains are not parsed yet.
+	 *
+	 * @param start the index of the '{' character
+	 * @param end   the index just after the '}' character
+	 */
+	void fillObject(Config config, int start, int end) {
+		int i = skipSpaces(start + 1);
+		if (charAt(i) == '}') {
+			return;
+		}
+		while (true) {
+			char kfirst = charAt(i);
+			if (kfirst != '"') {
+				throw new ParsingException("Invalid beginning of a key: " + kfirst);
+			}
+			int keyEnd = skipString(i + 1);
+			List<String> key = Collections.singletonList(parseString(i, keyEnd));
+			i = skipSpaces(keyEnd);
+			char sep = charAt(i);
+			if (sep != ':') {
+				throw new ParsingException("Invalid key-value separator: " + sep);
+			}
+			i = skipSpaces(i + 1);
+			int valueEnd = skipValue(i);
+			parsingMode.put(config, key, parseValue(i, valueEnd, config));
+			i = skipSpaces(valueEnd);
+			char vsep = charAt(i);
+			if (vsep == '}') {
+				return;
+			} else if (vsep != ',' || i >= end) {
+				throw new ParsingException("Invalid value separator: " + vsep);
+			}
+			i = skipSpaces(i + 1);
+		}
+	}
+
+	/**
+	 * Parses the first level of a JSON array into a list. The objects and arrays it contains
+	 * are not parsed yet.
+	 *
+	 * @param list    the list to fill, empty if compact is true
+	 * @param compact true to return a {@link NumberArrayList} if the array only contains numbers
+	 * @param start   the index of the '[' character
+	 * @param end     the index just after the ']' character
+	 * @return the filled list, or a NumberArrayList
+	 */
+	List<Object> fillArray(List<Object> list, boolean compact, int start, int end, Config parentConfig) {
+		NumberArrayList.Builder builder = compact ? new NumberArrayList.Builder(list) : null;
+		int i = skipSpaces(start + 1);
+		if (charAt(i) == ']') {
+			return list;
+		}
+		while (true) {
+			int valueEnd = skipValue(i);
+			Object value = parseValue(i, valueEnd, parentConfig);
+			if (builder == null) {
+				list.add(value);
+			} else {
+				builder.add(value);
+			}
+			i = skipSpaces(valueEnd);
+			char next = charAt(i);
+			if (next == ']') {
+				return (builder == null) ? list : builder.build();
+			} else if (next != ',' || i >= end) {
+				throw new ParsingException("Invalid value separator: " + next);
+			}
+			i = skipSpaces(i + 1);
+		}
+	}
+
+	private Object parseValue(int start, int end, Config parentConfig) {
+		char first = chars[start];
+		switch (first) {
+			case '"':
+				return parseString(start, end);
+			case '{': {
+				if (concurrentModel == null) {
+					return new LazyJsonConfig(parentConfig.createSubConfig(), this, start, end);
+				}
+				ArrayInput input = new ArrayInput(chars, start + 1, end);
+				return parser.parseObject(input, parentConfig.createSubConfig(), parsingMode);
+			}
+			case '[': {
+				Config model = (concurrentModel == null) ? parentConfig : concurrentModel;
+				return new LazyJsonList(this, start, end, model);
+			}
+			case 't':
+				checkLiteral(start, end, TRUE, "expected boolean true");
+				return true;
+			case 'f':
+				checkLiteral(start, end, FALSE, "expected boolean false");
+				return false;
+			case 'n':
+				checkLiteral(start, end, NULL, "expected null");
+				return null;
+			default:
+				return JsonParser.parseNumber(new CharsWrapper(chars, start, end));
+		}
+	}
+
+	private void checkLiteral(int start, int end, char[] expected, String msg) {
+		CharsWrapper value = new CharsWrapper(chars, start, end);
+		if (!value.contentEquals(expected)) {
+			throw new ParsingException("Invalid value: " + value + " - " + msg);
+		}
+	}
+
+	/**
+	 * @param start the index of the opening quote
+	 * @param end   the index just after the closing quote
+	 */
+	private String parseString(int start, int end) {
+		for (int i = start + 1; i < end - 1; i++) {
+			if (chars[i] == '\\') {
+				// slow path: unescape the string with the normal parser
+				return parser.parseString(new ArrayInput(chars, start + 1, end));
+			}
+		}
+		return new String(chars, start + 1, end - start - 2);
+	}
+}
\ No newline at end of file
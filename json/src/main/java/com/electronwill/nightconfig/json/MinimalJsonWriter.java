@@ -2,8 +2,12 @@ package com.electronwill.nightconfig.json;
 
 import com.electronwill.nightconfig.core.UnmodifiableConfig;
 import com.electronwill.nightconfig.core.io.*;
+import com.electronwill.nightconfig.core.utils.NumberArrayList;
 
+import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static com.electronwill.nightconfig.core.NullObject.NULL_OBJECT;
@@ -27,28 +31,51 @@ public final class MinimalJsonWriter implements ConfigWriter {
 	 */
 	@Override
 	public void write(UnmodifiableConfig config, Writer writer) {
-		writeConfig(config, new WriterOutput(writer));
+		BufferedWriterOutput output = new BufferedWriterOutput(writer);
+		writeConfig(config, output);
+		output.flush();
+	}
+
+	/**
+	 * Writes a configuration in the JSON object format. The UTF-8 charset is handled without an
+	 * intermediate {@link Writer}, see {@link Utf8Output}.
+	 */
+	@Override
+	public void write(UnmodifiableConfig config, OutputStream output, Charset charset) {
+		if (!StandardCharsets.UTF_8.equals(charset)) {
+			ConfigWriter.super.write(config, output, charset);
+			return;
+		}
+		try (Utf8Output out = new Utf8Output(output)) {
+			writeConfig(config, out);
+		}
 	}
 
 	/**
 	 * Writes a Collection in the JSON array format.
 	 */
 	public void writeCollection(Collection<?> collection, Writer writer) {
-		writeCollection(collection, new WriterOutput(writer));
+		BufferedWriterOutput output = new BufferedWriterOutput(writer);
+		writeCollection(collection, output);
+		output.flush();
 	}
 
 	/**
 	 * Writes a String in the JSON string format.
 	 */
 	public void writeString(CharSequence csq, Writer writer) {
-		writeString(csq, new WriterOutput(writer));
+		BufferedWriterOutput output = new BufferedWriterOutput(writer);
+		writeString(csq, output);
+		output.flush();
 	}
 
 	/**
 	 * Writes a value in the JSON format.
 	 */
 	public void writeValue(Object value, Writer writer) {
-		writeValue(value, new WriterOutput(writer));
+		BufferedWriterOutput output = new BufferedWriterOutput(writer);
+		writeValue(value, output);
+		output.flush();
 	}
 
 	private void writeConfig(UnmodifiableConfig config, CharacterOutput output) {
@@ -85,6 +112,8 @@ public final class MinimalJsonWriter implements ConfigWriter {
 			output.write(v.toString());
 		} else if (v instanceof UnmodifiableConfig) {
 			writeConfig((UnmodifiableConfig)v, output);
+		} else if (v instanceof NumberArrayList) {
+			writeNumbers((NumberArrayList<?>)v, output);
 		} else if (v instanceof Collection) {
 			writeCollection((Collection<?>)v, output);
 		} else if (v instanceof Boolean) {
@@ -139,6 +168,21 @@ public final class MinimalJsonWriter implements ConfigWriter {
 		output.write(']');
 	}
 
+	private void writeNumbers(NumberArrayList<?> list, CharacterOutput output) {
+		if (list.isEmpty()) {
+			output.write(EMPTY_ARRAY);
+			return;
+		}
+		output.write('[');
+		int lastIndex = list.size() - 1;
+		for (int i = 0; i < lastIndex; i++) {
+			output.write(list.elementToString(i));// no boxing
+			output.write(',');
+		}
+		output.write(list.elementToString(lastIndex));
+		output.write(']');
+	}
+
 	private void writeBoolean(boolean b, CharacterOutput output) {
 		if (b) {
 			output.write(TRUE_CHARS);
@@ -147,20 +191,26 @@ public final class MinimalJsonWriter implements ConfigWriter {
 		}
 	}
 
-	private void writeString(CharSequence csq, CharacterOutput output) {
+	/**
+	 * Writes a JSON string. The characters that don't need to be escaped are written in runs,
+	 * instead of one by one.
+	 */
+	static void writeString(CharSequence csq, CharacterOutput output) {
+		final String s = csq.toString();
+		final int length = s.length();
+		int runStart = 0;
 		output.write('"');
-		final int length = csq.length();
 		for (int i = 0; i < length; i++) {
-			char c = csq.charAt(i);
-			int escapeIndex = Utils.arrayIndexOf(TO_ESCAPE, c);
-			if (escapeIndex == -1) {
-				output.write(c);
-			} else {// the character must be escaped
-				char escaped = ESCAPED[escapeIndex];
+			char c = s.charAt(i);
+			int escapeIndex = (c > '\\') ? -1 : Utils.arrayIndexOf(TO_ESCAPE, c);
+			if (escapeIndex != -1) {// the character must be escaped
+				output.write(s, runStart, i - runStart);
 				output.write('\\');
-				output.write(escaped);
+				output.write(ESCAPED[escapeIndex]);
+				runStart = i + 1;
 			}
 		}
+		output.write(s, runStart, length - runStart);
 		output.write('"');
 	}
 }
\ No newline at end of file
@@ -4,16 +4,26 @@ import org.junit.jupiter.api.Test;
 
 import com.electronwill.nightconfig.core.Config;
 import com.electronwill.nightconfig.core.InMemoryCommentedFormat;
+import com.electronwill.nightconfig.core.UnmodifiableConfig;
 import com.electronwill.nightconfig.core.concurrent.StampedConfig;
 import com.electronwill.nightconfig.core.concurrent.SynchronizedConfig;
 import com.electronwill.nightconfig.core.file.FileNotFoundAction;
 import com.electronwill.nightconfig.core.io.ParsingException;
 import com.electronwill.nightconfig.core.io.ParsingMode;
+import com.electronwill.nightconfig.core.utils.DoubleArrayList;
+import com.electronwill.nightconfig.core.utils.IntArrayList;
+import com.electronwill.nightconfig.core.utils.LongArrayList;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 
@@ -127,4 +137,151 @@ public class JsonParserTest {
 			new JsonParser().parseList("a");
 		});
 	}
+
+	@Test
+	public void parseInvalidNumber() {
+		String[] invalidNumbers = {"NaN", "Infinity", "-Infinity", "1d", "1f", "1.5d", "1e", "1.", "-", "1-2", "0x10"};
+		for (String number : invalidNumbers) {
+			assertThrows(ParsingException.class, () -> {
+				new JsonParser().parse("{\"a\": " + number + "}");
+			}, number);
+			assertThrows(ParsingException.class, () -> {
+				new JsonParser().parseList("[" + number + "]");
+			}, number);
+		}
+	}
+
+	@Test
+	public void readLazy() {
+		Config config = new JsonParser().setLazy(true).parse(new File("test.json"), FileNotFoundAction.THROW_ERROR);
+		Util.checkExample(config);
+		assertEquals(new JsonParser().parse(new File("test.json"), FileNotFoundAction.THROW_ERROR), config);
+	}
+
+	@Test
+	public void readLazyToStampedConfig() {
+		File f = new File("test.json");
+		StampedConfig config = new StampedConfig(InMemoryCommentedFormat.defaultInstance(), HashMap::new);
+		new JsonParser().setLazy(true).parse(f, config, ParsingMode.REPLACE, FileNotFoundAction.THROW_ERROR);
+		Util.checkExample(config);
+		assertTrue(config.getRaw("config") instanceof StampedConfig);
+	}
+
+	@Test
+	public void readCompactNumberArrays() {
+		String json = "{\"ints\": [1, -2, 3], \"longs\": [1, 10000000000], \"doubles\": [0.5, 1e3],"
+			+ " \"mixed\": [1, 2.5, 10000000000], \"empty\": [], \"nested\": [[1, 2], [3.5]]}";
+		Config config = new JsonParser().setCompactNumberArrays(true).parse(json);
+		IntArrayList ints = config.get("ints");
+		assertEquals(List.of(1, -2, 3), ints);
+		assertEquals(-2, ints.getInt(1));
+		assertEquals(List.of(1L, 10000000000L), config.<LongArrayList>get("longs"));
+		assertEquals(List.of(0.5, 1000.0), config.<DoubleArrayList>get("doubles"));
+		assertEquals(List.of(1, 2.5, 10000000000L), config.get("mixed"));
+		assertEquals(List.of(), config.get("empty"));
+		List<List<?>> nested = config.get("nested");
+		assertTrue(nested.get(0) instanceof IntArrayList);
+		assertTrue(nested.get(1) instanceof DoubleArrayList);
+
+		Config notCompact = new JsonParser().parse(json);
+		assertEquals(JsonFormat.minimalInstance().createWriter().writeToString(notCompact),
+			JsonFormat.minimalInstance().createWriter().writeToString(config));
+		assertEquals(JsonFormat.fancyInstance().createWriter().writeToString(notCompact),
+			JsonFormat.fancyInstance().createWriter().writeToString(config));
+
+		Config lazy = new JsonParser().setCompactNumberArrays(true).setLazy(true).parse(json);
+		assertEquals(config, lazy);
+	}
+
+	@Test
+	public void lazyValuesAreParsedOnFirstAccess() {
+		String json = "{\"a\": {\"b\": {\"c\": 1}, \"list\": [1, 2.5, \"s\\\"\"]}, \"b\": true}";
+		Config config = new JsonParser().setLazy(true).parse(json);
+		LazyJsonConfig a = config.getRaw("a");
+		assertFalse(a.isParsed());
+		assertEquals(true, config.get("b"));
+		assertFalse(a.isParsed());
+
+		assertEquals(1, config.<Integer>get("a.b.c"));
+		assertTrue(a.isParsed());
+		LazyJsonList list = config.getRaw("a.list");
+		assertFalse(list.isParsed());
+		assertEquals(List.of(1, 2.5, "s\""), list);
+		assertTrue(list.isParsed());
+	}
+
+	@Test
+	public void parseInvalidLazy() {
+		JsonParser parser = new JsonParser().setLazy(true);
+		assertThrows(ParsingException.class, () -> {
+			parser.parse("{}abcdefg");
+		});
+		assertThrows(ParsingException.class, () -> {
+			parser.parse("{\"a\": [1, 2}");
+		});
+		assertThrows(ParsingException.class, () -> {
+			parser.parseList("{}");
+		});
+		// errors in nested values are detected when the value is parsed
+		Config config = parser.parse("{\"a\": {\"b\" 1}}");
+		assertThrows(ParsingException.class, () -> {
+			config.get("a.b");
+		});
+	}
+
+	@Test
+	public void readUnmodifiable() throws IOException {
+		UnmodifiableConfig config = new JsonParser().parseUnmodifiable(Files.readString(Path.of("test.json")));
+		Config expected = new JsonParser().parse(new File("test.json"), FileNotFoundAction.THROW_ERROR);
+		assertEquals(expected, config);
+		assertEquals(config, expected);
+		assertEquals(expected.hashCode(), config.hashCode());
+		assertTrue(config.isNull("null"));
+		assertEquals(123456, config.getInt("int"));
+		assertEquals(expected.<List<?>>get("list"), config.get("list"));
+		assertEquals("value", config.get(List.of("dots.in.key")));
+		assertEquals(true, config.get("config.boolean"));
+		assertFalse(config.contains("config.missing"));
+		assertFalse(config.contains("int.sub"));
+
+		// the tape can be written like any config
+		String written = new MinimalJsonWriter().writeToString(config);
+		assertEquals(expected, new JsonParser().parse(written));
+
+		// a null value isn't equal to a missing key
+		UnmodifiableConfig withNull = new JsonParser().parseUnmodifiable("{\"a\": null}");
+		assertNotEquals(withNull, new JsonParser().parse("{\"b\": 1}"));
+		assertEquals(withNull, new JsonParser().parse("{\"a\": null}"));
+	}
+
+	@Test
+	public void parseInvalidUnmodifiable() {
+		assertThrows(ParsingException.class, () -> {
+			new JsonParser().parseUnmodifiable("{}abcdefg");
+		});
+		assertThrows(ParsingException.class, () -> {
+			new JsonParser().parseUnmodifiable("[]");
+		});
+		assertThrows(ParsingException.class, () -> {
+			new JsonParser().parseUnmodifiable("{\"a\": {\"b\" 1}}");
+		});
+		assertThrows(ParsingException.class, () -> {
+			new JsonParser().parseUnmodifiable("{\"a\": [1, 2}");
+		});
+		assertThrows(ParsingException.class, () -> {
+			new JsonParser().parseUnmodifiable("");
+		});
+		String[] invalidValues = {"1-2", "1e", "--1", ".5", "1.", "1d", "NaN", "\"\\u12G4\"", "\"\\u12\"", "\"\\x\""};
+		for (String value : invalidValues) {
+			assertThrows(ParsingException.class, () -> {
+				new JsonParser().parseUnmodifiable("{\"a\": " + value + "}");
+			}, value);
+			assertThrows(ParsingException.class, () -> {
+				new JsonParser().parseUnmodifiable("{\"a\": [" + value + "]}");
+			}, value);
+		}
+		assertEquals("\u00e9", new JsonParser().parseUnmodifiable("{\"a\": \"\\u00E9\"}").get("a"));
+		assertEquals(-1.5e-3, new JsonParser().parseUnmodifiable("{\"a\": -1.5e-3}").<Double>get("a"));
+		assertTrue(new JsonParser().setEmptyDataAccepted(true).parseUnmodifiable("").isEmpty());
+	}
 }
@@ -3,6 +3,7 @@ package com.electronwill.nightconfig.toml;
 import com.electronwill.nightconfig.core.CommentedConfig;
 import com.electronwill.nightconfig.core.io.CharacterInput;
 import com.electronwill.nightconfig.core.io.ParsingException;
+import com.electronwill.nightconfig.core.utils.NumberArrayList;
 import java.util.List;
 
 /**
@@ -15,11 +16,12 @@ final class ArrayParser {
 	 */
 	static List<?> parse(CharacterInput input, TomlParser parser, CommentedConfig parentConfig) {
 		List<Object> list = parser.createList();
+		NumberArrayList.Builder numbers = parser.isCompactNumberArrays() ? new NumberArrayList.Builder(list) : null;
 		boolean first = true;
 		while (true) {
 			char firstChar = Toml.readUsefulChar(input);
 			if (firstChar == ']') {// End of the array
-				return list;// handle [] and [v1,v2,... ,]
+				return (numbers == null) ? list : numbers.build();// handle [] and [v1,v2,... ,]
 			} else if (firstChar == ',') {// Handles [,] or [v1,,] which are both invalid
 				if (first) {
 					throw new ParsingException("Invalid array: [,]");
@@ -28,10 +30,14 @@ final class ArrayParser {
 				}
 			}
 			Object value = ValueParser.parse(input, firstChar, parser, parentConfig);
-			list.add(value);
+			if (numbers == null) {
+				list.add(value);
+			} else {
+				numbers.add(value);
+			}
 			char after = Toml.readUsefulChar(input);
 			if (after == ']') {// End of the array
-				return list;
+				return (numbers == null) ? list : numbers.build();
 			}
 			if (after != ',') {// Invalid character between two elements of the array
 				throw new ParsingException("Invalid separator '" + after + "' in array.");
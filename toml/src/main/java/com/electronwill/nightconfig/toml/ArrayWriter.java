@@ -1,6 +1,8 @@
 package com.electronwill.nightconfig.toml;
 
 import com.electronwill.nightconfig.core.io.CharacterOutput;
+import com.electronwill.nightconfig.core.utils.DoubleArrayList;
+import com.electronwill.nightconfig.core.utils.NumberArrayList;
 import java.util.Iterator;
 import java.util.List;
 
@@ -25,14 +27,21 @@ final class ArrayWriter {
 			writer.increaseIndentLevel();
 		}
 		Iterator<?> iterator = values.iterator();
-		for (boolean hasNext = iterator.hasNext(); hasNext; ) {
+		NumberArrayList<?> numbers = (values instanceof NumberArrayList) ? (NumberArrayList<?>)values : null;
+		int index = 0;
+		for (boolean hasNext = true; hasNext; ) {
 			if (indent) {
 				writer.writeNewline(output);
 				writer.writeIndent(output);
 			}
-			Object value = iterator.next();
-			ValueWriter.write(value, output, writer);
-			if ((hasNext = iterator.hasNext())) {
+			if (numbers == null) {
+				ValueWriter.write(iterator.next(), output, writer);
+				hasNext = iterator.hasNext();
+			} else {
+				writeNumber(numbers, index++, output);
+				hasNext = index < numbers.size();
+			}
+			if (hasNext) {
 				if (indent) {
 					output.write(',');
 				} else {
@@ -48,5 +57,16 @@ final class ArrayWriter {
 		output.write(']');
 	}
 
+	/**
+	 * Writes an element of a primitive-backed list, without boxing it.
+	 */
+	private static void writeNumber(NumberArrayList<?> numbers, int index, CharacterOutput output) {
+		if (numbers instanceof DoubleArrayList) {
+			ValueWriter.writeDouble(((DoubleArrayList)numbers).getDouble(index), output);
+		} else {
+			output.write(numbers.elementToString(index));
+		}
+	}
+
 	private ArrayWriter() {}
 }
\ No newline at end of file
@@ -20,7 +20,17 @@ final class StringWriter {
 
 	static void writeBasic(String str, CharacterOutput output) {
 		output.write('\"');
-		str.codePoints().forEach(c -> writeBasicChar(c, output));
+		final int length = str.length();
+		int runStart = 0;// the characters between runStart and i don't need to be escaped
+		for (int i = 0; i < length; i++) {
+			char c = str.charAt(i);
+			if (c == '\\' || c == '\"' || Toml.isControlChar(c)) {
+				output.write(str, runStart, i - runStart);
+				writeEscapedChar(c, output);
+				runStart = i + 1;
+			}
+		}
+		output.write(str, runStart, length - runStart);
 		output.write('\"');
 	}
 
@@ -29,37 +39,37 @@ final class StringWriter {
 		for (Iterator<String> it = splitLines(str).iterator(); it.hasNext();) {
 			String line = it.next();
 			writer.writeNewline(output);
-			char[] chars = line.toCharArray();
-			for (int i = 0; i < chars.length; i++) {
-				char c = chars[i];
+			final int length = line.length();
+			int runStart = 0;
+			for (int i = 0; i < length; i++) {
+				char c = line.charAt(i);
 				switch (c) {
 					case '\"': {
-						if ((i+1 == chars.length && !it.hasNext()) || ((i+1 < chars.length && chars[i+1] == '\"') && (i+2 < chars.length && chars[i+2] == '\"') && (i+3 < chars.length))) {
+						if ((i+1 == length && !it.hasNext()) || ((i+1 < length && line.charAt(i+1) == '\"') && (i+2 < length && line.charAt(i+2) == '\"') && (i+3 < length))) {
+							output.write(line, runStart, i - runStart);
 							output.write(ESCAPED_QUOTE);
-						} else {
-							output.write(c);
+							runStart = i + 1;
 						}
 						break;
 					}
 					case '\b':
-						output.write(ESCAPED_B);
-						break;
 					case '\f':
-						output.write(ESCAPED_F);
-						break;
 					case '\\':
-						output.write(ESCAPED_BACKSLASH);
+						output.write(line, runStart, i - runStart);
+						writeEscapedChar(c, output);
+						runStart = i + 1;
 						break;
 					default: {
 						if (c != '\t' && c != '\n' && c != '\r' && Toml.isControlChar(c)) {
+							output.write(line, runStart, i - runStart);
 							output.write(escapeUnicode(c));
-						} else {
-							output.write(Character.toChars(c));
+							runStart = i + 1;
 						}
 						break;
 					}
 				}
 			}
+			output.write(line, runStart, length - runStart);
 		}
 		output.write("\"\"\"");
 	}
@@ -76,7 +86,10 @@ final class StringWriter {
 		output.write("'''");
 	}
 
-	private static void writeBasicChar(int c, CharacterOutput output) {
+	/**
+	 * Writes the escaped form of a character that can't appear as is in a basic string.
+	 */
+	private static void writeEscapedChar(char c, CharacterOutput output) {
 		switch (c) {
 			case '\\':
 				output.write(ESCAPED_BACKSLASH);
@@ -100,11 +113,7 @@ final class StringWriter {
 				output.write(ESCAPED_T);
 				break;
 			default: {
-				if (Toml.isControlChar(c)) {
-					output.write(escapeUnicode(c));
-				} else {
-					output.write(Character.toChars(c));
-				}
+				output.write(escapeUnicode(c));
 				break;
 			}
 		}
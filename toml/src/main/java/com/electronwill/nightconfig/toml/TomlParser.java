@@ -5,6 +5,10 @@ import com.electronwill.nightconfig.core.Config;
 import com.electronwill.nightconfig.core.Config.Entry;
 import com.electronwill.nightconfig.core.ConfigFormat;
 import com.electronwill.nightconfig.core.io.*;
+import com.electronwill.nightconfig.core.utils.DoubleArrayList;
+import com.electronwill.nightconfig.core.utils.IntArrayList;
+import com.electronwill.nightconfig.core.utils.LongArrayList;
+import com.electronwill.nightconfig.core.utils.NumberArrayList;
 
 import java.io.Reader;
 import java.util.*;
@@ -20,6 +24,7 @@ public final class TomlParser implements ConfigParser<CommentedConfig> {
 	private int initialStringBuilderCapacity = 16, initialListCapacity = 10;
 	private boolean lenientBareKeys = false;
 	private boolean lenientSeparators = false;
+	private boolean compactNumberArrays = false;
 	private boolean configWasEmpty = false;
 	private ParsingMode parsingMode;
 	private TomlVersion tomlVersion = TomlVersion.v1_0;
@@ -88,7 +93,7 @@ public final class TomlParser implements ConfigParser<CommentedConfig> {
 				CommentedConfig table = TableParser.parseNormal(commentedConfig, input, this);
 				Object shouldBeArrayOfTables = parentConfig.get(lastPath);
 				List<CommentedConfig> arrayOfTables;
-				if (shouldBeArrayOfTables instanceof List) {
+				if (shouldBeArrayOfTables instanceof List && !(shouldBeArrayOfTables instanceof NumberArrayList)) {
 					arrayOfTables = (List<CommentedConfig>)shouldBeArrayOfTables;
 					arrayOfTables.add(table);
 				} else if (shouldBeArrayOfTables == null) {
@@ -213,6 +218,25 @@ public final class TomlParser implements ConfigParser<CommentedConfig> {
 		return this;
 	}
 
+	public boolean isCompactNumberArrays() {
+		return compactNumberArrays;
+	}
+
+	/**
+	 * Makes this parser store the arrays of numbers in primitive-backed lists (if true), or in
+	 * normal lists (if false - this is the default). In compact mode, the arrays that only
+	 * contain integers are parsed to an {@link IntArrayList} or a {@link LongArrayList}, and
+	 * the arrays that only contain floats are parsed to a {@link DoubleArrayList}. This uses
+	 * much less memory than boxed numbers, but these lists only accept elements of their type.
+	 *
+	 * @param compactNumberArrays true for primitive-backed lists, false for normal lists
+	 * @return this parser
+	 */
+	public TomlParser setCompactNumberArrays(boolean compactNumberArrays) {
+		this.compactNumberArrays = compactNumberArrays;
+		return this;
+	}
+
 	@Override
 	public ConfigFormat<CommentedConfig> getFormat() {
 		return TomlFormat.instance();
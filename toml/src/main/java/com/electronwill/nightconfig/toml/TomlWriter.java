@@ -4,7 +4,10 @@ import com.electronwill.nightconfig.core.UnmodifiableConfig;
 import com.electronwill.nightconfig.core.io.*;
 import com.electronwill.nightconfig.core.utils.StringUtils;
 
+import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
@@ -37,8 +40,28 @@ public final class TomlWriter implements ConfigWriter {
 	// --- Writer's methods ---
 	@Override
 	public void write(UnmodifiableConfig config, Writer writer) {
+		BufferedWriterOutput output = new BufferedWriterOutput(writer);
+		write(config, output);
+		output.flush();
+	}
+
+	/**
+	 * Writes a configuration. The UTF-8 charset is handled without an intermediate
+	 * {@link Writer}, see {@link Utf8Output}.
+	 */
+	@Override
+	public void write(UnmodifiableConfig config, OutputStream output, Charset charset) {
+		if (!StandardCharsets.UTF_8.equals(charset)) {
+			ConfigWriter.super.write(config, output, charset);
+			return;
+		}
+		try (Utf8Output out = new Utf8Output(output)) {
+			write(config, out);
+		}
+	}
+
+	private void write(UnmodifiableConfig config, CharacterOutput output) {
 		currentIndentLevel = -1;//-1 to make the root entries not indented
-		CharacterOutput output = new WriterOutput(writer);
 		TableWriter.writeTopLevel(config, new ArrayList<>(), output, this);
 	}
 
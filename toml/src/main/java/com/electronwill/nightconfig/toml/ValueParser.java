@@ -131,8 +131,8 @@ final class ValueParser {
 
 			try {
 				return Utils.parseDouble(numberChars);
-			} catch (NumberFormatException ex) {
-				throw new ParsingException("Invalid floating-point value: " + valueChars);
+			} catch (ParsingException ex) {
+				throw new ParsingException("Invalid floating-point value: " + valueChars, ex);
 			}
 		}
 
@@ -191,9 +191,10 @@ final class ValueParser {
 	 */
 	@SuppressWarnings("resource")
 	private static CharsWrapper simplifyNumber(CharsWrapper numberChars, int base) {
-		CharsWrapper.Builder builder = new CharsWrapper.Builder(16);
+		CharsWrapper.Builder builder = null;// only created if there are underscores to remove
 		int previousChar = -1;
-		for (char c : numberChars) {
+		for (int i = 0; i < numberChars.length(); i++) {
+			char c = numberChars.get(i);
 			switch (c) {
 				case '_': {
 					if (previousChar == -1) {
@@ -203,6 +204,10 @@ final class ValueParser {
 								"Invalid underscore in number (each underscore must be surrounded by digits): "
 										+ numberChars);
 					}
+					if (builder == null) {
+						builder = new CharsWrapper.Builder(16);
+						builder.append(numberChars, 0, i);
+					}
 					break;
 				}
 				case '.': {
@@ -213,16 +218,24 @@ final class ValueParser {
 								"Invalid decimal point in number (each decimal point must be surrounded by digits): "
 										+ numberChars);
 					}
-					builder.append(c);
+					if (builder != null) {
+						builder.append(c);
+					}
 					break;
 				}
 				case 'e': {
 					if (base != 16 && !isDigitChar((char)previousChar, base)) {
 						throw new ParsingException("Invalid sequence " + previousChar + "e in number" + numberChars);
 					}
+					if (builder != null) {
+						builder.append(c);
+					}
+					break;
 				}
 				default: {
-					builder.append(c);
+					if (builder != null) {
+						builder.append(c);
+					}
 					break;
 				}
 			}
@@ -235,7 +248,7 @@ final class ValueParser {
 		} else if (previousChar == 'e' || previousChar == 'E' || previousChar == '-' || previousChar == '+') {
 			throw new ParsingException("Invalid trailing '" + previousChar + "' in number: " + numberChars);
 		}
-		return builder.build();
+		return (builder == null) ? numberChars : builder.build();
 	}
 
 	private static Boolean parseFalse(CharacterInput input) {
@@ -45,12 +45,8 @@ final class ValueWriter {
 			TemporalWriter.write((Temporal)value, output);
 		} else if (value instanceof Float || value instanceof Double) {// Floating-point number
 			double d = ((Number)value).doubleValue();
-			if (Double.isNaN(d)) {
-				output.write("nan");
-			} else if (d == Double.POSITIVE_INFINITY) {
-				output.write("+inf");
-			} else if (d == Double.NEGATIVE_INFINITY) {
-				output.write("-inf");
+			if (Double.isNaN(d) || Double.isInfinite(d)) {
+				writeDouble(d, output);
 			} else {
 				output.write(value.toString());
 			}
@@ -63,5 +59,20 @@ final class ValueWriter {
 		}
 	}
 
+	/**
+	 * Writes a double, including the special values nan, +inf and -inf.
+	 */
+	static void writeDouble(double d, CharacterOutput output) {
+		if (Double.isNaN(d)) {
+			output.write("nan");
+		} else if (d == Double.POSITIVE_INFINITY) {
+			output.write("+inf");
+		} else if (d == Double.NEGATIVE_INFINITY) {
+			output.write("-inf");
+		} else {
+			output.write(Double.toString(d));
+		}
+	}
+
 	private ValueWriter() {}
 }
@@ -1,7 +1,10 @@
 package com.electronwill.nightconfig.toml;
 
 import com.electronwill.nightconfig.core.CommentedConfig;
+import com.electronwill.nightconfig.core.CompiledConfigSpec;
+import com.electronwill.nightconfig.core.ConfigSpec;
 import com.electronwill.nightconfig.core.InMemoryCommentedFormat;
+import com.electronwill.nightconfig.core.SpecBoundConfig;
 import com.electronwill.sharedtests.TestEnum;
 import com.electronwill.nightconfig.core.concurrent.StampedConfig;
 import com.electronwill.nightconfig.core.concurrent.SynchronizedConfig;
@@ -9,6 +12,9 @@ import com.electronwill.nightconfig.core.file.FileNotFoundAction;
 import com.electronwill.nightconfig.core.io.AdditionalCharsets;
 import com.electronwill.nightconfig.core.io.ParsingException;
 import com.electronwill.nightconfig.core.io.ParsingMode;
+import com.electronwill.nightconfig.core.utils.DoubleArrayList;
+import com.electronwill.nightconfig.core.utils.IntArrayList;
+import com.electronwill.nightconfig.core.utils.LongArrayList;
 
 import org.junit.jupiter.api.Test;
 
@@ -92,6 +98,25 @@ public class TomlParserTest {
 		return parser.parse(new ByteArrayInputStream(bytes), charset);
 	}
 
+	@Test
+	public void readCompactNumberArrays() {
+		String toml = "ints = [1, 2, 3]\nlongs = [1, 10_000_000_000]\ndoubles = [0.5, inf, nan]\n"
+			+ "mixed = [1, 2.5]\nstrings = [\"a\"]\nempty = []";
+		CommentedConfig config = new TomlParser().setCompactNumberArrays(true).parse(toml);
+		IntArrayList ints = config.get("ints");
+		assertEquals(Arrays.asList(1, 2, 3), ints);
+		assertEquals(3, ints.getInt(2));
+		assertEquals(Arrays.asList(1L, 10000000000L), config.<LongArrayList>get("longs"));
+		assertEquals(Arrays.asList(0.5, Double.POSITIVE_INFINITY, Double.NaN), config.<DoubleArrayList>get("doubles"));
+		assertEquals(Arrays.asList(1, 2.5), config.get("mixed"));
+		assertEquals(Arrays.asList("a"), config.get("strings"));
+		assertEquals(Arrays.asList(), config.get("empty"));
+
+		CommentedConfig notCompact = new TomlParser().parse(toml);
+		assertEquals(new TomlWriter().writeToString(notCompact), new TomlWriter().writeToString(config));
+		assertThrows(ParsingException.class, () -> new TomlParser().setCompactNumberArrays(true).parse("a = [1]\n[[a]]"));
+	}
+
 	@Test
 	public void readOfficialExample() {
 		File f = new File("example.toml");
@@ -150,6 +175,42 @@ public class TomlParserTest {
 		assertEquals(parsed, reparsed);
 	}
 
+	@Test
+	public void readWriteReadAgainSpecBound() {
+		ConfigSpec spec = new ConfigSpec();
+		spec.define("title", "");
+		spec.defineInRange("server.port", 8080, 1, 65535);
+		spec.defineInRange("server.ratio", 0.5, 0.0, 1.0);
+		spec.define("server.enabled", false);
+		spec.defineList("server.hosts", Arrays.asList("localhost"), e -> e instanceof String);
+		CompiledConfigSpec compiled = spec.compile();
+		String toml = "title = \"spec-bound\"\n"
+				+ "extra = 1\n"
+				+ "[server]\n"
+				+ "# the port\n"
+				+ "port = 25565\n"
+				+ "ratio = 0.75\n"
+				+ "enabled = true\n"
+				+ "hosts = [\"a\", \"b\"]\n"
+				+ "[server.extra]\n"
+				+ "key = \"value\"\n";
+
+		SpecBoundConfig parsed = compiled.createConfig(TomlFormat.instance());
+		new TomlParser().parse(new StringReader(toml), parsed, ParsingMode.REPLACE);
+		assertEquals(25565, parsed.getInt(parsed.slot("server.port")));
+		assertEquals(0.75, parsed.getDouble(parsed.slot("server.ratio")));
+		assertTrue(parsed.getBoolean(parsed.slot("server.enabled")));
+		assertEquals(" the port", parsed.getComment("server.port"));
+		assertEquals(new TomlParser().parse(new StringReader(toml)), parsed);
+
+		String written = new TomlWriter().writeToString(parsed);
+		SpecBoundConfig reparsed = compiled.createConfig(TomlFormat.instance());
+		new TomlParser().parse(new StringReader(written), reparsed, ParsingMode.REPLACE);
+		assertEquals(parsed, reparsed);
+		assertEquals(" the port", reparsed.getComment("server.port"));
+		assertEquals("value", reparsed.get("server.extra.key"));
+	}
+
 	@Test
 	public void readInvalidString() {
 		assertThrows(ParsingException.class, this::testAlreadyDefinedTable);
@@ -5,6 +5,7 @@ import com.electronwill.nightconfig.core.ConfigFormat;
 import com.electronwill.nightconfig.core.file.FormatDetector;
 import com.electronwill.nightconfig.core.io.ConfigParser;
 import com.electronwill.nightconfig.core.io.ConfigWriter;
+import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.Yaml;
 
 import java.util.List;
@@ -17,7 +18,7 @@ import java.util.function.Supplier;
  */
 public final class YamlFormat implements ConfigFormat<Config> {
 	private static final ThreadLocal<YamlFormat> LOCAL_DEFAULT_FORMAT = ThreadLocal.withInitial(
-			() -> new YamlFormat(new Yaml()));
+			() -> new YamlFormat(new Yaml(), new LoaderOptions()));
 
 	/**
 	 * @return the default instance of HoconFormat
@@ -27,13 +28,28 @@ public final class YamlFormat implements ConfigFormat<Config> {
 	}
 
 	/**
-	 * Creates an instance of YamlFormat, set with the specified Yaml object.
+	 * Creates an instance of YamlFormat, set with the specified Yaml object. The parsers of this
+	 * format use the default {@link LoaderOptions}, see
+	 * {@link #configuredInstance(Yaml, LoaderOptions)} if the Yaml object has other options.
 	 *
 	 * @param yaml the Yaml object to use
 	 * @return a new instance of YamlFormat
 	 */
 	public static YamlFormat configuredInstance(Yaml yaml) {
-		return new YamlFormat(yaml);
+		return new YamlFormat(yaml, new LoaderOptions());
+	}
+
+	/**
+	 * Creates an instance of YamlFormat, set with the specified Yaml object and the options it
+	 * has been created with. The parsers of this format apply these options to the conversion of
+	 * the YAML nodes to config values.
+	 *
+	 * @param yaml          the Yaml object to use
+	 * @param loaderOptions the LoaderOptions of the Yaml object
+	 * @return a new instance of YamlFormat
+	 */
+	public static YamlFormat configuredInstance(Yaml yaml, LoaderOptions loaderOptions) {
+		return new YamlFormat(yaml, loaderOptions);
 	}
 
 	/**
@@ -64,9 +80,11 @@ public final class YamlFormat implements ConfigFormat<Config> {
 	}
 
 	final Yaml yaml;
+	final LoaderOptions loaderOptions;
 
-	private YamlFormat(Yaml yaml) {
+	private YamlFormat(Yaml yaml, LoaderOptions loaderOptions) {
 		this.yaml = yaml;
+		this.loaderOptions = loaderOptions;
 	}
 
 	@Override
@@ -2,17 +2,38 @@ package com.electronwill.nightconfig.yaml;
 
 import com.electronwill.nightconfig.core.Config;
 import com.electronwill.nightconfig.core.ConfigFormat;
+import com.electronwill.nightconfig.core.UnmodifiableConfig;
 import com.electronwill.nightconfig.core.concurrent.ConcurrentConfig;
 import com.electronwill.nightconfig.core.io.ConfigParser;
 import com.electronwill.nightconfig.core.io.ParsingException;
 import com.electronwill.nightconfig.core.io.ParsingMode;
+import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.emitter.Emitter;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
 
+import java.io.IOException;
 import java.io.Reader;
-import java.util.List;
-import java.util.Map;
+import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A YAML parser that uses the snakeYaml library.
@@ -21,6 +42,7 @@ import java.util.Collections;
  */
 public final class YamlParser implements ConfigParser<Config> {
 	private final Yaml yaml;
+	private final LoaderOptions loaderOptions;
 	private final ConfigFormat<Config> configFormat;
 
 	public YamlParser() {
@@ -29,16 +51,28 @@ public final class YamlParser implements ConfigParser<Config> {
 
 	public YamlParser(YamlFormat configFormat) {
 		this.yaml = configFormat.yaml;
+		this.loaderOptions = configFormat.loaderOptions;
 		this.configFormat = configFormat;
 	}
 
+	/**
+	 * Creates a parser that uses the given Yaml object and the default {@link LoaderOptions}.
+	 * If the Yaml object has been created with other options, use
+	 * {@link #YamlParser(Yaml, LoaderOptions)} instead.
+	 */
 	public YamlParser(Yaml yaml) {
-		this.yaml = yaml;
-		this.configFormat = YamlFormat.configuredInstance(yaml);
+		this(YamlFormat.configuredInstance(yaml));
+	}
+
+	/**
+	 * Creates a parser that uses the given Yaml object and the options it has been created with.
+	 */
+	public YamlParser(Yaml yaml, LoaderOptions options) {
+		this(YamlFormat.configuredInstance(yaml, options));
 	}
 
 	public YamlParser(LoaderOptions options) {
-		this(new Yaml(options));
+		this(new Yaml(options), options);
 	}
 
 	@Override
@@ -55,40 +89,211 @@ public final class YamlParser implements ConfigParser<Config> {
 
 	@Override
 	public void parse(Reader reader, Config destination, ParsingMode parsingMode) {
+		// the document is composed before locking the destination
+		Node root;
+		try {
+			root = emptyToNull(yaml.compose(reader));
+		} catch (Exception e) {
+			throw new ParsingException("YAML parsing failed", e);
+		}
+		checkRoot(root);
 		if (destination instanceof ConcurrentConfig) {
 			((ConcurrentConfig)destination).bulkUpdate(view -> {
-				parse(reader, view, parsingMode);
+				fill(root, view, parsingMode);
 			});
-			return;
+		} else {
+			fill(root, destination, parsingMode);
 		}
+	}
 
+	/**
+	 * Parses a stream of YAML documents, separated by {@code ---}. The documents are read lazily,
+	 * one at a time, when the returned Stream is consumed: the memory usage is bounded by the size
+	 * of the biggest document, not by the size of the whole input. An empty document, like the
+	 * one after a trailing {@code ---}, gives an empty config.
+	 * <p>
+	 * The returned Stream is sequential, but it can be made parallel to process the parsed
+	 * documents in parallel. In that case, the documents are still parsed sequentially, and some
+	 * of them are buffered while waiting to be processed.
+	 * <p>
+	 * The reader must stay open until the Stream has been consumed, and is not closed by this
+	 * method.
+	 *
+	 * @param reader the reader to parse
+	 * @return a Stream of the parsed documents, each in a new Config
+	 * @throws ParsingException if an error occurs, when the Stream is consumed
+	 */
+	public Stream<Config> parseAll(Reader reader) {
+		Iterator<Node> nodes;
+		try {
+			nodes = yaml.composeAll(reader).iterator();
+		} catch (Exception e) {
+			throw new ParsingException("YAML parsing failed", e);
+		}
+		Iterator<Config> documents = new Iterator<Config>() {
+			@Override
+			public boolean hasNext() {
+				try {
+					return nodes.hasNext();
+				} catch (Exception e) {
+					throw new ParsingException("YAML parsing failed", e);
+				}
+			}
+
+			@Override
+			public Config next() {
+				Node root;
+				try {
+					root = emptyToNull(nodes.next());
+				} catch (Exception e) {
+					throw new ParsingException("YAML parsing failed", e);
+				}
+				checkRoot(root);
+				Config config = configFormat.createConfig();
+				fill(root, config, ParsingMode.REPLACE);
+				return config;
+			}
+		};
+		int characteristics = Spliterator.ORDERED | Spliterator.NONNULL;
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(documents, characteristics), false);
+	}
+
+	/**
+	 * Parses a stream of YAML documents, separated by {@code ---}, and gives each document to
+	 * the action as soon as it has been parsed. This is equivalent to
+	 * {@code parseAll(reader).forEach(action)}.
+	 *
+	 * @param reader the reader to parse
+	 * @param action the action to execute on each parsed document
+	 * @throws ParsingException if an error occurs
+	 */
+	public void parseAll(Reader reader, Consumer<? super Config> action) {
+		parseAll(reader).forEach(action);
+	}
+
+	/**
+	 * Returns null if the node is the root of an empty document, which SnakeYAML composes as a
+	 * null scalar in a stream of documents. Such a document gives an empty config, like an empty
+	 * input.
+	 */
+	private static Node emptyToNull(Node root) {
+		if (root instanceof ScalarNode && root.getTag().equals(Tag.NULL)) {
+			return null;
+		}
+		return root;
+	}
+
+	private static void checkRoot(Node root) {
+		if (root != null && !(root instanceof MappingNode && root.getTag().equals(Tag.MAP))) {
+			throw new ParsingException("Invalid YAML document: the root must be a mapping, not a " + root.getNodeId());
+		}
+	}
+
+	private void fill(Node root, Config destination, ParsingMode parsingMode) {
 		try {
-			@SuppressWarnings("unchecked")
-			Map<String, Object> map = yaml.loadAs(reader, Map.class);
 			parsingMode.prepareParsing(destination);
-			for (Map.Entry<String, Object> entry : map.entrySet()) {
-				parsingMode.put(destination, Collections.singletonList(entry.getKey()), convertValue(entry.getValue(), destination));
+			if (root != null) {
+				new NodeConverter().convertMapping((MappingNode)root, destination, parsingMode);
 			}
+		} catch (ParsingException e) {
+			throw e;
 		} catch (Exception e) {
 			throw new ParsingException("YAML parsing failed", e);
 		}
 	}
 
-	@SuppressWarnings("unchecked")
-	private static Object convertValue(Object v, Config parentConfig) {
-		if (v instanceof Map) {
-			Map<String, Object> map = (Map<String, Object>)v;
-			Config sub = parentConfig.createSubConfig();
-			for (Map.Entry<String, Object> entry : map.entrySet()) {
-				sub.set(Collections.singletonList(entry.getKey()), convertValue(entry.getValue(), sub));
+	/**
+	 * Converts the nodes composed by SnakeYAML to config values, without creating intermediate
+	 * Maps. The scalars with a standard tag are constructed by a {@link SafeConstructor}, the
+	 * other nodes (like {@code !!set} or custom tags) are constructed by the Yaml object. The
+	 * LoaderOptions of the parser apply to the conversion, like they apply to the composition.
+	 */
+	private final class NodeConverter extends SafeConstructor {
+		NodeConverter() {
+			super(loaderOptions);
+		}
+
+		void convertMapping(MappingNode node, Config config, ParsingMode parsingMode) {
+			List<NodeTuple> merged = null;
+			Set<String> keys = loaderOptions.isAllowDuplicateKeys() ? null : new HashSet<>();
+			for (NodeTuple tuple : node.getValue()) {
+				Node keyNode = tuple.getKeyNode();
+				if (keyNode.getTag().equals(Tag.MERGE)) {
+					if (merged == null) {
+						merged = new ArrayList<>(1);
+					}
+					merged.add(tuple);
+					continue;
+				}
+				List<String> key = Collections.singletonList(String.valueOf(convert(keyNode, config)));
+				if (keys != null && !keys.add(key.get(0))) {
+					throw new ParsingException("Invalid YAML mapping: duplicate key " + key.get(0));
+				}
+				parsingMode.put(config, key, convert(tuple.getValueNode(), config));
 			}
-			return sub;
-		} else if (v instanceof List) {
-			List<Object> list = (List<Object>)v;
-			list.replaceAll(e -> convertValue(e, parentConfig));
-			return list;
-		} else {
-			return v;
+			if (merged != null) {
+				// merge keys (<<) don't override the explicit keys, nor the previous merges
+				for (NodeTuple tuple : merged) {
+					Node value = tuple.getValueNode();
+					if (value instanceof SequenceNode) {
+						for (Node element : ((SequenceNode)value).getValue()) {
+							mergeMapping(element, config);
+						}
+					} else {
+						mergeMapping(value, config);
+					}
+				}
+			}
+		}
+
+		private void mergeMapping(Node node, Config config) {
+			if (!(node instanceof MappingNode)) {
+				throw new ParsingException("Invalid YAML merge key: expected a mapping, got a " + node.getNodeId());
+			}
+			Config merged = config.createSubConfig();
+			convertMapping((MappingNode)node, merged, ParsingMode.REPLACE);
+			for (UnmodifiableConfig.Entry entry : merged.entrySet()) {
+				List<String> key = Collections.singletonList(entry.getKey());
+				if (!config.contains(key)) {
+					config.set(key, entry.getRawValue());
+				}
+			}
+		}
+
+		Object convert(Node node, Config parent) {
+			Tag tag = node.getTag();
+			if (node instanceof MappingNode && tag.equals(Tag.MAP)) {
+				Config sub = parent.createSubConfig();
+				convertMapping((MappingNode)node, sub, ParsingMode.REPLACE);
+				return sub;
+			} else if (node instanceof SequenceNode && tag.equals(Tag.SEQ)) {
+				List<Node> elements = ((SequenceNode)node).getValue();
+				List<Object> list = new ArrayList<>(elements.size());
+				for (Node element : elements) {
+					list.add(convert(element, parent));
+				}
+				return list;
+			} else if (node instanceof ScalarNode && Tag.standardTags.contains(tag)) {
+				return constructObject(node);
+			} else {
+				return constructWithYaml(node);
+			}
+		}
+
+		/**
+		 * Constructs a node with the Yaml object, which may have a custom constructor.
+		 */
+		private Object constructWithYaml(Node node) {
+			StringWriter sw = new StringWriter();
+			Emitter emitter = new Emitter(sw, new DumperOptions());
+			try {
+				for (Event event : yaml.serialize(node)) {
+					emitter.emit(event);
+				}
+			} catch (IOException e) {
+				throw new ParsingException("Failed to construct the YAML node " + node, e);
+			}
+			return yaml.load(sw.toString());
 		}
 	}
 }
\ No newline at end of file
@@ -1,15 +1,22 @@
 package com.electronwill.nightconfig.yaml;
 
 import com.electronwill.nightconfig.core.UnmodifiableConfig;
-import com.electronwill.nightconfig.core.concurrent.StampedConfig;
+import com.electronwill.nightconfig.core.concurrent.ConcurrentConfig;
 import com.electronwill.nightconfig.core.io.ConfigWriter;
 import com.electronwill.nightconfig.core.io.WritingException;
-import com.electronwill.nightconfig.core.utils.TransformingList;
-import com.electronwill.nightconfig.core.utils.TransformingMap;
 import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.DumperOptions.FlowStyle;
 import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
 
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -22,6 +29,7 @@ import static com.electronwill.nightconfig.core.NullObject.NULL_OBJECT;
  */
 public final class YamlWriter implements ConfigWriter {
 	private final Yaml yaml;
+	private FlowStyle defaultFlowStyle;
 
 	public YamlWriter() {
 		this(new Yaml());
@@ -37,37 +45,83 @@ public final class YamlWriter implements ConfigWriter {
 
 	@Override
 	public void write(UnmodifiableConfig config, Writer writer) {
-		if (config instanceof StampedConfig) {
-			// StampedConfig does not support valueMap(), use the accumulator
-			config = ((StampedConfig)config).newAccumulatorCopy();
-		}
 		try {
-			Map<String, Object> unwrappedMap = unwrap(config);
-			yaml.dump(unwrappedMap, writer);
+			Node root;
+			if (config instanceof ConcurrentConfig) {
+				// builds the nodes under the read lock, without copying the config first
+				root = ((ConcurrentConfig)config).bulkRead(this::representConfig);
+			} else {
+				root = representConfig(config);
+			}
+			yaml.serialize(root, writer);
 		} catch (Exception e) {
 			throw new WritingException("YAML writing failed", e);
 		}
 	}
 
-	private static Map<String, Object> unwrap(UnmodifiableConfig config) {
-		return new TransformingMap<>(config.valueMap(), YamlWriter::unwrap, v -> v, v -> v);
+	/**
+	 * Builds the YAML nodes of a config directly from its entries. The values that are neither
+	 * configs nor lists are represented by the Yaml object.
+	 */
+	private Node representConfig(UnmodifiableConfig config) {
+		List<NodeTuple> tuples = new ArrayList<>(config.size());
+		boolean allPlain = true;
+		for (UnmodifiableConfig.Entry entry : config.entrySet()) {
+			Node key = yaml.represent(entry.getKey());
+			Node value = represent(entry.getRawValue());
+			allPlain &= isPlain(key) && isPlain(value);
+			tuples.add(new NodeTuple(key, value));
+		}
+		return new MappingNode(Tag.MAP, tuples, flowStyle(allPlain));
 	}
 
-	private static List<Object> unwrapList(List<Object> list) {
-		return new TransformingList<>(list, YamlWriter::unwrap, v -> v, v -> v);
+	private Node representList(List<?> list) {
+		List<Node> nodes = new ArrayList<>(list.size());
+		boolean allPlain = true;
+		for (Object element : list) {
+			Node node = represent(element);
+			allPlain &= isPlain(node);
+			nodes.add(node);
+		}
+		return new SequenceNode(Tag.SEQ, nodes, flowStyle(allPlain));
 	}
 
-	@SuppressWarnings("unchecked")
-	private static Object unwrap(Object value) {
+	private Node represent(Object value) {
 		if (value instanceof UnmodifiableConfig) {
-			return unwrap((UnmodifiableConfig)value);
+			return representConfig((UnmodifiableConfig)value);
+		} else if (value instanceof List) {
+			return representList((List<?>)value);
+		} else if (value == NULL_OBJECT) {
+			return yaml.represent(null);
 		}
-		if (value instanceof List) {
-			return unwrapList((List<Object>)value);
+		return yaml.represent(value);
+	}
+
+	private static boolean isPlain(Node node) {
+		return node instanceof ScalarNode && ((ScalarNode)node).isPlain();
+	}
+
+	/**
+	 * Chooses the flow style of a collection like the SnakeYAML Representer does: with the
+	 * default AUTO style, the collections that only contain plain scalars use the flow style.
+	 */
+	private FlowStyle flowStyle(boolean allPlain) {
+		if (defaultFlowStyle == null) {
+			// The DumperOptions of the Yaml object aren't accessible: ask the Representer.
+			Map<String, Object> probe = Collections.singletonMap("a", Collections.singletonMap("b", "c"));
+			MappingNode outer = (MappingNode)yaml.represent(probe);
+			MappingNode inner = (MappingNode)outer.getValue().get(0).getValueNode();
+			if (outer.getFlowStyle() == FlowStyle.FLOW) {
+				defaultFlowStyle = FlowStyle.FLOW;
+			} else if (inner.getFlowStyle() == FlowStyle.BLOCK) {
+				defaultFlowStyle = FlowStyle.BLOCK;
+			} else {
+				defaultFlowStyle = FlowStyle.AUTO;
+			}
 		}
-		if (value == NULL_OBJECT) {
-			return null;
+		if (defaultFlowStyle != FlowStyle.AUTO) {
+			return defaultFlowStyle;
 		}
-		return value;
+		return allPlain ? FlowStyle.FLOW : FlowStyle.BLOCK;
 	}
 }
\ No newline at end of file
@@ -3,13 +3,20 @@ package com.electronwill.nightconfig.yaml;
 import com.electronwill.sharedtests.BasicTestEnum;
 import com.electronwill.nightconfig.core.Config;
 import com.electronwill.nightconfig.core.UnmodifiableConfig;
+import com.electronwill.nightconfig.core.concurrent.StampedConfig;
+import com.electronwill.nightconfig.core.io.ParsingException;
 import com.electronwill.nightconfig.core.io.ParsingMode;
 import com.electronwill.nightconfig.core.io.WritingMode;
 import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
 
 import java.io.File;
+import java.io.StringReader;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static com.electronwill.nightconfig.core.NullObject.NULL_OBJECT;
 import static com.electronwill.nightconfig.core.file.FileNotFoundAction.THROW_ERROR;
@@ -70,4 +77,79 @@ public class YamlTest {
 		assertTrue(f.supportsType(Double.class));
 		assertTrue(f.supportsType(List.class));
 	}
+
+	@Test
+	public void testAliasesAndMergeKeys() {
+		String yaml = "base: &base {x: 1, y: [a, b]}\n"
+			+ "derived:\n"
+			+ "  <<: *base\n"
+			+ "  x: 2\n"
+			+ "copy: *base\n";
+		Config parsed = YamlFormat.defaultInstance().createParser().parse(yaml);
+		assertEquals(1, parsed.<Integer>get("base.x"));
+		assertEquals(2, parsed.<Integer>get("derived.x"));
+		assertEquals(Arrays.asList("a", "b"), parsed.get("derived.y"));
+		assertEquals(parsed.<Config>get("base"), parsed.get("copy"));
+		assertNotSame(parsed.get("base"), parsed.get("copy"));
+		assertTrue(parsed.get("derived") instanceof Config);
+	}
+
+	@Test
+	public void testParseAllEmptyDocuments() {
+		YamlParser parser = new YamlParser();
+		List<Config> documents = parser.parseAll(new StringReader("a: 1\n---\nb: 2\n---\n"))
+			.collect(Collectors.toList());
+		assertEquals(3, documents.size());
+		assertEquals(1, documents.get(0).<Integer>get("a"));
+		assertEquals(2, documents.get(1).<Integer>get("b"));
+		assertTrue(documents.get(2).isEmpty());
+
+		documents = parser.parseAll(new StringReader("---\n---\n")).collect(Collectors.toList());
+		assertEquals(2, documents.size());
+		assertTrue(documents.get(0).isEmpty());
+		assertTrue(documents.get(1).isEmpty());
+		assertTrue(parser.parse("---\n").isEmpty());
+	}
+
+	@Test
+	public void testLoaderOptions() {
+		String yaml = "a: 1\nsub: {b: 2, b: 3}\n";
+		Config parsed = new YamlParser().parse(yaml);
+		assertEquals(3, parsed.<Integer>get("sub.b"));
+
+		LoaderOptions options = new LoaderOptions();
+		options.setAllowDuplicateKeys(false);
+		assertThrows(ParsingException.class, () -> new YamlParser(options).parse(yaml));
+		YamlFormat format = YamlFormat.configuredInstance(new Yaml(options), options);
+		assertThrows(ParsingException.class, () -> format.createParser().parse(yaml));
+	}
+
+	@Test
+	public void testWriteStampedConfig() {
+		StampedConfig config = new StampedConfig(YamlFormat.defaultInstance(), LinkedHashMap::new);
+		config.set("a", Arrays.asList(1, 2));
+		config.set("sub.b", "text");
+		String written = YamlFormat.defaultInstance().createWriter().writeToString(config);
+		assertEquals("a: [1, 2]\nsub: {b: text}\n", written);
+	}
+
+	@Test
+	public void testParseAll() {
+		StringBuilder yaml = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			yaml.append("---\nindex: ").append(i).append("\nname: doc").append(i).append('\n');
+		}
+		YamlParser parser = new YamlParser();
+		List<Config> documents = parser.parseAll(new StringReader(yaml.toString())).collect(Collectors.toList());
+		assertEquals(100, documents.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i, documents.get(i).<Integer>get("index"));
+			assertEquals("doc" + i, documents.get(i).get("name"));
+		}
+		int sum = parser.parseAll(new StringReader(yaml.toString()))
+			.parallel()
+			.mapToInt(c -> c.<Integer>get("index"))
+			.sum();
+		assertEquals(99 * 100 / 2, sum);
+	}
 }